@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Runs the jar built by `mvn -Pfast-startup package` with an AppCDS archive
+# of the classes loaded while starting, so they are mapped in instead of
+# being read, verified and parsed again on every start.
+#
+#   scripts/fast-startup.sh train [jar]            writes <jar>.jsa from a training start on in-memory H2
+#   scripts/fast-startup.sh run [jar] [app args]   starts the app (without the archive if there is none)
+#
+# A CDS archive only fits the JVM and classpath that wrote it: train on the
+# machine or image that runs the app, e.g. as the last build step, and keep
+# target/lib next to the jar. FAST_STARTUP_AOT=true also runs the Spring AOT
+# code, for a jar built with -Dspring-boot.aot.skip=false; that build fixed the
+# profiles (prod), so the app must run with SPRING_PROFILES_ACTIVE=prod.
+# JAVA_OPTS is passed to java.
+set -euo pipefail
+
+JAR_PADRAO="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)/target/mtor-evolution-2.0.0.jar"
+
+# App arguments for a start without the real database: in-memory H2 with its own schema, scratch dirs
+args_h2() {
+  local dir="$1"
+  ARGS_H2=(
+    --spring.profiles.active=prod
+    "--spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1"
+    --spring.datasource.driver-class-name=org.h2.Driver
+    --spring.datasource.username=sa
+    --spring.datasource.password=
+    --spring.jpa.hibernate.ddl-auto=create
+    --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
+    --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect
+    --storage.exames.path="$dir/exames"
+    --audit.path="$dir/auditoria"
+    --cors.allowed-origins=http://localhost
+  )
+}
+
+# JVM options of a fast start of the given jar
+opcoes_rapidas() {
+  local jar="$1"
+  OPCOES_RAPIDAS=()
+  if [[ -s "$jar.jsa" ]]; then
+    OPCOES_RAPIDAS+=(-XX:SharedArchiveFile="$jar.jsa")
+  fi
+  if [[ "${FAST_STARTUP_AOT:-false}" == "true" ]]; then
+    OPCOES_RAPIDAS+=(-Dspring.aot.enabled=true)
+  fi
+}
+
+treinar() {
+  local jar="${1:-$JAR_PADRAO}"
+  local dir
+  dir="$(mktemp -d)"
+  args_h2 "$dir"
+  rm -f "$jar.jsa"
+  opcoes_rapidas "$jar"
+  # Exits once the context is refreshed; the archive is written on exit
+  java ${JAVA_OPTS:-} "${OPCOES_RAPIDAS[@]}" -XX:ArchiveClassesAtExit="$jar.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$jar" "${ARGS_H2[@]}" > "$dir/treino.log" 2>&1 || true
+  rm -rf "$dir"
+  if [[ ! -s "$jar.jsa" ]]; then
+    echo "❌ CDS archive not written for $jar" >&2
+    return 1
+  fi
+  echo "✅ CDS archive $jar.jsa ($(du -h "$jar.jsa" | cut -f1))"
+}
+
+executar() {
+  local jar="$JAR_PADRAO"
+  if [[ $# -gt 0 && "$1" == *.jar ]]; then
+    jar="$1"
+    shift
+  fi
+  opcoes_rapidas "$jar"
+  exec java ${JAVA_OPTS:-} "${OPCOES_RAPIDAS[@]}" -jar "$jar" "$@"
+}
+
+if [[ "${BASH_SOURCE[0]}" == "$0" ]]; then
+  comando="${1:-}"
+  shift || true
+  case "$comando" in
+    train) treinar "$@" ;;
+    run) executar "$@" ;;
+    *) echo "usage: $0 train [jar] | run [jar] [app args]" >&2; exit 2 ;;
+  esac
+fi
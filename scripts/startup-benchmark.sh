@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+# Time to the first answered request, from starting the JVM to a 200 from
+# /api/v1/health, on in-memory H2 (no database round trips in the figure).
+# Measures a plain start and a fast start (see fast-startup.sh) of the jar
+# built by `mvn -Pfast-startup package`, and fails when the median fast
+# start is over the budget, or not below the given percentage of the median
+# plain start (the CDS archive was rejected, say). Run by
+# `mvn -Pfast-startup verify`.
+#
+#   scripts/startup-benchmark.sh [jar] [budget ms] [max % of plain] [runs per mode]
+#
+# STARTUP_PORT (default 18080) is the port used for the runs.
+set -euo pipefail
+
+source "$(dirname "${BASH_SOURCE[0]}")/fast-startup.sh"
+
+jar="${1:-$JAR_PADRAO}"
+orcamento="${2:-35000}"
+percentual="${3:-95}"
+execucoes="${4:-3}"
+porta="${STARTUP_PORT:-18080}"
+limite_ms=$(( orcamento * 4 > 180000 ? orcamento * 4 : 180000 ))
+
+# Milliseconds until the first 200, or the limit if it never came
+medir() {
+  local modo="$1"
+  local dir
+  dir="$(mktemp -d)"
+  args_h2 "$dir"
+  local opcoes=()
+  if [[ "$modo" == "rapido" ]]; then
+    opcoes_rapidas "$jar"
+    opcoes=("${OPCOES_RAPIDAS[@]}")
+  fi
+  local inicio agora
+  inicio=$(date +%s%3N)
+  java ${JAVA_OPTS:-} "${opcoes[@]}" -jar "$jar" "${ARGS_H2[@]}" --server.port="$porta" > "$dir/app.log" 2>&1 &
+  local pid=$!
+  local decorrido="$limite_ms"
+  while kill -0 "$pid" 2>/dev/null; do
+    agora=$(date +%s%3N)
+    if [[ $(( agora - inicio )) -ge $limite_ms ]]; then
+      break
+    fi
+    if [[ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$porta/api/v1/health" || true)" == "200" ]]; then
+      decorrido=$(( $(date +%s%3N) - inicio ))
+      break
+    fi
+    sleep 0.05
+  done
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  if [[ "$decorrido" -ge "$limite_ms" ]]; then
+    echo "   no answer; last lines of the log:" >&2
+    tail -20 "$dir/app.log" >&2
+  fi
+  rm -rf "$dir"
+  echo "$decorrido"
+}
+
+mediana() {
+  printf '%s\n' "$@" | sort -n | sed -n "$(( ($# + 1) / 2 ))p"
+}
+
+if [[ ! -f "$jar" ]]; then
+  echo "❌ $jar not found: build it with mvn -Pfast-startup package" >&2
+  exit 1
+fi
+
+treinar "$jar"
+
+declare -A medianas
+for modo in padrao rapido; do
+  tempos=()
+  for ((i = 1; i <= execucoes; i++)); do
+    tempos+=("$(medir "$modo")")
+  done
+  medianas[$modo]="$(mediana "${tempos[@]}")"
+  echo "⏱️ $modo: median ${medianas[$modo]} ms to the first request (runs: ${tempos[*]})"
+done
+
+if [[ "${medianas[rapido]}" -gt "$orcamento" ]]; then
+  echo "❌ Fast startup regressed: ${medianas[rapido]} ms, budget $orcamento ms" >&2
+  exit 1
+fi
+if [[ $(( medianas[rapido] * 100 )) -ge $(( medianas[padrao] * percentual )) ]]; then
+  echo "❌ Fast startup no faster: ${medianas[rapido]} ms against ${medianas[padrao]} ms plain, at most $percentual% expected" >&2
+  exit 1
+fi
+echo "✅ Fast startup within budget: ${medianas[rapido]} ms of $orcamento ms (plain start ${medianas[padrao]} ms)"
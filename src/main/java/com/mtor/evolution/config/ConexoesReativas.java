@@ -0,0 +1,28 @@
+package com.mtor.evolution.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC pool of the reactive client API. Deliberately not a
+ * {@code ConnectionFactory} bean: Spring Boot would take one as a sign that
+ * the application is reactive-only and skip the JDBC DataSource and JPA.
+ */
+public class ConexoesReativas {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient cliente;
+
+    public ConexoesReativas(ConnectionPool pool) {
+        this.pool = pool;
+        this.cliente = DatabaseClient.create(pool);
+    }
+
+    public DatabaseClient cliente() {
+        return cliente;
+    }
+
+    public void fechar() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,35 @@
+package com.mtor.evolution.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's connections come from when sharding is on
+ * (see {@link ShardDataSource}). Unset means shard 0, which also holds
+ * everything that is not client data.
+ */
+public final class ContextoShard {
+
+    private static final ThreadLocal<Integer> ATUAL = new ThreadLocal<>();
+
+    private ContextoShard() {}
+
+    public static int atual() {
+        Integer shard = ATUAL.get();
+        return shard != null ? shard : 0;
+    }
+
+    // Only affects connections fetched inside, so must wrap the start of a transaction, not its middle
+    public static <T> T executar(int shard, Supplier<T> acao) {
+        Integer anterior = ATUAL.get();
+        ATUAL.set(shard);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior != null) {
+                ATUAL.set(anterior);
+            } else {
+                ATUAL.remove();
+            }
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package com.mtor.evolution.config;
 
+import com.mtor.evolution.model.Alimento;
+import com.mtor.evolution.model.AvaliacaoFisica;
 import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.Exame;
+import com.mtor.evolution.model.Exercicio;
+import com.mtor.evolution.model.Protocolo;
+import com.mtor.evolution.model.ResultadoExame;
 import com.mtor.evolution.model.User;
+import com.mtor.evolution.repository.AlimentoRepository;
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
 import com.mtor.evolution.repository.ClienteRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import com.mtor.evolution.repository.ProtocoloRepository;
 import com.mtor.evolution.repository.UserRepository;
+import com.mtor.evolution.service.ShardsCliente;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
@@ -11,6 +22,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 @Profile("!prod") // Only run in non-production environments
@@ -22,9 +37,24 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private AlimentoRepository alimentoRepository;
+
+    @Autowired
+    private ProtocoloRepository protocoloRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ShardsCliente shards;
+
     @Override
     public void run(String... args) throws Exception {
         // Check if we're using Supabase (production database)
@@ -41,6 +71,9 @@ public class DataInitializer implements CommandLineRunner {
         if (userRepository.count() == 0) {
             createDefaultUsers();
             createDefaultClientes();
+            createDefaultAvaliacoesEExames();
+            createDefaultAlimentos();
+            createDefaultProtocolos();
         }
     }
 
@@ -82,7 +115,7 @@ public class DataInitializer implements CommandLineRunner {
 
     private void createDefaultClientes() {
         try {
-            if (clienteRepository.count() == 0) {
+            if (shards.emTodos(shard -> clienteRepository.count()).stream().mapToLong(Long::longValue).sum() == 0) {
                 // Create some sample clients
                 Cliente cliente1 = new Cliente();
                 cliente1.setNome("João Silva");
@@ -93,7 +126,7 @@ public class DataInitializer implements CommandLineRunner {
                 cliente1.setModalidade("Musculação");
                 cliente1.setObjetivo("Ganho de massa muscular");
                 cliente1.setStatus(Cliente.Status.ATIVO);
-                clienteRepository.save(cliente1);
+                salvarCliente(cliente1);
 
                 Cliente cliente2 = new Cliente();
                 cliente2.setNome("Maria Santos");
@@ -104,7 +137,7 @@ public class DataInitializer implements CommandLineRunner {
                 cliente2.setModalidade("Crossfit");
                 cliente2.setObjetivo("Perda de peso e condicionamento");
                 cliente2.setStatus(Cliente.Status.ATIVO);
-                clienteRepository.save(cliente2);
+                salvarCliente(cliente2);
 
                 Cliente cliente3 = new Cliente();
                 cliente3.setNome("Pedro Oliveira");
@@ -115,7 +148,7 @@ public class DataInitializer implements CommandLineRunner {
                 cliente3.setModalidade("Natação");
                 cliente3.setObjetivo("Melhora da resistência cardiovascular");
                 cliente3.setStatus(Cliente.Status.ATIVO);
-                clienteRepository.save(cliente3);
+                salvarCliente(cliente3);
 
                 System.out.println("✅ Sample clients created");
             }
@@ -123,4 +156,185 @@ public class DataInitializer implements CommandLineRunner {
             System.err.println("❌ Error creating sample clients: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private void salvarCliente(Cliente cliente) {
+        if (shards.ativo()) {
+            cliente.setId(shards.novoIdCliente());
+        }
+        shards.noShardDoCliente(cliente.getId(), () -> clienteRepository.save(cliente));
+    }
+
+    private void createDefaultAvaliacoesEExames() {
+        try {
+            List<Optional<Cliente>> porShard = shards.emTodos(shard -> clienteRepository.findByEmail("joao.silva@email.com"));
+            for (int shard = 0; shard < porShard.size(); shard++) {
+                if (porShard.get(shard).isPresent()) {
+                    Cliente cliente = porShard.get(shard).get();
+                    shards.noShard(shard, () -> {
+                        createDefaultAvaliacaoEExame(cliente);
+                        return null;
+                    });
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error creating sample assessment and exam: " + e.getMessage());
+        }
+    }
+
+    // On the client's shard
+    private void createDefaultAvaliacaoEExame(Cliente cliente) {
+        if (avaliacaoFisicaRepository.count() > 0) {
+            return;
+        }
+
+        AvaliacaoFisica avaliacao = new AvaliacaoFisica(cliente, LocalDate.now().minusWeeks(4), AvaliacaoFisica.Tipo.INICIAL);
+        avaliacao.setStatus(AvaliacaoFisica.Status.REALIZADA);
+        avaliacao.setPeso(80.5);
+        avaliacao.setAltura(178.0);
+        avaliacao.setImc(25.4);
+        avaliacao.setPercentualGordura(18.2);
+        avaliacao.setMassaGorda(14.7);
+        avaliacao.setMassaMagra(65.8);
+        avaliacao.setMassaMuscular(38.1);
+        avaliacao.setFrequenciaCardiacaRepouso(62);
+        avaliacao.setFrequenciaCardiacaMaxima(188);
+        avaliacao.setPressaoSistolica(120);
+        avaliacao.setPressaoDiastolica(80);
+        avaliacao.setProximaAvaliacao(LocalDate.now().plusWeeks(8));
+        avaliacaoFisicaRepository.save(avaliacao);
+
+        Exame exame = new Exame(cliente, "Hemograma Completo", LocalDateTime.now().minusDays(3));
+        exame.setCategoria("Hematologia");
+        exame.setLaboratorio("Laboratório Central");
+        exame.setMedicoSolicitante("Dr. Carlos Medeiros - CRM 123456");
+        exame.setStatus(Exame.Status.CONCLUIDO);
+        exame.setDataResultado(LocalDateTime.now().minusDays(2));
+        exame.getResultados().add(new ResultadoExame("Hemoglobina", "14.2", "g/dL", "12.0 - 16.0", ResultadoExame.Status.NORMAL));
+        exame.getResultados().add(new ResultadoExame("Hematócrito", "42.5", "%", "36.0 - 48.0", ResultadoExame.Status.NORMAL));
+        exame.getResultados().add(new ResultadoExame("Leucócitos", "12500", "/mm³", "4000 - 11000", ResultadoExame.Status.ALTERADO));
+        exameRepository.save(exame);
+
+        System.out.println("✅ Sample assessment and exam created");
+    }
+
+    private void createDefaultAlimentos() {
+        try {
+            if (alimentoRepository.count() > 0) {
+                return;
+            }
+
+            Alimento frango = new Alimento("Peito de Frango Grelhado", "Proteínas", 165.0, 31.0, 0.0, 3.6);
+            frango.setFibras(0.0);
+            frango.setSodio(74.0);
+            frango.setSemGluten(true);
+            frango.setSemLactose(true);
+            alimentoRepository.save(frango);
+
+            Alimento arroz = new Alimento("Arroz Integral Cozido", "Carboidratos", 111.0, 2.6, 22.0, 0.9);
+            arroz.setFibras(1.8);
+            arroz.setIndiceGlicemico(68);
+            arroz.setVegetariano(true);
+            arroz.setVegano(true);
+            arroz.setSemGluten(true);
+            arroz.setSemLactose(true);
+            alimentoRepository.save(arroz);
+
+            Alimento batata = new Alimento("Batata Doce Cozida", "Carboidratos", 86.0, 1.6, 20.0, 0.1);
+            batata.setFibras(3.0);
+            batata.setIndiceGlicemico(63);
+            batata.setVegetariano(true);
+            batata.setVegano(true);
+            batata.setSemGluten(true);
+            batata.setSemLactose(true);
+            alimentoRepository.save(batata);
+
+            Alimento iogurte = new Alimento("Iogurte Natural Integral", "Laticínios", 61.0, 3.5, 4.7, 3.3);
+            iogurte.setMarca("Nestlé");
+            iogurte.setCodigoBarras("7891000100103");
+            iogurte.setCalcio(121.0);
+            iogurte.setAlergenos("lactose");
+            iogurte.setVegetariano(true);
+            iogurte.setSemGluten(true);
+            alimentoRepository.save(iogurte);
+
+            Alimento pao = new Alimento("Pão Francês", "Carboidratos", 300.0, 8.0, 58.6, 3.1);
+            pao.setFibras(2.3);
+            pao.setAlergenos("gluten");
+            pao.setVegetariano(true);
+            pao.setVegano(true);
+            alimentoRepository.save(pao);
+
+            System.out.println("✅ Sample foods created");
+        } catch (Exception e) {
+            System.err.println("❌ Error creating sample foods: " + e.getMessage());
+        }
+    }
+
+    private void createDefaultProtocolos() {
+        try {
+            if (protocoloRepository.count() > 0) {
+                return;
+            }
+
+            protocoloRepository.save(protocolo("Treino Iniciante - Corpo Inteiro",
+                    "Protocolo completo para iniciantes focado em movimentos básicos e desenvolvimento de força base.",
+                    Protocolo.Nivel.INICIANTE, 8, "Condicionamento geral e aprendizado de movimentos",
+                    new Exercicio("1", "Agachamento", "Pernas", 3, "12-15", 60),
+                    new Exercicio("2", "Flexão de braço", "Peito", 3, "8-12", 60),
+                    new Exercicio("3", "Prancha", "Core", 3, "30s", 45),
+                    new Exercicio("4", "Remada com elástico", "Costas", 3, "12-15", 60)));
+
+            protocoloRepository.save(protocolo("Hipertrofia Intermediária",
+                    "Programa de hipertrofia com divisão por grupos musculares para praticantes intermediários.",
+                    Protocolo.Nivel.INTERMEDIARIO, 12, "Ganho de massa muscular",
+                    new Exercicio("1", "Supino reto", "Peito", 4, "8-10", 90),
+                    new Exercicio("2", "Agachamento livre", "Pernas", 4, "8-10", 120),
+                    new Exercicio("3", "Puxada frontal", "Costas", 4, "10-12", 90),
+                    new Exercicio("4", "Desenvolvimento militar", "Ombros", 3, "8-10", 90)));
+
+            protocoloRepository.save(protocolo("Força Avançada - Powerlifting",
+                    "Protocolo avançado focado nos três movimentos do powerlifting com periodização.",
+                    Protocolo.Nivel.AVANCADO, 16, "Desenvolvimento de força máxima",
+                    new Exercicio("1", "Agachamento", "Pernas", 5, "3-5", 180),
+                    new Exercicio("2", "Supino", "Peito", 5, "3-5", 180),
+                    new Exercicio("3", "Levantamento terra", "Posterior", 3, "3-5", 240)));
+
+            protocoloRepository.save(protocolo("Condicionamento Funcional",
+                    "Treino funcional com movimentos compostos para melhora do condicionamento físico.",
+                    Protocolo.Nivel.INTERMEDIARIO, 10, "Condicionamento físico e mobilidade",
+                    new Exercicio("1", "Burpees", "Corpo inteiro", 4, "12", 45),
+                    new Exercicio("2", "Kettlebell swing", "Posterior", 4, "15", 60),
+                    new Exercicio("3", "Mountain climbers", "Core", 4, "30s", 30),
+                    new Exercicio("4", "Turkish get-up", "Corpo inteiro", 3, "5", 60)));
+
+            protocoloRepository.save(protocolo("Perda de Peso - HIIT",
+                    "Protocolo de alta intensidade combinando exercícios de força e cardio para queima de gordura.",
+                    Protocolo.Nivel.INICIANTE, 6, "Perda de peso e definição",
+                    new Exercicio("1", "Jumping jacks", "Cardio", 4, "40s", 20),
+                    new Exercicio("2", "Agachamento jump", "Pernas", 4, "40s", 20),
+                    new Exercicio("3", "Prancha dinâmica", "Core", 4, "40s", 20),
+                    new Exercicio("4", "Sprint no lugar", "Cardio", 4, "40s", 20)));
+
+            protocoloRepository.save(protocolo("Força e Potência - Atletas",
+                    "Programa específico para atletas focado em desenvolvimento de força e potência explosiva.",
+                    Protocolo.Nivel.AVANCADO, 14, "Performance atlética",
+                    new Exercicio("1", "Power clean", "Corpo inteiro", 5, "3", 150),
+                    new Exercicio("2", "Agachamento jump", "Pernas", 4, "5", 90),
+                    new Exercicio("3", "Arremesso de medicine ball", "Core", 4, "6", 90),
+                    new Exercicio("4", "Pliometria", "Pernas", 4, "8", 90)));
+
+            System.out.println("✅ Predefined protocols created");
+        } catch (Exception e) {
+            System.err.println("❌ Error creating predefined protocols: " + e.getMessage());
+        }
+    }
+
+    private static Protocolo protocolo(String nome, String descricao, Protocolo.Nivel nivel, int duracaoSemanas,
+                                       String objetivo, Exercicio... exercicios) {
+        Protocolo protocolo = new Protocolo(nome, descricao, Protocolo.Tipo.PRE_DEFINIDO, nivel, duracaoSemanas, objetivo);
+        protocolo.setExercicios(new ArrayList<>(List.of(exercicios)));
+        protocolo.setAnexos(new ArrayList<>());
+        protocolo.setLinks(new ArrayList<>());
+        return protocolo;
+    }
+}
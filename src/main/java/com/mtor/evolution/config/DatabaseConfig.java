@@ -1,11 +1,28 @@
 package com.mtor.evolution.config;
 
+import com.mtor.evolution.model.GeradorIdCliente;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -26,10 +43,11 @@ public class DatabaseConfig {
 
     @Bean
     @Profile("prod")
+    @ConditionalOnExpression("!${replica.enabled:false} and !${sharding.enabled:false}")
     public DataSource productionDataSource() {
         System.out.println("🔗 Configuring Supabase PostgreSQL connection");
         System.out.println("📍 Database URL: " + (databaseUrl != null ? databaseUrl.replaceAll(":[^:@]*@", ":***@") : "not set"));
-        
+
         return DataSourceBuilder
                 .create()
                 .url(databaseUrl)
@@ -38,4 +56,111 @@ public class DatabaseConfig {
                 .driverClassName(driverClassName)
                 .build();
     }
-}
\ No newline at end of file
+
+    // Read-only transactions go to the replica, see RoteamentoDataSource
+    @Bean(destroyMethod = "fechar")
+    @ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+    public RoteamentoDataSource roteamentoDataSource(Environment environment,
+                                                     @Value("${replica.url}") String replicaUrl,
+                                                     @Value("${replica.username:${spring.datasource.username}}") String replicaUsername,
+                                                     @Value("${replica.password:${spring.datasource.password}}") String replicaPassword,
+                                                     @Value("${replica.lag-query}") String consultaAtraso,
+                                                     @Value("${replica.max-lag-ms:5000}") long atrasoMaximoMs,
+                                                     @Value("${replica.read-your-writes-ms:5000}") long leituraPropriaMs,
+                                                     @Value("${replica.check-interval-ms:5000}") long intervaloVerificacaoMs) {
+        System.out.println("🔗 Routing read-only transactions to replica " + replicaUrl.replaceAll(":[^:@]*@", ":***@"));
+        HikariDataSource primaria = pool(environment, "primaria", databaseUrl, username, password, "spring.datasource.hikari");
+        HikariDataSource replica = pool(environment, "replica", replicaUrl, replicaUsername, replicaPassword, "replica.hikari");
+        return new RoteamentoDataSource(primaria, replica, consultaAtraso,
+                atrasoMaximoMs, leituraPropriaMs, intervaloVerificacaoMs);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    // Hibernate would otherwise hold a session's first connection (possibly the replica's)
+    // for the whole request under open-in-view, including later write transactions
+    @Bean
+    @ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer liberarConexaoAposTransacao() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // Non-blocking connections for the reactive client API, see ClienteReativoService
+    @Bean(destroyMethod = "fechar")
+    @ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+    public ConexoesReativas conexoesReativas(@Value("${reactive.url:}") String reactiveUrl,
+                                           @Value("${reactive.pool.max-size:20}") int tamanhoMaximo,
+                                           @Value("${sharding.enabled:false}") boolean shardingAtivo) {
+        if (shardingAtivo) {
+            throw new IllegalStateException("reactive.enabled e sharding.enabled não podem ser usados juntos");
+        }
+        // Same database as JDBC unless told otherwise: jdbc:postgresql://... becomes r2dbc:postgresql://...
+        String url = reactiveUrl.isBlank() ? databaseUrl.replaceFirst("^jdbc:", "r2dbc:") : reactiveUrl;
+        System.out.println("🔗 Reactive client API on " + url.replaceAll(":[^:@]*@", ":***@"));
+        ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConexoesReativas(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+                .maxSize(tamanhoMaximo)
+                .initialSize(Math.min(2, tamanhoMaximo))
+                .build()));
+    }
+
+    // Client data hash-partitioned across shards, see ShardsCliente; shard 0 is spring.datasource.url
+    @Bean(destroyMethod = "fechar")
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    public ShardDataSource shardDataSource(Environment environment,
+                                           @Value("${sharding.urls}") List<String> urls,
+                                           @Value("${replica.enabled:false}") boolean replicaAtiva) {
+        if (replicaAtiva) {
+            throw new IllegalStateException("sharding.enabled e replica.enabled não podem ser usados juntos");
+        }
+        System.out.println("🔗 Sharding client data across " + (urls.size() + 1) + " databases");
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(pool(environment, "shard-0", databaseUrl, username, password, "spring.datasource.hikari"));
+        for (String url : urls) {
+            shards.add(pool(environment, "shard-" + shards.size(), url.trim(), username, password, "spring.datasource.hikari"));
+        }
+        return new ShardDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    public DataSource shardedDataSource(ShardDataSource shardDataSource) {
+        return new LazyConnectionDataSourceProxy(shardDataSource);
+    }
+
+    // Same connection release as for the replica, so each transaction of a request picks its own shard;
+    // client ids are then allocated up front instead of by the database
+    @Bean
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer configurarSharding() {
+        return properties -> {
+            properties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            properties.put(GeradorIdCliente.SHARDING, "true");
+        };
+    }
+
+    private HikariDataSource pool(Environment environment, String nome, String url, String user, String senha,
+                                  String prefixoHikari) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(user)
+                .password(senha)
+                .driverClassName(driverClassName)
+                .build();
+        Binder.get(environment).bind(prefixoHikari, Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        return pool;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mtor.evolution.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class OtimizadorConfig {
+
+    @Value("${nutrition.optimizer.threads:0}")
+    private int threads;
+
+    @Value("${nutrition.optimizer.queue-capacity:256}")
+    private int queueCapacity;
+
+    // Substitution candidates are CPU-bound and short; one thread per core by default,
+    // and candidates that do not fit in the queue are skipped rather than delayed.
+    @Bean(name = "otimizadorExecutor")
+    public ThreadPoolTaskExecutor otimizadorExecutor() {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("otimizador-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
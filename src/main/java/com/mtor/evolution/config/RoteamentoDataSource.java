@@ -0,0 +1,201 @@
+package com.mtor.evolution.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends connections for read-only transactions to the replica and
+ * everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched after the transaction's read-only flag is
+ * known.
+ *
+ * <p>A read-only transaction still goes to the primary when the replica is
+ * unhealthy (lag check failing or above {@code replica.max-lag-ms}, or a
+ * connection could not be opened) and, for
+ * {@code replica.read-your-writes-ms} after a user's write transaction
+ * committed, for that user. The latter is per instance: a read served by
+ * another instance right after a write may still be behind.
+ */
+public class RoteamentoDataSource extends AbstractDataSource implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final HikariDataSource primaria;
+    private final HikariDataSource replica;
+    private final JdbcTemplate replicaJdbc;
+    private final String consultaAtraso;
+    private final long atrasoMaximoMs;
+    private final long leituraPropriaMs;
+    private final long intervaloVerificacaoMs;
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "monitor-replica");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Usuario -> until when their reads stay on the primary
+    private final Map<String, Long> escritasRecentes = new ConcurrentHashMap<>();
+
+    // Unhealthy until the first lag check passes
+    private volatile boolean replicaSaudavel;
+    private volatile long atrasoMs = -1;
+    private volatile String ultimoErro;
+    private volatile LocalDateTime ultimaVerificacao;
+    private final AtomicLong leiturasReplica = new AtomicLong();
+    private final AtomicLong leiturasPrimaria = new AtomicLong();
+    private final AtomicLong escritas = new AtomicLong();
+    private final AtomicLong quedas = new AtomicLong();
+
+    public RoteamentoDataSource(HikariDataSource primaria, HikariDataSource replica, String consultaAtraso,
+                                long atrasoMaximoMs, long leituraPropriaMs, long intervaloVerificacaoMs) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.replicaJdbc.setQueryTimeout((int) Math.max(1, intervaloVerificacaoMs / 1000));
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        this.leituraPropriaMs = leituraPropriaMs;
+        this.intervaloVerificacaoMs = intervaloVerificacaoMs;
+    }
+
+    // Start checking once startup (schema validation, DataInitializer) ran against the primary
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        monitor.scheduleWithFixedDelay(this::verificarReplica, 0, intervaloVerificacaoMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void fechar() {
+        monitor.shutdownNow();
+        replica.close();
+        primaria.close();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (usarReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                leiturasReplica.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                marcarIndisponivel(e.getMessage());
+            }
+        }
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    private boolean usarReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                escritas.incrementAndGet();
+                registrarEscritaAposCommit();
+            }
+            return false;
+        }
+        if (!replicaSaudavel || escreveuRecentemente()) {
+            leiturasPrimaria.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean escreveuRecentemente() {
+        String usuario = usuarioAtual();
+        if (usuario == null) {
+            return false;
+        }
+        Long ate = escritasRecentes.get(usuario);
+        if (ate == null) {
+            return false;
+        }
+        if (ate < System.currentTimeMillis()) {
+            escritasRecentes.remove(usuario, ate);
+            return false;
+        }
+        return true;
+    }
+
+    private void registrarEscritaAposCommit() {
+        String usuario = usuarioAtual();
+        if (usuario == null || leituraPropriaMs <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escritasRecentes.put(usuario, System.currentTimeMillis() + leituraPropriaMs);
+            }
+        });
+    }
+
+    private static String usuarioAtual() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.isAuthenticated() ? autenticacao.getName() : null;
+    }
+
+    private void verificarReplica() {
+        try {
+            Number atraso = replicaJdbc.queryForObject(consultaAtraso, Number.class);
+            atrasoMs = atraso != null ? atraso.longValue() : 0;
+            boolean saudavel = atrasoMs <= atrasoMaximoMs;
+            if (saudavel != replicaSaudavel) {
+                System.out.println(saudavel
+                        ? "✅ Read replica healthy, lag " + atrasoMs + " ms"
+                        : "❌ Read replica lagging " + atrasoMs + " ms, reads go to the primary");
+            }
+            replicaSaudavel = saudavel;
+            ultimoErro = saudavel ? null : "Atraso de " + atrasoMs + " ms";
+        } catch (RuntimeException e) {
+            marcarIndisponivel(e.getMessage());
+        }
+        ultimaVerificacao = LocalDateTime.now();
+        long agora = System.currentTimeMillis();
+        escritasRecentes.values().removeIf(ate -> ate < agora);
+    }
+
+    private void marcarIndisponivel(String erro) {
+        if (replicaSaudavel) {
+            quedas.incrementAndGet();
+            System.err.println("❌ Read replica unavailable, reads go to the primary: " + erro);
+        }
+        replicaSaudavel = false;
+        ultimoErro = erro;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("saudavel", replicaSaudavel);
+        status.put("atrasoMs", atrasoMs);
+        status.put("atrasoMaximoMs", atrasoMaximoMs);
+        status.put("ultimaVerificacao", ultimaVerificacao);
+        status.put("ultimoErro", ultimoErro);
+        status.put("leiturasReplica", leiturasReplica.get());
+        status.put("leiturasPrimaria", leiturasPrimaria.get());
+        status.put("escritas", escritas.get());
+        status.put("quedas", quedas.get());
+        status.put("usuariosLeituraPropria", escritasRecentes.size());
+        return status;
+    }
+}
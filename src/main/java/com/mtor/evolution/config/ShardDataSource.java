@@ -0,0 +1,67 @@
+package com.mtor.evolution.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One pool per shard; connections come from the shard set in
+ * {@link ContextoShard}. Like {@link RoteamentoDataSource} it must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so a transaction started before the shard is chosen still lands on it.
+ */
+public class ShardDataSource extends AbstractDataSource {
+
+    private final List<HikariDataSource> shards;
+
+    public ShardDataSource(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public void fechar() {
+        shards.forEach(HikariDataSource::close);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return shard(ContextoShard.atual()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    public int numeroShards() {
+        return shards.size();
+    }
+
+    // Direct access for work outside JPA: id allocation, the bucket map and resharding copies
+    public HikariDataSource shard(int shard) {
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalArgumentException("Shard inexistente: " + shard);
+        }
+        return shards.get(shard);
+    }
+
+    public List<Map<String, Object>> status() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            HikariPoolMXBean pool = shards.get(i).getHikariPoolMXBean();
+            Map<String, Object> shard = new LinkedHashMap<>();
+            shard.put("shard", i);
+            shard.put("url", shards.get(i).getJdbcUrl().replaceAll(":[^:@/]*@", ":***@"));
+            shard.put("conexoesAtivas", pool != null ? pool.getActiveConnections() : 0);
+            shard.put("conexoesOciosas", pool != null ? pool.getIdleConnections() : 0);
+            status.add(shard);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,101 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.AlimentoDto;
+import com.mtor.evolution.service.AlimentoService;
+import com.mtor.evolution.service.CatalogoAlimentos;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/alimentos")
+public class AlimentoController {
+
+    private static final int LIMITE_MAXIMO = 100;
+
+    @Autowired
+    private AlimentoService alimentoService;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    // Autocomplete: every word of q matches a word prefix of the name or brand, accents ignored
+    @GetMapping
+    public ResponseEntity<List<AlimentoDto>> buscar(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(defaultValue = "false") boolean vegetariano,
+            @RequestParam(defaultValue = "false") boolean vegano,
+            @RequestParam(defaultValue = "false") boolean semGluten,
+            @RequestParam(defaultValue = "false") boolean semLactose,
+            @RequestParam(defaultValue = "20") int limit) {
+        int limite = Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+        return ResponseEntity.ok()
+                .header("X-Catalogo-Versao", Long.toString(catalogo.snapshot().getVersao()))
+                .body(alimentoService.buscar(q, categoria, vegetariano, vegano, semGluten, semLactose, limite));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AlimentoDto> getAlimentoById(@PathVariable Long id) {
+        return alimentoService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/codigo-barras/{codigo}")
+    public ResponseEntity<AlimentoDto> getAlimentoByCodigoBarras(@PathVariable String codigo) {
+        return alimentoService.findByCodigoBarras(codigo)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<AlimentoDto> createAlimento(@Valid @RequestBody AlimentoDto alimentoDto) {
+        try {
+            return ResponseEntity.ok(alimentoService.save(alimentoDto));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<AlimentoDto> updateAlimento(@PathVariable Long id, @Valid @RequestBody AlimentoDto alimentoDto) {
+        try {
+            return alimentoService.update(id, alimentoDto)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<Void> deleteAlimento(@PathVariable Long id) {
+        if (alimentoService.delete(id)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/catalogo")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCatalogoStatus() {
+        return ResponseEntity.ok(catalogo.status());
+    }
+
+    // Synchronous rebuild, e.g. after a bulk import straight into the table
+    @PostMapping("/catalogo/recarregar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> recarregarCatalogo() {
+        catalogo.recarregar();
+        return ResponseEntity.ok(catalogo.status());
+    }
+}
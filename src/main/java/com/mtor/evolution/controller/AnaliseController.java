@@ -0,0 +1,66 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.AnaliseCoorteDto;
+import com.mtor.evolution.service.AnalisesCoorte;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/analises")
+public class AnaliseController {
+
+    @Autowired
+    private AnalisesCoorte analises;
+
+    // e.g. ?metrica=gordura&semanas=12&por=modalidade,faixaEtaria
+    @GetMapping("/composicao")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<AnaliseCoorteDto> getComposicao(@RequestParam(defaultValue = "gordura") String metrica,
+                                                          @RequestParam(defaultValue = "12") int semanas,
+                                                          @RequestParam(defaultValue = "14") int tolerancia,
+                                                          @RequestParam(required = false) List<String> por) {
+        return responder(() -> analises.composicao(metrica, semanas, tolerancia, por));
+    }
+
+    @GetMapping("/retencao")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<AnaliseCoorteDto> getRetencao(@RequestParam(required = false) List<String> por) {
+        return responder(() -> analises.retencao(por));
+    }
+
+    @GetMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(analises.status());
+    }
+
+    // Refresh now instead of waiting for the schedule; completo=true re-reads everything
+    @PostMapping("/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> atualizarSnapshot(@RequestParam(defaultValue = "false") boolean completo) {
+        analises.agendar(completo);
+        return ResponseEntity.accepted().build();
+    }
+
+    private static ResponseEntity<AnaliseCoorteDto> responder(Supplier<Optional<AnaliseCoorteDto>> consulta) {
+        try {
+            return consulta.get()
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
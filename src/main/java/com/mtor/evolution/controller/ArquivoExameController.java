@@ -0,0 +1,222 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.ArquivoExameDto;
+import com.mtor.evolution.dto.EventoAuditoria;
+import com.mtor.evolution.model.ArquivoExame;
+import com.mtor.evolution.service.ArquivoExameService;
+import com.mtor.evolution.service.AuditService;
+import com.mtor.evolution.service.RecursosAuditados;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/exames/{exameId}/arquivos")
+public class ArquivoExameController {
+
+    private static final String RECURSO = RecursosAuditados.ARQUIVO_EXAME;
+
+    // Below this size a plain channel copy is cheaper than handing the file to the connector
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    // Served inline with their own type; anything else (text/html, image/svg+xml...) is a download
+    private static final Set<MediaType> TIPOS_INLINE = Set.of(
+            MediaType.APPLICATION_PDF, MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG, MediaType.IMAGE_GIF,
+            MediaType.valueOf("image/webp"));
+
+    @Autowired
+    private ArquivoExameService arquivoExameService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private RecursosAuditados recursosAuditados;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<List<ArquivoExameDto>> getArquivos(@PathVariable String exameId) {
+        return ResponseEntity.ok(arquivoExameService.findByExame(exameId));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<ArquivoExameDto> uploadMultipart(@PathVariable String exameId,
+                                                           @RequestParam("file") MultipartFile file) throws IOException {
+        Optional<Long> clienteId = recursosAuditados.clienteDoExame(exameId);
+        if (clienteId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Storage failures (disk full, unreadable spool file) propagate as 500
+        try {
+            ArquivoExameDto arquivo = arquivoExameService.store(
+                    exameId, file.getOriginalFilename(), file.getContentType(), file.getInputStream());
+            auditService.registrar(RECURSO, arquivo.getId(), clienteId.get(), EventoAuditoria.Acao.CRIADO);
+            return ResponseEntity.ok(arquivo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<ArquivoExameDto> uploadStream(@PathVariable String exameId,
+                                                        @RequestParam String nome,
+                                                        @RequestParam(required = false) String contentType,
+                                                        HttpServletRequest request) throws IOException {
+        Optional<Long> clienteId = recursosAuditados.clienteDoExame(exameId);
+        if (clienteId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            ArquivoExameDto arquivo = arquivoExameService.store(exameId, nome, contentType, request.getInputStream());
+            auditService.registrar(RECURSO, arquivo.getId(), clienteId.get(), EventoAuditoria.Acao.CRIADO);
+            return ResponseEntity.ok(arquivo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}/conteudo")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public void download(@PathVariable String exameId, @PathVariable Long id,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ArquivoExame> found = arquivoExameService.findById(exameId, id);
+        if (found.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        ArquivoExame arquivo = found.get();
+        auditService.registrar(RECURSO, arquivo.getId().toString(),
+                recursosAuditados.clienteDoExame(exameId).orElse(null), EventoAuditoria.Acao.VISUALIZADO);
+        Path blob = arquivoExameService.blobPath(arquivo.getChecksum());
+        long length;
+        try {
+            length = Files.size(blob);
+        } catch (NoSuchFileException e) {
+            System.err.println("❌ Attachment " + arquivo.getId() + " has no blob " + arquivo.getChecksum());
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        String etag = "\"" + arquivo.getChecksum() + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multipart byteranges are not worth supporting for attachments; serve the whole body instead
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        MediaType tipo = tipoInline(arquivo.getContentType());
+        ContentDisposition.Builder disposition = tipo != null ? ContentDisposition.inline() : ContentDisposition.attachment();
+        response.setContentType(tipo != null ? tipo.toString() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                disposition.filename(arquivo.getNome(), StandardCharsets.UTF_8).build().toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (count >= SENDFILE_THRESHOLD
+                && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat writes the region straight from the page cache to the socket after we return
+            request.setAttribute("org.apache.tomcat.sendfile.filename", blob.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(blob, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<Void> deleteArquivo(@PathVariable String exameId, @PathVariable Long id) {
+        Long clienteId = recursosAuditados.clienteDoExame(exameId).orElse(null);
+        if (arquivoExameService.delete(exameId, id)) {
+            auditService.registrar(RECURSO, id.toString(), clienteId, EventoAuditoria.Acao.EXCLUIDO);
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // The stored type is whatever the uploader claimed: only types that cannot run script are rendered inline
+    private static MediaType tipoInline(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        try {
+            MediaType tipo = MediaType.parseMediaType(contentType);
+            MediaType semParametros = new MediaType(tipo.getType(), tipo.getSubtype());
+            return TIPOS_INLINE.contains(semParametros) ? semParametros : null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.EventoAuditoria;
+import com.mtor.evolution.service.AuditService;
+import com.mtor.evolution.service.RecursosAuditados;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/auditoria")
+public class AuditoriaController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    // Accesses the client app reports (a record shown on screen, say); writes are audited by the server itself
+    private static final Set<EventoAuditoria.Acao> ACOES_REPORTAVEIS =
+            EnumSet.of(EventoAuditoria.Acao.VISUALIZADO, EventoAuditoria.Acao.EXPORTADO);
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private RecursosAuditados recursosAuditados;
+
+    // Only the record and the action come from the caller; user, client, time and origin are the server's
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<Void> registrar(@RequestBody Map<String, String> request) {
+        String recurso = request.get("recurso");
+        EventoAuditoria.Acao acao;
+        try {
+            acao = EventoAuditoria.Acao.valueOf(request.get("acao"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (recurso == null || !RecursosAuditados.RECURSOS.contains(recurso) || !ACOES_REPORTAVEIS.contains(acao)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String recursoId = request.get("recursoId");
+        Optional<Long> clienteId = recursosAuditados.clienteDe(recurso, recursoId);
+        if (clienteId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        auditService.registrar(recurso, recursoId.trim(), clienteId.get(), acao);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EventoAuditoria>> consultar(
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(auditService.consultar(clienteId, inicio, fim, Math.min(limite, LIMITE_MAXIMO)));
+    }
+
+    @GetMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(auditService.status());
+    }
+}
@@ -1,38 +1,106 @@
 package com.mtor.evolution.controller;
 
+import com.mtor.evolution.dto.AlteracoesClienteDto;
 import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.ClienteSimilarDto;
+import com.mtor.evolution.dto.FacetasClientesDto;
+import com.mtor.evolution.dto.PaginaDto;
 import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.service.AlteracoesClientes;
 import com.mtor.evolution.service.ClienteService;
+import com.mtor.evolution.service.FacetasClientes;
+import com.mtor.evolution.service.SimilaridadeClientes;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/clientes")
-@CrossOrigin(origins = "*")
 public class ClienteController {
 
+    private static final int MAX_SIMILARES = 50;
+    private static final int MAX_IDS = 100;
+    private static final int MAX_PAGINA_FACETAS = 100;
+
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private SimilaridadeClientes similaridade;
+
+    @Autowired
+    private AlteracoesClientes alteracoes;
+
+    @Autowired
+    private FacetasClientes facetas;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
-    public ResponseEntity<Page<ClienteDto>> getAllClientes(
+    public ResponseEntity<PaginaDto<?>> getAllClientes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) List<String> fields) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        // fields=nome,email,status: only those properties, selected and serialized
+        if (fields != null && !fields.isEmpty()) {
+            try {
+                return ResponseEntity.ok(new PaginaDto<>(clienteService.findAllCampos(pageable, search,
+                        fields.stream().map(String::trim).distinct().toList())));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
         Page<ClienteDto> clientes = clienteService.findAll(pageable, search);
-        return ResponseEntity.ok(clientes);
+        return ResponseEntity.ok(new PaginaDto<>(clientes));
+    }
+
+    // Several clients in one call: GET /clientes?ids=1,2,3
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<List<ClienteDto>> getClientesPorIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(clienteService.findAllById(ids));
+    }
+
+    // Changes since the cursor of the previous page; no cursor starts from the beginning
+    @GetMapping("/alteracoes")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<AlteracoesClienteDto> getAlteracoes(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limite) {
+        try {
+            return alteracoes.buscar(cursor, limite)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.GONE).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Slowest commit seen behind its change timestamp, and how many overran feed.settle-ms
+    @GetMapping("/alteracoes/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAlteracoesStatus() {
+        return ResponseEntity.ok(alteracoes.status());
+    }
+
+    @GetMapping("/contagem")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<Map<String, Object>> getContagem(@RequestParam(defaultValue = "ATIVO") Cliente.Status status) {
+        return ResponseEntity.ok(Map.of("status", status, "total", clienteService.countByStatus(status)));
     }
 
     @GetMapping("/{id}")
@@ -83,4 +151,41 @@ public class ClienteController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    // Nearest clients by age, sex, latest body composition, modality and goal
+    @GetMapping("/{id}/similares")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<List<ClienteSimilarDto>> getClientesSimilares(@PathVariable Long id,
+                                                                        @RequestParam(defaultValue = "10") int k) {
+        return similaridade.similares(id, Math.max(1, Math.min(k, MAX_SIMILARES)))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // filtro=status:ATIVO AND (modalidade:crossfit OR faixaEtaria:30-39): matches, newest first, and counts per facet value
+    @GetMapping("/facetas")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<FacetasClientesDto> getFacetas(@RequestParam(required = false) String filtro,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "10") int size) {
+        try {
+            return facetas.consultar(filtro, Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGINA_FACETAS)))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/facetas/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getFacetasStatus() {
+        return ResponseEntity.ok(facetas.status());
+    }
+
+    @GetMapping("/similaridade")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSimilaridadeStatus() {
+        return ResponseEntity.ok(similaridade.status());
+    }
+}
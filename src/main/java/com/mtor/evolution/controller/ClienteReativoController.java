@@ -0,0 +1,48 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.PaginaDto;
+import com.mtor.evolution.service.ClienteReativoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking variant of the client reads; the request thread is released while the database works
+@RestController
+@RequestMapping("/reativo/clientes")
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ClienteReativoController {
+
+    @Autowired
+    private ClienteReativoService clienteReativoService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public Mono<PaginaDto<ClienteDto>> getAllClientes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search) {
+        return clienteReativoService.findAll(PageRequest.of(page, size), search);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public Mono<ResponseEntity<ClienteDto>> getClienteById(@PathVariable Long id) {
+        return clienteReativoService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // One JSON client per line, written as the rows arrive
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<ClienteDto> exportar() {
+        return clienteReativoService.exportar();
+    }
+}
@@ -0,0 +1,508 @@
+package com.mtor.evolution.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.mtor.evolution.dto.LoteRequest;
+import com.mtor.evolution.dto.LoteResponse;
+import com.mtor.evolution.dto.SubRequisicaoLote;
+import com.mtor.evolution.dto.SubRespostaLote;
+import com.mtor.evolution.service.ShardsCliente;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the calls of a {@link LoteRequest} through the regular controllers,
+ * without another trip through the servlet filters: the JWT of the batch
+ * request was checked once and its authentication is reused, while
+ * {@code @PreAuthorize}, validation and the exception handlers apply to
+ * every call as usual.
+ *
+ * <p>Consecutive GETs run in parallel, writes one at a time in request
+ * order. A transactional batch runs everything in order on the request
+ * thread, inside one transaction that is rolled back at the first call
+ * answering 4xx/5xx; the calls after it are not run.
+ */
+@Component
+public class DespachanteLote {
+
+    // Streams, logins and nested batches make no sense inside a batch; each covers the path and everything below it
+    private static final List<String> CAMINHOS_RECUSADOS = List.of("/batch", "/auth", "/notificacoes/stream");
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping mapeamento;
+
+    @Autowired
+    private RequestMappingHandlerAdapter adaptador;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver resolvedorErros;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    private final TransactionTemplate transacao;
+    private final ExecutorService leituras;
+
+    public DespachanteLote(PlatformTransactionManager transactionManager,
+                           @Value("${batch.threads:8}") int threads) {
+        this.transacao = new TransactionTemplate(transactionManager);
+        AtomicInteger sequencia = new AtomicInteger();
+        this.leituras = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "lote-leitura-" + sequencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        leituras.shutdownNow();
+    }
+
+    public LoteResponse executar(LoteRequest lote, HttpServletRequest original, HttpServletResponse resposta) {
+        List<SubRequisicaoLote> requisicoes = lote.getRequisicoes();
+        SubRespostaLote[] respostas = new SubRespostaLote[requisicoes.size()];
+        if (lote.isTransacional()) {
+            // One transaction holds one connection, so it cannot write to clients of several shards
+            if (shards.ativo()) {
+                throw new IllegalStateException("Lote transacional indisponível com sharding ativo");
+            }
+            return executarEmTransacao(requisicoes, respostas, original, resposta);
+        }
+
+        SecurityContext contexto = SecurityContextHolder.getContext();
+        List<Integer> leiturasPendentes = new ArrayList<>();
+        for (int i = 0; i < requisicoes.size(); i++) {
+            if ("GET".equalsIgnoreCase(requisicoes.get(i).getMetodo())) {
+                leiturasPendentes.add(i);
+            } else {
+                lerEmParalelo(requisicoes, leiturasPendentes, respostas, original, resposta, contexto);
+                respostas[i] = despachar(requisicoes.get(i), original, resposta);
+            }
+        }
+        lerEmParalelo(requisicoes, leiturasPendentes, respostas, original, resposta, contexto);
+        return new LoteResponse(List.of(respostas), false);
+    }
+
+    private LoteResponse executarEmTransacao(List<SubRequisicaoLote> requisicoes, SubRespostaLote[] respostas,
+                                             HttpServletRequest original, HttpServletResponse resposta) {
+        boolean revertido;
+        try {
+            revertido = Boolean.TRUE.equals(transacao.execute(status -> {
+                for (int i = 0; i < requisicoes.size(); i++) {
+                    respostas[i] = despachar(requisicoes.get(i), original, resposta);
+                    if (respostas[i].getStatus() >= 400) {
+                        status.setRollbackOnly();
+                        return true;
+                    }
+                }
+                return false;
+            }));
+        } catch (UnexpectedRollbackException e) {
+            // A call failed inside a service but its controller still answered with success
+            revertido = true;
+        }
+        for (int i = 0; i < respostas.length; i++) {
+            if (respostas[i] == null) {
+                respostas[i] = new SubRespostaLote(requisicoes.get(i).getId(), HttpStatus.FAILED_DEPENDENCY.value(), null);
+            }
+        }
+        return new LoteResponse(List.of(respostas), revertido);
+    }
+
+    private void lerEmParalelo(List<SubRequisicaoLote> requisicoes, List<Integer> indices, SubRespostaLote[] respostas,
+                               HttpServletRequest original, HttpServletResponse resposta, SecurityContext contexto) {
+        if (indices.size() == 1) {
+            respostas[indices.get(0)] = despachar(requisicoes.get(indices.get(0)), original, resposta);
+        } else if (!indices.isEmpty()) {
+            Map<Integer, Future<SubRespostaLote>> futuros = new LinkedHashMap<>();
+            for (Integer indice : indices) {
+                futuros.put(indice, leituras.submit(() -> {
+                    SecurityContextHolder.setContext(contexto);
+                    try {
+                        return despachar(requisicoes.get(indice), original, resposta);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            try {
+                for (Map.Entry<Integer, Future<SubRespostaLote>> futuro : futuros.entrySet()) {
+                    respostas[futuro.getKey()] = futuro.getValue().get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futuros.values().forEach(futuro -> futuro.cancel(true));
+                throw new RuntimeException("Lote interrompido");
+            } catch (ExecutionException e) {
+                futuros.values().forEach(futuro -> futuro.cancel(true));
+                throw new RuntimeException("Erro ao executar lote: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        indices.clear();
+    }
+
+    private SubRespostaLote despachar(SubRequisicaoLote sub, HttpServletRequest original, HttpServletResponse respostaOriginal) {
+        String caminho = sub.getCaminho();
+        if (!permitido(caminho)) {
+            return erro(sub, HttpStatus.BAD_REQUEST, "Caminho não permitido em lote");
+        }
+        byte[] corpo;
+        try {
+            corpo = sub.getCorpo() != null ? objectMapper.writeValueAsBytes(sub.getCorpo()) : new byte[0];
+        } catch (Exception e) {
+            return erro(sub, HttpStatus.BAD_REQUEST, "Corpo inválido");
+        }
+        SubRequisicao requisicao = new SubRequisicao(original, sub.getMetodo().toUpperCase(Locale.ROOT), caminho, corpo);
+        SubResposta resposta = new SubResposta(respostaOriginal);
+
+        HandlerExecutionChain cadeia = null;
+        List<HandlerInterceptor> executados = new ArrayList<>();
+        Exception falha = null;
+        try {
+            cadeia = mapeamento.getHandler(requisicao);
+            if (cadeia == null) {
+                return erro(sub, HttpStatus.NOT_FOUND, "Recurso não encontrado");
+            }
+            for (HandlerInterceptor interceptor : cadeia.getInterceptorList()) {
+                if (!interceptor.preHandle(requisicao, resposta, cadeia.getHandler())) {
+                    return corpo(sub, resposta);
+                }
+                executados.add(interceptor);
+            }
+            adaptador.handle(requisicao, resposta, cadeia.getHandler());
+        } catch (Exception e) {
+            falha = e;
+            try {
+                if (resolvedorErros.resolveException(requisicao, resposta, cadeia != null ? cadeia.getHandler() : null, e) == null) {
+                    return erro(sub, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+                }
+            } catch (Exception resolucao) {
+                return erro(sub, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+        } finally {
+            // Closes what the interceptors opened for the call, e.g. open-in-view sessions on worker threads
+            for (int i = executados.size() - 1; i >= 0; i--) {
+                try {
+                    executados.get(i).afterCompletion(requisicao, resposta, cadeia.getHandler(), falha);
+                } catch (Exception e) {
+                    System.err.println("❌ Batch interceptor cleanup failed: " + e.getMessage());
+                }
+            }
+        }
+        return corpo(sub, resposta);
+    }
+
+    /**
+     * Handler mapping decodes the path and drops empty and dot segments and
+     * matrix parameters before matching, so {@code //batch},
+     * {@code /auth;x/login} or {@code /notificacoes/./stream} would reach the
+     * refused endpoints. Only paths already in that canonical form are
+     * accepted, and those are checked segment by segment.
+     */
+    static boolean permitido(String caminhoCompleto) {
+        int interrogacao = caminhoCompleto.indexOf('?');
+        String caminho = interrogacao >= 0 ? caminhoCompleto.substring(0, interrogacao) : caminhoCompleto;
+        if (!caminho.startsWith("/") || !caminho.equals(normalizar(caminho))) {
+            return false;
+        }
+        return CAMINHOS_RECUSADOS.stream().noneMatch(recusado ->
+                caminho.equals(recusado) || caminho.startsWith(recusado + "/"));
+    }
+
+    // Decoded, without matrix parameters, empty or dot segments; null when the escapes are malformed
+    private static String normalizar(String caminho) {
+        String decodificado;
+        try {
+            decodificado = UriUtils.decode(caminho, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Deque<String> segmentos = new ArrayDeque<>();
+        for (String segmento : decodificado.split("/")) {
+            int pontoEVirgula = segmento.indexOf(';');
+            if (pontoEVirgula >= 0) {
+                segmento = segmento.substring(0, pontoEVirgula);
+            }
+            if (segmento.equals("..")) {
+                segmentos.pollLast();
+            } else if (!segmento.isEmpty() && !segmento.equals(".")) {
+                segmentos.addLast(segmento);
+            }
+        }
+        return "/" + String.join("/", segmentos);
+    }
+
+    private SubRespostaLote corpo(SubRequisicaoLote sub, SubResposta resposta) {
+        resposta.flushBuffer();
+        byte[] bytes = resposta.conteudo.toByteArray();
+        JsonNode corpo = null;
+        if (bytes.length > 0) {
+            String tipo = resposta.getContentType();
+            try {
+                corpo = tipo != null && MediaType.parseMediaType(tipo).isCompatibleWith(MediaType.APPLICATION_JSON)
+                        ? objectMapper.readTree(bytes)
+                        : new TextNode(Base64.getEncoder().encodeToString(bytes));
+            } catch (Exception e) {
+                corpo = new TextNode(Base64.getEncoder().encodeToString(bytes));
+            }
+        }
+        return new SubRespostaLote(sub.getId(), resposta.getStatus(), corpo);
+    }
+
+    private SubRespostaLote erro(SubRequisicaoLote sub, HttpStatus status, String mensagem) {
+        return new SubRespostaLote(sub.getId(), status.value(),
+                objectMapper.createObjectNode().put("message", mensagem));
+    }
+
+    /**
+     * One call of the batch as a request of its own: method, path, query and
+     * JSON body of the call, headers and authentication of the batch, and its
+     * own attributes so parallel calls do not see each other's.
+     */
+    private static final class SubRequisicao extends HttpServletRequestWrapper {
+
+        private final String metodo;
+        private final String caminho;
+        private final String consulta;
+        private final byte[] corpo;
+        private final Map<String, String[]> parametros = new LinkedHashMap<>();
+        private final Map<String, Object> atributos = new HashMap<>();
+
+        SubRequisicao(HttpServletRequest original, String metodo, String caminhoCompleto, byte[] corpo) {
+            super(original);
+            this.metodo = metodo;
+            int interrogacao = caminhoCompleto.indexOf('?');
+            this.caminho = interrogacao >= 0 ? caminhoCompleto.substring(0, interrogacao) : caminhoCompleto;
+            this.consulta = interrogacao >= 0 ? caminhoCompleto.substring(interrogacao + 1) : null;
+            this.corpo = corpo;
+            if (consulta != null) {
+                Map<String, List<String>> valores = new LinkedHashMap<>();
+                for (String par : consulta.split("&")) {
+                    if (par.isEmpty()) {
+                        continue;
+                    }
+                    int igual = par.indexOf('=');
+                    String nome = URLDecoder.decode(igual >= 0 ? par.substring(0, igual) : par, StandardCharsets.UTF_8);
+                    String valor = igual >= 0 ? URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8) : "";
+                    valores.computeIfAbsent(nome, n -> new ArrayList<>()).add(valor);
+                }
+                valores.forEach((nome, lista) -> parametros.put(nome, lista.toArray(new String[0])));
+            }
+        }
+
+        @Override public String getMethod() { return metodo; }
+        @Override public String getRequestURI() { return getContextPath() + caminho; }
+        @Override public StringBuffer getRequestURL() {
+            StringBuffer url = new StringBuffer(super.getRequestURL());
+            url.setLength(url.length() - super.getRequestURI().length());
+            return url.append(getRequestURI());
+        }
+        @Override public String getServletPath() { return caminho; }
+        @Override public String getPathInfo() { return null; }
+        @Override public String getQueryString() { return consulta; }
+        @Override public DispatcherType getDispatcherType() { return DispatcherType.REQUEST; }
+
+        @Override public String getParameter(String nome) {
+            String[] valores = parametros.get(nome);
+            return valores != null && valores.length > 0 ? valores[0] : null;
+        }
+        @Override public Map<String, String[]> getParameterMap() { return Collections.unmodifiableMap(parametros); }
+        @Override public Enumeration<String> getParameterNames() { return Collections.enumeration(parametros.keySet()); }
+        @Override public String[] getParameterValues(String nome) { return parametros.get(nome); }
+
+        @Override public String getContentType() { return corpo.length > 0 ? MediaType.APPLICATION_JSON_VALUE : null; }
+        @Override public int getContentLength() { return corpo.length; }
+        @Override public long getContentLengthLong() { return corpo.length; }
+        @Override public String getCharacterEncoding() { return StandardCharsets.UTF_8.name(); }
+
+        @Override public String getHeader(String nome) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(nome)) {
+                return getContentType();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(nome)) {
+                return String.valueOf(corpo.length);
+            }
+            if (HttpHeaders.ACCEPT.equalsIgnoreCase(nome)) {
+                return MediaType.APPLICATION_JSON_VALUE + ", " + MediaType.ALL_VALUE;
+            }
+            return super.getHeader(nome);
+        }
+        @Override public Enumeration<String> getHeaders(String nome) {
+            String valor = getHeader(nome);
+            return valor != null ? Collections.enumeration(List.of(valor)) : Collections.emptyEnumeration();
+        }
+
+        @Override public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override public int read() { return entrada.read(); }
+                @Override public int read(byte[] b, int off, int len) { return entrada.read(b, off, len); }
+                @Override public boolean isFinished() { return entrada.available() == 0; }
+                @Override public boolean isReady() { return true; }
+                @Override public void setReadListener(ReadListener listener) { throw new UnsupportedOperationException(); }
+            };
+        }
+        @Override public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(corpo), StandardCharsets.UTF_8));
+        }
+
+        @Override public Object getAttribute(String nome) { return atributos.get(nome); }
+        @Override public Enumeration<String> getAttributeNames() { return Collections.enumeration(atributos.keySet()); }
+        @Override public void setAttribute(String nome, Object valor) {
+            if (valor == null) {
+                atributos.remove(nome);
+            } else {
+                atributos.put(nome, valor);
+            }
+        }
+        @Override public void removeAttribute(String nome) { atributos.remove(nome); }
+
+        @Override public boolean isAsyncStarted() { return false; }
+        @Override public boolean isAsyncSupported() { return false; }
+    }
+
+    // Collects status, headers and body of one call instead of writing them to the client; only the rest is delegated
+    private static final class SubResposta extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+        private final Map<String, List<String>> cabecalhos = new LinkedHashMap<>();
+        private int status = HttpStatus.OK.value();
+        private String tipo;
+        private String codificacao = StandardCharsets.UTF_8.name();
+        private PrintWriter escritor;
+
+        SubResposta(HttpServletResponse original) {
+            super(original);
+        }
+
+        @Override public void setStatus(int status) { this.status = status; }
+        @Override public int getStatus() { return status; }
+        @Override public void sendError(int status) { this.status = status; }
+        @Override public void sendError(int status, String mensagem) { this.status = status; }
+        @Override public void sendRedirect(String local) { this.status = HttpStatus.FOUND.value(); setHeader(HttpHeaders.LOCATION, local); }
+
+        @Override public void setContentType(String tipo) { this.tipo = tipo; }
+        @Override public String getContentType() { return tipo; }
+        @Override public void setCharacterEncoding(String codificacao) { this.codificacao = codificacao; }
+        @Override public String getCharacterEncoding() { return codificacao; }
+        @Override public void setContentLength(int tamanho) { }
+        @Override public void setContentLengthLong(long tamanho) { }
+        @Override public void setLocale(Locale locale) { }
+
+        @Override public void setHeader(String nome, String valor) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(nome)) {
+                tipo = valor;
+            } else {
+                cabecalhos.put(nome.toLowerCase(Locale.ROOT), new ArrayList<>(List.of(valor)));
+            }
+        }
+        @Override public void addHeader(String nome, String valor) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(nome)) {
+                tipo = valor;
+            } else {
+                cabecalhos.computeIfAbsent(nome.toLowerCase(Locale.ROOT), n -> new ArrayList<>()).add(valor);
+            }
+        }
+        @Override public void setIntHeader(String nome, int valor) { setHeader(nome, String.valueOf(valor)); }
+        @Override public void addIntHeader(String nome, int valor) { addHeader(nome, String.valueOf(valor)); }
+        @Override public void setDateHeader(String nome, long valor) { setHeader(nome, String.valueOf(valor)); }
+        @Override public void addDateHeader(String nome, long valor) { addHeader(nome, String.valueOf(valor)); }
+        @Override public boolean containsHeader(String nome) {
+            return HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(nome) ? tipo != null : cabecalhos.containsKey(nome.toLowerCase(Locale.ROOT));
+        }
+        @Override public String getHeader(String nome) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(nome)) {
+                return tipo;
+            }
+            List<String> valores = cabecalhos.get(nome.toLowerCase(Locale.ROOT));
+            return valores != null && !valores.isEmpty() ? valores.get(0) : null;
+        }
+        @Override public Collection<String> getHeaders(String nome) {
+            return cabecalhos.getOrDefault(nome.toLowerCase(Locale.ROOT), List.of());
+        }
+        @Override public Collection<String> getHeaderNames() { return cabecalhos.keySet(); }
+
+        @Override public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override public void write(int b) { conteudo.write(b); }
+                @Override public void write(byte[] b, int off, int len) { conteudo.write(b, off, len); }
+                @Override public boolean isReady() { return true; }
+                @Override public void setWriteListener(WriteListener listener) { throw new UnsupportedOperationException(); }
+            };
+        }
+        @Override public PrintWriter getWriter() {
+            if (escritor == null) {
+                escritor = new PrintWriter(new OutputStreamWriter(conteudo, StandardCharsets.UTF_8), true);
+            }
+            return escritor;
+        }
+        @Override public void flushBuffer() {
+            if (escritor != null) {
+                escritor.flush();
+            }
+        }
+        @Override public int getBufferSize() { return conteudo.size(); }
+        @Override public boolean isCommitted() { return false; }
+        @Override public void reset() { conteudo.reset(); cabecalhos.clear(); status = HttpStatus.OK.value(); tipo = null; }
+        @Override public void resetBuffer() { conteudo.reset(); }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.AmostrasFrequenciaRequest;
+import com.mtor.evolution.dto.ResumoFrequenciaCardiacaDto;
+import com.mtor.evolution.dto.SessaoFrequenciaCardiacaDto;
+import com.mtor.evolution.service.FrequenciaCardiacaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/frequencia-cardiaca")
+@PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+public class FrequenciaCardiacaController {
+
+    @Autowired
+    private FrequenciaCardiacaService frequenciaCardiacaService;
+
+    @GetMapping("/sessoes")
+    public ResponseEntity<List<SessaoFrequenciaCardiacaDto>> getSessoesByCliente(@RequestParam Long clienteId) {
+        return ResponseEntity.ok(frequenciaCardiacaService.findByCliente(clienteId));
+    }
+
+    @GetMapping("/sessoes/{id}")
+    public ResponseEntity<SessaoFrequenciaCardiacaDto> getSessaoById(@PathVariable Long id) {
+        return frequenciaCardiacaService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/sessoes")
+    public ResponseEntity<SessaoFrequenciaCardiacaDto> abrirSessao(@Valid @RequestBody SessaoFrequenciaCardiacaDto sessaoDto) {
+        try {
+            return ResponseEntity.ok(frequenciaCardiacaService.abrir(sessaoDto));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Batches of strap samples; answers once they are buffered, with 503 while chunks of the session could not be stored
+    @PostMapping("/sessoes/{id}/amostras")
+    public ResponseEntity<Map<String, Object>> registrarAmostras(@PathVariable Long id,
+                                                                 @Valid @RequestBody AmostrasFrequenciaRequest request) {
+        try {
+            return frequenciaCardiacaService.registrar(id, request)
+                    .map(resultado -> (Integer) resultado.get("pendentes") > 0
+                            ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(resultado)
+                            : ResponseEntity.ok(resultado))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/sessoes/{id}/encerrar")
+    public ResponseEntity<SessaoFrequenciaCardiacaDto> encerrarSessao(@PathVariable Long id) {
+        return frequenciaCardiacaService.encerrar(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Max/average and time per zone, optionally within [de, ate) in epoch milliseconds
+    @GetMapping("/sessoes/{id}/resumo")
+    public ResponseEntity<ResumoFrequenciaCardiacaDto> getResumo(@PathVariable Long id,
+                                                                 @RequestParam(required = false) Long de,
+                                                                 @RequestParam(required = false) Long ate,
+                                                                 @RequestParam(required = false) Integer fcMaxima) {
+        return frequenciaCardiacaService.resumo(id, de, ate, fcMaxima)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(frequenciaCardiacaService.status());
+    }
+}
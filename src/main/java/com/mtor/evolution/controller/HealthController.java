@@ -1,8 +1,12 @@
 package com.mtor.evolution.controller;
 
+import com.mtor.evolution.config.RoteamentoDataSource;
+import com.mtor.evolution.service.BarramentoInvalidacao;
+import com.mtor.evolution.service.ChamadasCoalescidas;
+import com.mtor.evolution.service.InicializacaoAdiada;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,12 +17,23 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
-@CrossOrigin(origins = "*")
 public class HealthController {
 
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private ObjectProvider<RoteamentoDataSource> roteamentoDataSource;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    @Autowired
+    private ChamadasCoalescidas coalescidas;
+
+    @Autowired
+    private InicializacaoAdiada inicializacao;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
@@ -37,6 +52,12 @@ public class HealthController {
             response.put("error", e.getMessage());
         }
         
+        // Informational: reads fall back to the primary while the replica is unhealthy
+        roteamentoDataSource.ifAvailable(roteamento -> response.put("replica", roteamento.status()));
+        response.put("invalidacao", invalidacao.status());
+        response.put("coalescencia", coalescidas.status());
+        response.put("inicializacao", inicializacao.status());
+
         response.put("timestamp", LocalDateTime.now());
         response.put("service", "mTOR-Evolution Backend");
         response.put("version", "2.0.0");
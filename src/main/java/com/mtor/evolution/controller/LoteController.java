@@ -0,0 +1,37 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.LoteRequest;
+import com.mtor.evolution.dto.LoteResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+// Several API calls in one round trip; each call keeps the authorization rules of its own endpoint
+@RestController
+public class LoteController {
+
+    @Autowired
+    private DespachanteLote despachante;
+
+    @Value("${batch.max-requests:25}")
+    private int maximoRequisicoes;
+
+    @PostMapping("/batch")
+    public ResponseEntity<LoteResponse> executar(@Valid @RequestBody LoteRequest lote,
+                                                 HttpServletRequest request, HttpServletResponse response) {
+        if (lote.getRequisicoes().size() > maximoRequisicoes) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(despachante.executar(lote, request, response));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
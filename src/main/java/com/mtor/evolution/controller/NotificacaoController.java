@@ -0,0 +1,86 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.NotificacaoExameDto;
+import com.mtor.evolution.security.TicketsStream;
+import com.mtor.evolution.service.AgendaReavaliacoes;
+import com.mtor.evolution.service.NotificacaoService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/notificacoes")
+public class NotificacaoController {
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private AgendaReavaliacoes agendaReavaliacoes;
+
+    @Autowired
+    private TicketsStream ticketsStream;
+
+    @GetMapping
+    public ResponseEntity<List<NotificacaoExameDto>> getNotificacoes(
+            @AuthenticationPrincipal UserDetails user,
+            @RequestParam(required = false) Long clienteId) {
+        return ResponseEntity.ok(notificacaoService.findByDestinatario(user.getUsername(), clienteId));
+    }
+
+    // EventSource cannot set headers: it opens /stream?ticket=<ticket from POST /stream/ticket>. A ticket
+    // opens one stream, so after an error the client asks for a new one and passes ?lastEventId= to resume.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetails user,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        return notificacaoService.assinar(user.getUsername(), lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<Map<String, Object>> ticketStream(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(Map.of(
+                "ticket", ticketsStream.emitir(user.getUsername()),
+                "expiraEmMs", ticketsStream.getTtlMs()));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<List<NotificacaoExameDto>> createNotificacao(@Valid @RequestBody NotificacaoExameDto dto) {
+        try {
+            return ResponseEntity.ok(notificacaoService.notificarEquipe(dto));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/{id}/lida")
+    public ResponseEntity<NotificacaoExameDto> marcarLida(@AuthenticationPrincipal UserDetails user, @PathVariable Long id) {
+        return notificacaoService.marcarLida(id, user.getUsername())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/agenda")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAgenda() {
+        return ResponseEntity.ok(agendaReavaliacoes.status());
+    }
+
+    // Reloads the reminder window now instead of at the next interval
+    @PostMapping("/agenda/recarregar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> recarregarAgenda() {
+        agendaReavaliacoes.recarregar();
+        return ResponseEntity.ok(agendaReavaliacoes.status());
+    }
+}
@@ -0,0 +1,120 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.AlteracaoItemDto;
+import com.mtor.evolution.dto.ItemRefeicaoDto;
+import com.mtor.evolution.dto.OtimizacaoRequest;
+import com.mtor.evolution.dto.OtimizacaoResultado;
+import com.mtor.evolution.dto.PlanoAlimentarDto;
+import com.mtor.evolution.service.PlanoAlimentarService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/planos-alimentares")
+@PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+public class PlanoAlimentarController {
+
+    @Autowired
+    private PlanoAlimentarService planoAlimentarService;
+
+    @GetMapping
+    public ResponseEntity<List<PlanoAlimentarDto>> getPlanosByCliente(@RequestParam Long clienteId) {
+        return ResponseEntity.ok(planoAlimentarService.findByCliente(clienteId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PlanoAlimentarDto> getPlanoById(@PathVariable Long id) {
+        return planoAlimentarService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<PlanoAlimentarDto> createPlano(@Valid @RequestBody PlanoAlimentarDto planoDto) {
+        try {
+            return ResponseEntity.ok(planoAlimentarService.save(planoDto));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<PlanoAlimentarDto> updatePlano(@PathVariable Long id, @Valid @RequestBody PlanoAlimentarDto planoDto) {
+        try {
+            return planoAlimentarService.update(id, planoDto)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletePlano(@PathVariable Long id) {
+        if (planoAlimentarService.delete(id)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/{id}/refeicoes/{refeicaoId}/itens")
+    public ResponseEntity<AlteracaoItemDto> adicionarItem(@PathVariable Long id, @PathVariable Long refeicaoId,
+                                                          @Valid @RequestBody ItemRefeicaoDto itemDto) {
+        try {
+            return planoAlimentarService.adicionarItem(id, refeicaoId, itemDto)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}/refeicoes/{refeicaoId}/itens/{indice}")
+    public ResponseEntity<AlteracaoItemDto> atualizarItem(@PathVariable Long id, @PathVariable Long refeicaoId,
+                                                          @PathVariable int indice,
+                                                          @Valid @RequestBody ItemRefeicaoDto itemDto) {
+        try {
+            return planoAlimentarService.atualizarItem(id, refeicaoId, indice, itemDto)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/refeicoes/{refeicaoId}/itens/{indice}")
+    public ResponseEntity<AlteracaoItemDto> removerItem(@PathVariable Long id, @PathVariable Long refeicaoId,
+                                                        @PathVariable int indice) {
+        try {
+            return planoAlimentarService.removerItem(id, refeicaoId, indice)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/recalcular")
+    public ResponseEntity<PlanoAlimentarDto> recalcular(@PathVariable Long id) {
+        return planoAlimentarService.recalcular(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Fits quantities (and optionally swaps foods) to the macro targets within the latency budget
+    @PostMapping("/{id}/otimizar")
+    public ResponseEntity<OtimizacaoResultado> otimizar(@PathVariable Long id, @Valid @RequestBody OtimizacaoRequest request) {
+        try {
+            return planoAlimentarService.otimizar(id, request)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.PaginaDto;
+import com.mtor.evolution.dto.ProtocoloDto;
+import com.mtor.evolution.model.Protocolo;
+import com.mtor.evolution.service.CatalogoProtocolos;
+import com.mtor.evolution.service.ProtocoloService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/protocolos")
+@PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+public class ProtocoloController {
+
+    @Autowired
+    private ProtocoloService protocoloService;
+
+    @Autowired
+    private CatalogoProtocolos catalogo;
+
+    @GetMapping
+    public ResponseEntity<PaginaDto<ProtocoloDto>> getAllProtocolos(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Protocolo.Tipo tipo) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        return ResponseEntity.ok(new PaginaDto<>(protocoloService.findAll(pageable, search, tipo)));
+    }
+
+    // Served from the template catalog as pre-serialized JSON
+    @GetMapping("/pre-definidos")
+    public ResponseEntity<byte[]> getPreDefinidos(WebRequest request) {
+        CatalogoProtocolos.Snapshot snapshot = catalogo.snapshot();
+        return responderDoCatalogo(snapshot.getLista(), snapshot, request);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getProtocoloById(@PathVariable UUID id, WebRequest request) {
+        CatalogoProtocolos.Snapshot snapshot = catalogo.snapshot();
+        CatalogoProtocolos.Entrada entrada = snapshot.get(id);
+        if (entrada != null) {
+            return responderDoCatalogo(entrada, snapshot, request);
+        }
+        return protocoloService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<ProtocoloDto> createProtocolo(@Valid @RequestBody ProtocoloDto protocoloDto) {
+        try {
+            return ResponseEntity.ok(protocoloService.save(protocoloDto));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ProtocoloDto> updateProtocolo(@PathVariable UUID id, @Valid @RequestBody ProtocoloDto protocoloDto) {
+        try {
+            return protocoloService.update(id, protocoloDto)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<ProtocoloDto> updateStatus(@PathVariable UUID id, @RequestParam Protocolo.Status status) {
+        return protocoloService.updateStatus(id, status)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Copy of a template for one client; shares every field it does not override
+    @PostMapping("/{id}/personalizar")
+    public ResponseEntity<ProtocoloDto> personalizar(@PathVariable UUID id,
+                                                     @RequestBody(required = false) Map<String, String> body) {
+        try {
+            String nome = body != null ? body.get("nome") : null;
+            return ResponseEntity.ok(protocoloService.personalizar(id, nome));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteProtocolo(@PathVariable UUID id) {
+        if (protocoloService.delete(id)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/catalogo")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCatalogoStatus() {
+        return ResponseEntity.ok(catalogo.status());
+    }
+
+    // Synchronous rebuild, e.g. after templates were changed straight in the table
+    @PostMapping("/catalogo/recarregar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> recarregarCatalogo() {
+        catalogo.recarregar();
+        return ResponseEntity.ok(catalogo.status());
+    }
+
+    private ResponseEntity<byte[]> responderDoCatalogo(CatalogoProtocolos.Entrada entrada,
+                                                       CatalogoProtocolos.Snapshot snapshot, WebRequest request) {
+        String versao = Long.toString(snapshot.getVersao());
+        if (request.checkNotModified(entrada.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entrada.getEtag())
+                    .header("X-Catalogo-Versao", versao)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(entrada.getEtag())
+                .header("X-Catalogo-Versao", versao)
+                .body(entrada.getJson());
+    }
+}
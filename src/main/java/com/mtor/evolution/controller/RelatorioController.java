@@ -0,0 +1,141 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.EventoAuditoria;
+import com.mtor.evolution.service.AuditService;
+import com.mtor.evolution.service.RelatorioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/relatorios")
+public class RelatorioController {
+
+    @Autowired
+    @Lazy
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${reports.sync-timeout-ms:2000}")
+    private long syncTimeoutMs;
+
+    @GetMapping("/avaliacoes/{id}/pdf")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<?> getAvaliacaoPdf(@PathVariable Long id, WebRequest request) {
+        return responder("AVALIACAO", id, () -> relatorioService.avaliacao(id), request);
+    }
+
+    @GetMapping("/exames/{id}/pdf")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('COACH')")
+    public ResponseEntity<?> getExamePdf(@PathVariable Long id, WebRequest request) {
+        return responder("EXAME", id, () -> relatorioService.exame(id), request);
+    }
+
+    private ResponseEntity<?> responder(String recurso, Long id, Supplier<Optional<RelatorioService.Renderizacao>> render,
+                                        WebRequest request) {
+        try {
+            Optional<RelatorioService.Renderizacao> renderizacao = render.get();
+            if (renderizacao.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            auditService.registrar(recurso, id.toString(), renderizacao.get().getClienteId(), EventoAuditoria.Acao.EXPORTADO);
+
+            String etag = "\"" + renderizacao.get().getChave() + "\"";
+            if (request.checkNotModified(etag)) {
+                // A render this request started goes on for the cache
+                fechar(renderizacao.get().getFluxo());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
+            ResponseEntity<?> resposta = enviar(renderizacao.get());
+            if (resposta == null) {
+                // The render this request joined was too large to cache: render it again, streamed to this request
+                renderizacao = render.get();
+                resposta = renderizacao.isPresent() ? enviar(renderizacao.get()) : ResponseEntity.notFound().build();
+            }
+            return resposta != null ? resposta : processando(renderizacao.get().getChave());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("status", "OCUPADO", "message", "Fila de relatórios cheia, tente novamente"));
+        }
+    }
+
+    // null when the joined render finished without a copy to serve
+    private ResponseEntity<?> enviar(RelatorioService.Renderizacao renderizacao) {
+        String chave = renderizacao.getChave();
+        RelatorioService.Fluxo fluxo = renderizacao.getFluxo();
+        try {
+            Resource corpo;
+            if (fluxo != null) {
+                // Streamed as the worker writes it; one that has not started in time finishes for the cache
+                fluxo.getInicio().get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+                corpo = new InputStreamResource(fluxo);
+            } else {
+                byte[] pdf = renderizacao.getPdf().get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+                if (pdf == null) {
+                    return null;
+                }
+                corpo = new ByteArrayResource(pdf);
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .eTag("\"" + chave + "\"")
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(chave + ".pdf").build().toString())
+                    .body(corpo);
+        } catch (TimeoutException e) {
+            // Still rendering: the client polls the same URL, which joins the in-flight render
+            fechar(fluxo);
+            return processando(chave);
+        } catch (InterruptedException e) {
+            fechar(fluxo);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Geração do relatório interrompida", e);
+        } catch (ExecutionException e) {
+            fechar(fluxo);
+            throw new RuntimeException("Erro ao gerar relatório", e.getCause());
+        }
+    }
+
+    private static ResponseEntity<?> processando(String chave) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(Map.of("status", "PROCESSANDO", "relatorio", chave));
+    }
+
+    private static void fechar(RelatorioService.Fluxo fluxo) {
+        if (fluxo != null) {
+            try {
+                fluxo.close();
+            } catch (IOException ignored) {
+                // Closing a pipe's read end does not fail
+            }
+        }
+    }
+}
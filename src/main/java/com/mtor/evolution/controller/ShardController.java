@@ -0,0 +1,51 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.service.FilaTarefas;
+import com.mtor.evolution.service.MigracaoBucketTarefa;
+import com.mtor.evolution.service.ShardsCliente;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/shards")
+@PreAuthorize("hasRole('ADMIN')")
+public class ShardController {
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private FilaTarefas filaTarefas;
+
+    // Clients and buckets per shard, buckets being moved
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(shards.status());
+    }
+
+    @PostMapping("/buckets/{bucket}/mover")
+    public ResponseEntity<Map<String, Object>> moverBucket(@PathVariable int bucket, @RequestParam int destino) {
+        if (!shards.ativo() || bucket < 0 || destino < 0 || destino >= shards.numeroShards()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long tarefa = filaTarefas.enfileirar(MigracaoBucketTarefa.TIPO, Map.of("bucket", bucket, "destino", destino));
+        return ResponseEntity.accepted().body(Map.of("tarefa", tarefa));
+    }
+
+    // After adding a shard: one copy job per bucket that should now live elsewhere
+    @PostMapping("/rebalancear")
+    public ResponseEntity<Map<Integer, Long>> rebalancear() {
+        if (!shards.ativo()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Integer, Long> tarefas = new LinkedHashMap<>();
+        shards.planoRebalanceamento().forEach((bucket, destino) -> tarefas.put(bucket,
+                filaTarefas.enfileirar(MigracaoBucketTarefa.TIPO, Map.of("bucket", bucket, "destino", destino))));
+        return ResponseEntity.accepted().body(tarefas);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.dto.TarefaDto;
+import com.mtor.evolution.service.FilaTarefas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/tarefas")
+@PreAuthorize("hasRole('ADMIN')")
+public class TarefaController {
+
+    @Autowired
+    private FilaTarefas filaTarefas;
+
+    // Queue depth, oldest waiting job and claim latency per job type
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(filaTarefas.status());
+    }
+
+    @GetMapping("/falhas")
+    public ResponseEntity<List<TarefaDto>> getFalhas() {
+        return ResponseEntity.ok(filaTarefas.findFalhas());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TarefaDto> getTarefaById(@PathVariable Long id) {
+        return filaTarefas.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/reprocessar")
+    public ResponseEntity<TarefaDto> reprocessar(@PathVariable Long id) {
+        return filaTarefas.reprocessar(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
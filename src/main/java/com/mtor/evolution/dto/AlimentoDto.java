@@ -0,0 +1,210 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.Alimento;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AlimentoDto {
+
+    private String id;
+
+    @NotBlank(message = "Nome é obrigatório")
+    @Size(max = 200, message = "Nome deve ter no máximo 200 caracteres")
+    private String nome;
+
+    @NotBlank(message = "Categoria é obrigatória")
+    @Size(max = 100, message = "Categoria deve ter no máximo 100 caracteres")
+    private String categoria;
+
+    @Size(max = 100, message = "Marca deve ter no máximo 100 caracteres")
+    private String marca;
+
+    @Size(max = 50, message = "Código de barras deve ter no máximo 50 caracteres")
+    private String codigoBarras;
+
+    private Double porcaoPadrao;
+    private String unidadePadrao;
+
+    @NotNull(message = "Calorias são obrigatórias")
+    private Double calorias;
+
+    @Valid
+    @NotNull(message = "Macronutrientes são obrigatórios")
+    private Macronutrientes macronutrientes = new Macronutrientes();
+
+    private Micronutrientes micronutrientes = new Micronutrientes();
+    private Integer indiceGlicemico;
+    private List<String> alergenos = new ArrayList<>();
+    private boolean vegetariano;
+    private boolean vegano;
+    private boolean semGluten;
+    private boolean semLactose;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AlimentoDto() {}
+
+    public AlimentoDto(Alimento alimento) {
+        this.id = alimento.getId().toString();
+        this.nome = alimento.getNome();
+        this.categoria = alimento.getCategoria();
+        this.marca = alimento.getMarca();
+        this.codigoBarras = alimento.getCodigoBarras();
+        this.porcaoPadrao = alimento.getPorcaoPadrao();
+        this.unidadePadrao = alimento.getUnidadePadrao();
+        this.calorias = alimento.getCalorias();
+        this.macronutrientes.setProteinas(alimento.getProteinas());
+        this.macronutrientes.setCarboidratos(alimento.getCarboidratos());
+        this.macronutrientes.setGorduras(alimento.getGorduras());
+        this.macronutrientes.setFibras(alimento.getFibras());
+        this.macronutrientes.setAcucares(alimento.getAcucares());
+        this.micronutrientes.setSodio(alimento.getSodio());
+        this.micronutrientes.setPotassio(alimento.getPotassio());
+        this.micronutrientes.setCalcio(alimento.getCalcio());
+        this.micronutrientes.setFerro(alimento.getFerro());
+        this.micronutrientes.setVitaminaC(alimento.getVitaminaC());
+        this.micronutrientes.setVitaminaD(alimento.getVitaminaD());
+        this.indiceGlicemico = alimento.getIndiceGlicemico();
+        this.alergenos = splitAlergenos(alimento.getAlergenos());
+        this.vegetariano = Boolean.TRUE.equals(alimento.getVegetariano());
+        this.vegano = Boolean.TRUE.equals(alimento.getVegano());
+        this.semGluten = Boolean.TRUE.equals(alimento.getSemGluten());
+        this.semLactose = Boolean.TRUE.equals(alimento.getSemLactose());
+        this.createdAt = alimento.getCreatedAt();
+        this.updatedAt = alimento.getUpdatedAt();
+    }
+
+    public static List<String> splitAlergenos(String alergenos) {
+        if (alergenos == null || alergenos.isBlank()) {
+            return new ArrayList<>();
+        }
+        List<String> lista = new ArrayList<>();
+        Arrays.stream(alergenos.split(",")).map(String::trim).filter(a -> !a.isEmpty()).forEach(lista::add);
+        return lista;
+    }
+
+    public static String joinAlergenos(List<String> alergenos) {
+        return alergenos == null || alergenos.isEmpty() ? null : String.join(",", alergenos);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getCategoria() { return categoria; }
+    public void setCategoria(String categoria) { this.categoria = categoria; }
+
+    public String getMarca() { return marca; }
+    public void setMarca(String marca) { this.marca = marca; }
+
+    public String getCodigoBarras() { return codigoBarras; }
+    public void setCodigoBarras(String codigoBarras) { this.codigoBarras = codigoBarras; }
+
+    public Double getPorcaoPadrao() { return porcaoPadrao; }
+    public void setPorcaoPadrao(Double porcaoPadrao) { this.porcaoPadrao = porcaoPadrao; }
+
+    public String getUnidadePadrao() { return unidadePadrao; }
+    public void setUnidadePadrao(String unidadePadrao) { this.unidadePadrao = unidadePadrao; }
+
+    public Double getCalorias() { return calorias; }
+    public void setCalorias(Double calorias) { this.calorias = calorias; }
+
+    public Macronutrientes getMacronutrientes() { return macronutrientes; }
+    public void setMacronutrientes(Macronutrientes macronutrientes) { this.macronutrientes = macronutrientes; }
+
+    public Micronutrientes getMicronutrientes() { return micronutrientes; }
+    public void setMicronutrientes(Micronutrientes micronutrientes) { this.micronutrientes = micronutrientes; }
+
+    public Integer getIndiceGlicemico() { return indiceGlicemico; }
+    public void setIndiceGlicemico(Integer indiceGlicemico) { this.indiceGlicemico = indiceGlicemico; }
+
+    public List<String> getAlergenos() { return alergenos; }
+    public void setAlergenos(List<String> alergenos) { this.alergenos = alergenos; }
+
+    public boolean isVegetariano() { return vegetariano; }
+    public void setVegetariano(boolean vegetariano) { this.vegetariano = vegetariano; }
+
+    public boolean isVegano() { return vegano; }
+    public void setVegano(boolean vegano) { this.vegano = vegano; }
+
+    public boolean isSemGluten() { return semGluten; }
+    public void setSemGluten(boolean semGluten) { this.semGluten = semGluten; }
+
+    public boolean isSemLactose() { return semLactose; }
+    public void setSemLactose(boolean semLactose) { this.semLactose = semLactose; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public static class Macronutrientes {
+
+        @NotNull(message = "Proteínas são obrigatórias")
+        private Double proteinas;
+
+        @NotNull(message = "Carboidratos são obrigatórios")
+        private Double carboidratos;
+
+        @NotNull(message = "Gorduras são obrigatórias")
+        private Double gorduras;
+
+        private Double fibras;
+        private Double acucares;
+
+        public Double getProteinas() { return proteinas; }
+        public void setProteinas(Double proteinas) { this.proteinas = proteinas; }
+
+        public Double getCarboidratos() { return carboidratos; }
+        public void setCarboidratos(Double carboidratos) { this.carboidratos = carboidratos; }
+
+        public Double getGorduras() { return gorduras; }
+        public void setGorduras(Double gorduras) { this.gorduras = gorduras; }
+
+        public Double getFibras() { return fibras; }
+        public void setFibras(Double fibras) { this.fibras = fibras; }
+
+        public Double getAcucares() { return acucares; }
+        public void setAcucares(Double acucares) { this.acucares = acucares; }
+    }
+
+    public static class Micronutrientes {
+
+        private Double sodio;
+        private Double potassio;
+        private Double calcio;
+        private Double ferro;
+        private Double vitaminaC;
+        private Double vitaminaD;
+
+        public Double getSodio() { return sodio; }
+        public void setSodio(Double sodio) { this.sodio = sodio; }
+
+        public Double getPotassio() { return potassio; }
+        public void setPotassio(Double potassio) { this.potassio = potassio; }
+
+        public Double getCalcio() { return calcio; }
+        public void setCalcio(Double calcio) { this.calcio = calcio; }
+
+        public Double getFerro() { return ferro; }
+        public void setFerro(Double ferro) { this.ferro = ferro; }
+
+        public Double getVitaminaC() { return vitaminaC; }
+        public void setVitaminaC(Double vitaminaC) { this.vitaminaC = vitaminaC; }
+
+        public Double getVitaminaD() { return vitaminaD; }
+        public void setVitaminaD(Double vitaminaD) { this.vitaminaD = vitaminaD; }
+    }
+}
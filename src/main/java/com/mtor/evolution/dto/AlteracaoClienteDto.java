@@ -0,0 +1,39 @@
+package com.mtor.evolution.dto;
+
+import java.time.LocalDateTime;
+
+public class AlteracaoClienteDto {
+
+    private Tipo tipo;
+    private String id;
+    private LocalDateTime alteradoEm;
+    // Current state; null for REMOVIDO
+    private ClienteDto cliente;
+
+    public enum Tipo {
+        CRIADO, ATUALIZADO, REMOVIDO
+    }
+
+    // Constructors
+    public AlteracaoClienteDto() {}
+
+    public AlteracaoClienteDto(Tipo tipo, String id, LocalDateTime alteradoEm, ClienteDto cliente) {
+        this.tipo = tipo;
+        this.id = id;
+        this.alteradoEm = alteradoEm;
+        this.cliente = cliente;
+    }
+
+    // Getters and Setters
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public LocalDateTime getAlteradoEm() { return alteradoEm; }
+    public void setAlteradoEm(LocalDateTime alteradoEm) { this.alteradoEm = alteradoEm; }
+
+    public ClienteDto getCliente() { return cliente; }
+    public void setCliente(ClienteDto cliente) { this.cliente = cliente; }
+}
@@ -0,0 +1,41 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.ValoresNutricionais;
+
+/**
+ * Answer to a single-item edit: what the edit changed, not the whole plan.
+ * {@code indice} is the item's position: the new one when added, the one it
+ * left when removed, in which case there is no {@code item}.
+ */
+public class AlteracaoItemDto {
+
+    private String planoId;
+    private String refeicaoId;
+    private int indice;
+    private ItemRefeicaoDto item;
+    private ValoresNutricionais totaisRefeicao;
+    private ValoresNutricionais totaisPlano;
+    private Long versaoPlano;
+
+    // Getters and Setters
+    public String getPlanoId() { return planoId; }
+    public void setPlanoId(String planoId) { this.planoId = planoId; }
+
+    public String getRefeicaoId() { return refeicaoId; }
+    public void setRefeicaoId(String refeicaoId) { this.refeicaoId = refeicaoId; }
+
+    public int getIndice() { return indice; }
+    public void setIndice(int indice) { this.indice = indice; }
+
+    public ItemRefeicaoDto getItem() { return item; }
+    public void setItem(ItemRefeicaoDto item) { this.item = item; }
+
+    public ValoresNutricionais getTotaisRefeicao() { return totaisRefeicao; }
+    public void setTotaisRefeicao(ValoresNutricionais totaisRefeicao) { this.totaisRefeicao = totaisRefeicao; }
+
+    public ValoresNutricionais getTotaisPlano() { return totaisPlano; }
+    public void setTotaisPlano(ValoresNutricionais totaisPlano) { this.totaisPlano = totaisPlano; }
+
+    public Long getVersaoPlano() { return versaoPlano; }
+    public void setVersaoPlano(Long versaoPlano) { this.versaoPlano = versaoPlano; }
+}
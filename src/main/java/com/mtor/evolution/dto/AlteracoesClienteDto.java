@@ -0,0 +1,30 @@
+package com.mtor.evolution.dto;
+
+import java.util.List;
+
+public class AlteracoesClienteDto {
+
+    private List<AlteracaoClienteDto> alteracoes;
+    // Pass back to get the changes after these
+    private String cursor;
+    private boolean temMais;
+
+    // Constructors
+    public AlteracoesClienteDto() {}
+
+    public AlteracoesClienteDto(List<AlteracaoClienteDto> alteracoes, String cursor, boolean temMais) {
+        this.alteracoes = alteracoes;
+        this.cursor = cursor;
+        this.temMais = temMais;
+    }
+
+    // Getters and Setters
+    public List<AlteracaoClienteDto> getAlteracoes() { return alteracoes; }
+    public void setAlteracoes(List<AlteracaoClienteDto> alteracoes) { this.alteracoes = alteracoes; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public boolean isTemMais() { return temMais; }
+    public void setTemMais(boolean temMais) { this.temMais = temMais; }
+}
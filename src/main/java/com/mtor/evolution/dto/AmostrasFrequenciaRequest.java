@@ -0,0 +1,24 @@
+package com.mtor.evolution.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A batch of strap samples as two parallel arrays, so a batch is parsed
+ * straight into primitive arrays.
+ */
+public class AmostrasFrequenciaRequest {
+
+    // Epoch milliseconds
+    @NotNull(message = "Tempos são obrigatórios")
+    private long[] tempos;
+
+    @NotNull(message = "Frequências são obrigatórias")
+    private int[] bpm;
+
+    // Getters and Setters
+    public long[] getTempos() { return tempos; }
+    public void setTempos(long[] tempos) { this.tempos = tempos; }
+
+    public int[] getBpm() { return bpm; }
+    public void setBpm(int[] bpm) { this.bpm = bpm; }
+}
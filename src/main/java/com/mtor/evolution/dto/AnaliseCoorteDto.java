@@ -0,0 +1,92 @@
+package com.mtor.evolution.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class AnaliseCoorteDto {
+
+    private String analise;
+    private String metrica;
+    private List<String> dimensoes;
+    private long versaoSnapshot;
+    private LocalDateTime snapshotEm;
+    private long calculoMs;
+    private List<Grupo> grupos;
+
+    // Constructors
+    public AnaliseCoorteDto() {}
+
+    public AnaliseCoorteDto(String analise, String metrica, List<String> dimensoes, long versaoSnapshot,
+                            LocalDateTime snapshotEm, long calculoMs, List<Grupo> grupos) {
+        this.analise = analise;
+        this.metrica = metrica;
+        this.dimensoes = dimensoes;
+        this.versaoSnapshot = versaoSnapshot;
+        this.snapshotEm = snapshotEm;
+        this.calculoMs = calculoMs;
+        this.grupos = grupos;
+    }
+
+    // Getters and Setters
+    public String getAnalise() { return analise; }
+    public void setAnalise(String analise) { this.analise = analise; }
+
+    public String getMetrica() { return metrica; }
+    public void setMetrica(String metrica) { this.metrica = metrica; }
+
+    public List<String> getDimensoes() { return dimensoes; }
+    public void setDimensoes(List<String> dimensoes) { this.dimensoes = dimensoes; }
+
+    public long getVersaoSnapshot() { return versaoSnapshot; }
+    public void setVersaoSnapshot(long versaoSnapshot) { this.versaoSnapshot = versaoSnapshot; }
+
+    public LocalDateTime getSnapshotEm() { return snapshotEm; }
+    public void setSnapshotEm(LocalDateTime snapshotEm) { this.snapshotEm = snapshotEm; }
+
+    public long getCalculoMs() { return calculoMs; }
+    public void setCalculoMs(long calculoMs) { this.calculoMs = calculoMs; }
+
+    public List<Grupo> getGrupos() { return grupos; }
+    public void setGrupos(List<Grupo> grupos) { this.grupos = grupos; }
+
+    public static class Grupo {
+
+        // Dimension -> value of this group
+        private Map<String, String> chaves;
+        private long clientes;
+        private double media;
+        private double minimo;
+        private double maximo;
+        private double desvioPadrao;
+
+        public Grupo() {}
+
+        public Grupo(Map<String, String> chaves, long clientes, double media, double minimo, double maximo, double desvioPadrao) {
+            this.chaves = chaves;
+            this.clientes = clientes;
+            this.media = media;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.desvioPadrao = desvioPadrao;
+        }
+
+        public Map<String, String> getChaves() { return chaves; }
+        public void setChaves(Map<String, String> chaves) { this.chaves = chaves; }
+
+        public long getClientes() { return clientes; }
+        public void setClientes(long clientes) { this.clientes = clientes; }
+
+        public double getMedia() { return media; }
+        public void setMedia(double media) { this.media = media; }
+
+        public double getMinimo() { return minimo; }
+        public void setMinimo(double minimo) { this.minimo = minimo; }
+
+        public double getMaximo() { return maximo; }
+        public void setMaximo(double maximo) { this.maximo = maximo; }
+
+        public double getDesvioPadrao() { return desvioPadrao; }
+        public void setDesvioPadrao(double desvioPadrao) { this.desvioPadrao = desvioPadrao; }
+    }
+}
@@ -0,0 +1,71 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.ArquivoExame;
+
+import java.time.LocalDateTime;
+
+public class ArquivoExameDto {
+
+    private String id;
+    private String exameId;
+    private String nome;
+    private ArquivoExame.Tipo tipo;
+    private String url;
+    private Long tamanho;
+    private LocalDateTime dataUpload;
+    private String checksum;
+    private boolean criptografado;
+
+    // Constructors
+    public ArquivoExameDto() {}
+
+    public ArquivoExameDto(ArquivoExame arquivo) {
+        this.id = arquivo.getId().toString();
+        this.exameId = arquivo.getExameId();
+        this.nome = arquivo.getNome();
+        this.tipo = arquivo.getTipo();
+        this.url = "/exames/" + arquivo.getExameId() + "/arquivos/" + arquivo.getId() + "/conteudo";
+        this.tamanho = arquivo.getTamanho();
+        this.dataUpload = arquivo.getDataUpload();
+        this.checksum = "sha256:" + arquivo.getChecksum();
+        this.criptografado = false;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getExameId() { return exameId; }
+    public void setExameId(String exameId) { this.exameId = exameId; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public ArquivoExame.Tipo getTipo() { return tipo; }
+    public void setTipo(ArquivoExame.Tipo tipo) { this.tipo = tipo; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public Long getTamanho() { return tamanho; }
+    public void setTamanho(Long tamanho) { this.tamanho = tamanho; }
+
+    public LocalDateTime getDataUpload() { return dataUpload; }
+    public void setDataUpload(LocalDateTime dataUpload) { this.dataUpload = dataUpload; }
+
+    public String getChecksum() { return checksum; }
+    public void setChecksum(String checksum) { this.checksum = checksum; }
+
+    public boolean isCriptografado() { return criptografado; }
+    public void setCriptografado(boolean criptografado) { this.criptografado = criptografado; }
+
+    @Override
+    public String toString() {
+        return "ArquivoExameDto{" +
+                "id='" + id + '\'' +
+                ", exameId='" + exameId + '\'' +
+                ", nome='" + nome + '\'' +
+                ", tamanho=" + tamanho +
+                '}';
+    }
+}
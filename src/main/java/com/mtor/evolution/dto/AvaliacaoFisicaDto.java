@@ -0,0 +1,149 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.AvaliacaoFisica;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class AvaliacaoFisicaDto {
+
+    private String id;
+
+    @NotBlank(message = "Cliente é obrigatório")
+    private String clienteId;
+
+    private String clienteNome;
+
+    @NotNull(message = "Data da avaliação é obrigatória")
+    private LocalDate dataAvaliacao;
+
+    private AvaliacaoFisica.Tipo tipo;
+    private AvaliacaoFisica.Status status;
+
+    private Double peso;
+    private Double altura;
+    private Double imc;
+
+    private Double percentualGordura;
+    private Double massaGorda;
+    private Double massaMagra;
+    private Double massaMuscular;
+
+    private Integer frequenciaCardiacaRepouso;
+    private Integer frequenciaCardiacaMaxima;
+    private Integer pressaoSistolica;
+    private Integer pressaoDiastolica;
+
+    private String observacoes;
+    private LocalDate proximaAvaliacao;
+    private Long versao;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AvaliacaoFisicaDto() {}
+
+    public AvaliacaoFisicaDto(AvaliacaoFisica avaliacao) {
+        this.id = avaliacao.getId().toString();
+        this.clienteId = avaliacao.getCliente().getId().toString();
+        this.clienteNome = avaliacao.getCliente().getNome();
+        this.dataAvaliacao = avaliacao.getDataAvaliacao();
+        this.tipo = avaliacao.getTipo();
+        this.status = avaliacao.getStatus();
+        this.peso = avaliacao.getPeso();
+        this.altura = avaliacao.getAltura();
+        this.imc = avaliacao.getImc();
+        this.percentualGordura = avaliacao.getPercentualGordura();
+        this.massaGorda = avaliacao.getMassaGorda();
+        this.massaMagra = avaliacao.getMassaMagra();
+        this.massaMuscular = avaliacao.getMassaMuscular();
+        this.frequenciaCardiacaRepouso = avaliacao.getFrequenciaCardiacaRepouso();
+        this.frequenciaCardiacaMaxima = avaliacao.getFrequenciaCardiacaMaxima();
+        this.pressaoSistolica = avaliacao.getPressaoSistolica();
+        this.pressaoDiastolica = avaliacao.getPressaoDiastolica();
+        this.observacoes = avaliacao.getObservacoes();
+        this.proximaAvaliacao = avaliacao.getProximaAvaliacao();
+        this.versao = avaliacao.getVersao();
+        this.createdAt = avaliacao.getCreatedAt();
+        this.updatedAt = avaliacao.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getClienteId() { return clienteId; }
+    public void setClienteId(String clienteId) { this.clienteId = clienteId; }
+
+    public String getClienteNome() { return clienteNome; }
+    public void setClienteNome(String clienteNome) { this.clienteNome = clienteNome; }
+
+    public LocalDate getDataAvaliacao() { return dataAvaliacao; }
+    public void setDataAvaliacao(LocalDate dataAvaliacao) { this.dataAvaliacao = dataAvaliacao; }
+
+    public AvaliacaoFisica.Tipo getTipo() { return tipo; }
+    public void setTipo(AvaliacaoFisica.Tipo tipo) { this.tipo = tipo; }
+
+    public AvaliacaoFisica.Status getStatus() { return status; }
+    public void setStatus(AvaliacaoFisica.Status status) { this.status = status; }
+
+    public Double getPeso() { return peso; }
+    public void setPeso(Double peso) { this.peso = peso; }
+
+    public Double getAltura() { return altura; }
+    public void setAltura(Double altura) { this.altura = altura; }
+
+    public Double getImc() { return imc; }
+    public void setImc(Double imc) { this.imc = imc; }
+
+    public Double getPercentualGordura() { return percentualGordura; }
+    public void setPercentualGordura(Double percentualGordura) { this.percentualGordura = percentualGordura; }
+
+    public Double getMassaGorda() { return massaGorda; }
+    public void setMassaGorda(Double massaGorda) { this.massaGorda = massaGorda; }
+
+    public Double getMassaMagra() { return massaMagra; }
+    public void setMassaMagra(Double massaMagra) { this.massaMagra = massaMagra; }
+
+    public Double getMassaMuscular() { return massaMuscular; }
+    public void setMassaMuscular(Double massaMuscular) { this.massaMuscular = massaMuscular; }
+
+    public Integer getFrequenciaCardiacaRepouso() { return frequenciaCardiacaRepouso; }
+    public void setFrequenciaCardiacaRepouso(Integer frequenciaCardiacaRepouso) { this.frequenciaCardiacaRepouso = frequenciaCardiacaRepouso; }
+
+    public Integer getFrequenciaCardiacaMaxima() { return frequenciaCardiacaMaxima; }
+    public void setFrequenciaCardiacaMaxima(Integer frequenciaCardiacaMaxima) { this.frequenciaCardiacaMaxima = frequenciaCardiacaMaxima; }
+
+    public Integer getPressaoSistolica() { return pressaoSistolica; }
+    public void setPressaoSistolica(Integer pressaoSistolica) { this.pressaoSistolica = pressaoSistolica; }
+
+    public Integer getPressaoDiastolica() { return pressaoDiastolica; }
+    public void setPressaoDiastolica(Integer pressaoDiastolica) { this.pressaoDiastolica = pressaoDiastolica; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public LocalDate getProximaAvaliacao() { return proximaAvaliacao; }
+    public void setProximaAvaliacao(LocalDate proximaAvaliacao) { this.proximaAvaliacao = proximaAvaliacao; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public String toString() {
+        return "AvaliacaoFisicaDto{" +
+                "id='" + id + '\'' +
+                ", clienteId='" + clienteId + '\'' +
+                ", dataAvaliacao=" + dataAvaliacao +
+                ", status=" + status +
+                '}';
+    }
+}
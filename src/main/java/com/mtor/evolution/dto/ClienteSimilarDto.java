@@ -0,0 +1,28 @@
+package com.mtor.evolution.dto;
+
+public class ClienteSimilarDto {
+
+    private ClienteDto cliente;
+    private double distancia;
+    private double similaridade;
+
+    // Constructors
+    public ClienteSimilarDto() {}
+
+    public ClienteSimilarDto(ClienteDto cliente, double distancia) {
+        this.cliente = cliente;
+        this.distancia = distancia;
+        // 1 for an identical profile, 0.5 at one unit of distance
+        this.similaridade = 1.0 / (1.0 + distancia);
+    }
+
+    // Getters and Setters
+    public ClienteDto getCliente() { return cliente; }
+    public void setCliente(ClienteDto cliente) { this.cliente = cliente; }
+
+    public double getDistancia() { return distancia; }
+    public void setDistancia(double distancia) { this.distancia = distancia; }
+
+    public double getSimilaridade() { return similaridade; }
+    public void setSimilaridade(double similaridade) { this.similaridade = similaridade; }
+}
@@ -0,0 +1,70 @@
+package com.mtor.evolution.dto;
+
+import java.time.LocalDateTime;
+
+public class EventoAuditoria {
+
+    public enum Acao {
+        CRIADO, ATUALIZADO, VISUALIZADO, EXCLUIDO, EXPORTADO
+    }
+
+    private LocalDateTime dataAcao;
+    private String usuario;
+    private Long clienteId;
+    private String recurso;
+    private String recursoId;
+    private Acao acao;
+    private String ip;
+    private String userAgent;
+
+    // Constructors
+    public EventoAuditoria() {}
+
+    public EventoAuditoria(LocalDateTime dataAcao, String usuario, Long clienteId, String recurso,
+                           String recursoId, Acao acao, String ip, String userAgent) {
+        this.dataAcao = dataAcao;
+        this.usuario = usuario;
+        this.clienteId = clienteId;
+        this.recurso = recurso;
+        this.recursoId = recursoId;
+        this.acao = acao;
+        this.ip = ip;
+        this.userAgent = userAgent;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getDataAcao() { return dataAcao; }
+    public void setDataAcao(LocalDateTime dataAcao) { this.dataAcao = dataAcao; }
+
+    public String getUsuario() { return usuario; }
+    public void setUsuario(String usuario) { this.usuario = usuario; }
+
+    public Long getClienteId() { return clienteId; }
+    public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
+
+    public String getRecurso() { return recurso; }
+    public void setRecurso(String recurso) { this.recurso = recurso; }
+
+    public String getRecursoId() { return recursoId; }
+    public void setRecursoId(String recursoId) { this.recursoId = recursoId; }
+
+    public Acao getAcao() { return acao; }
+    public void setAcao(Acao acao) { this.acao = acao; }
+
+    public String getIp() { return ip; }
+    public void setIp(String ip) { this.ip = ip; }
+
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+
+    @Override
+    public String toString() {
+        return "EventoAuditoria{" +
+                "dataAcao=" + dataAcao +
+                ", usuario='" + usuario + '\'' +
+                ", recurso='" + recurso + '\'' +
+                ", recursoId='" + recursoId + '\'' +
+                ", acao=" + acao +
+                '}';
+    }
+}
@@ -0,0 +1,125 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.Exame;
+import com.mtor.evolution.model.ResultadoExame;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExameDto {
+
+    private String id;
+
+    @NotBlank(message = "Cliente é obrigatório")
+    private String clienteId;
+
+    private String clienteNome;
+
+    @NotBlank(message = "Tipo de exame é obrigatório")
+    private String tipoExame;
+
+    private String categoria;
+    private String laboratorio;
+    private String medicoSolicitante;
+
+    @NotNull(message = "Data de coleta é obrigatória")
+    private LocalDateTime dataColeta;
+
+    private LocalDateTime dataResultado;
+    private Exame.Status status;
+    private Exame.Prioridade prioridade;
+    private List<ResultadoExame> resultados = new ArrayList<>();
+    private String observacoes;
+    private String observacoesMedicas;
+    private Long versao;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ExameDto() {}
+
+    public ExameDto(Exame exame) {
+        this.id = exame.getId().toString();
+        this.clienteId = exame.getCliente().getId().toString();
+        this.clienteNome = exame.getCliente().getNome();
+        this.tipoExame = exame.getTipoExame();
+        this.categoria = exame.getCategoria();
+        this.laboratorio = exame.getLaboratorio();
+        this.medicoSolicitante = exame.getMedicoSolicitante();
+        this.dataColeta = exame.getDataColeta();
+        this.dataResultado = exame.getDataResultado();
+        this.status = exame.getStatus();
+        this.prioridade = exame.getPrioridade();
+        this.resultados = new ArrayList<>(exame.getResultados());
+        this.observacoes = exame.getObservacoes();
+        this.observacoesMedicas = exame.getObservacoesMedicas();
+        this.versao = exame.getVersao();
+        this.createdAt = exame.getCreatedAt();
+        this.updatedAt = exame.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getClienteId() { return clienteId; }
+    public void setClienteId(String clienteId) { this.clienteId = clienteId; }
+
+    public String getClienteNome() { return clienteNome; }
+    public void setClienteNome(String clienteNome) { this.clienteNome = clienteNome; }
+
+    public String getTipoExame() { return tipoExame; }
+    public void setTipoExame(String tipoExame) { this.tipoExame = tipoExame; }
+
+    public String getCategoria() { return categoria; }
+    public void setCategoria(String categoria) { this.categoria = categoria; }
+
+    public String getLaboratorio() { return laboratorio; }
+    public void setLaboratorio(String laboratorio) { this.laboratorio = laboratorio; }
+
+    public String getMedicoSolicitante() { return medicoSolicitante; }
+    public void setMedicoSolicitante(String medicoSolicitante) { this.medicoSolicitante = medicoSolicitante; }
+
+    public LocalDateTime getDataColeta() { return dataColeta; }
+    public void setDataColeta(LocalDateTime dataColeta) { this.dataColeta = dataColeta; }
+
+    public LocalDateTime getDataResultado() { return dataResultado; }
+    public void setDataResultado(LocalDateTime dataResultado) { this.dataResultado = dataResultado; }
+
+    public Exame.Status getStatus() { return status; }
+    public void setStatus(Exame.Status status) { this.status = status; }
+
+    public Exame.Prioridade getPrioridade() { return prioridade; }
+    public void setPrioridade(Exame.Prioridade prioridade) { this.prioridade = prioridade; }
+
+    public List<ResultadoExame> getResultados() { return resultados; }
+    public void setResultados(List<ResultadoExame> resultados) { this.resultados = resultados; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public String getObservacoesMedicas() { return observacoesMedicas; }
+    public void setObservacoesMedicas(String observacoesMedicas) { this.observacoesMedicas = observacoesMedicas; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public String toString() {
+        return "ExameDto{" +
+                "id='" + id + '\'' +
+                ", clienteId='" + clienteId + '\'' +
+                ", tipoExame='" + tipoExame + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.mtor.evolution.dto;
+
+import java.util.Map;
+
+public class FacetasClientesDto {
+
+    private long total;
+    // Facet -> value -> matching clients, most frequent value first
+    private Map<String, Map<String, Long>> facetas;
+    private PaginaDto<ClienteDto> clientes;
+    // Time spent in the bitmap index (filter, counts and page of ids)
+    private long microssegundos;
+
+    // Constructors
+    public FacetasClientesDto() {}
+
+    public FacetasClientesDto(long total, Map<String, Map<String, Long>> facetas,
+                              PaginaDto<ClienteDto> clientes, long microssegundos) {
+        this.total = total;
+        this.facetas = facetas;
+        this.clientes = clientes;
+        this.microssegundos = microssegundos;
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Map<String, Long>> getFacetas() { return facetas; }
+    public void setFacetas(Map<String, Map<String, Long>> facetas) { this.facetas = facetas; }
+
+    public PaginaDto<ClienteDto> getClientes() { return clientes; }
+    public void setClientes(PaginaDto<ClienteDto> clientes) { this.clientes = clientes; }
+
+    public long getMicrossegundos() { return microssegundos; }
+    public void setMicrossegundos(long microssegundos) { this.microssegundos = microssegundos; }
+}
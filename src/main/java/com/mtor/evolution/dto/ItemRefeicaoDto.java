@@ -0,0 +1,46 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.ItemRefeicao;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class ItemRefeicaoDto {
+
+    @NotNull(message = "Alimento é obrigatório")
+    private Long alimentoId;
+
+    private String alimentoNome;
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Positive(message = "Quantidade deve ser positiva")
+    private Double quantidade;
+
+    private String unidade = "g";
+    private String observacoes;
+
+    // Constructors
+    public ItemRefeicaoDto() {}
+
+    public ItemRefeicaoDto(ItemRefeicao item) {
+        this.alimentoId = item.getAlimentoId();
+        this.quantidade = item.getQuantidade();
+        this.unidade = item.getUnidade();
+        this.observacoes = item.getObservacoes();
+    }
+
+    // Getters and Setters
+    public Long getAlimentoId() { return alimentoId; }
+    public void setAlimentoId(Long alimentoId) { this.alimentoId = alimentoId; }
+
+    public String getAlimentoNome() { return alimentoNome; }
+    public void setAlimentoNome(String alimentoNome) { this.alimentoNome = alimentoNome; }
+
+    public Double getQuantidade() { return quantidade; }
+    public void setQuantidade(Double quantidade) { this.quantidade = quantidade; }
+
+    public String getUnidade() { return unidade; }
+    public void setUnidade(String unidade) { this.unidade = unidade; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+}
@@ -0,0 +1,28 @@
+package com.mtor.evolution.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Several API calls in one round trip. With {@code transacional} the calls
+ * run one after the other in a single transaction, rolled back if any of
+ * them fails; otherwise consecutive GETs run in parallel and every write
+ * commits on its own.
+ */
+public class LoteRequest {
+
+    private boolean transacional;
+
+    @NotEmpty(message = "Requisições são obrigatórias")
+    @Valid
+    private List<SubRequisicaoLote> requisicoes;
+
+    // Getters and Setters
+    public boolean isTransacional() { return transacional; }
+    public void setTransacional(boolean transacional) { this.transacional = transacional; }
+
+    public List<SubRequisicaoLote> getRequisicoes() { return requisicoes; }
+    public void setRequisicoes(List<SubRequisicaoLote> requisicoes) { this.requisicoes = requisicoes; }
+}
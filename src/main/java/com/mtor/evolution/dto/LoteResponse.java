@@ -0,0 +1,26 @@
+package com.mtor.evolution.dto;
+
+import java.util.List;
+
+public class LoteResponse {
+
+    // Same order as the request
+    private List<SubRespostaLote> respostas;
+    // Transactional batch that failed: none of its writes were kept, whatever their status says
+    private boolean revertido;
+
+    // Constructors
+    public LoteResponse() {}
+
+    public LoteResponse(List<SubRespostaLote> respostas, boolean revertido) {
+        this.respostas = respostas;
+        this.revertido = revertido;
+    }
+
+    // Getters and Setters
+    public List<SubRespostaLote> getRespostas() { return respostas; }
+    public void setRespostas(List<SubRespostaLote> respostas) { this.respostas = respostas; }
+
+    public boolean isRevertido() { return revertido; }
+    public void setRevertido(boolean revertido) { this.revertido = revertido; }
+}
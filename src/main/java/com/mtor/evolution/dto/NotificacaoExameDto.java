@@ -0,0 +1,78 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.NotificacaoExame;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public class NotificacaoExameDto {
+
+    private String id;
+    private String exameId;
+    private String clienteId;
+
+    @NotNull(message = "Tipo é obrigatório")
+    private NotificacaoExame.Tipo tipo;
+
+    @NotBlank(message = "Título é obrigatório")
+    @Size(max = 150, message = "Título deve ter no máximo 150 caracteres")
+    private String titulo;
+
+    @NotBlank(message = "Mensagem é obrigatória")
+    @Size(max = 1000, message = "Mensagem deve ter no máximo 1000 caracteres")
+    private String mensagem;
+
+    private LocalDateTime dataEnvio;
+    private boolean lida;
+
+    // Constructors
+    public NotificacaoExameDto() {}
+
+    public NotificacaoExameDto(NotificacaoExame notificacao) {
+        this.id = notificacao.getId().toString();
+        this.exameId = notificacao.getExameId() != null ? notificacao.getExameId().toString() : null;
+        this.clienteId = notificacao.getClienteId() != null ? notificacao.getClienteId().toString() : null;
+        this.tipo = notificacao.getTipo();
+        this.titulo = notificacao.getTitulo();
+        this.mensagem = notificacao.getMensagem();
+        this.dataEnvio = notificacao.getDataEnvio();
+        this.lida = notificacao.isLida();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getExameId() { return exameId; }
+    public void setExameId(String exameId) { this.exameId = exameId; }
+
+    public String getClienteId() { return clienteId; }
+    public void setClienteId(String clienteId) { this.clienteId = clienteId; }
+
+    public NotificacaoExame.Tipo getTipo() { return tipo; }
+    public void setTipo(NotificacaoExame.Tipo tipo) { this.tipo = tipo; }
+
+    public String getTitulo() { return titulo; }
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+
+    public String getMensagem() { return mensagem; }
+    public void setMensagem(String mensagem) { this.mensagem = mensagem; }
+
+    public LocalDateTime getDataEnvio() { return dataEnvio; }
+    public void setDataEnvio(LocalDateTime dataEnvio) { this.dataEnvio = dataEnvio; }
+
+    public boolean isLida() { return lida; }
+    public void setLida(boolean lida) { this.lida = lida; }
+
+    @Override
+    public String toString() {
+        return "NotificacaoExameDto{" +
+                "id='" + id + '\'' +
+                ", tipo=" + tipo +
+                ", titulo='" + titulo + '\'' +
+                ", lida=" + lida +
+                '}';
+    }
+}
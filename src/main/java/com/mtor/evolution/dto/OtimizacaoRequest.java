@@ -0,0 +1,80 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.ValoresNutricionais;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OtimizacaoRequest {
+
+    // Defaults to the plan's own targets
+    private ValoresNutricionais metas;
+
+    // Restricts the adjustable items to one meal; all meals when null
+    private Long refeicaoId;
+
+    @Positive(message = "Fator mínimo deve ser positivo")
+    private Double fatorMinimo = 0.5;
+
+    @Positive(message = "Fator máximo deve ser positivo")
+    private Double fatorMaximo = 2.0;
+
+    @Positive(message = "Passo deve ser positivo")
+    private Double passoGramas = 5.0;
+
+    @Valid
+    private List<Substituicao> substituicoes = new ArrayList<>();
+
+    private Long orcamentoMs;
+
+    private boolean aplicar;
+
+    // Getters and Setters
+    public ValoresNutricionais getMetas() { return metas; }
+    public void setMetas(ValoresNutricionais metas) { this.metas = metas; }
+
+    public Long getRefeicaoId() { return refeicaoId; }
+    public void setRefeicaoId(Long refeicaoId) { this.refeicaoId = refeicaoId; }
+
+    public Double getFatorMinimo() { return fatorMinimo; }
+    public void setFatorMinimo(Double fatorMinimo) { this.fatorMinimo = fatorMinimo; }
+
+    public Double getFatorMaximo() { return fatorMaximo; }
+    public void setFatorMaximo(Double fatorMaximo) { this.fatorMaximo = fatorMaximo; }
+
+    public Double getPassoGramas() { return passoGramas; }
+    public void setPassoGramas(Double passoGramas) { this.passoGramas = passoGramas; }
+
+    public List<Substituicao> getSubstituicoes() { return substituicoes; }
+    public void setSubstituicoes(List<Substituicao> substituicoes) { this.substituicoes = substituicoes; }
+
+    public Long getOrcamentoMs() { return orcamentoMs; }
+    public void setOrcamentoMs(Long orcamentoMs) { this.orcamentoMs = orcamentoMs; }
+
+    public boolean isAplicar() { return aplicar; }
+    public void setAplicar(boolean aplicar) { this.aplicar = aplicar; }
+
+    /** Candidate foods that may replace the item at {@code indice} of meal {@code refeicaoId}. */
+    public static class Substituicao {
+
+        @NotNull(message = "Refeição é obrigatória")
+        private Long refeicaoId;
+
+        @NotNull(message = "Índice do item é obrigatório")
+        private Integer indice;
+
+        private List<Long> alimentoIds = new ArrayList<>();
+
+        public Long getRefeicaoId() { return refeicaoId; }
+        public void setRefeicaoId(Long refeicaoId) { this.refeicaoId = refeicaoId; }
+
+        public Integer getIndice() { return indice; }
+        public void setIndice(Integer indice) { this.indice = indice; }
+
+        public List<Long> getAlimentoIds() { return alimentoIds; }
+        public void setAlimentoIds(List<Long> alimentoIds) { this.alimentoIds = alimentoIds; }
+    }
+}
@@ -0,0 +1,89 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.ValoresNutricionais;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OtimizacaoResultado {
+
+    private List<ItemAjustado> itens = new ArrayList<>();
+    private ValoresNutricionais metas;
+    private ValoresNutricionais totais;
+    private Map<String, Double> desvioPercentual = new LinkedHashMap<>();
+    private int candidatosTotal;
+    private int candidatosAvaliados;
+    private boolean dentroDoOrcamento;
+    private long tempoMs;
+    private boolean aplicado;
+    private Long versaoPlano;
+
+    // Getters and Setters
+    public List<ItemAjustado> getItens() { return itens; }
+    public void setItens(List<ItemAjustado> itens) { this.itens = itens; }
+
+    public ValoresNutricionais getMetas() { return metas; }
+    public void setMetas(ValoresNutricionais metas) { this.metas = metas; }
+
+    public ValoresNutricionais getTotais() { return totais; }
+    public void setTotais(ValoresNutricionais totais) { this.totais = totais; }
+
+    public Map<String, Double> getDesvioPercentual() { return desvioPercentual; }
+    public void setDesvioPercentual(Map<String, Double> desvioPercentual) { this.desvioPercentual = desvioPercentual; }
+
+    public int getCandidatosTotal() { return candidatosTotal; }
+    public void setCandidatosTotal(int candidatosTotal) { this.candidatosTotal = candidatosTotal; }
+
+    public int getCandidatosAvaliados() { return candidatosAvaliados; }
+    public void setCandidatosAvaliados(int candidatosAvaliados) { this.candidatosAvaliados = candidatosAvaliados; }
+
+    public boolean isDentroDoOrcamento() { return dentroDoOrcamento; }
+    public void setDentroDoOrcamento(boolean dentroDoOrcamento) { this.dentroDoOrcamento = dentroDoOrcamento; }
+
+    public long getTempoMs() { return tempoMs; }
+    public void setTempoMs(long tempoMs) { this.tempoMs = tempoMs; }
+
+    public boolean isAplicado() { return aplicado; }
+    public void setAplicado(boolean aplicado) { this.aplicado = aplicado; }
+
+    public Long getVersaoPlano() { return versaoPlano; }
+    public void setVersaoPlano(Long versaoPlano) { this.versaoPlano = versaoPlano; }
+
+    public static class ItemAjustado {
+
+        private Long refeicaoId;
+        private int indice;
+        private Long alimentoId;
+        private Long alimentoIdOriginal;
+        private String alimentoNome;
+        private Double quantidadeOriginal;
+        private Double quantidade;
+        private String unidade;
+
+        public Long getRefeicaoId() { return refeicaoId; }
+        public void setRefeicaoId(Long refeicaoId) { this.refeicaoId = refeicaoId; }
+
+        public int getIndice() { return indice; }
+        public void setIndice(int indice) { this.indice = indice; }
+
+        public Long getAlimentoId() { return alimentoId; }
+        public void setAlimentoId(Long alimentoId) { this.alimentoId = alimentoId; }
+
+        public Long getAlimentoIdOriginal() { return alimentoIdOriginal; }
+        public void setAlimentoIdOriginal(Long alimentoIdOriginal) { this.alimentoIdOriginal = alimentoIdOriginal; }
+
+        public String getAlimentoNome() { return alimentoNome; }
+        public void setAlimentoNome(String alimentoNome) { this.alimentoNome = alimentoNome; }
+
+        public Double getQuantidadeOriginal() { return quantidadeOriginal; }
+        public void setQuantidadeOriginal(Double quantidadeOriginal) { this.quantidadeOriginal = quantidadeOriginal; }
+
+        public Double getQuantidade() { return quantidade; }
+        public void setQuantidade(Double quantidade) { this.quantidade = quantidade; }
+
+        public String getUnidade() { return unidade; }
+        public void setUnidade(String unidade) { this.unidade = unidade; }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mtor.evolution.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Page of results as sent to clients. Keeps the names of Spring's page
+ * fields the frontend reads, without the pageable and sort metadata, and
+ * does not change when Spring's own page serialization does.
+ */
+public class PaginaDto<T> {
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    // Constructors
+    public PaginaDto() {}
+
+    public PaginaDto(Page<T> pagina) {
+        this.content = pagina.getContent();
+        this.number = pagina.getNumber();
+        this.size = pagina.getSize();
+        this.totalElements = pagina.getTotalElements();
+        this.totalPages = pagina.getTotalPages();
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public int getNumber() { return number; }
+    public void setNumber(int number) { this.number = number; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+}
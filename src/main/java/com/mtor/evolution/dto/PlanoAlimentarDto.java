@@ -0,0 +1,111 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.PlanoAlimentar;
+import com.mtor.evolution.model.ValoresNutricionais;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class PlanoAlimentarDto {
+
+    private String id;
+
+    @NotBlank(message = "Cliente é obrigatório")
+    private String clienteId;
+
+    private String clienteNome;
+
+    @NotBlank(message = "Nome é obrigatório")
+    private String nome;
+
+    private PlanoAlimentar.Objetivo objetivo;
+
+    @NotNull(message = "Data de início é obrigatória")
+    private LocalDate dataInicio;
+
+    private LocalDate dataFim;
+    private PlanoAlimentar.Status status;
+    private ValoresNutricionais metas;
+    private ValoresNutricionais totais;
+
+    @Valid
+    private List<RefeicaoDto> refeicoes = new ArrayList<>();
+
+    private String observacoes;
+    private Long versao;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PlanoAlimentarDto() {}
+
+    public PlanoAlimentarDto(PlanoAlimentar plano) {
+        this.id = plano.getId().toString();
+        this.clienteId = plano.getCliente().getId().toString();
+        this.clienteNome = plano.getCliente().getNome();
+        this.nome = plano.getNome();
+        this.objetivo = plano.getObjetivo();
+        this.dataInicio = plano.getDataInicio();
+        this.dataFim = plano.getDataFim();
+        this.status = plano.getStatus();
+        this.metas = plano.getMetas();
+        this.totais = plano.getTotais();
+        this.refeicoes = plano.getRefeicoes().stream().map(RefeicaoDto::new).collect(Collectors.toList());
+        this.observacoes = plano.getObservacoes();
+        this.versao = plano.getVersao();
+        this.createdAt = plano.getCreatedAt();
+        this.updatedAt = plano.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getClienteId() { return clienteId; }
+    public void setClienteId(String clienteId) { this.clienteId = clienteId; }
+
+    public String getClienteNome() { return clienteNome; }
+    public void setClienteNome(String clienteNome) { this.clienteNome = clienteNome; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public PlanoAlimentar.Objetivo getObjetivo() { return objetivo; }
+    public void setObjetivo(PlanoAlimentar.Objetivo objetivo) { this.objetivo = objetivo; }
+
+    public LocalDate getDataInicio() { return dataInicio; }
+    public void setDataInicio(LocalDate dataInicio) { this.dataInicio = dataInicio; }
+
+    public LocalDate getDataFim() { return dataFim; }
+    public void setDataFim(LocalDate dataFim) { this.dataFim = dataFim; }
+
+    public PlanoAlimentar.Status getStatus() { return status; }
+    public void setStatus(PlanoAlimentar.Status status) { this.status = status; }
+
+    public ValoresNutricionais getMetas() { return metas; }
+    public void setMetas(ValoresNutricionais metas) { this.metas = metas; }
+
+    public ValoresNutricionais getTotais() { return totais; }
+    public void setTotais(ValoresNutricionais totais) { this.totais = totais; }
+
+    public List<RefeicaoDto> getRefeicoes() { return refeicoes; }
+    public void setRefeicoes(List<RefeicaoDto> refeicoes) { this.refeicoes = refeicoes; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,133 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.Exercicio;
+import com.mtor.evolution.model.Protocolo;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocol as the client sees it. For a protocol personalized from a
+ * template, every field it does not override is filled in from the
+ * template, and {@code camposPersonalizados} names the fields it does.
+ */
+public class ProtocoloDto {
+
+    private String id;
+
+    @NotBlank(message = "Nome é obrigatório")
+    @Size(max = 150)
+    private String nome;
+
+    @Size(max = 2000)
+    private String descricao;
+
+    @NotNull(message = "Tipo é obrigatório")
+    private Protocolo.Tipo tipo;
+
+    private Protocolo.Nivel nivel;
+
+    @Positive
+    private Integer duracaoSemanas;
+
+    @Size(max = 255)
+    private String objetivo;
+
+    @Size(max = 2000)
+    private String observacoes;
+
+    private List<Exercicio> exercicios = new ArrayList<>();
+    private List<String> anexos = new ArrayList<>();
+    private List<String> links = new ArrayList<>();
+    private Protocolo.Status status;
+    private String protocoloBaseId;
+    private Long versaoBase;
+    private List<String> camposPersonalizados;
+    private Long versao;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProtocoloDto() {}
+
+    /** Own values only; inherited fields of a derived protocol stay null. */
+    public ProtocoloDto(Protocolo protocolo) {
+        this.id = protocolo.getId().toString();
+        this.nome = protocolo.getNome();
+        this.descricao = protocolo.getDescricao();
+        this.tipo = protocolo.getTipo();
+        this.nivel = protocolo.getNivel();
+        this.duracaoSemanas = protocolo.getDuracaoSemanas();
+        this.objetivo = protocolo.getObjetivo();
+        this.observacoes = protocolo.getObservacoes();
+        this.exercicios = protocolo.getExercicios() != null ? List.copyOf(protocolo.getExercicios()) : null;
+        this.anexos = protocolo.getAnexos() != null ? List.copyOf(protocolo.getAnexos()) : null;
+        this.links = protocolo.getLinks() != null ? List.copyOf(protocolo.getLinks()) : null;
+        this.status = protocolo.getStatus();
+        this.protocoloBaseId = protocolo.getProtocoloBaseId() != null ? protocolo.getProtocoloBaseId().toString() : null;
+        this.versaoBase = protocolo.getVersaoBase();
+        this.versao = protocolo.getVersao();
+        this.createdAt = protocolo.getCreatedAt();
+        this.updatedAt = protocolo.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getDescricao() { return descricao; }
+    public void setDescricao(String descricao) { this.descricao = descricao; }
+
+    public Protocolo.Tipo getTipo() { return tipo; }
+    public void setTipo(Protocolo.Tipo tipo) { this.tipo = tipo; }
+
+    public Protocolo.Nivel getNivel() { return nivel; }
+    public void setNivel(Protocolo.Nivel nivel) { this.nivel = nivel; }
+
+    public Integer getDuracaoSemanas() { return duracaoSemanas; }
+    public void setDuracaoSemanas(Integer duracaoSemanas) { this.duracaoSemanas = duracaoSemanas; }
+
+    public String getObjetivo() { return objetivo; }
+    public void setObjetivo(String objetivo) { this.objetivo = objetivo; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public List<Exercicio> getExercicios() { return exercicios; }
+    public void setExercicios(List<Exercicio> exercicios) { this.exercicios = exercicios; }
+
+    public List<String> getAnexos() { return anexos; }
+    public void setAnexos(List<String> anexos) { this.anexos = anexos; }
+
+    public List<String> getLinks() { return links; }
+    public void setLinks(List<String> links) { this.links = links; }
+
+    public Protocolo.Status getStatus() { return status; }
+    public void setStatus(Protocolo.Status status) { this.status = status; }
+
+    public String getProtocoloBaseId() { return protocoloBaseId; }
+    public void setProtocoloBaseId(String protocoloBaseId) { this.protocoloBaseId = protocoloBaseId; }
+
+    public Long getVersaoBase() { return versaoBase; }
+    public void setVersaoBase(Long versaoBase) { this.versaoBase = versaoBase; }
+
+    public List<String> getCamposPersonalizados() { return camposPersonalizados; }
+    public void setCamposPersonalizados(List<String> camposPersonalizados) { this.camposPersonalizados = camposPersonalizados; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
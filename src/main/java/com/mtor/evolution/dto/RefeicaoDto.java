@@ -0,0 +1,66 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.Refeicao;
+import com.mtor.evolution.model.ValoresNutricionais;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RefeicaoDto {
+
+    private String id;
+
+    @NotBlank(message = "Nome da refeição é obrigatório")
+    private String nome;
+
+    @NotNull(message = "Tipo da refeição é obrigatório")
+    private Refeicao.Tipo tipo;
+
+    private LocalTime horario;
+
+    @Valid
+    private List<ItemRefeicaoDto> itens = new ArrayList<>();
+
+    private ValoresNutricionais totais;
+    private String observacoes;
+
+    // Constructors
+    public RefeicaoDto() {}
+
+    public RefeicaoDto(Refeicao refeicao) {
+        this.id = refeicao.getId() != null ? refeicao.getId().toString() : null;
+        this.nome = refeicao.getNome();
+        this.tipo = refeicao.getTipo();
+        this.horario = refeicao.getHorario();
+        this.itens = refeicao.getItens().stream().map(ItemRefeicaoDto::new).collect(Collectors.toList());
+        this.totais = refeicao.getTotais();
+        this.observacoes = refeicao.getObservacoes();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public Refeicao.Tipo getTipo() { return tipo; }
+    public void setTipo(Refeicao.Tipo tipo) { this.tipo = tipo; }
+
+    public LocalTime getHorario() { return horario; }
+    public void setHorario(LocalTime horario) { this.horario = horario; }
+
+    public List<ItemRefeicaoDto> getItens() { return itens; }
+    public void setItens(List<ItemRefeicaoDto> itens) { this.itens = itens; }
+
+    public ValoresNutricionais getTotais() { return totais; }
+    public void setTotais(ValoresNutricionais totais) { this.totais = totais; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+}
@@ -0,0 +1,96 @@
+package com.mtor.evolution.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResumoFrequenciaCardiacaDto {
+
+    private String sessaoId;
+    private Long de;
+    private Long ate;
+    private int fcMaxima;
+    private String origemFcMaxima;
+    private long amostras;
+    private Integer bpmMinimo;
+    private Integer bpmMaximo;
+    private Double bpmMedio;
+    private long duracaoMs;
+    private List<Zona> zonas = new ArrayList<>();
+    private int blocos;
+    private int blocosDecodificados;
+
+    // Getters and Setters
+    public String getSessaoId() { return sessaoId; }
+    public void setSessaoId(String sessaoId) { this.sessaoId = sessaoId; }
+
+    public Long getDe() { return de; }
+    public void setDe(Long de) { this.de = de; }
+
+    public Long getAte() { return ate; }
+    public void setAte(Long ate) { this.ate = ate; }
+
+    public int getFcMaxima() { return fcMaxima; }
+    public void setFcMaxima(int fcMaxima) { this.fcMaxima = fcMaxima; }
+
+    public String getOrigemFcMaxima() { return origemFcMaxima; }
+    public void setOrigemFcMaxima(String origemFcMaxima) { this.origemFcMaxima = origemFcMaxima; }
+
+    public long getAmostras() { return amostras; }
+    public void setAmostras(long amostras) { this.amostras = amostras; }
+
+    public Integer getBpmMinimo() { return bpmMinimo; }
+    public void setBpmMinimo(Integer bpmMinimo) { this.bpmMinimo = bpmMinimo; }
+
+    public Integer getBpmMaximo() { return bpmMaximo; }
+    public void setBpmMaximo(Integer bpmMaximo) { this.bpmMaximo = bpmMaximo; }
+
+    public Double getBpmMedio() { return bpmMedio; }
+    public void setBpmMedio(Double bpmMedio) { this.bpmMedio = bpmMedio; }
+
+    public long getDuracaoMs() { return duracaoMs; }
+    public void setDuracaoMs(long duracaoMs) { this.duracaoMs = duracaoMs; }
+
+    public List<Zona> getZonas() { return zonas; }
+    public void setZonas(List<Zona> zonas) { this.zonas = zonas; }
+
+    public int getBlocos() { return blocos; }
+    public void setBlocos(int blocos) { this.blocos = blocos; }
+
+    public int getBlocosDecodificados() { return blocosDecodificados; }
+    public void setBlocosDecodificados(int blocosDecodificados) { this.blocosDecodificados = blocosDecodificados; }
+
+    public static class Zona {
+
+        // 0 is below the first zone
+        private int zona;
+        private Integer bpmDe;
+        private Integer bpmAte;
+        private long tempoMs;
+        private double percentual;
+
+        public Zona() {}
+
+        public Zona(int zona, Integer bpmDe, Integer bpmAte, long tempoMs, double percentual) {
+            this.zona = zona;
+            this.bpmDe = bpmDe;
+            this.bpmAte = bpmAte;
+            this.tempoMs = tempoMs;
+            this.percentual = percentual;
+        }
+
+        public int getZona() { return zona; }
+        public void setZona(int zona) { this.zona = zona; }
+
+        public Integer getBpmDe() { return bpmDe; }
+        public void setBpmDe(Integer bpmDe) { this.bpmDe = bpmDe; }
+
+        public Integer getBpmAte() { return bpmAte; }
+        public void setBpmAte(Integer bpmAte) { this.bpmAte = bpmAte; }
+
+        public long getTempoMs() { return tempoMs; }
+        public void setTempoMs(long tempoMs) { this.tempoMs = tempoMs; }
+
+        public double getPercentual() { return percentual; }
+        public void setPercentual(double percentual) { this.percentual = percentual; }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.SessaoFrequenciaCardiaca;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDateTime;
+
+public class SessaoFrequenciaCardiacaDto {
+
+    private String id;
+
+    @NotBlank(message = "Cliente é obrigatório")
+    private String clienteId;
+
+    private String dispositivo;
+    private SessaoFrequenciaCardiaca.Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime encerradaEm;
+
+    // Totals of the persisted samples
+    private long amostras;
+    private Integer bpmMinimo;
+    private Integer bpmMaximo;
+    private Double bpmMedio;
+    private Long inicioMs;
+    private Long fimMs;
+
+    // Constructors
+    public SessaoFrequenciaCardiacaDto() {}
+
+    public SessaoFrequenciaCardiacaDto(SessaoFrequenciaCardiaca sessao) {
+        this.id = sessao.getId().toString();
+        this.clienteId = sessao.getCliente().getId().toString();
+        this.dispositivo = sessao.getDispositivo();
+        this.status = sessao.getStatus();
+        this.createdAt = sessao.getCreatedAt();
+        this.encerradaEm = sessao.getEncerradaEm();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getClienteId() { return clienteId; }
+    public void setClienteId(String clienteId) { this.clienteId = clienteId; }
+
+    public String getDispositivo() { return dispositivo; }
+    public void setDispositivo(String dispositivo) { this.dispositivo = dispositivo; }
+
+    public SessaoFrequenciaCardiaca.Status getStatus() { return status; }
+    public void setStatus(SessaoFrequenciaCardiaca.Status status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getEncerradaEm() { return encerradaEm; }
+    public void setEncerradaEm(LocalDateTime encerradaEm) { this.encerradaEm = encerradaEm; }
+
+    public long getAmostras() { return amostras; }
+    public void setAmostras(long amostras) { this.amostras = amostras; }
+
+    public Integer getBpmMinimo() { return bpmMinimo; }
+    public void setBpmMinimo(Integer bpmMinimo) { this.bpmMinimo = bpmMinimo; }
+
+    public Integer getBpmMaximo() { return bpmMaximo; }
+    public void setBpmMaximo(Integer bpmMaximo) { this.bpmMaximo = bpmMaximo; }
+
+    public Double getBpmMedio() { return bpmMedio; }
+    public void setBpmMedio(Double bpmMedio) { this.bpmMedio = bpmMedio; }
+
+    public Long getInicioMs() { return inicioMs; }
+    public void setInicioMs(Long inicioMs) { this.inicioMs = inicioMs; }
+
+    public Long getFimMs() { return fimMs; }
+    public void setFimMs(Long fimMs) { this.fimMs = fimMs; }
+}
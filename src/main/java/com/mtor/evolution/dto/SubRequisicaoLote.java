@@ -0,0 +1,32 @@
+package com.mtor.evolution.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+
+public class SubRequisicaoLote {
+
+    // Echoed back on the matching response
+    private String id;
+
+    @NotBlank(message = "Método é obrigatório")
+    private String metodo;
+
+    // Relative to the API root, query string included, e.g. "/clientes?ids=1,2"
+    @NotBlank(message = "Caminho é obrigatório")
+    private String caminho;
+
+    private JsonNode corpo;
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getMetodo() { return metodo; }
+    public void setMetodo(String metodo) { this.metodo = metodo; }
+
+    public String getCaminho() { return caminho; }
+    public void setCaminho(String caminho) { this.caminho = caminho; }
+
+    public JsonNode getCorpo() { return corpo; }
+    public void setCorpo(JsonNode corpo) { this.corpo = corpo; }
+}
@@ -0,0 +1,29 @@
+package com.mtor.evolution.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class SubRespostaLote {
+
+    private String id;
+    private int status;
+    private JsonNode corpo;
+
+    // Constructors
+    public SubRespostaLote() {}
+
+    public SubRespostaLote(String id, int status, JsonNode corpo) {
+        this.id = id;
+        this.status = status;
+        this.corpo = corpo;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public JsonNode getCorpo() { return corpo; }
+    public void setCorpo(JsonNode corpo) { this.corpo = corpo; }
+}
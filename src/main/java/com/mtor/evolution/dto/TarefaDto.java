@@ -0,0 +1,71 @@
+package com.mtor.evolution.dto;
+
+import com.mtor.evolution.model.Tarefa;
+
+import java.time.LocalDateTime;
+
+public class TarefaDto {
+
+    private String id;
+    private String tipo;
+    private Tarefa.Status status;
+    private int prioridade;
+    private int tentativas;
+    private int maxTentativas;
+    private LocalDateTime executarApos;
+    private String ultimoErro;
+    private LocalDateTime createdAt;
+    private LocalDateTime iniciadoEm;
+    private LocalDateTime concluidoEm;
+
+    // Constructors
+    public TarefaDto() {}
+
+    public TarefaDto(Tarefa tarefa) {
+        this.id = tarefa.getId().toString();
+        this.tipo = tarefa.getTipo();
+        this.status = tarefa.getStatus();
+        this.prioridade = tarefa.getPrioridade();
+        this.tentativas = tarefa.getTentativas();
+        this.maxTentativas = tarefa.getMaxTentativas();
+        this.executarApos = tarefa.getExecutarApos();
+        this.ultimoErro = tarefa.getUltimoErro();
+        this.createdAt = tarefa.getCreatedAt();
+        this.iniciadoEm = tarefa.getIniciadoEm();
+        this.concluidoEm = tarefa.getConcluidoEm();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+
+    public Tarefa.Status getStatus() { return status; }
+    public void setStatus(Tarefa.Status status) { this.status = status; }
+
+    public int getPrioridade() { return prioridade; }
+    public void setPrioridade(int prioridade) { this.prioridade = prioridade; }
+
+    public int getTentativas() { return tentativas; }
+    public void setTentativas(int tentativas) { this.tentativas = tentativas; }
+
+    public int getMaxTentativas() { return maxTentativas; }
+    public void setMaxTentativas(int maxTentativas) { this.maxTentativas = maxTentativas; }
+
+    public LocalDateTime getExecutarApos() { return executarApos; }
+    public void setExecutarApos(LocalDateTime executarApos) { this.executarApos = executarApos; }
+
+    public String getUltimoErro() { return ultimoErro; }
+    public void setUltimoErro(String ultimoErro) { this.ultimoErro = ultimoErro; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getIniciadoEm() { return iniciadoEm; }
+    public void setIniciadoEm(LocalDateTime iniciadoEm) { this.iniciadoEm = iniciadoEm; }
+
+    public LocalDateTime getConcluidoEm() { return concluidoEm; }
+    public void setConcluidoEm(LocalDateTime concluidoEm) { this.concluidoEm = concluidoEm; }
+}
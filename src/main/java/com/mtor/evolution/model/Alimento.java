@@ -0,0 +1,223 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "alimentos", indexes = {
+        @Index(name = "idx_alimentos_codigo_barras", columnList = "codigoBarras", unique = true)
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Alimento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 200)
+    @Column(nullable = false, length = 200)
+    private String nome;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false, length = 100)
+    private String categoria;
+
+    @Size(max = 100)
+    @Column(length = 100)
+    private String marca;
+
+    @Size(max = 50)
+    @Column(length = 50)
+    private String codigoBarras;
+
+    @NotNull
+    @Column(nullable = false)
+    private Double porcaoPadrao = 100.0;
+
+    @NotBlank
+    @Size(max = 20)
+    @Column(nullable = false, length = 20)
+    private String unidadePadrao = "g";
+
+    // Nutrient values are per 100g
+    @NotNull
+    @Column(nullable = false)
+    private Double calorias = 0.0;
+
+    @Column(nullable = false)
+    private Double proteinas = 0.0;
+
+    @Column(nullable = false)
+    private Double carboidratos = 0.0;
+
+    @Column(nullable = false)
+    private Double gorduras = 0.0;
+
+    private Double fibras;
+
+    private Double acucares;
+
+    private Double sodio;
+
+    private Double potassio;
+
+    private Double calcio;
+
+    private Double ferro;
+
+    private Double vitaminaC;
+
+    private Double vitaminaD;
+
+    private Integer indiceGlicemico;
+
+    // Comma-separated allergen names
+    @Size(max = 500)
+    @Column(length = 500)
+    private String alergenos;
+
+    @Column(nullable = false)
+    private Boolean vegetariano = false;
+
+    @Column(nullable = false)
+    private Boolean vegano = false;
+
+    @Column(nullable = false)
+    private Boolean semGluten = false;
+
+    @Column(nullable = false)
+    private Boolean semLactose = false;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public Alimento() {}
+
+    public Alimento(String nome, String categoria, Double calorias, Double proteinas, Double carboidratos, Double gorduras) {
+        this.nome = nome;
+        this.categoria = categoria;
+        this.calorias = calorias;
+        this.proteinas = proteinas;
+        this.carboidratos = carboidratos;
+        this.gorduras = gorduras;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getCategoria() { return categoria; }
+    public void setCategoria(String categoria) { this.categoria = categoria; }
+
+    public String getMarca() { return marca; }
+    public void setMarca(String marca) { this.marca = marca; }
+
+    public String getCodigoBarras() { return codigoBarras; }
+    public void setCodigoBarras(String codigoBarras) { this.codigoBarras = codigoBarras; }
+
+    public Double getPorcaoPadrao() { return porcaoPadrao; }
+    public void setPorcaoPadrao(Double porcaoPadrao) { this.porcaoPadrao = porcaoPadrao; }
+
+    public String getUnidadePadrao() { return unidadePadrao; }
+    public void setUnidadePadrao(String unidadePadrao) { this.unidadePadrao = unidadePadrao; }
+
+    public Double getCalorias() { return calorias; }
+    public void setCalorias(Double calorias) { this.calorias = calorias; }
+
+    public Double getProteinas() { return proteinas; }
+    public void setProteinas(Double proteinas) { this.proteinas = proteinas; }
+
+    public Double getCarboidratos() { return carboidratos; }
+    public void setCarboidratos(Double carboidratos) { this.carboidratos = carboidratos; }
+
+    public Double getGorduras() { return gorduras; }
+    public void setGorduras(Double gorduras) { this.gorduras = gorduras; }
+
+    public Double getFibras() { return fibras; }
+    public void setFibras(Double fibras) { this.fibras = fibras; }
+
+    public Double getAcucares() { return acucares; }
+    public void setAcucares(Double acucares) { this.acucares = acucares; }
+
+    public Double getSodio() { return sodio; }
+    public void setSodio(Double sodio) { this.sodio = sodio; }
+
+    public Double getPotassio() { return potassio; }
+    public void setPotassio(Double potassio) { this.potassio = potassio; }
+
+    public Double getCalcio() { return calcio; }
+    public void setCalcio(Double calcio) { this.calcio = calcio; }
+
+    public Double getFerro() { return ferro; }
+    public void setFerro(Double ferro) { this.ferro = ferro; }
+
+    public Double getVitaminaC() { return vitaminaC; }
+    public void setVitaminaC(Double vitaminaC) { this.vitaminaC = vitaminaC; }
+
+    public Double getVitaminaD() { return vitaminaD; }
+    public void setVitaminaD(Double vitaminaD) { this.vitaminaD = vitaminaD; }
+
+    public Integer getIndiceGlicemico() { return indiceGlicemico; }
+    public void setIndiceGlicemico(Integer indiceGlicemico) { this.indiceGlicemico = indiceGlicemico; }
+
+    public String getAlergenos() { return alergenos; }
+    public void setAlergenos(String alergenos) { this.alergenos = alergenos; }
+
+    public Boolean getVegetariano() { return vegetariano; }
+    public void setVegetariano(Boolean vegetariano) { this.vegetariano = vegetariano; }
+
+    public Boolean getVegano() { return vegano; }
+    public void setVegano(Boolean vegano) { this.vegano = vegano; }
+
+    public Boolean getSemGluten() { return semGluten; }
+    public void setSemGluten(Boolean semGluten) { this.semGluten = semGluten; }
+
+    public Boolean getSemLactose() { return semLactose; }
+    public void setSemLactose(Boolean semLactose) { this.semLactose = semLactose; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Alimento alimento = (Alimento) o;
+        return Objects.equals(id, alimento.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Alimento{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", categoria='" + categoria + '\'' +
+                '}';
+    }
+}
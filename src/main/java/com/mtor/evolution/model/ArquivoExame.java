@@ -0,0 +1,129 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "arquivos_exame", indexes = {
+        @Index(name = "idx_arquivos_exame_exame_id", columnList = "exameId"),
+        @Index(name = "idx_arquivos_exame_checksum", columnList = "checksum")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class ArquivoExame {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String exameId;
+
+    @NotBlank
+    @Size(max = 255)
+    @Column(nullable = false)
+    private String nome;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    @Size(max = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long tamanho;
+
+    // Hex SHA-256 of the content; also the blob's address in the attachment store
+    @NotBlank
+    @Size(min = 64, max = 64)
+    @Column(nullable = false, length = 64)
+    private String checksum;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dataUpload;
+
+    public enum Tipo {
+        PDF, IMAGEM, DICOM, DOCUMENTO;
+
+        public static Tipo fromFileName(String fileName) {
+            String ext = fileName != null && fileName.contains(".")
+                    ? fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase()
+                    : "";
+            switch (ext) {
+                case "pdf": return PDF;
+                case "jpg": case "jpeg": case "png": case "gif": return IMAGEM;
+                case "dcm": case "dicom": return DICOM;
+                default: return DOCUMENTO;
+            }
+        }
+    }
+
+    // Constructors
+    public ArquivoExame() {}
+
+    public ArquivoExame(String exameId, String nome, String contentType, Long tamanho, String checksum) {
+        this.exameId = exameId;
+        this.nome = nome;
+        this.tipo = Tipo.fromFileName(nome);
+        this.contentType = contentType;
+        this.tamanho = tamanho;
+        this.checksum = checksum;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getExameId() { return exameId; }
+    public void setExameId(String exameId) { this.exameId = exameId; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getTamanho() { return tamanho; }
+    public void setTamanho(Long tamanho) { this.tamanho = tamanho; }
+
+    public String getChecksum() { return checksum; }
+    public void setChecksum(String checksum) { this.checksum = checksum; }
+
+    public LocalDateTime getDataUpload() { return dataUpload; }
+    public void setDataUpload(LocalDateTime dataUpload) { this.dataUpload = dataUpload; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArquivoExame that = (ArquivoExame) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ArquivoExame{" +
+                "id=" + id +
+                ", exameId='" + exameId + '\'' +
+                ", nome='" + nome + '\'' +
+                ", tamanho=" + tamanho +
+                ", checksum='" + checksum + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,187 @@
+package com.mtor.evolution.model;
+
+import com.mtor.evolution.security.EncryptedStringConverter;
+import com.mtor.evolution.service.AgendaAvaliacaoListener;
+import com.mtor.evolution.service.AlteracaoClienteListener;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "avaliacoes_fisicas", indexes = {
+        @Index(name = "idx_avaliacoes_fisicas_cliente_id", columnList = "cliente_id"),
+        @Index(name = "idx_avaliacoes_fisicas_status", columnList = "status"),
+        @Index(name = "idx_avaliacoes_fisicas_status_data", columnList = "status, dataAvaliacao"),
+        @Index(name = "idx_avaliacoes_fisicas_proxima", columnList = "proximaAvaliacao"),
+        @Index(name = "idx_avaliacoes_fisicas_updated_at", columnList = "updatedAt")
+})
+@EntityListeners({AuditingEntityListener.class, AlteracaoClienteListener.class, AgendaAvaliacaoListener.class})
+public class AvaliacaoFisica {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate dataAvaliacao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo = Tipo.INICIAL;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.AGENDADA;
+
+    // Dados antropométricos
+    private Double peso;
+    private Double altura;
+    private Double imc;
+
+    // Composição corporal
+    private Double percentualGordura;
+    private Double massaGorda;
+    private Double massaMagra;
+    private Double massaMuscular;
+
+    // Resistência e pressão arterial
+    private Integer frequenciaCardiacaRepouso;
+    private Integer frequenciaCardiacaMaxima;
+    private Integer pressaoSistolica;
+    private Integer pressaoDiastolica;
+
+    @Size(max = 2000)
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(length = 8192)
+    private String observacoes;
+
+    private LocalDate proximaAvaliacao;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Tipo {
+        INICIAL, REAVALIACAO, CONTROLE
+    }
+
+    public enum Status {
+        AGENDADA, REALIZADA, CANCELADA
+    }
+
+    // Constructors
+    public AvaliacaoFisica() {}
+
+    public AvaliacaoFisica(Cliente cliente, LocalDate dataAvaliacao, Tipo tipo) {
+        this.cliente = cliente;
+        this.dataAvaliacao = dataAvaliacao;
+        this.tipo = tipo;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public LocalDate getDataAvaliacao() { return dataAvaliacao; }
+    public void setDataAvaliacao(LocalDate dataAvaliacao) { this.dataAvaliacao = dataAvaliacao; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Double getPeso() { return peso; }
+    public void setPeso(Double peso) { this.peso = peso; }
+
+    public Double getAltura() { return altura; }
+    public void setAltura(Double altura) { this.altura = altura; }
+
+    public Double getImc() { return imc; }
+    public void setImc(Double imc) { this.imc = imc; }
+
+    public Double getPercentualGordura() { return percentualGordura; }
+    public void setPercentualGordura(Double percentualGordura) { this.percentualGordura = percentualGordura; }
+
+    public Double getMassaGorda() { return massaGorda; }
+    public void setMassaGorda(Double massaGorda) { this.massaGorda = massaGorda; }
+
+    public Double getMassaMagra() { return massaMagra; }
+    public void setMassaMagra(Double massaMagra) { this.massaMagra = massaMagra; }
+
+    public Double getMassaMuscular() { return massaMuscular; }
+    public void setMassaMuscular(Double massaMuscular) { this.massaMuscular = massaMuscular; }
+
+    public Integer getFrequenciaCardiacaRepouso() { return frequenciaCardiacaRepouso; }
+    public void setFrequenciaCardiacaRepouso(Integer frequenciaCardiacaRepouso) { this.frequenciaCardiacaRepouso = frequenciaCardiacaRepouso; }
+
+    public Integer getFrequenciaCardiacaMaxima() { return frequenciaCardiacaMaxima; }
+    public void setFrequenciaCardiacaMaxima(Integer frequenciaCardiacaMaxima) { this.frequenciaCardiacaMaxima = frequenciaCardiacaMaxima; }
+
+    public Integer getPressaoSistolica() { return pressaoSistolica; }
+    public void setPressaoSistolica(Integer pressaoSistolica) { this.pressaoSistolica = pressaoSistolica; }
+
+    public Integer getPressaoDiastolica() { return pressaoDiastolica; }
+    public void setPressaoDiastolica(Integer pressaoDiastolica) { this.pressaoDiastolica = pressaoDiastolica; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public LocalDate getProximaAvaliacao() { return proximaAvaliacao; }
+    public void setProximaAvaliacao(LocalDate proximaAvaliacao) { this.proximaAvaliacao = proximaAvaliacao; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AvaliacaoFisica that = (AvaliacaoFisica) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "AvaliacaoFisica{" +
+                "id=" + id +
+                ", dataAvaliacao=" + dataAvaliacao +
+                ", tipo=" + tipo +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A run of consecutive heart-rate samples of one session, stored compressed
+ * (see {@link com.mtor.evolution.service.CompressaoFrequencia}) next to the
+ * summary that lets most queries skip decoding it.
+ */
+@Entity
+@Table(name = "blocos_frequencia_cardiaca", indexes = {
+        @Index(name = "idx_blocos_frequencia_cardiaca_sessao", columnList = "sessaoId, inicioMs")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class BlocoFrequenciaCardiaca {
+
+    @Id
+    @GeneratedValue(generator = "uuid-v7")
+    @GenericGenerator(name = "uuid-v7", type = GeradorUuidV7.class)
+    private UUID id;
+
+    @Column(nullable = false)
+    private Long sessaoId;
+
+    // Epoch milliseconds of the first and last sample
+    @Column(nullable = false)
+    private long inicioMs;
+
+    @Column(nullable = false)
+    private long fimMs;
+
+    @Column(nullable = false)
+    private int quantidade;
+
+    @Column(nullable = false)
+    private int bpmMinimo;
+
+    @Column(nullable = false)
+    private int bpmMaximo;
+
+    @Column(nullable = false)
+    private long somaBpm;
+
+    // Heart rate at fimMs, which covers the gap up to the next chunk
+    @Column(nullable = false)
+    private int ultimoBpm;
+
+    // Time covered by the intervals between this chunk's own samples
+    @Column(nullable = false)
+    private long duracaoMs;
+
+    @Column(nullable = false, length = 65536)
+    private byte[] dados;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public BlocoFrequenciaCardiaca() {}
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Long getSessaoId() { return sessaoId; }
+    public void setSessaoId(Long sessaoId) { this.sessaoId = sessaoId; }
+
+    public long getInicioMs() { return inicioMs; }
+    public void setInicioMs(long inicioMs) { this.inicioMs = inicioMs; }
+
+    public long getFimMs() { return fimMs; }
+    public void setFimMs(long fimMs) { this.fimMs = fimMs; }
+
+    public int getQuantidade() { return quantidade; }
+    public void setQuantidade(int quantidade) { this.quantidade = quantidade; }
+
+    public int getBpmMinimo() { return bpmMinimo; }
+    public void setBpmMinimo(int bpmMinimo) { this.bpmMinimo = bpmMinimo; }
+
+    public int getBpmMaximo() { return bpmMaximo; }
+    public void setBpmMaximo(int bpmMaximo) { this.bpmMaximo = bpmMaximo; }
+
+    public long getSomaBpm() { return somaBpm; }
+    public void setSomaBpm(long somaBpm) { this.somaBpm = somaBpm; }
+
+    public int getUltimoBpm() { return ultimoBpm; }
+    public void setUltimoBpm(int ultimoBpm) { this.ultimoBpm = ultimoBpm; }
+
+    public long getDuracaoMs() { return duracaoMs; }
+    public void setDuracaoMs(long duracaoMs) { this.duracaoMs = duracaoMs; }
+
+    public byte[] getDados() { return dados; }
+    public void setDados(byte[] dados) { this.dados = dados; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BlocoFrequenciaCardiaca bloco = (BlocoFrequenciaCardiaca) o;
+        return Objects.equals(id, bloco.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "BlocoFrequenciaCardiaca{" +
+                "id=" + id +
+                ", sessaoId=" + sessaoId +
+                ", inicioMs=" + inicioMs +
+                ", quantidade=" + quantidade +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Owner shard of one of the fixed hash buckets client ids fall into (see
+ * {@link com.mtor.evolution.service.ShardsCliente}). Lives on shard 0.
+ * {@code destino} is set while the bucket is being copied to another shard;
+ * its clients are read-only until the copy flips {@code shard}.
+ */
+@Entity
+@Table(name = "shard_buckets")
+public class BucketShard {
+
+    @Id
+    private Integer bucket;
+
+    @Column(nullable = false)
+    private int shard;
+
+    private Integer destino;
+
+    @Column(nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    // Constructors
+    public BucketShard() {}
+
+    public BucketShard(Integer bucket, int shard, LocalDateTime atualizadoEm) {
+        this.bucket = bucket;
+        this.shard = shard;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    // Getters and Setters
+    public Integer getBucket() { return bucket; }
+    public void setBucket(Integer bucket) { this.bucket = bucket; }
+
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+
+    public Integer getDestino() { return destino; }
+    public void setDestino(Integer destino) { this.destino = destino; }
+
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) { this.atualizadoEm = atualizadoEm; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BucketShard that = (BucketShard) o;
+        return Objects.equals(bucket, that.bucket);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bucket);
+    }
+
+    @Override
+    public String toString() {
+        return "BucketShard{" +
+                "bucket=" + bucket +
+                ", shard=" + shard +
+                ", destino=" + destino +
+                '}';
+    }
+}
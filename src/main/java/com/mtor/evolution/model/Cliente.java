@@ -1,10 +1,13 @@
 package com.mtor.evolution.model;
 
+import com.mtor.evolution.service.AlteracaoClienteListener;
+import com.mtor.evolution.service.AssentamentoAlteracaoListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,12 +17,15 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "clientes")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "clientes", indexes = {
+        @Index(name = "idx_clientes_alteracoes", columnList = "updatedAt, sequenciaAlteracao")
+})
+@EntityListeners({AuditingEntityListener.class, AlteracaoClienteListener.class, AssentamentoAlteracaoListener.class})
 public class Cliente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "cliente-id")
+    @GenericGenerator(name = "cliente-id", type = GeradorIdCliente.class)
     private Long id;
 
     @NotBlank
@@ -67,6 +73,10 @@ public class Cliente {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Orders changes with the same updatedAt in the change feed
+    @SequenciaAlteracao
+    private Long sequenciaAlteracao;
+
     public enum Genero {
         MASCULINO, FEMININO
     }
@@ -123,6 +133,9 @@ public class Cliente {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getSequenciaAlteracao() { return sequenciaAlteracao; }
+    public void setSequenciaAlteracao(Long sequenciaAlteracao) { this.sequenciaAlteracao = sequenciaAlteracao; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
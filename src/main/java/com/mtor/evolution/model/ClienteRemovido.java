@@ -0,0 +1,71 @@
+package com.mtor.evolution.model;
+
+import com.mtor.evolution.service.AssentamentoAlteracaoListener;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Tombstone of a deleted client, so the change feed can report the delete.
+ * Takes its id from the same sequence as {@code Cliente.sequenciaAlteracao},
+ * which orders it among the updates; kept for {@code feed.tombstone-retention-days}.
+ */
+@Entity
+@Table(name = "clientes_removidos", indexes = {
+        @Index(name = "idx_clientes_removidos_alteracoes", columnList = "removidoEm, sequencia")
+})
+@EntityListeners(AssentamentoAlteracaoListener.class)
+public class ClienteRemovido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_alteracao")
+    @SequenceGenerator(name = "clientes_alteracao", sequenceName = GeradorSequenciaAlteracao.SEQUENCIA, allocationSize = 1)
+    private Long sequencia;
+
+    @Column(nullable = false)
+    private Long clienteId;
+
+    @Column(nullable = false)
+    private LocalDateTime removidoEm;
+
+    // Constructors
+    public ClienteRemovido() {}
+
+    public ClienteRemovido(Long clienteId, LocalDateTime removidoEm) {
+        this.clienteId = clienteId;
+        this.removidoEm = removidoEm;
+    }
+
+    // Getters and Setters
+    public Long getSequencia() { return sequencia; }
+    public void setSequencia(Long sequencia) { this.sequencia = sequencia; }
+
+    public Long getClienteId() { return clienteId; }
+    public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
+
+    public LocalDateTime getRemovidoEm() { return removidoEm; }
+    public void setRemovidoEm(LocalDateTime removidoEm) { this.removidoEm = removidoEm; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClienteRemovido that = (ClienteRemovido) o;
+        return Objects.equals(sequencia, that.sequencia);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequencia);
+    }
+
+    @Override
+    public String toString() {
+        return "ClienteRemovido{" +
+                "sequencia=" + sequencia +
+                ", clienteId=" + clienteId +
+                ", removidoEm=" + removidoEm +
+                '}';
+    }
+}
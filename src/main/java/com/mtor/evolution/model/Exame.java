@@ -0,0 +1,176 @@
+package com.mtor.evolution.model;
+
+import com.mtor.evolution.security.EncryptedStringConverter;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Entity
+@Table(name = "exames", indexes = {
+        @Index(name = "idx_exames_cliente_id", columnList = "cliente_id"),
+        @Index(name = "idx_exames_status", columnList = "status")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Exame {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false)
+    private String tipoExame;
+
+    @Size(max = 100)
+    private String categoria;
+
+    @Size(max = 100)
+    private String laboratorio;
+
+    @Size(max = 150)
+    private String medicoSolicitante;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime dataColeta;
+
+    private LocalDateTime dataResultado;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.SOLICITADO;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Prioridade prioridade = Prioridade.NORMAL;
+
+    @ElementCollection
+    @CollectionTable(name = "resultados_exame", joinColumns = @JoinColumn(name = "exame_id"))
+    @OrderColumn(name = "ordem")
+    private List<ResultadoExame> resultados = new ArrayList<>();
+
+    @Size(max = 2000)
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(length = 8192)
+    private String observacoes;
+
+    @Size(max = 2000)
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(length = 8192)
+    private String observacoesMedicas;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        SOLICITADO, AGENDADO, COLETADO, PROCESSANDO, CONCLUIDO, CANCELADO, REAGENDADO
+    }
+
+    public enum Prioridade {
+        BAIXA, NORMAL, ALTA, URGENTE
+    }
+
+    // Constructors
+    public Exame() {}
+
+    public Exame(Cliente cliente, String tipoExame, LocalDateTime dataColeta) {
+        this.cliente = cliente;
+        this.tipoExame = tipoExame;
+        this.dataColeta = dataColeta;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public String getTipoExame() { return tipoExame; }
+    public void setTipoExame(String tipoExame) { this.tipoExame = tipoExame; }
+
+    public String getCategoria() { return categoria; }
+    public void setCategoria(String categoria) { this.categoria = categoria; }
+
+    public String getLaboratorio() { return laboratorio; }
+    public void setLaboratorio(String laboratorio) { this.laboratorio = laboratorio; }
+
+    public String getMedicoSolicitante() { return medicoSolicitante; }
+    public void setMedicoSolicitante(String medicoSolicitante) { this.medicoSolicitante = medicoSolicitante; }
+
+    public LocalDateTime getDataColeta() { return dataColeta; }
+    public void setDataColeta(LocalDateTime dataColeta) { this.dataColeta = dataColeta; }
+
+    public LocalDateTime getDataResultado() { return dataResultado; }
+    public void setDataResultado(LocalDateTime dataResultado) { this.dataResultado = dataResultado; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Prioridade getPrioridade() { return prioridade; }
+    public void setPrioridade(Prioridade prioridade) { this.prioridade = prioridade; }
+
+    public List<ResultadoExame> getResultados() { return resultados; }
+    public void setResultados(List<ResultadoExame> resultados) { this.resultados = resultados; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public String getObservacoesMedicas() { return observacoesMedicas; }
+    public void setObservacoesMedicas(String observacoesMedicas) { this.observacoesMedicas = observacoesMedicas; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Exame exame = (Exame) o;
+        return Objects.equals(id, exame.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Exame{" +
+                "id=" + id +
+                ", tipoExame='" + tipoExame + '\'' +
+                ", dataColeta=" + dataColeta +
+                ", status=" + status +
+                '}';
+    }
+}
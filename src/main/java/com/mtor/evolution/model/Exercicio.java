@@ -0,0 +1,76 @@
+package com.mtor.evolution.model;
+
+import java.util.Objects;
+
+/**
+ * One exercise of a training protocol. Stored inside the protocol's
+ * {@code exercicios} JSON column, not in a table of its own.
+ */
+public class Exercicio {
+
+    private String id;
+    private String nome;
+    private String grupoMuscular;
+    private Integer series;
+    private String repeticoes;
+    private Double carga;
+    private Integer descanso;
+    private String observacoes;
+
+    // Constructors
+    public Exercicio() {}
+
+    public Exercicio(String id, String nome, String grupoMuscular, Integer series, String repeticoes, Integer descanso) {
+        this.id = id;
+        this.nome = nome;
+        this.grupoMuscular = grupoMuscular;
+        this.series = series;
+        this.repeticoes = repeticoes;
+        this.descanso = descanso;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getGrupoMuscular() { return grupoMuscular; }
+    public void setGrupoMuscular(String grupoMuscular) { this.grupoMuscular = grupoMuscular; }
+
+    public Integer getSeries() { return series; }
+    public void setSeries(Integer series) { this.series = series; }
+
+    public String getRepeticoes() { return repeticoes; }
+    public void setRepeticoes(String repeticoes) { this.repeticoes = repeticoes; }
+
+    public Double getCarga() { return carga; }
+    public void setCarga(Double carga) { this.carga = carga; }
+
+    public Integer getDescanso() { return descanso; }
+    public void setDescanso(Integer descanso) { this.descanso = descanso; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Exercicio that = (Exercicio) o;
+        return Objects.equals(id, that.id)
+                && Objects.equals(nome, that.nome)
+                && Objects.equals(grupoMuscular, that.grupoMuscular)
+                && Objects.equals(series, that.series)
+                && Objects.equals(repeticoes, that.repeticoes)
+                && Objects.equals(carga, that.carga)
+                && Objects.equals(descanso, that.descanso)
+                && Objects.equals(observacoes, that.observacoes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, nome, grupoMuscular, series, repeticoes, carga, descanso, observacoes);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mtor.evolution.model;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Id generator of {@link Cliente}: the identity column as before, unless
+ * client sharding is on, where the id must be allocated before the insert
+ * (it decides the shard, see {@link com.mtor.evolution.service.ShardsCliente})
+ * and is taken from the entity as is.
+ */
+public class GeradorIdCliente extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    // Hibernate setting, put by DatabaseConfig when sharding.enabled
+    public static final String SHARDING = "mtor.sharding.enabled";
+
+    private boolean sharding;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        Object valor = serviceRegistry.getService(ConfigurationService.class).getSettings().get(SHARDING);
+        sharding = Boolean.parseBoolean(String.valueOf(valor));
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return !sharding;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        Long id = ((Cliente) owner).getId();
+        if (id == null) {
+            throw new IllegalStateException("Cliente sem id pré-alocado no modo sharding");
+        }
+        return id;
+    }
+}
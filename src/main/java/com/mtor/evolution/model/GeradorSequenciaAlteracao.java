@@ -0,0 +1,38 @@
+package com.mtor.evolution.model;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.OnExecutionGenerator;
+
+import java.util.EnumSet;
+
+/**
+ * Puts {@code nextval} of the change sequence into the INSERT/UPDATE itself,
+ * so no extra round trip is needed before the write; Hibernate reads the
+ * value back afterwards.
+ */
+public class GeradorSequenciaAlteracao implements OnExecutionGenerator {
+
+    public static final String SEQUENCIA = "clientes_alteracao_seq";
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_AND_UPDATE;
+    }
+
+    @Override
+    public boolean referenceColumnsInSql(Dialect dialect) {
+        return true;
+    }
+
+    @Override
+    public boolean writePropertyValue() {
+        return false;
+    }
+
+    @Override
+    public String[] getReferencedColumnValues(Dialect dialect) {
+        return new String[]{dialect.getSequenceSupport().getSelectSequenceNextValString(SEQUENCIA)};
+    }
+}
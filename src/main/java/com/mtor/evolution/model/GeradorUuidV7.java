@@ -0,0 +1,31 @@
+package com.mtor.evolution.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+/**
+ * Id generator for {@link UuidV7} keys. The id is made in the application
+ * before the insert, so unlike an identity column Hibernate can send the
+ * inserts of a flush as one JDBC batch. An id already set on the entity
+ * (made by the caller, e.g. a client that created the row offline) is kept.
+ * It is read from the entity itself: Hibernate passes no current value, and
+ * a repository {@code save} of an entity with an id goes through merge,
+ * whose copy carries that id. A versioned entity ({@link Protocolo}) needs
+ * its version set too (0), or Hibernate cannot tell it from a detached one.
+ */
+public class GeradorUuidV7 implements BeforeExecutionGenerator {
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        Object atribuido = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return atribuido != null ? atribuido : UuidV7.gerar();
+    }
+}
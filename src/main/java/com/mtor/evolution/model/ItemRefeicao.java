@@ -0,0 +1,60 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Embedded;
+
+@Embeddable
+public class ItemRefeicao {
+
+    @Column(nullable = false)
+    private Long alimentoId;
+
+    @Column(nullable = false)
+    private Double quantidade;
+
+    // "g"/"ml" are absolute amounts; anything else counts default portions of the food
+    @Column(nullable = false, length = 20)
+    private String unidade = "g";
+
+    private String observacoes;
+
+    // What the item added to its meal's totals when last counted, so removing or replacing it
+    // subtracts exactly that even if the food's nutrients changed since
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "calorias", column = @Column(name = "contrib_calorias")),
+            @AttributeOverride(name = "proteinas", column = @Column(name = "contrib_proteinas")),
+            @AttributeOverride(name = "carboidratos", column = @Column(name = "contrib_carboidratos")),
+            @AttributeOverride(name = "gorduras", column = @Column(name = "contrib_gorduras")),
+            @AttributeOverride(name = "fibras", column = @Column(name = "contrib_fibras"))
+    })
+    private ValoresNutricionais contribuicao;
+
+    // Constructors
+    public ItemRefeicao() {}
+
+    public ItemRefeicao(Long alimentoId, Double quantidade, String unidade) {
+        this.alimentoId = alimentoId;
+        this.quantidade = quantidade;
+        this.unidade = unidade;
+    }
+
+    // Getters and Setters
+    public Long getAlimentoId() { return alimentoId; }
+    public void setAlimentoId(Long alimentoId) { this.alimentoId = alimentoId; }
+
+    public Double getQuantidade() { return quantidade; }
+    public void setQuantidade(Double quantidade) { this.quantidade = quantidade; }
+
+    public String getUnidade() { return unidade; }
+    public void setUnidade(String unidade) { this.unidade = unidade; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public ValoresNutricionais getContribuicao() { return contribuicao; }
+    public void setContribuicao(ValoresNutricionais contribuicao) { this.contribuicao = contribuicao; }
+}
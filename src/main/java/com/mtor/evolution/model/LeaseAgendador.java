@@ -0,0 +1,67 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Time-limited ownership of a background job shared by all instances. The
+ * holder keeps extending {@code expiraEm}; anyone may take it over once it
+ * has passed.
+ */
+@Entity
+@Table(name = "leases_agendador")
+public class LeaseAgendador {
+
+    @Id
+    @Column(length = 100)
+    private String nome;
+
+    @Column(nullable = false, length = 100)
+    private String dono;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+
+    // Constructors
+    public LeaseAgendador() {}
+
+    public LeaseAgendador(String nome, String dono, LocalDateTime expiraEm) {
+        this.nome = nome;
+        this.dono = dono;
+        this.expiraEm = expiraEm;
+    }
+
+    // Getters and Setters
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getDono() { return dono; }
+    public void setDono(String dono) { this.dono = dono; }
+
+    public LocalDateTime getExpiraEm() { return expiraEm; }
+    public void setExpiraEm(LocalDateTime expiraEm) { this.expiraEm = expiraEm; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LeaseAgendador lease = (LeaseAgendador) o;
+        return Objects.equals(nome, lease.nome);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nome);
+    }
+
+    @Override
+    public String toString() {
+        return "LeaseAgendador{" +
+                "nome='" + nome + '\'' +
+                ", dono='" + dono + '\'' +
+                ", expiraEm=" + expiraEm +
+                '}';
+    }
+}
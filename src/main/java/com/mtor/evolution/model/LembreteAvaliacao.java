@@ -0,0 +1,110 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A reminder that has fired. The unique key is what makes each reminder fire
+ * once even if two instances both believe they hold the scheduler lease.
+ */
+@Entity
+@Table(name = "lembretes_avaliacao", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lembretes_avaliacao", columnNames = {"avaliacaoId", "tipo", "venceEm"})
+}, indexes = {
+        @Index(name = "idx_lembretes_avaliacao_vence_em", columnList = "venceEm")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class LembreteAvaliacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long avaliacaoId;
+
+    @Column(nullable = false)
+    private Long clienteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    @Column(nullable = false)
+    private LocalDateTime venceEm;
+
+    // Instance that fired it
+    @Column(length = 100)
+    private String instancia;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime disparadoEm;
+
+    public enum Tipo {
+        // Ahead of an AGENDADA assessment
+        AVALIACAO_AGENDADA,
+        // On the proximaAvaliacao date of the latest REALIZADA assessment
+        REAVALIACAO
+    }
+
+    // Constructors
+    public LembreteAvaliacao() {}
+
+    public LembreteAvaliacao(Long avaliacaoId, Long clienteId, Tipo tipo, LocalDateTime venceEm, String instancia) {
+        this.avaliacaoId = avaliacaoId;
+        this.clienteId = clienteId;
+        this.tipo = tipo;
+        this.venceEm = venceEm;
+        this.instancia = instancia;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAvaliacaoId() { return avaliacaoId; }
+    public void setAvaliacaoId(Long avaliacaoId) { this.avaliacaoId = avaliacaoId; }
+
+    public Long getClienteId() { return clienteId; }
+    public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public LocalDateTime getVenceEm() { return venceEm; }
+    public void setVenceEm(LocalDateTime venceEm) { this.venceEm = venceEm; }
+
+    public String getInstancia() { return instancia; }
+    public void setInstancia(String instancia) { this.instancia = instancia; }
+
+    public LocalDateTime getDisparadoEm() { return disparadoEm; }
+    public void setDisparadoEm(LocalDateTime disparadoEm) { this.disparadoEm = disparadoEm; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LembreteAvaliacao lembrete = (LembreteAvaliacao) o;
+        return Objects.equals(id, lembrete.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "LembreteAvaliacao{" +
+                "id=" + id +
+                ", avaliacaoId=" + avaliacaoId +
+                ", tipo=" + tipo +
+                ", venceEm=" + venceEm +
+                '}';
+    }
+}
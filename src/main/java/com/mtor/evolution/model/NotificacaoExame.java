@@ -0,0 +1,120 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "notificacoes_exame", indexes = {
+        @Index(name = "idx_notificacoes_exame_destinatario", columnList = "destinatario, dataEnvio")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class NotificacaoExame {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long exameId;
+
+    private Long clienteId;
+
+    // Email of the user the notification is addressed to
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    @NotBlank
+    @Size(max = 150)
+    @Column(nullable = false)
+    private String titulo;
+
+    @NotBlank
+    @Size(max = 1000)
+    @Column(nullable = false, length = 1000)
+    private String mensagem;
+
+    @Column(nullable = false)
+    private boolean lida = false;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dataEnvio;
+
+    public enum Tipo {
+        RESULTADO_DISPONIVEL, VALOR_ALTERADO, EXAME_AGENDADO, LEMBRETE_COLETA, AVALIACAO_AGENDADA, REAVALIACAO_PENDENTE
+    }
+
+    // Constructors
+    public NotificacaoExame() {}
+
+    public NotificacaoExame(String destinatario, Long exameId, Long clienteId, Tipo tipo, String titulo, String mensagem) {
+        this.destinatario = destinatario;
+        this.exameId = exameId;
+        this.clienteId = clienteId;
+        this.tipo = tipo;
+        this.titulo = titulo;
+        this.mensagem = mensagem;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getExameId() { return exameId; }
+    public void setExameId(Long exameId) { this.exameId = exameId; }
+
+    public Long getClienteId() { return clienteId; }
+    public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
+
+    public String getDestinatario() { return destinatario; }
+    public void setDestinatario(String destinatario) { this.destinatario = destinatario; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public String getTitulo() { return titulo; }
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+
+    public String getMensagem() { return mensagem; }
+    public void setMensagem(String mensagem) { this.mensagem = mensagem; }
+
+    public boolean isLida() { return lida; }
+    public void setLida(boolean lida) { this.lida = lida; }
+
+    public LocalDateTime getDataEnvio() { return dataEnvio; }
+    public void setDataEnvio(LocalDateTime dataEnvio) { this.dataEnvio = dataEnvio; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NotificacaoExame that = (NotificacaoExame) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "NotificacaoExame{" +
+                "id=" + id +
+                ", destinatario='" + destinatario + '\'' +
+                ", tipo=" + tipo +
+                ", lida=" + lida +
+                '}';
+    }
+}
@@ -0,0 +1,178 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Entity
+@Table(name = "planos_alimentares", indexes = {
+        @Index(name = "idx_planos_alimentares_cliente_id", columnList = "cliente_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class PlanoAlimentar {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @NotBlank
+    @Size(max = 150)
+    @Column(nullable = false, length = 150)
+    private String nome;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Objetivo objetivo = Objetivo.MANUTENCAO;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate dataInicio;
+
+    private LocalDate dataFim;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.ATIVO;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "calorias", column = @Column(name = "meta_calorias")),
+            @AttributeOverride(name = "proteinas", column = @Column(name = "meta_proteinas")),
+            @AttributeOverride(name = "carboidratos", column = @Column(name = "meta_carboidratos")),
+            @AttributeOverride(name = "gorduras", column = @Column(name = "meta_gorduras")),
+            @AttributeOverride(name = "fibras", column = @Column(name = "meta_fibras"))
+    })
+    private ValoresNutricionais metas = new ValoresNutricionais();
+
+    // Kept in step with the meals' totals by delta on every item change
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "calorias", column = @Column(name = "total_calorias")),
+            @AttributeOverride(name = "proteinas", column = @Column(name = "total_proteinas")),
+            @AttributeOverride(name = "carboidratos", column = @Column(name = "total_carboidratos")),
+            @AttributeOverride(name = "gorduras", column = @Column(name = "total_gorduras")),
+            @AttributeOverride(name = "fibras", column = @Column(name = "total_fibras"))
+    })
+    private ValoresNutricionais totais = ValoresNutricionais.zero();
+
+    @OneToMany(mappedBy = "plano", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("ordem ASC")
+    private List<Refeicao> refeicoes = new ArrayList<>();
+
+    @Size(max = 2000)
+    @Column(length = 2000)
+    private String observacoes;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Objetivo {
+        PERDA_PESO, GANHO_PESO, MANUTENCAO, GANHO_MASSA, DEFINICAO, PERFORMANCE
+    }
+
+    public enum Status {
+        ATIVO, INATIVO, PAUSADO, CONCLUIDO
+    }
+
+    // Constructors
+    public PlanoAlimentar() {}
+
+    public PlanoAlimentar(Cliente cliente, String nome, LocalDate dataInicio) {
+        this.cliente = cliente;
+        this.nome = nome;
+        this.dataInicio = dataInicio;
+    }
+
+    public void addRefeicao(Refeicao refeicao) {
+        refeicao.setPlano(this);
+        refeicoes.add(refeicao);
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public Objetivo getObjetivo() { return objetivo; }
+    public void setObjetivo(Objetivo objetivo) { this.objetivo = objetivo; }
+
+    public LocalDate getDataInicio() { return dataInicio; }
+    public void setDataInicio(LocalDate dataInicio) { this.dataInicio = dataInicio; }
+
+    public LocalDate getDataFim() { return dataFim; }
+    public void setDataFim(LocalDate dataFim) { this.dataFim = dataFim; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public ValoresNutricionais getMetas() { return metas; }
+    public void setMetas(ValoresNutricionais metas) { this.metas = metas; }
+
+    public ValoresNutricionais getTotais() { return totais; }
+    public void setTotais(ValoresNutricionais totais) { this.totais = totais; }
+
+    public List<Refeicao> getRefeicoes() { return refeicoes; }
+    public void setRefeicoes(List<Refeicao> refeicoes) { this.refeicoes = refeicoes; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PlanoAlimentar plano = (PlanoAlimentar) o;
+        return Objects.equals(id, plano.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "PlanoAlimentar{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
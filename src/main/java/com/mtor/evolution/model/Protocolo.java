@@ -0,0 +1,197 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Training protocol. {@code PRE_DEFINIDO} rows are the shared templates;
+ * a {@code PERSONALIZADO} row derived from a template ({@link #protocoloBaseId}
+ * set) is stored copy-on-write: every content column left null is read from
+ * the template, so only the fields a coach actually changed take space.
+ */
+@Entity
+@Table(name = "protocolos", indexes = {
+        @Index(name = "idx_protocolos_tipo", columnList = "tipo"),
+        @Index(name = "idx_protocolos_protocolo_base_id", columnList = "protocolo_base_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Protocolo {
+
+    @Id
+    @GeneratedValue(generator = "uuid-v7")
+    @GenericGenerator(name = "uuid-v7", type = GeradorUuidV7.class)
+    private UUID id;
+
+    @NotBlank
+    @Size(max = 150)
+    @Column(nullable = false)
+    private String nome;
+
+    @Size(max = 2000)
+    @Column(length = 2000)
+    private String descricao;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    @Enumerated(EnumType.STRING)
+    private Nivel nivel;
+
+    private Integer duracaoSemanas;
+
+    @Size(max = 255)
+    private String objetivo;
+
+    @Size(max = 2000)
+    @Column(length = 2000)
+    private String observacoes;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<Exercicio> exercicios;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> anexos;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> links;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.ATIVO;
+
+    // Template this protocol was personalized from
+    @Column(name = "protocolo_base_id")
+    private UUID protocoloBaseId;
+
+    // Template version at derivation time, to tell coaches the template moved on
+    private Long versaoBase;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Tipo {
+        PRE_DEFINIDO, PERSONALIZADO
+    }
+
+    public enum Nivel {
+        INICIANTE, INTERMEDIARIO, AVANCADO
+    }
+
+    public enum Status {
+        ATIVO, INATIVO
+    }
+
+    // Constructors
+    public Protocolo() {}
+
+    public Protocolo(String nome, String descricao, Tipo tipo, Nivel nivel, Integer duracaoSemanas, String objetivo) {
+        this.nome = nome;
+        this.descricao = descricao;
+        this.tipo = tipo;
+        this.nivel = nivel;
+        this.duracaoSemanas = duracaoSemanas;
+        this.objetivo = objetivo;
+    }
+
+    public boolean isDerivado() {
+        return protocoloBaseId != null;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public String getDescricao() { return descricao; }
+    public void setDescricao(String descricao) { this.descricao = descricao; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public Nivel getNivel() { return nivel; }
+    public void setNivel(Nivel nivel) { this.nivel = nivel; }
+
+    public Integer getDuracaoSemanas() { return duracaoSemanas; }
+    public void setDuracaoSemanas(Integer duracaoSemanas) { this.duracaoSemanas = duracaoSemanas; }
+
+    public String getObjetivo() { return objetivo; }
+    public void setObjetivo(String objetivo) { this.objetivo = objetivo; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    public List<Exercicio> getExercicios() { return exercicios; }
+    public void setExercicios(List<Exercicio> exercicios) { this.exercicios = exercicios; }
+
+    public List<String> getAnexos() { return anexos; }
+    public void setAnexos(List<String> anexos) { this.anexos = anexos; }
+
+    public List<String> getLinks() { return links; }
+    public void setLinks(List<String> links) { this.links = links; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public UUID getProtocoloBaseId() { return protocoloBaseId; }
+    public void setProtocoloBaseId(UUID protocoloBaseId) { this.protocoloBaseId = protocoloBaseId; }
+
+    public Long getVersaoBase() { return versaoBase; }
+    public void setVersaoBase(Long versaoBase) { this.versaoBase = versaoBase; }
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Protocolo protocolo = (Protocolo) o;
+        return Objects.equals(id, protocolo.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Protocolo{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", tipo=" + tipo +
+                ", status=" + status +
+                '}';
+    }
+}
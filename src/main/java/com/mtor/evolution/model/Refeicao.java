@@ -0,0 +1,115 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Entity
+@Table(name = "refeicoes", indexes = {
+        @Index(name = "idx_refeicoes_plano_id", columnList = "plano_id")
+})
+public class Refeicao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "plano_id", nullable = false)
+    private PlanoAlimentar plano;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    private LocalTime horario;
+
+    @Column(nullable = false)
+    private Integer ordem = 0;
+
+    @ElementCollection
+    @BatchSize(size = 20)
+    // Single-item edits count and shift a meal's items by refeicao_id, see PlanoAlimentarService
+    @CollectionTable(name = "itens_refeicao", joinColumns = @JoinColumn(name = "refeicao_id"),
+            indexes = @Index(name = "idx_itens_refeicao_refeicao", columnList = "refeicao_id, ordem"))
+    @OrderColumn(name = "ordem")
+    private List<ItemRefeicao> itens = new ArrayList<>();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "calorias", column = @Column(name = "total_calorias")),
+            @AttributeOverride(name = "proteinas", column = @Column(name = "total_proteinas")),
+            @AttributeOverride(name = "carboidratos", column = @Column(name = "total_carboidratos")),
+            @AttributeOverride(name = "gorduras", column = @Column(name = "total_gorduras")),
+            @AttributeOverride(name = "fibras", column = @Column(name = "total_fibras"))
+    })
+    private ValoresNutricionais totais = ValoresNutricionais.zero();
+
+    @Size(max = 1000)
+    @Column(length = 1000)
+    private String observacoes;
+
+    public enum Tipo {
+        CAFE_MANHA, LANCHE_MANHA, ALMOCO, LANCHE_TARDE, JANTAR, CEIA, PRE_TREINO, POS_TREINO
+    }
+
+    // Constructors
+    public Refeicao() {}
+
+    public Refeicao(String nome, Tipo tipo) {
+        this.nome = nome;
+        this.tipo = tipo;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public PlanoAlimentar getPlano() { return plano; }
+    public void setPlano(PlanoAlimentar plano) { this.plano = plano; }
+
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+
+    public LocalTime getHorario() { return horario; }
+    public void setHorario(LocalTime horario) { this.horario = horario; }
+
+    public Integer getOrdem() { return ordem; }
+    public void setOrdem(Integer ordem) { this.ordem = ordem; }
+
+    public List<ItemRefeicao> getItens() { return itens; }
+    public void setItens(List<ItemRefeicao> itens) { this.itens = itens; }
+
+    public ValoresNutricionais getTotais() { return totais; }
+    public void setTotais(ValoresNutricionais totais) { this.totais = totais; }
+
+    public String getObservacoes() { return observacoes; }
+    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Refeicao refeicao = (Refeicao) o;
+        return id != null && Objects.equals(id, refeicao.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
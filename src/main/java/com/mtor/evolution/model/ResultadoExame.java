@@ -0,0 +1,64 @@
+package com.mtor.evolution.model;
+
+import com.mtor.evolution.security.EncryptedStringConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+@Embeddable
+public class ResultadoExame {
+
+    @Column(nullable = false)
+    private String parametro;
+
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(nullable = false, length = 1200)
+    private String valor;
+
+    private String unidade;
+
+    private String valorReferencia;
+
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.NORMAL;
+
+    @Convert(converter = EncryptedStringConverter.class)
+    @Column(length = 1200)
+    private String observacao;
+
+    public enum Status {
+        NORMAL, ALTERADO, CRITICO
+    }
+
+    // Constructors
+    public ResultadoExame() {}
+
+    public ResultadoExame(String parametro, String valor, String unidade, String valorReferencia, Status status) {
+        this.parametro = parametro;
+        this.valor = valor;
+        this.unidade = unidade;
+        this.valorReferencia = valorReferencia;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public String getParametro() { return parametro; }
+    public void setParametro(String parametro) { this.parametro = parametro; }
+
+    public String getValor() { return valor; }
+    public void setValor(String valor) { this.valor = valor; }
+
+    public String getUnidade() { return unidade; }
+    public void setUnidade(String unidade) { this.unidade = unidade; }
+
+    public String getValorReferencia() { return valorReferencia; }
+    public void setValorReferencia(String valorReferencia) { this.valorReferencia = valorReferencia; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getObservacao() { return observacao; }
+    public void setObservacao(String observacao) { this.observacao = observacao; }
+}
@@ -0,0 +1,19 @@
+package com.mtor.evolution.model;
+
+import org.hibernate.annotations.ValueGenerationType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Next value of {@link GeradorSequenciaAlteracao#SEQUENCIA}, taken by the
+ * database in every insert and update of the entity.
+ */
+@ValueGenerationType(generatedBy = GeradorSequenciaAlteracao.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface SequenciaAlteracao {
+}
@@ -0,0 +1,57 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Next free id of a sequence shared by all shards, handed out in blocks
+ * (see {@link com.mtor.evolution.service.ShardsCliente}). Lives on shard 0.
+ */
+@Entity
+@Table(name = "sequencias_id")
+public class SequenciaId {
+
+    @Id
+    @Column(length = 100)
+    private String nome;
+
+    @Column(nullable = false)
+    private long proximo;
+
+    // Constructors
+    public SequenciaId() {}
+
+    public SequenciaId(String nome, long proximo) {
+        this.nome = nome;
+        this.proximo = proximo;
+    }
+
+    // Getters and Setters
+    public String getNome() { return nome; }
+    public void setNome(String nome) { this.nome = nome; }
+
+    public long getProximo() { return proximo; }
+    public void setProximo(long proximo) { this.proximo = proximo; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SequenciaId that = (SequenciaId) o;
+        return Objects.equals(nome, that.nome);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nome);
+    }
+
+    @Override
+    public String toString() {
+        return "SequenciaId{" +
+                "nome='" + nome + '\'' +
+                ", proximo=" + proximo +
+                '}';
+    }
+}
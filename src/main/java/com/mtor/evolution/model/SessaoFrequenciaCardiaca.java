@@ -0,0 +1,105 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One heart-rate strap recording of a client. The samples themselves live in
+ * {@link BlocoFrequenciaCardiaca} chunks.
+ */
+@Entity
+@Table(name = "sessoes_frequencia_cardiaca", indexes = {
+        @Index(name = "idx_sessoes_frequencia_cardiaca_cliente_id", columnList = "cliente_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class SessaoFrequenciaCardiaca {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @Size(max = 100)
+    @Column(length = 100)
+    private String dispositivo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.ATIVA;
+
+    private LocalDateTime encerradaEm;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        ATIVA, ENCERRADA
+    }
+
+    // Constructors
+    public SessaoFrequenciaCardiaca() {}
+
+    public SessaoFrequenciaCardiaca(Cliente cliente, String dispositivo) {
+        this.cliente = cliente;
+        this.dispositivo = dispositivo;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Cliente getCliente() { return cliente; }
+    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+
+    public String getDispositivo() { return dispositivo; }
+    public void setDispositivo(String dispositivo) { this.dispositivo = dispositivo; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public LocalDateTime getEncerradaEm() { return encerradaEm; }
+    public void setEncerradaEm(LocalDateTime encerradaEm) { this.encerradaEm = encerradaEm; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SessaoFrequenciaCardiaca sessao = (SessaoFrequenciaCardiaca) o;
+        return Objects.equals(id, sessao.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "SessaoFrequenciaCardiaca{" +
+                "id=" + id +
+                ", dispositivo='" + dispositivo + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A background job. Workers claim rows with {@code FOR UPDATE SKIP LOCKED}
+ * (see {@link com.mtor.evolution.service.FilaTarefas}); a claimed row is
+ * invisible to other workers until {@code bloqueadoAte}, after which it is
+ * handed out again as if the worker had died.
+ */
+@Entity
+@Table(name = "tarefas", indexes = {
+        @Index(name = "idx_tarefas_fila", columnList = "tipo, status, prioridade, executarApos"),
+        @Index(name = "idx_tarefas_concluido_em", columnList = "concluidoEm")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Tarefa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String tipo;
+
+    // JSON, read by the job type's ProcessadorTarefa
+    @Column(nullable = false, length = 10000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDENTE;
+
+    // Higher runs first
+    @Column(nullable = false)
+    private int prioridade;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(nullable = false)
+    private int maxTentativas;
+
+    // Not claimed before this time (initial delay or retry backoff)
+    @Column(nullable = false)
+    private LocalDateTime executarApos;
+
+    // Visibility timeout of the current claim
+    private LocalDateTime bloqueadoAte;
+
+    // Worker instance holding the current claim
+    @Column(length = 100)
+    private String dono;
+
+    @Column(length = 1000)
+    private String ultimoErro;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime iniciadoEm;
+
+    private LocalDateTime concluidoEm;
+
+    public enum Status {
+        PENDENTE, EM_EXECUCAO, CONCLUIDA, FALHOU
+    }
+
+    // Constructors
+    public Tarefa() {}
+
+    public Tarefa(String tipo, String payload, int prioridade, int maxTentativas, LocalDateTime executarApos) {
+        this.tipo = tipo;
+        this.payload = payload;
+        this.prioridade = prioridade;
+        this.maxTentativas = maxTentativas;
+        this.executarApos = executarApos;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getPrioridade() { return prioridade; }
+    public void setPrioridade(int prioridade) { this.prioridade = prioridade; }
+
+    public int getTentativas() { return tentativas; }
+    public void setTentativas(int tentativas) { this.tentativas = tentativas; }
+
+    public int getMaxTentativas() { return maxTentativas; }
+    public void setMaxTentativas(int maxTentativas) { this.maxTentativas = maxTentativas; }
+
+    public LocalDateTime getExecutarApos() { return executarApos; }
+    public void setExecutarApos(LocalDateTime executarApos) { this.executarApos = executarApos; }
+
+    public LocalDateTime getBloqueadoAte() { return bloqueadoAte; }
+    public void setBloqueadoAte(LocalDateTime bloqueadoAte) { this.bloqueadoAte = bloqueadoAte; }
+
+    public String getDono() { return dono; }
+    public void setDono(String dono) { this.dono = dono; }
+
+    public String getUltimoErro() { return ultimoErro; }
+    public void setUltimoErro(String ultimoErro) { this.ultimoErro = ultimoErro; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getIniciadoEm() { return iniciadoEm; }
+    public void setIniciadoEm(LocalDateTime iniciadoEm) { this.iniciadoEm = iniciadoEm; }
+
+    public LocalDateTime getConcluidoEm() { return concluidoEm; }
+    public void setConcluidoEm(LocalDateTime concluidoEm) { this.concluidoEm = concluidoEm; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Tarefa tarefa = (Tarefa) o;
+        return Objects.equals(id, tarefa.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Tarefa{" +
+                "id=" + id +
+                ", tipo='" + tipo + '\'' +
+                ", status=" + status +
+                ", tentativas=" + tentativas +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.mtor.evolution.model;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * Energy (kcal) and macronutrients (g). Used both for targets and for
+ * running totals, which are adjusted by deltas when a single item changes.
+ */
+@Embeddable
+public class ValoresNutricionais {
+
+    private Double calorias;
+    private Double proteinas;
+    private Double carboidratos;
+    private Double gorduras;
+    private Double fibras;
+
+    // Constructors
+    public ValoresNutricionais() {}
+
+    public ValoresNutricionais(Double calorias, Double proteinas, Double carboidratos, Double gorduras, Double fibras) {
+        this.calorias = calorias;
+        this.proteinas = proteinas;
+        this.carboidratos = carboidratos;
+        this.gorduras = gorduras;
+        this.fibras = fibras;
+    }
+
+    public static ValoresNutricionais zero() {
+        return new ValoresNutricionais(0.0, 0.0, 0.0, 0.0, 0.0);
+    }
+
+    public ValoresNutricionais copia() {
+        return new ValoresNutricionais(calorias, proteinas, carboidratos, gorduras, fibras);
+    }
+
+    /** Adds {@code fator * outro} in place; null fields count as zero. */
+    public ValoresNutricionais somar(ValoresNutricionais outro, double fator) {
+        calorias = soma(calorias, outro.calorias, fator);
+        proteinas = soma(proteinas, outro.proteinas, fator);
+        carboidratos = soma(carboidratos, outro.carboidratos, fator);
+        gorduras = soma(gorduras, outro.gorduras, fator);
+        fibras = soma(fibras, outro.fibras, fator);
+        return this;
+    }
+
+    private static Double soma(Double atual, Double parcela, double fator) {
+        double base = atual != null ? atual : 0.0;
+        return parcela != null ? base + parcela * fator : base;
+    }
+
+    // Getters and Setters
+    public Double getCalorias() { return calorias; }
+    public void setCalorias(Double calorias) { this.calorias = calorias; }
+
+    public Double getProteinas() { return proteinas; }
+    public void setProteinas(Double proteinas) { this.proteinas = proteinas; }
+
+    public Double getCarboidratos() { return carboidratos; }
+    public void setCarboidratos(Double carboidratos) { this.carboidratos = carboidratos; }
+
+    public Double getGorduras() { return gorduras; }
+    public void setGorduras(Double gorduras) { this.gorduras = gorduras; }
+
+    public Double getFibras() { return fibras; }
+    public void setFibras(Double fibras) { this.fibras = fibras; }
+}
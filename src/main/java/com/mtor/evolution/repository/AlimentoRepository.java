@@ -0,0 +1,29 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.Alimento;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface AlimentoRepository extends JpaRepository<Alimento, Long> {
+
+    Optional<Alimento> findByCodigoBarras(String codigoBarras);
+
+    boolean existsByCodigoBarras(String codigoBarras);
+
+    boolean existsByCodigoBarrasAndIdNot(String codigoBarras, Long id);
+
+    // Full scan for building the in-memory catalog; must run inside a read-only transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Alimento a")
+    Stream<Alimento> streamAll();
+}
@@ -0,0 +1,20 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.ArquivoExame;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArquivoExameRepository extends JpaRepository<ArquivoExame, Long> {
+
+    List<ArquivoExame> findByExameIdOrderByDataUploadDesc(String exameId);
+
+    Optional<ArquivoExame> findByIdAndExameId(Long id, String exameId);
+
+    Optional<ArquivoExame> findFirstByExameIdAndChecksum(String exameId, String checksum);
+
+    long countByChecksum(String checksum);
+}
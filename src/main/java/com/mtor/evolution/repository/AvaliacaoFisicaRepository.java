@@ -0,0 +1,68 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.AvaliacaoFisica;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface AvaliacaoFisicaRepository extends JpaRepository<AvaliacaoFisica, Long> {
+
+    @Query("SELECT a FROM AvaliacaoFisica a JOIN FETCH a.cliente WHERE a.id = :id")
+    Optional<AvaliacaoFisica> findWithClienteById(@Param("id") Long id);
+
+    List<AvaliacaoFisica> findByClienteIdOrderByDataAvaliacaoDesc(Long clienteId);
+
+    @Query("SELECT a.cliente.id FROM AvaliacaoFisica a WHERE a.id = :id")
+    Optional<Long> findClienteIdById(@Param("id") Long id);
+
+    // Row version and client change sequence, the report cache key (the PDF shows client data too); client id
+    @Query("SELECT a.versao, c.sequenciaAlteracao, c.id FROM AvaliacaoFisica a JOIN a.cliente c WHERE a.id = :id")
+    List<Object[]> findVersoesRelatorioById(@Param("id") Long id);
+
+    // Reassessment scheduler window: id, clienteId, dataAvaliacao
+    @Query("SELECT a.id, a.cliente.id, a.dataAvaliacao FROM AvaliacaoFisica a " +
+           "WHERE a.status = :status AND a.dataAvaliacao BETWEEN :de AND :ate")
+    List<Object[]> findAgendadasEntre(@Param("status") AvaliacaoFisica.Status status,
+                                      @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Reassessment scheduler window: id, clienteId, proximaAvaliacao of each client's latest assessment
+    @Query("SELECT a.id, a.cliente.id, a.proximaAvaliacao FROM AvaliacaoFisica a " +
+           "WHERE a.status = :realizada AND a.proximaAvaliacao BETWEEN :de AND :ate AND NOT EXISTS (" +
+           "SELECT b.id FROM AvaliacaoFisica b WHERE b.cliente = a.cliente AND b.status <> :cancelada " +
+           "AND (b.dataAvaliacao > a.dataAvaliacao OR (b.dataAvaliacao = a.dataAvaliacao AND b.id > a.id)))")
+    List<Object[]> findReavaliacoesEntre(@Param("realizada") AvaliacaoFisica.Status realizada,
+                                         @Param("cancelada") AvaliacaoFisica.Status cancelada,
+                                         @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("SELECT COUNT(b) > 0 FROM AvaliacaoFisica b WHERE b.cliente.id = :clienteId AND b.status <> :cancelada " +
+           "AND (b.dataAvaliacao > :data OR (b.dataAvaliacao = :data AND b.id > :id))")
+    boolean existsPosterior(@Param("clienteId") Long clienteId, @Param("id") Long id,
+                            @Param("data") LocalDate data, @Param("cancelada") AvaliacaoFisica.Status cancelada);
+
+    // Analytics snapshot columns: id, clienteId, dataAvaliacao, status, peso, percentualGordura, massaMagra, imc
+    String ANALITICO = "SELECT a.id, a.cliente.id, a.dataAvaliacao, a.status, a.peso, a.percentualGordura, " +
+           "a.massaMagra, a.imc FROM AvaliacaoFisica a";
+
+    // Full scan for the analytics snapshot; must run inside a read-only transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ANALITICO + " WHERE a.status = :status ORDER BY a.cliente.id, a.dataAvaliacao, a.id")
+    Stream<Object[]> streamAnalitico(@Param("status") AvaliacaoFisica.Status status);
+
+    // Any status: assessments no longer completed leave the snapshot
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ANALITICO + " WHERE a.updatedAt > :desde ORDER BY a.cliente.id, a.dataAvaliacao, a.id")
+    Stream<Object[]> streamAnaliticoAlteradasApos(@Param("desde") LocalDateTime desde);
+}
@@ -0,0 +1,30 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.BlocoFrequenciaCardiaca;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BlocoFrequenciaCardiacaRepository extends JpaRepository<BlocoFrequenciaCardiaca, UUID> {
+
+    // Chunk summaries without the compressed samples:
+    // id, inicioMs, fimMs, quantidade, bpmMinimo, bpmMaximo, somaBpm, ultimoBpm, duracaoMs
+    @Query("SELECT b.id, b.inicioMs, b.fimMs, b.quantidade, b.bpmMinimo, b.bpmMaximo, b.somaBpm, b.ultimoBpm, b.duracaoMs " +
+           "FROM BlocoFrequenciaCardiaca b WHERE b.sessaoId = :sessaoId ORDER BY b.inicioMs, b.id")
+    List<Object[]> findResumosBySessaoId(@Param("sessaoId") Long sessaoId);
+
+    @Query("SELECT b.id, b.dados FROM BlocoFrequenciaCardiaca b WHERE b.id IN :ids")
+    List<Object[]> findDadosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Per-session totals straight from the summaries:
+    // sessaoId, amostras, bpmMinimo, bpmMaximo, somaBpm, inicioMs, fimMs
+    @Query("SELECT b.sessaoId, SUM(b.quantidade), MIN(b.bpmMinimo), MAX(b.bpmMaximo), SUM(b.somaBpm), MIN(b.inicioMs), MAX(b.fimMs) " +
+           "FROM BlocoFrequenciaCardiaca b WHERE b.sessaoId IN :sessaoIds GROUP BY b.sessaoId")
+    List<Object[]> findTotaisBySessaoIdIn(@Param("sessaoIds") Collection<Long> sessaoIds);
+}
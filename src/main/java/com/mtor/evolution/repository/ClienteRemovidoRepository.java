@@ -0,0 +1,30 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.ClienteRemovido;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClienteRemovidoRepository extends JpaRepository<ClienteRemovido, Long> {
+
+    // Change feed page, same cursor as ClienteRepository.findAlteradosApos
+    @Query("SELECT r FROM ClienteRemovido r WHERE (r.removidoEm > :desde OR " +
+           "(r.removidoEm = :desde AND r.sequencia > :sequencia)) AND r.removidoEm <= :ate " +
+           "ORDER BY r.removidoEm, r.sequencia")
+    List<ClienteRemovido> findRemovidosApos(@Param("desde") LocalDateTime desde, @Param("sequencia") long sequencia,
+                                            @Param("ate") LocalDateTime ate, Pageable limite);
+
+    @Modifying
+    @Query("DELETE FROM ClienteRemovido r WHERE r.removidoEm < :limite")
+    int removerAntesDe(@Param("limite") LocalDateTime limite);
+
+    @Query("SELECT r.clienteId FROM ClienteRemovido r WHERE r.removidoEm > :desde")
+    List<Long> findClienteIdsRemovidosApos(@Param("desde") LocalDateTime desde);
+}
@@ -1,15 +1,24 @@
 package com.mtor.evolution.repository;
 
+import com.mtor.evolution.model.AvaliacaoFisica;
 import com.mtor.evolution.model.Cliente;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
@@ -27,4 +36,54 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Page<Cliente> findBySearchTerm(@Param("search") String search, Pageable pageable);
     
     long countByStatus(Cliente.Status status);
-}
\ No newline at end of file
+
+    // Change feed page: after the (updatedAt, sequenciaAlteracao) cursor, up to :ate, oldest first
+    @Query("SELECT c FROM Cliente c WHERE (c.updatedAt > :desde OR " +
+           "(c.updatedAt = :desde AND c.sequenciaAlteracao > :sequencia)) AND c.updatedAt <= :ate " +
+           "ORDER BY c.updatedAt, c.sequenciaAlteracao")
+    List<Cliente> findAlteradosApos(@Param("desde") LocalDateTime desde, @Param("sequencia") long sequencia,
+                                    @Param("ate") LocalDateTime ate, Pageable limite);
+
+    // Similarity features: client profile plus its latest completed assessment, if any
+    String PERFIL_SIMILARIDADE = "SELECT c.id, c.dataNascimento, c.genero, c.modalidade, c.objetivo, " +
+           "a.peso, a.altura, a.imc, a.percentualGordura, a.massaMagra " +
+           "FROM Cliente c LEFT JOIN AvaliacaoFisica a ON a.cliente = c AND a.status = :realizada " +
+           "AND a.dataAvaliacao = (SELECT MAX(a2.dataAvaliacao) FROM AvaliacaoFisica a2 " +
+           "WHERE a2.cliente = c AND a2.status = :realizada)";
+
+    // Full scan for building the similarity index; must run inside a read-only transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(PERFIL_SIMILARIDADE)
+    Stream<Object[]> streamPerfisSimilaridade(@Param("realizada") AvaliacaoFisica.Status realizada);
+
+    @Query(PERFIL_SIMILARIDADE + " WHERE c.id IN :ids")
+    List<Object[]> findPerfisSimilaridade(@Param("ids") Collection<Long> ids,
+                                          @Param("realizada") AvaliacaoFisica.Status realizada);
+
+    // Facet index fields: status, genero, modalidade, objetivo, dataNascimento
+    String FACETAS = "SELECT c.id, c.status, c.genero, c.modalidade, c.objetivo, c.dataNascimento FROM Cliente c";
+
+    // Full scan for building the facet index, by id so slot order follows creation; inside a read-only transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(FACETAS + " ORDER BY c.id")
+    Stream<Object[]> streamFacetas();
+
+    @Query(FACETAS + " WHERE c.id IN :ids")
+    List<Object[]> findFacetas(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Cliente c WHERE EXTRACT(MONTH FROM c.dataNascimento) = :mes " +
+           "AND EXTRACT(DAY FROM c.dataNascimento) = :dia")
+    List<Long> findIdsAniversariantes(@Param("mes") int mes, @Param("dia") int dia);
+
+    // Analytics snapshot columns: id, dataNascimento, genero, modalidade, objetivo, status, createdAt
+    String ANALITICO = "SELECT c.id, c.dataNascimento, c.genero, c.modalidade, c.objetivo, c.status, c.createdAt FROM Cliente c";
+
+    // Full scan for the analytics snapshot; must run inside a read-only transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ANALITICO + " ORDER BY c.id")
+    Stream<Object[]> streamAnalitico();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ANALITICO + " WHERE c.updatedAt > :desde ORDER BY c.id")
+    Stream<Object[]> streamAnaliticoAlteradosApos(@Param("desde") LocalDateTime desde);
+}
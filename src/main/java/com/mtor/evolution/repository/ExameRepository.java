@@ -0,0 +1,26 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.Exame;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExameRepository extends JpaRepository<Exame, Long> {
+
+    @Query("SELECT DISTINCT e FROM Exame e JOIN FETCH e.cliente LEFT JOIN FETCH e.resultados WHERE e.id = :id")
+    Optional<Exame> findWithResultadosById(@Param("id") Long id);
+
+    List<Exame> findByClienteIdOrderByDataColetaDesc(Long clienteId);
+
+    @Query("SELECT e.cliente.id FROM Exame e WHERE e.id = :id")
+    Optional<Long> findClienteIdById(@Param("id") Long id);
+
+    // Row version and client change sequence, the report cache key (the PDF shows client data too); client id
+    @Query("SELECT e.versao, c.sequenciaAlteracao, c.id FROM Exame e JOIN e.cliente c WHERE e.id = :id")
+    List<Object[]> findVersoesRelatorioById(@Param("id") Long id);
+}
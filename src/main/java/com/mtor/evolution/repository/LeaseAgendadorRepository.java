@@ -0,0 +1,25 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.LeaseAgendador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LeaseAgendadorRepository extends JpaRepository<LeaseAgendador, String> {
+
+    // Extends the lease for its holder or takes over an expired one; 1 if the caller holds it afterwards
+    @Modifying
+    @Query("UPDATE LeaseAgendador l SET l.dono = :dono, l.expiraEm = :expiraEm " +
+           "WHERE l.nome = :nome AND (l.dono = :dono OR l.expiraEm < :agora)")
+    int renovar(@Param("nome") String nome, @Param("dono") String dono,
+                @Param("expiraEm") LocalDateTime expiraEm, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE LeaseAgendador l SET l.expiraEm = :agora WHERE l.nome = :nome AND l.dono = :dono")
+    int liberar(@Param("nome") String nome, @Param("dono") String dono, @Param("agora") LocalDateTime agora);
+}
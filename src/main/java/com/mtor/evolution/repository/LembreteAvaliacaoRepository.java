@@ -0,0 +1,18 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.LembreteAvaliacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LembreteAvaliacaoRepository extends JpaRepository<LembreteAvaliacao, Long> {
+
+    // avaliacaoId, tipo, venceEm
+    @Query("SELECT l.avaliacaoId, l.tipo, l.venceEm FROM LembreteAvaliacao l WHERE l.venceEm >= :desde")
+    List<Object[]> findDisparadosDesde(@Param("desde") LocalDateTime desde);
+}
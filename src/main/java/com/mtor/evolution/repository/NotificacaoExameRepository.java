@@ -0,0 +1,19 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.NotificacaoExame;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificacaoExameRepository extends JpaRepository<NotificacaoExame, Long> {
+
+    List<NotificacaoExame> findByDestinatarioOrderByDataEnvioDesc(String destinatario, Pageable pageable);
+
+    List<NotificacaoExame> findByDestinatarioAndClienteIdOrderByDataEnvioDesc(String destinatario, Long clienteId, Pageable pageable);
+
+    Optional<NotificacaoExame> findByIdAndDestinatario(Long id, String destinatario);
+}
@@ -0,0 +1,22 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.PlanoAlimentar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlanoAlimentarRepository extends JpaRepository<PlanoAlimentar, Long> {
+
+    @Query("SELECT DISTINCT p FROM PlanoAlimentar p JOIN FETCH p.cliente LEFT JOIN FETCH p.refeicoes WHERE p.id = :id")
+    Optional<PlanoAlimentar> findWithRefeicoesById(@Param("id") Long id);
+
+    List<PlanoAlimentar> findByClienteIdOrderByDataInicioDesc(Long clienteId);
+
+    @Query("SELECT p.cliente.id FROM PlanoAlimentar p WHERE p.id = :id")
+    Optional<Long> findClienteIdById(@Param("id") Long id);
+}
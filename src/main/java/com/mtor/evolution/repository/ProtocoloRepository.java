@@ -0,0 +1,41 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.Protocolo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProtocoloRepository extends JpaRepository<Protocolo, UUID> {
+
+    List<Protocolo> findByTipoOrderByNomeAsc(Protocolo.Tipo tipo);
+
+    List<Protocolo> findByProtocoloBaseId(UUID protocoloBaseId);
+
+    long countByProtocoloBaseId(UUID protocoloBaseId);
+
+    @Query("SELECT p FROM Protocolo p WHERE (:tipo IS NULL OR p.tipo = :tipo) AND (" +
+           "LOWER(p.nome) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.descricao) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.objetivo) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<Protocolo> findBySearchTerm(@Param("search") String search, @Param("tipo") Protocolo.Tipo tipo, Pageable pageable);
+
+    Page<Protocolo> findByTipo(Protocolo.Tipo tipo, Pageable pageable);
+
+    // Cheap change marker for the template catalog: any insert, update or delete moves one of the two
+    @Query("SELECT COUNT(p), MAX(p.updatedAt) FROM Protocolo p WHERE p.tipo = :tipo")
+    List<Object[]> marcaAlteracao(@Param("tipo") Protocolo.Tipo tipo);
+
+    default String marcaAlteracaoPreDefinidos() {
+        Object[] linha = marcaAlteracao(Protocolo.Tipo.PRE_DEFINIDO).get(0);
+        LocalDateTime ultima = (LocalDateTime) linha[1];
+        return linha[0] + "@" + ultima;
+    }
+}
@@ -0,0 +1,19 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.SessaoFrequenciaCardiaca;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SessaoFrequenciaCardiacaRepository extends JpaRepository<SessaoFrequenciaCardiaca, Long> {
+
+    List<SessaoFrequenciaCardiaca> findByClienteIdOrderByCreatedAtDesc(Long clienteId);
+
+    @Query("SELECT s.cliente.id FROM SessaoFrequenciaCardiaca s WHERE s.id = :id")
+    Optional<Long> findClienteIdById(@Param("id") Long id);
+}
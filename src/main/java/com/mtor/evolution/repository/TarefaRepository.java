@@ -0,0 +1,35 @@
+package com.mtor.evolution.repository;
+
+import com.mtor.evolution.model.Tarefa;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// Claiming and completing jobs is plain SQL in FilaTarefas (FOR UPDATE SKIP LOCKED)
+@Repository
+public interface TarefaRepository extends JpaRepository<Tarefa, Long> {
+
+    List<Tarefa> findByStatusOrderByIdDesc(Tarefa.Status status, Pageable pageable);
+
+    // tipo, status, count, oldest executarApos
+    @Query("SELECT t.tipo, t.status, COUNT(t), MIN(t.executarApos) FROM Tarefa t " +
+           "WHERE t.status IN :status GROUP BY t.tipo, t.status")
+    List<Object[]> contarPorTipoEStatus(@Param("status") Collection<Tarefa.Status> status);
+
+    @Modifying
+    @Query("UPDATE Tarefa t SET t.status = :pendente, t.tentativas = 0, t.executarApos = :agora, " +
+           "t.bloqueadoAte = NULL, t.dono = NULL WHERE t.id = :id AND t.status = :falhou")
+    int reprocessar(@Param("id") Long id, @Param("agora") LocalDateTime agora,
+                    @Param("pendente") Tarefa.Status pendente, @Param("falhou") Tarefa.Status falhou);
+
+    @Modifying
+    @Query("DELETE FROM Tarefa t WHERE t.status = :concluida AND t.concluidoEm < :antes")
+    int removerConcluidasAntes(@Param("concluida") Tarefa.Status concluida, @Param("antes") LocalDateTime antes);
+}
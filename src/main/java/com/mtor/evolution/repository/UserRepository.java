@@ -4,12 +4,17 @@ import com.mtor.evolution.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, UUID> {
     
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
+
+    List<User> findByRoleIn(Collection<User.Role> roles);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.mtor.evolution.security;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Encrypts a string column on write and decrypts it on read. Hibernate
+ * obtains converters through the Spring bean container, so the encryptor
+ * is injected like in any other bean.
+ */
+@Converter
+public class EncryptedStringConverter implements AttributeConverter<String, String> {
+
+    @Autowired
+    private FieldEncryptor fieldEncryptor;
+
+    @Override
+    public String convertToDatabaseColumn(String atributo) {
+        return fieldEncryptor.encrypt(atributo);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String coluna) {
+        return fieldEncryptor.decrypt(coluna);
+    }
+}
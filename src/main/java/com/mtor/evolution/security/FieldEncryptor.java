@@ -0,0 +1,226 @@
+package com.mtor.evolution.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * AES-256-GCM for individual column values. Each configured master key is
+ * tagged with a version; the data key for a version is derived from its
+ * master key once (HKDF-SHA256) and cached. Ciphertexts carry the version
+ * they were written with ({@code \u0001v<n>:<base64 iv|ciphertext|tag>}), so
+ * old rows stay readable after a rotation until the re-encryption job
+ * rewrites them. The leading U+0001 marks ciphertext: no text typed into
+ * the app starts with it, so plaintext is never mistaken for ciphertext.
+ * Values written before the marker ({@code v<n>:...}, no U+0001) are taken
+ * as ciphertext only if they authenticate under their key, and as legacy
+ * plaintext otherwise. Ciphers and random sources are kept per thread to
+ * avoid the provider lookup and lock contention on every value.
+ *
+ * <p>With no {@code crypto.master-keys}, startup fails, except on an H2
+ * database (local development and tests), which gets a fixed development key.
+ */
+@Component
+public class FieldEncryptor {
+
+    private static final String ALGORITMO = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final byte[] INFO = "mtor-evolution/campo".getBytes(StandardCharsets.UTF_8);
+    private static final char MARCADOR = '\u0001';
+    // Public, so only ever used with an H2 database
+    private static final String CHAVE_DESENVOLVIMENTO = "1:bXRvci1ldm9sdXRpb24tZGV2LWZpZWxkLWtleS0wMDE=";
+
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITMO);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM indisponível", e);
+        }
+    });
+    private static final ThreadLocal<SecureRandom> RANDOMS = ThreadLocal.withInitial(SecureRandom::new);
+
+    // Comma-separated "version:base64" entries, e.g. "1:abc=,2:def="
+    @Value("${crypto.master-keys:}")
+    private String masterKeys;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${crypto.active-version:0}")
+    private int versaoConfigurada;
+
+    private final TreeMap<Integer, byte[]> mestres = new TreeMap<>();
+    private final ConcurrentMap<Integer, SecretKey> chavesDerivadas = new ConcurrentHashMap<>();
+    private int versaoAtiva;
+
+    @PostConstruct
+    void init() {
+        if (masterKeys.isBlank()) {
+            if (!datasourceUrl.startsWith("jdbc:h2:")) {
+                throw new IllegalStateException("crypto.master-keys (CRYPTO_MASTER_KEYS) não configurada");
+            }
+            System.out.println("⚠️ No crypto.master-keys set: encrypting fields with the development key (H2 only)");
+            masterKeys = CHAVE_DESENVOLVIMENTO;
+        }
+        for (String entrada : masterKeys.split(",")) {
+            String item = entrada.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int separador = item.indexOf(':');
+            if (separador <= 0) {
+                throw new IllegalStateException("Chave mestra inválida, formato esperado versao:base64");
+            }
+            byte[] chave = Base64.getDecoder().decode(item.substring(separador + 1));
+            if (chave.length < 32) {
+                throw new IllegalStateException("Chave mestra deve ter pelo menos 32 bytes");
+            }
+            mestres.put(Integer.parseInt(item.substring(0, separador)), chave);
+        }
+        if (mestres.isEmpty()) {
+            throw new IllegalStateException("Nenhuma chave mestra configurada");
+        }
+        versaoAtiva = versaoConfigurada > 0 ? versaoConfigurada : mestres.lastKey();
+        if (!mestres.containsKey(versaoAtiva)) {
+            throw new IllegalStateException("Versão de chave ativa sem chave mestra: " + versaoAtiva);
+        }
+        // Derive eagerly so a bad key fails at startup instead of on the first request
+        mestres.keySet().forEach(this::chave);
+    }
+
+    public int getVersaoAtiva() {
+        return versaoAtiva;
+    }
+
+    public String prefixoAtivo() {
+        return MARCADOR + prefixo(versaoAtiva);
+    }
+
+    public String encrypt(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int versao = versaoAtiva;
+        byte[] iv = new byte[IV_BYTES];
+        RANDOMS.get().nextBytes(iv);
+        try {
+            Cipher cipher = CIPHERS.get();
+            cipher.init(Cipher.ENCRYPT_MODE, chave(versao), new GCMParameterSpec(TAG_BITS, iv));
+            // The version tag is authenticated, so it cannot be swapped to point at another key
+            cipher.updateAAD(prefixo(versao).getBytes(StandardCharsets.US_ASCII));
+            byte[] plano = texto.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer saida = ByteBuffer.allocate(IV_BYTES + cipher.getOutputSize(plano.length));
+            saida.put(iv);
+            cipher.doFinal(ByteBuffer.wrap(plano), saida);
+            return MARCADOR + prefixo(versao) + Base64.getEncoder().encodeToString(saida.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao criptografar campo", e);
+        }
+    }
+
+    public String decrypt(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        boolean marcado = !valor.isEmpty() && valor.charAt(0) == MARCADOR;
+        String semMarcador = marcado ? valor.substring(1) : valor;
+        int versao = versaoDe(semMarcador);
+        if (versao < 0) {
+            if (marcado) {
+                throw new IllegalStateException("Campo criptografado malformado");
+            }
+            // Written before encryption was enabled; the re-encryption job picks these up
+            return valor;
+        }
+        try {
+            return decifrar(semMarcador, versao);
+        } catch (GeneralSecurityException | IllegalArgumentException | IllegalStateException e) {
+            if (marcado) {
+                throw new IllegalStateException("Erro ao descriptografar campo (versão " + versao + ")", e);
+            }
+            // Unmarked text that only looks like an old ciphertext ("v2: nota", say) is legacy plaintext
+            return valor;
+        }
+    }
+
+    public boolean precisaRecriptografar(String valor) {
+        return valor != null && !valor.startsWith(prefixoAtivo());
+    }
+
+    private String decifrar(String valor, int versao) throws GeneralSecurityException {
+        String prefixo = prefixo(versao);
+        byte[] dados = Base64.getDecoder().decode(valor.substring(prefixo.length()));
+        if (dados.length < IV_BYTES + TAG_BITS / 8) {
+            throw new IllegalArgumentException("Campo criptografado curto demais");
+        }
+        Cipher cipher = CIPHERS.get();
+        cipher.init(Cipher.DECRYPT_MODE, chave(versao), new GCMParameterSpec(TAG_BITS, dados, 0, IV_BYTES));
+        cipher.updateAAD(prefixo.getBytes(StandardCharsets.US_ASCII));
+        byte[] plano = cipher.doFinal(dados, IV_BYTES, dados.length - IV_BYTES);
+        return new String(plano, StandardCharsets.UTF_8);
+    }
+
+    // Key version of a stored value without its marker, or -1 if it is plaintext
+    static int versaoDe(String valor) {
+        if (valor.length() < 3 || valor.charAt(0) != 'v') {
+            return -1;
+        }
+        int versao = 0;
+        for (int i = 1; i < valor.length() && i < 11; i++) {
+            char c = valor.charAt(i);
+            if (c == ':') {
+                return i > 1 ? versao : -1;
+            }
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            versao = versao * 10 + (c - '0');
+        }
+        return -1;
+    }
+
+    private static String prefixo(int versao) {
+        return "v" + versao + ":";
+    }
+
+    private SecretKey chave(int versao) {
+        return chavesDerivadas.computeIfAbsent(versao, v -> {
+            byte[] mestre = mestres.get(v);
+            if (mestre == null) {
+                throw new IllegalStateException("Chave mestra desconhecida para a versão " + v);
+            }
+            return new SecretKeySpec(hkdf(mestre, v), "AES");
+        });
+    }
+
+    // HKDF-SHA256 (RFC 5869) producing a single 32-byte block
+    private static byte[] hkdf(byte[] mestre, int versao) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(new byte[32], "HmacSHA256"));
+            byte[] prk = mac.doFinal(mestre);
+            mac.init(new SecretKeySpec(prk, "HmacSHA256"));
+            mac.update(INFO);
+            mac.update(ByteBuffer.allocate(4).putInt(versao).array());
+            mac.update((byte) 1);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao derivar chave", e);
+        }
+    }
+}
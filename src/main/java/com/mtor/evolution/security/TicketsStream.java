@@ -0,0 +1,63 @@
+package com.mtor.evolution.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-use, short-lived tickets that open the notification stream.
+ * EventSource cannot send an Authorization header, and a JWT in the query
+ * string would be written to access and proxy logs; a ticket in a log is
+ * worthless, since it was spent opening the stream and expires in seconds.
+ */
+@Component
+public class TicketsStream {
+
+    private static final int BYTES = 32;
+
+    @Value("${notifications.sse.ticket-ttl-ms:30000}")
+    private long ttlMs;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    public String emitir(String usuario) {
+        byte[] bytes = new byte[BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(usuario, System.currentTimeMillis() + ttlMs));
+        return ticket;
+    }
+
+    /** The user the ticket was issued to, or null if it is unknown, spent or expired. */
+    public String consumir(String ticket) {
+        Ticket emitido = tickets.remove(ticket);
+        return emitido != null && emitido.expiraEm > System.currentTimeMillis() ? emitido.usuario : null;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.sse.ticket-ttl-ms:30000}")
+    public void expirar() {
+        long agora = System.currentTimeMillis();
+        tickets.values().removeIf(ticket -> ticket.expiraEm <= agora);
+    }
+
+    private static final class Ticket {
+
+        private final String usuario;
+        private final long expiraEm;
+
+        Ticket(String usuario, long expiraEm) {
+            this.usuario = usuario;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.model.AvaliacaoFisica;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+/**
+ * JPA listener on {@link AvaliacaoFisica}: once the transaction commits,
+ * reschedules the assessment's reminders in {@link AgendaReavaliacoes}.
+ * Injected lazily for the same reason as {@link AlteracaoClienteListener}.
+ */
+public class AgendaAvaliacaoListener {
+
+    @Autowired
+    @Lazy
+    private AgendaReavaliacoes agenda;
+
+    @PostPersist
+    @PostUpdate
+    public void alterada(AvaliacaoFisica avaliacao) {
+        Long id = avaliacao.getId();
+        AvaliacaoFisica.Status status = avaliacao.getStatus();
+        LocalDate data = avaliacao.getDataAvaliacao();
+        LocalDate proxima = avaliacao.getProximaAvaliacao();
+        aposCommit(() -> agenda.avaliacaoAlterada(id, status, data, proxima));
+    }
+
+    @PostRemove
+    public void removida(AvaliacaoFisica avaliacao) {
+        Long id = avaliacao.getId();
+        aposCommit(() -> agenda.avaliacaoRemovida(id));
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
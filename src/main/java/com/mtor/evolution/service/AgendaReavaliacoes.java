@@ -0,0 +1,455 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.NotificacaoExameDto;
+import com.mtor.evolution.model.AvaliacaoFisica;
+import com.mtor.evolution.model.LeaseAgendador;
+import com.mtor.evolution.model.LembreteAvaliacao;
+import com.mtor.evolution.model.NotificacaoExame;
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
+import com.mtor.evolution.repository.LeaseAgendadorRepository;
+import com.mtor.evolution.repository.LembreteAvaliacaoRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reminders for AGENDADA assessments and for reassessments coming due
+ * ({@code proximaAvaliacao} of a client's latest REALIZADA assessment),
+ * posted to the team through the {@link FilaTarefas} job queue.
+ *
+ * <p>Only the instance holding the {@code leases_agendador} lease runs the
+ * schedule. It keeps the reminders due within the next
+ * {@code reassessment.scheduler.window-hours} in a {@link RodaTemporal}
+ * ticking every {@code tick-ms}; the window is re-read every
+ * {@code reload-interval-ms} (an indexed range query, which also picks up
+ * assessments written around the application), and assessment writes made
+ * through JPA update the wheel right after commit. After a restart or a
+ * takeover the first load reaches back {@code catch-up-hours} for reminders
+ * that never fired.
+ *
+ * <p>A reminder is re-checked against its assessment when it fires and
+ * recorded in {@code lembretes_avaliacao}, whose unique key keeps it from
+ * firing twice when leases overlap (clock skew, a paused holder).
+ *
+ * <p>With sharding on the window is read from every shard and a reminder
+ * fires on its client's shard, while the job queue lives on shard 0: the job
+ * is committed just before the reminder row, so a failure in between sends
+ * the notification again on the next reload rather than never.
+ */
+@Component
+public class AgendaReavaliacoes {
+
+    private static final String LEASE = "agenda-reavaliacoes";
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private LembreteAvaliacaoRepository lembreteRepository;
+
+    @Autowired
+    private LeaseAgendadorRepository leaseRepository;
+
+    @Autowired
+    private FilaTarefas filaTarefas;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Value("${reassessment.scheduler.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${reassessment.scheduler.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${reassessment.scheduler.window-hours:24}")
+    private long janelaHoras;
+
+    @Value("${reassessment.scheduler.reload-interval-ms:900000}")
+    private long intervaloRecargaMs;
+
+    @Value("${reassessment.scheduler.catch-up-hours:72}")
+    private long recuperacaoHoras;
+
+    @Value("${reassessment.scheduler.lease-ms:30000}")
+    private long leaseMs;
+
+    // Time of day reminders fire
+    @Value("${reassessment.reminder.hour:8}")
+    private int horaLembrete;
+
+    @Value("${reassessment.reminder.lead-hours:24}")
+    private long antecedenciaHoras;
+
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate transacaoNova;
+    private final String instancia;
+    private final ScheduledExecutorService relogio = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "agenda-reavaliacoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guards roda and janelaAteMs; the rest is only touched by the clock thread
+    private final Object trava = new Object();
+    private RodaTemporal<Lembrete> roda;
+    private long janelaAteMs;
+    private volatile boolean lider;
+    private long liderAteMs;
+    private long proximaRenovacaoMs;
+    private volatile long proximaRecargaMs;
+
+    private volatile LocalDateTime ultimaRecarga;
+    private volatile int itensUltimaRecarga;
+    private final AtomicLong disparados = new AtomicLong();
+    private final AtomicLong duplicados = new AtomicLong();
+    private final AtomicLong obsoletos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    public AgendaReavaliacoes(PlatformTransactionManager transactionManager) {
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacaoNova = new TransactionTemplate(transactionManager);
+        this.transacaoNova.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "desconhecido";
+        }
+        this.instancia = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (habilitado) {
+            relogio.scheduleWithFixedDelay(this::tick, 0, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        relogio.shutdownNow();
+        if (lider) {
+            // Lets another instance take over right away instead of waiting for expiry
+            try {
+                transacao.executeWithoutResult(status ->
+                        leaseRepository.liberar(LEASE, instancia, LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                System.err.println("❌ Reassessment scheduler lease release failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Called after an assessment was written; keeps the wheel in step without waiting for the next reload. */
+    public void avaliacaoAlterada(Long id, AvaliacaoFisica.Status status, LocalDate data, LocalDate proxima) {
+        if (!lider || id == null) {
+            return;
+        }
+        LocalDateTime agendada = status == AvaliacaoFisica.Status.AGENDADA && data != null ? venceAgendada(data) : null;
+        LocalDateTime reavaliacao = status == AvaliacaoFisica.Status.REALIZADA && proxima != null ? venceReavaliacao(proxima) : null;
+        long limiteInferior = System.currentTimeMillis() - recuperacaoHoras * 3_600_000;
+        synchronized (trava) {
+            if (roda == null) {
+                return;
+            }
+            agendarOuCancelar(new Lembrete(LembreteAvaliacao.Tipo.AVALIACAO_AGENDADA, id, agendada), limiteInferior);
+            agendarOuCancelar(new Lembrete(LembreteAvaliacao.Tipo.REAVALIACAO, id, reavaliacao), limiteInferior);
+        }
+    }
+
+    public void avaliacaoRemovida(Long id) {
+        synchronized (trava) {
+            if (roda != null) {
+                roda.cancelar(Lembrete.chave(LembreteAvaliacao.Tipo.AVALIACAO_AGENDADA, id));
+                roda.cancelar(Lembrete.chave(LembreteAvaliacao.Tipo.REAVALIACAO, id));
+            }
+        }
+    }
+
+    /** Re-reads the window on the next tick. */
+    public void recarregar() {
+        proximaRecargaMs = 0;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("habilitado", habilitado);
+        status.put("instancia", instancia);
+        status.put("lider", lider);
+        synchronized (trava) {
+            status.put("pendentes", roda != null ? roda.tamanho() : 0);
+            status.put("janelaAte", roda != null ? data(janelaAteMs) : null);
+        }
+        status.put("ultimaRecarga", ultimaRecarga);
+        status.put("itensUltimaRecarga", itensUltimaRecarga);
+        status.put("disparados", disparados.get());
+        status.put("duplicados", duplicados.get());
+        status.put("obsoletos", obsoletos.get());
+        status.put("falhas", falhas.get());
+        return status;
+    }
+
+    private void tick() {
+        try {
+            long agora = System.currentTimeMillis();
+            if (agora >= proximaRenovacaoMs) {
+                renovarLease(agora);
+                proximaRenovacaoMs = agora + leaseMs / 3;
+            }
+            if (!lider) {
+                return;
+            }
+            if (agora >= proximaRecargaMs) {
+                proximaRecargaMs = agora + leaseMs;
+                recarregar(agora);
+                proximaRecargaMs = agora + intervaloRecargaMs;
+            }
+            List<Lembrete> vencidos;
+            synchronized (trava) {
+                vencidos = roda.avancar(agora);
+            }
+            for (Lembrete lembrete : vencidos) {
+                disparar(lembrete);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Reassessment scheduler tick failed: " + e.getMessage());
+        }
+    }
+
+    private void renovarLease(long agora) {
+        boolean detem;
+        try {
+            detem = Boolean.TRUE.equals(transacao.execute(status -> {
+                LocalDateTime expiraEm = data(agora + leaseMs);
+                if (leaseRepository.renovar(LEASE, instancia, expiraEm, data(agora)) == 1) {
+                    return true;
+                }
+                if (leaseRepository.existsById(LEASE)) {
+                    return false;
+                }
+                leaseRepository.saveAndFlush(new LeaseAgendador(LEASE, instancia, expiraEm));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the lease row first
+            detem = false;
+        } catch (RuntimeException e) {
+            // Database unreachable: keep running until our lease would have expired anyway
+            System.err.println("❌ Reassessment scheduler lease renewal failed: " + e.getMessage());
+            detem = lider && agora < liderAteMs;
+        }
+        if (detem) {
+            liderAteMs = agora + leaseMs;
+        }
+        if (detem && !lider) {
+            synchronized (trava) {
+                roda = new RodaTemporal<>(tickMs, agora);
+                janelaAteMs = agora;
+            }
+            proximaRecargaMs = 0;
+            lider = true;
+            System.out.println("✅ Reassessment scheduler lease acquired by " + instancia);
+        } else if (!detem && lider) {
+            lider = false;
+            synchronized (trava) {
+                roda = null;
+            }
+            System.out.println("🔐 Reassessment scheduler lease lost by " + instancia);
+        }
+    }
+
+    private void recarregar(long agora) {
+        long inicio = agora - recuperacaoHoras * 3_600_000;
+        long fim = agora + janelaHoras * 3_600_000;
+        Set<Object> antes;
+        synchronized (trava) {
+            antes = roda.chaves();
+        }
+        List<Lembrete> lembretes = new ArrayList<>();
+        for (List<Lembrete> doShard : shards.emTodos(shard -> transacao.execute(status -> carregarJanela(data(inicio), data(fim))))) {
+            lembretes.addAll(doShard);
+        }
+        Set<Object> carregados = new HashSet<>();
+        synchronized (trava) {
+            for (Lembrete lembrete : lembretes) {
+                roda.agendar(lembrete.chave(), lembrete.venceEmMs(), lembrete);
+                carregados.add(lembrete.chave());
+            }
+            // Gone from the table since the last load; entries added by writes after the snapshot stay
+            for (Object chave : antes) {
+                if (!carregados.contains(chave)) {
+                    roda.cancelar(chave);
+                }
+            }
+            janelaAteMs = fim;
+        }
+        ultimaRecarga = LocalDateTime.now();
+        itensUltimaRecarga = lembretes.size();
+    }
+
+    private List<Lembrete> carregarJanela(LocalDateTime de, LocalDateTime ate) {
+        Set<String> disparadosJanela = new HashSet<>();
+        for (Object[] linha : lembreteRepository.findDisparadosDesde(de)) {
+            disparadosJanela.add(Lembrete.chave((LembreteAvaliacao.Tipo) linha[1], (Long) linha[0]) + "@" + linha[2]);
+        }
+        List<Lembrete> lembretes = new ArrayList<>();
+        for (Object[] linha : avaliacaoFisicaRepository.findAgendadasEntre(AvaliacaoFisica.Status.AGENDADA,
+                de.plusHours(antecedenciaHoras).toLocalDate(), ate.plusHours(antecedenciaHoras).toLocalDate())) {
+            adicionarSeNaJanela(lembretes, disparadosJanela, de, ate, new Lembrete(LembreteAvaliacao.Tipo.AVALIACAO_AGENDADA,
+                    (Long) linha[0], venceAgendada((LocalDate) linha[2])));
+        }
+        for (Object[] linha : avaliacaoFisicaRepository.findReavaliacoesEntre(AvaliacaoFisica.Status.REALIZADA,
+                AvaliacaoFisica.Status.CANCELADA, de.toLocalDate(), ate.toLocalDate())) {
+            adicionarSeNaJanela(lembretes, disparadosJanela, de, ate, new Lembrete(LembreteAvaliacao.Tipo.REAVALIACAO,
+                    (Long) linha[0], venceReavaliacao((LocalDate) linha[2])));
+        }
+        return lembretes;
+    }
+
+    private static void adicionarSeNaJanela(List<Lembrete> lembretes, Set<String> disparadosJanela,
+                                            LocalDateTime de, LocalDateTime ate, Lembrete lembrete) {
+        if (!lembrete.venceEm.isBefore(de) && !lembrete.venceEm.isAfter(ate)
+                && !disparadosJanela.contains(lembrete.chave() + "@" + lembrete.venceEm)) {
+            lembretes.add(lembrete);
+        }
+    }
+
+    // Caller holds trava
+    private void agendarOuCancelar(Lembrete lembrete, long limiteInferior) {
+        if (lembrete.venceEm == null || lembrete.venceEmMs() < limiteInferior || lembrete.venceEmMs() > janelaAteMs) {
+            roda.cancelar(lembrete.chave());
+        } else {
+            roda.agendar(lembrete.chave(), lembrete.venceEmMs(), lembrete);
+        }
+    }
+
+    private void disparar(Lembrete lembrete) {
+        try {
+            // The fan-out job commits together with the fired-reminder row, or just before it when sharded
+            Long avaliacaoId = lembrete.avaliacaoId;
+            boolean disparado = shards.noShardDoRegistro(avaliacaoId, () -> avaliacaoFisicaRepository.findClienteIdById(avaliacaoId),
+                    clienteId -> transacao.execute(status -> {
+                        AvaliacaoFisica avaliacao = avaliacaoFisicaRepository.findWithClienteById(avaliacaoId).orElse(null);
+                        if (avaliacao == null || !vigente(lembrete, avaliacao)) {
+                            return Optional.<Boolean>empty();
+                        }
+                        lembreteRepository.saveAndFlush(new LembreteAvaliacao(avaliacaoId,
+                                avaliacao.getCliente().getId(), lembrete.tipo, lembrete.venceEm, instancia));
+                        NotificacaoExameDto notificacao = notificacao(lembrete, avaliacao);
+                        if (!shards.ativo()) {
+                            filaTarefas.enfileirar(NotificacaoEquipeTarefa.TIPO, notificacao);
+                        } else {
+                            shards.noShard(0, () -> transacaoNova.execute(fila ->
+                                    filaTarefas.enfileirar(NotificacaoEquipeTarefa.TIPO, notificacao)));
+                        }
+                        return Optional.of(true);
+                    })).isPresent();
+            if (!disparado) {
+                obsoletos.incrementAndGet();
+                return;
+            }
+            disparados.incrementAndGet();
+        } catch (DataIntegrityViolationException e) {
+            duplicados.incrementAndGet();
+        } catch (RuntimeException e) {
+            // Not recorded, so the next reload picks it up again
+            falhas.incrementAndGet();
+            System.err.println("❌ Reassessment reminder " + lembrete.chave() + " failed: " + e.getMessage());
+        }
+    }
+
+    // The assessment still calls for this reminder at this time
+    private boolean vigente(Lembrete lembrete, AvaliacaoFisica avaliacao) {
+        if (lembrete.tipo == LembreteAvaliacao.Tipo.AVALIACAO_AGENDADA) {
+            return avaliacao.getStatus() == AvaliacaoFisica.Status.AGENDADA
+                    && lembrete.venceEm.equals(venceAgendada(avaliacao.getDataAvaliacao()));
+        }
+        return avaliacao.getStatus() == AvaliacaoFisica.Status.REALIZADA
+                && avaliacao.getProximaAvaliacao() != null
+                && lembrete.venceEm.equals(venceReavaliacao(avaliacao.getProximaAvaliacao()))
+                && !avaliacaoFisicaRepository.existsPosterior(avaliacao.getCliente().getId(), avaliacao.getId(),
+                        avaliacao.getDataAvaliacao(), AvaliacaoFisica.Status.CANCELADA);
+    }
+
+    private static NotificacaoExameDto notificacao(Lembrete lembrete, AvaliacaoFisica avaliacao) {
+        NotificacaoExameDto dto = new NotificacaoExameDto();
+        dto.setClienteId(avaliacao.getCliente().getId().toString());
+        String nome = avaliacao.getCliente().getNome();
+        if (lembrete.tipo == LembreteAvaliacao.Tipo.AVALIACAO_AGENDADA) {
+            dto.setTipo(NotificacaoExame.Tipo.AVALIACAO_AGENDADA);
+            dto.setTitulo("Avaliação agendada");
+            dto.setMensagem("Avaliação física de " + nome + " agendada para "
+                    + avaliacao.getDataAvaliacao().format(DATA) + ".");
+        } else {
+            dto.setTipo(NotificacaoExame.Tipo.REAVALIACAO_PENDENTE);
+            dto.setTitulo("Reavaliação pendente");
+            dto.setMensagem("Reavaliação de " + nome + " prevista para "
+                    + avaliacao.getProximaAvaliacao().format(DATA) + ".");
+        }
+        return dto;
+    }
+
+    private LocalDateTime venceAgendada(LocalDate data) {
+        return data.atTime(horaLembrete, 0).minusHours(antecedenciaHoras);
+    }
+
+    private LocalDateTime venceReavaliacao(LocalDate proxima) {
+        return proxima.atTime(horaLembrete, 0);
+    }
+
+    private static LocalDateTime data(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    private static final class Lembrete {
+
+        final LembreteAvaliacao.Tipo tipo;
+        final Long avaliacaoId;
+        final LocalDateTime venceEm;
+
+        Lembrete(LembreteAvaliacao.Tipo tipo, Long avaliacaoId, LocalDateTime venceEm) {
+            this.tipo = tipo;
+            this.avaliacaoId = avaliacaoId;
+            this.venceEm = venceEm;
+        }
+
+        static String chave(LembreteAvaliacao.Tipo tipo, Long avaliacaoId) {
+            return tipo + ":" + avaliacaoId;
+        }
+
+        String chave() {
+            return chave(tipo, avaliacaoId);
+        }
+
+        long venceEmMs() {
+            return venceEm.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AlimentoDto;
+import com.mtor.evolution.model.Alimento;
+import com.mtor.evolution.repository.AlimentoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads are answered from {@link CatalogoAlimentos}; writes go to the
+ * database and, once committed, schedule a catalog rebuild on every
+ * instance through the {@link BarramentoInvalidacao}. Lookups by id or
+ * barcode go to the database for items the published snapshot does not
+ * have or that changed after it was read; searches see a change once the
+ * rebuild is published.
+ */
+@Service
+public class AlimentoService {
+
+    @Autowired
+    private AlimentoRepository alimentoRepository;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    public List<AlimentoDto> buscar(String consulta, String categoria, boolean vegetariano, boolean vegano,
+                                    boolean semGluten, boolean semLactose, int limite) {
+        return catalogo.buscar(consulta, categoria, vegetariano, vegano, semGluten, semLactose, limite);
+    }
+
+    public Optional<AlimentoDto> findById(Long id) {
+        if (catalogo.alteradoDesdeSnapshot(id)) {
+            return alimentoRepository.findById(id).map(AlimentoDto::new);
+        }
+        return catalogo.findById(id)
+                .or(() -> alimentoRepository.findById(id).map(AlimentoDto::new));
+    }
+
+    public Optional<AlimentoDto> findByCodigoBarras(String codigoBarras) {
+        String codigo = codigoBarras.trim();
+        return catalogo.findByCodigoBarras(codigo)
+                .filter(alimento -> !catalogo.alteradoDesdeSnapshot(Long.parseLong(alimento.getId())))
+                .or(() -> alimentoRepository.findByCodigoBarras(codigo).map(AlimentoDto::new));
+    }
+
+    @Transactional
+    public AlimentoDto save(AlimentoDto dto) {
+        String codigo = normalizarCodigo(dto.getCodigoBarras());
+        if (codigo != null && alimentoRepository.existsByCodigoBarras(codigo)) {
+            throw new RuntimeException("Código de barras já cadastrado");
+        }
+        Alimento alimento = new Alimento();
+        updateAlimentoFromDto(alimento, dto);
+        alimento = alimentoRepository.save(alimento);
+        invalidacao.publicar(BarramentoInvalidacao.ALIMENTOS, alimento.getId());
+        return new AlimentoDto(alimento);
+    }
+
+    @Transactional
+    public Optional<AlimentoDto> update(Long id, AlimentoDto dto) {
+        String codigo = normalizarCodigo(dto.getCodigoBarras());
+        if (codigo != null && alimentoRepository.existsByCodigoBarrasAndIdNot(codigo, id)) {
+            throw new RuntimeException("Código de barras já cadastrado");
+        }
+        return alimentoRepository.findById(id).map(alimento -> {
+            updateAlimentoFromDto(alimento, dto);
+            alimento = alimentoRepository.save(alimento);
+            invalidacao.publicar(BarramentoInvalidacao.ALIMENTOS, alimento.getId());
+            return new AlimentoDto(alimento);
+        });
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        if (alimentoRepository.existsById(id)) {
+            alimentoRepository.deleteById(id);
+            invalidacao.publicar(BarramentoInvalidacao.ALIMENTOS, id);
+            return true;
+        }
+        return false;
+    }
+
+    private void updateAlimentoFromDto(Alimento alimento, AlimentoDto dto) {
+        alimento.setNome(dto.getNome());
+        alimento.setCategoria(dto.getCategoria());
+        alimento.setMarca(dto.getMarca());
+        alimento.setCodigoBarras(normalizarCodigo(dto.getCodigoBarras()));
+        if (dto.getPorcaoPadrao() != null) {
+            alimento.setPorcaoPadrao(dto.getPorcaoPadrao());
+        }
+        if (dto.getUnidadePadrao() != null) {
+            alimento.setUnidadePadrao(dto.getUnidadePadrao());
+        }
+        alimento.setCalorias(dto.getCalorias());
+        AlimentoDto.Macronutrientes macro = dto.getMacronutrientes();
+        if (macro != null) {
+            alimento.setProteinas(macro.getProteinas());
+            alimento.setCarboidratos(macro.getCarboidratos());
+            alimento.setGorduras(macro.getGorduras());
+            alimento.setFibras(macro.getFibras());
+            alimento.setAcucares(macro.getAcucares());
+        }
+        AlimentoDto.Micronutrientes micro = dto.getMicronutrientes();
+        if (micro != null) {
+            alimento.setSodio(micro.getSodio());
+            alimento.setPotassio(micro.getPotassio());
+            alimento.setCalcio(micro.getCalcio());
+            alimento.setFerro(micro.getFerro());
+            alimento.setVitaminaC(micro.getVitaminaC());
+            alimento.setVitaminaD(micro.getVitaminaD());
+        }
+        alimento.setIndiceGlicemico(dto.getIndiceGlicemico());
+        alimento.setAlergenos(AlimentoDto.joinAlergenos(dto.getAlergenos()));
+        alimento.setVegetariano(dto.isVegetariano());
+        alimento.setVegano(dto.isVegano());
+        alimento.setSemGluten(dto.isSemGluten());
+        alimento.setSemLactose(dto.isSemLactose());
+    }
+
+    private static String normalizarCodigo(String codigo) {
+        return codigo == null || codigo.isBlank() ? null : codigo.trim();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.model.AvaliacaoFisica;
+import com.mtor.evolution.model.Cliente;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA listener on {@link Cliente} and {@link AvaliacaoFisica}: publishes on
+ * the {@link BarramentoInvalidacao} which client changed, or whose
+ * assessments did, once the transaction commits. The similarity index
+ * depends on both, the facet index on the client row only. Hibernate
+ * creates it through the Spring bean container while the entity manager
+ * factory is still being built, so the bus is injected lazily to avoid a
+ * cycle through the subscribers' repositories.
+ */
+public class AlteracaoClienteListener {
+
+    @Autowired
+    @Lazy
+    private BarramentoInvalidacao invalidacao;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alterado(Object entidade) {
+        if (entidade instanceof Cliente cliente) {
+            invalidacao.publicar(BarramentoInvalidacao.CLIENTE, cliente.getId());
+        } else if (entidade instanceof AvaliacaoFisica avaliacao && avaliacao.getCliente() != null) {
+            // Reading the id does not initialize a lazy proxy
+            invalidacao.publicar(BarramentoInvalidacao.AVALIACOES_CLIENTE, avaliacao.getCliente().getId());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AlteracaoClienteDto;
+import com.mtor.evolution.dto.AlteracoesClienteDto;
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.ClienteRemovido;
+import com.mtor.evolution.repository.ClienteRemovidoRepository;
+import com.mtor.evolution.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change feed over clients, for keeping a local copy in sync. Changes come
+ * in (updatedAt, sequenciaAlteracao) order: the timestamp, then a database
+ * sequence taken by the same write, so changes at the same instant still
+ * have a strict order and a cursor never skips or repeats one. Deletes come
+ * from {@link ClienteRemovido} tombstones, ordered the same way.
+ *
+ * <p>Only changes older than {@code feed.settle-ms} are handed out: a
+ * transaction still running while a later one commits would otherwise show
+ * up behind a cursor that has already passed it. The window is a hard
+ * limit: it has to cover the longest client write and the clock skew
+ * between instances, and a change committed later than that may be skipped
+ * by a cursor for good. Such commits are counted and logged when they
+ * happen (see {@link AssentamentoAlteracaoListener}); a consumer that must
+ * not miss them resyncs from scratch. Cursors
+ * older than the tombstone retention may have missed deletes and are
+ * refused; the caller then starts over without one.
+ */
+@Service
+public class AlteracoesClientes {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClienteRemovidoRepository clienteRemovidoRepository;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Value("${feed.page-size:100}")
+    private int limitePadrao;
+
+    @Value("${feed.max-page-size:500}")
+    private int limiteMaximo;
+
+    @Value("${feed.settle-ms:2000}")
+    private long assentamentoMs;
+
+    @Value("${feed.tombstone-retention-days:30}")
+    private int retencaoDias;
+
+    private final TransactionTemplate leitura;
+    private final TransactionTemplate escrita;
+
+    private final AtomicLong commitsAtrasados = new AtomicLong();
+    private final AtomicLong maiorAtrasoMs = new AtomicLong();
+    private volatile LocalDateTime ultimoCommitAtrasado;
+
+    public AlteracoesClientes(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.escrita = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Changes after {@code cursor} (from the start if null), oldest first.
+     * Empty if the cursor is too old to be resumed.
+     *
+     * @throws IllegalArgumentException if the cursor is not one of ours
+     */
+    public Optional<AlteracoesClienteDto> buscar(String cursor, Integer limite) {
+        boolean inicio = cursor == null || cursor.isBlank();
+        Cursor desde = inicio ? new Cursor(INICIO, -1) : Cursor.decodificar(cursor);
+        if (!inicio && desde.alteradoEm.isBefore(LocalDateTime.now().minusDays(retencaoDias))) {
+            return Optional.empty();
+        }
+        int tamanho = Math.max(1, Math.min(limite != null ? limite : limitePadrao, limiteMaximo));
+        LocalDateTime ate = LocalDateTime.now().minusNanos(assentamentoMs * 1_000_000);
+        // One extra row per source tells whether another page follows
+        Pageable primeiros = PageRequest.of(0, tamanho + 1);
+
+        List<List<Item>> porShard = shards.emTodos(shard -> leitura.execute(status -> {
+            List<Item> itens = new ArrayList<>();
+            for (Cliente cliente : clienteRepository.findAlteradosApos(desde.alteradoEm, desde.sequencia, ate, primeiros)) {
+                AlteracaoClienteDto.Tipo tipo = cliente.getCreatedAt() != null && cliente.getCreatedAt().isAfter(desde.alteradoEm)
+                        ? AlteracaoClienteDto.Tipo.CRIADO : AlteracaoClienteDto.Tipo.ATUALIZADO;
+                itens.add(new Item(cliente.getUpdatedAt(), cliente.getSequenciaAlteracao(), new AlteracaoClienteDto(
+                        tipo, cliente.getId().toString(), cliente.getUpdatedAt(), new ClienteDto(cliente))));
+            }
+            for (ClienteRemovido removido : clienteRemovidoRepository.findRemovidosApos(desde.alteradoEm, desde.sequencia, ate, primeiros)) {
+                itens.add(new Item(removido.getRemovidoEm(), removido.getSequencia(), new AlteracaoClienteDto(
+                        AlteracaoClienteDto.Tipo.REMOVIDO, removido.getClienteId().toString(), removido.getRemovidoEm(), null)));
+            }
+            return itens;
+        }));
+
+        List<Item> itens = new ArrayList<>();
+        porShard.forEach(itens::addAll);
+        itens.sort(Comparator.comparing((Item item) -> item.alteradoEm).thenComparingLong(item -> item.sequencia));
+        boolean temMais = itens.size() > tamanho;
+        List<Item> pagina = temMais ? itens.subList(0, tamanho) : itens;
+
+        // Without more rows everything up to the settle bound has been seen, so idle cursors stay fresh
+        Cursor proximo;
+        if (temMais) {
+            Item ultimo = pagina.get(pagina.size() - 1);
+            proximo = new Cursor(ultimo.alteradoEm, ultimo.sequencia);
+        } else {
+            proximo = ate.isAfter(desde.alteradoEm) ? new Cursor(ate, Long.MAX_VALUE) : desde;
+        }
+        return Optional.of(new AlteracoesClienteDto(pagina.stream().map(item -> item.alteracao).toList(),
+                proximo.codificar(), temMais));
+    }
+
+    /**
+     * A client change stamped {@code alteradoEm} has just committed. Past
+     * the settle window a cursor may already have moved beyond it.
+     */
+    public void commitVisivel(Long clienteId, LocalDateTime alteradoEm) {
+        long atrasoMs = Duration.between(alteradoEm, LocalDateTime.now()).toMillis();
+        maiorAtrasoMs.accumulateAndGet(atrasoMs, Math::max);
+        if (atrasoMs > assentamentoMs) {
+            commitsAtrasados.incrementAndGet();
+            ultimoCommitAtrasado = LocalDateTime.now();
+            System.err.println("⚠️ Client " + clienteId + " change committed " + atrasoMs
+                    + " ms after its timestamp, beyond feed.settle-ms=" + assentamentoMs + "; feed cursors may have skipped it");
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("assentamentoMs", assentamentoMs);
+        status.put("maiorAtrasoCommitMs", maiorAtrasoMs.get());
+        status.put("commitsAtrasados", commitsAtrasados.get());
+        status.put("ultimoCommitAtrasado", ultimoCommitAtrasado);
+        return status;
+    }
+
+    @Scheduled(cron = "${feed.tombstone-purge-cron:0 40 3 * * *}")
+    public void removerLapidesAntigas() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(retencaoDias);
+        List<Integer> removidas = shards.emTodos(shard ->
+                escrita.execute(status -> clienteRemovidoRepository.removerAntesDe(limite)));
+        int total = removidas.stream().mapToInt(Integer::intValue).sum();
+        if (total > 0) {
+            System.out.println("🧹 Removed " + total + " client tombstones older than " + retencaoDias + " days");
+        }
+    }
+
+    private static final class Item {
+
+        private final LocalDateTime alteradoEm;
+        private final long sequencia;
+        private final AlteracaoClienteDto alteracao;
+
+        Item(LocalDateTime alteradoEm, Long sequencia, AlteracaoClienteDto alteracao) {
+            this.alteradoEm = alteradoEm;
+            this.sequencia = sequencia != null ? sequencia : 0;
+            this.alteracao = alteracao;
+        }
+    }
+
+    // Opaque to callers: base64url of "<alteradoEm>~<sequencia>"
+    private static final class Cursor {
+
+        private final LocalDateTime alteradoEm;
+        private final long sequencia;
+
+        Cursor(LocalDateTime alteradoEm, long sequencia) {
+            this.alteradoEm = alteradoEm;
+            this.sequencia = sequencia;
+        }
+
+        String codificar() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((alteradoEm + "~" + sequencia).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decodificar(String cursor) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("~");
+                return new Cursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+    }
+}
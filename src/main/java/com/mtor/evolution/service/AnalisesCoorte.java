@@ -0,0 +1,638 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AnaliseCoorteDto;
+import com.mtor.evolution.model.AvaliacaoFisica;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
+import com.mtor.evolution.repository.ClienteRemovidoRepository;
+import com.mtor.evolution.repository.ClienteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Cohort reports ("body-fat change over 12 weeks by modality and age
+ * band", "share still active by signup month") computed from a
+ * {@link SnapshotAnalitico} instead of ad-hoc SQL on the primary. The
+ * snapshot is read in read-only transactions, which go to the replica
+ * when there is one, and refreshed every {@code analytics.refresh-ms} by
+ * re-reading only the clients and assessments changed since the previous
+ * refresh (plus client tombstones), merged into a copy of the columns.
+ * Assessments are never deleted on their own; a full rebuild runs nightly
+ * anyway to catch writes that bypass {@code updatedAt}.
+ *
+ * <p>A report groups clients by up to four dimensions and aggregates one
+ * value per client, split in row ranges over a fork-join pool. Results
+ * are cached per snapshot version; a refresh that finds nothing changed
+ * keeps the version, and the cache with it.
+ */
+@Service
+public class AnalisesCoorte {
+
+    private static final int MAX_DIMENSOES = 4;
+    private static final int LIMIAR_PARALELO = 16_384;
+    private static final String SEM_VALOR = "sem valor";
+
+    enum Dimensao {
+        MODALIDADE("modalidade"), FAIXA_ETARIA("faixaEtaria"), GENERO("genero"), OBJETIVO("objetivo"),
+        STATUS("status"), MES_CADASTRO("mesCadastro");
+
+        final String nome;
+
+        Dimensao(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    private static final Map<String, Function<SnapshotAnalitico.Avaliacoes, float[]>> METRICAS = Map.of(
+            "peso", a -> a.pesos,
+            "gordura", a -> a.gorduras,
+            "massaMagra", a -> a.massasMagras,
+            "imc", a -> a.imcs);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private ClienteRemovidoRepository clienteRemovidoRepository;
+
+    @Autowired
+    private InicializacaoAdiada inicializacao;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    // Rows changed this long before the previous refresh are read again, for transactions that committed late
+    @Value("${analytics.overlap-ms:300000}")
+    private long sobreposicaoMs;
+
+    @Value("${analytics.parallelism:0}")
+    private int paralelismo;
+
+    @Value("${analytics.cache-size:256}")
+    private int tamanhoCache;
+
+    @Value("${facets.age-bands:18,30,40,50,60}")
+    private int[] limitesIdade;
+
+    private final TransactionTemplate leitura;
+
+    private final ExecutorService construcao = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "analises-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean construcaoAgendada = new AtomicBoolean();
+    private volatile boolean completaSolicitada;
+    private ForkJoinPool calculo;
+    private String[] faixas;
+
+    // Only touched by the build thread
+    private final Map<String, Short> codigosModalidade = new HashMap<>();
+    private final List<String> rotulosModalidade = new ArrayList<>();
+    private LocalDateTime marca;
+    private long versao;
+
+    private volatile SnapshotAnalitico atual;
+    private volatile Cache cache = new Cache(-1);
+    private volatile Map<String, Object> ultimaConstrucao = Map.of();
+
+    public AnalisesCoorte(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        Arrays.sort(limitesIdade);
+        faixas = FacetasClientes.faixas(limitesIdade);
+        calculo = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        inicializacao.registrar("analises-coorte", () -> agendar(true));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        construcao.shutdownNow();
+        calculo.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.refresh-ms:300000}", initialDelayString = "${analytics.refresh-ms:300000}")
+    public void atualizar() {
+        agendar(false);
+    }
+
+    @Scheduled(cron = "${analytics.full-rebuild-cron:0 20 4 * * *}")
+    public void reconstruir() {
+        agendar(true);
+    }
+
+    /** Queues a refresh (or a full rebuild); requests made while one is queued join it. */
+    public void agendar(boolean completa) {
+        if (completa) {
+            completaSolicitada = true;
+        }
+        if (construcaoAgendada.compareAndSet(false, true)) {
+            construcao.execute(() -> {
+                construcaoAgendada.set(false);
+                boolean reconstruir = completaSolicitada || atual == null;
+                completaSolicitada = false;
+                try {
+                    if (reconstruir) {
+                        construirCompleto();
+                    } else {
+                        atualizarIncremental();
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Analytics snapshot build failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Change of a body-composition metric from each client's first completed
+     * assessment to the one closest to {@code semanas} later (within
+     * {@code toleranciaDias}), averaged per group. Clients without such a
+     * pair are left out.
+     *
+     * @throws IllegalArgumentException for an unknown metric or dimension
+     */
+    public Optional<AnaliseCoorteDto> composicao(String metrica, int semanas, int toleranciaDias, List<String> por) {
+        Function<SnapshotAnalitico.Avaliacoes, float[]> coluna = METRICAS.get(metrica);
+        if (coluna == null) {
+            throw new IllegalArgumentException("Métrica desconhecida: " + metrica + " (disponíveis: " + METRICAS.keySet() + ")");
+        }
+        if (semanas < 1 || semanas > 520 || toleranciaDias < 0 || toleranciaDias > 180) {
+            throw new IllegalArgumentException("Semanas ou tolerância fora do intervalo");
+        }
+        List<Dimensao> dimensoes = dimensoes(por, List.of());
+        String chave = "composicao|" + metrica + "|" + semanas + "|" + toleranciaDias + "|" + dimensoes;
+        return consultar(chave, s -> agregar(s, "composicao", metrica, dimensoes,
+                variacao(s, coluna.apply(s.avaliacoes), semanas * 7, toleranciaDias)));
+    }
+
+    /**
+     * Share of clients currently ATIVO per group, by signup month unless
+     * other dimensions are given.
+     *
+     * @throws IllegalArgumentException for an unknown dimension
+     */
+    public Optional<AnaliseCoorteDto> retencao(List<String> por) {
+        List<Dimensao> dimensoes = dimensoes(por, List.of(Dimensao.MES_CADASTRO));
+        String chave = "retencao|" + dimensoes;
+        byte ativo = (byte) Cliente.Status.ATIVO.ordinal();
+        return consultar(chave, s -> {
+            byte[] status = s.clientes.status;
+            return agregar(s, "retencao", "ativos", dimensoes, r -> status[r] == ativo ? 1.0 : 0.0);
+        });
+    }
+
+    public Map<String, Object> status() {
+        SnapshotAnalitico s = atual;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pronto", s != null);
+        status.put("versao", s != null ? s.versao : null);
+        status.put("snapshotEm", s != null ? s.geradoEm : null);
+        status.put("clientes", s != null ? s.clientes.tamanho : 0);
+        status.put("avaliacoes", s != null ? s.avaliacoes.tamanho : 0);
+        status.put("memoriaBytes", s != null ? s.memoriaBytes() : 0);
+        status.put("paralelismo", calculo.getParallelism());
+        status.put("resultadosEmCache", cache.resultados.size());
+        status.put("ultimaConstrucao", ultimaConstrucao);
+        return status;
+    }
+
+    private Optional<AnaliseCoorteDto> consultar(String chave, Function<SnapshotAnalitico, AnaliseCoorteDto> calcular) {
+        SnapshotAnalitico s = atual;
+        if (s == null) {
+            return Optional.empty();
+        }
+        Cache c = cache;
+        if (c.versao != s.versao) {
+            c = new Cache(s.versao);
+            cache = c;
+        }
+        AnaliseCoorteDto resultado = c.resultados.get(chave);
+        if (resultado == null) {
+            resultado = calcular.apply(s);
+            if (c.resultados.size() >= tamanhoCache) {
+                c.resultados.clear();
+            }
+            c.resultados.put(chave, resultado);
+        }
+        return Optional.of(resultado);
+    }
+
+    private AnaliseCoorteDto agregar(SnapshotAnalitico s, String analise, String metrica, List<Dimensao> dimensoes,
+                                     IntToDoubleFunction valor) {
+        long inicio = System.nanoTime();
+        Map<Long, Acumulador> porChave = calculo.invoke(new Agregacao(0, s.clientes.tamanho, chave(s, dimensoes), valor));
+
+        List<Long> chaves = new ArrayList<>(porChave.keySet());
+        chaves.sort(null);
+        List<AnaliseCoorteDto.Grupo> grupos = new ArrayList<>(chaves.size());
+        for (long chave : chaves) {
+            Map<String, String> rotulos = new LinkedHashMap<>();
+            for (int d = 0; d < dimensoes.size(); d++) {
+                int codigo = (int) (chave >>> (16 * (dimensoes.size() - 1 - d))) & 0xFFFF;
+                rotulos.put(dimensoes.get(d).nome, rotulo(s, dimensoes.get(d), codigo));
+            }
+            Acumulador a = porChave.get(chave);
+            double media = a.soma / a.n;
+            double variancia = Math.max(0, a.somaQuadrados / a.n - media * media);
+            grupos.add(new AnaliseCoorteDto.Grupo(rotulos, a.n, media, a.minimo, a.maximo, Math.sqrt(variancia)));
+        }
+        return new AnaliseCoorteDto(analise, metrica, dimensoes.stream().map(d -> d.nome).toList(), s.versao,
+                s.geradoEm, (System.nanoTime() - inicio) / 1_000_000, grupos);
+    }
+
+    // Value per client row: first completed assessment with the metric against the one nearest dias later
+    private static IntToDoubleFunction variacao(SnapshotAnalitico s, float[] coluna, int dias, int tolerancia) {
+        int[] datas = s.avaliacoes.datas;
+        return r -> {
+            int i = s.inicio[r];
+            int fim = s.fim[r];
+            while (i < fim && Float.isNaN(coluna[i])) {
+                i++;
+            }
+            if (fim - i < 2) {
+                return Double.NaN;
+            }
+            int alvo = datas[i] + dias;
+            int melhor = -1;
+            int menorDistancia = tolerancia + 1;
+            for (int j = i + 1; j < fim; j++) {
+                int distancia = Math.abs(datas[j] - alvo);
+                if (distancia < menorDistancia && !Float.isNaN(coluna[j])) {
+                    menorDistancia = distancia;
+                    melhor = j;
+                }
+            }
+            return melhor < 0 ? Double.NaN : (double) coluna[melhor] - coluna[i];
+        };
+    }
+
+    // Group key: one 16-bit code per dimension, first dimension highest, 0 for no value
+    private IntToLongFunction chave(SnapshotAnalitico s, List<Dimensao> dimensoes) {
+        SnapshotAnalitico.Clientes c = s.clientes;
+        IntUnaryOperator[] codigos = new IntUnaryOperator[dimensoes.size()];
+        for (int d = 0; d < codigos.length; d++) {
+            codigos[d] = switch (dimensoes.get(d)) {
+                case MODALIDADE -> r -> c.modalidades[r] + 1;
+                case GENERO -> r -> c.generos[r] + 1;
+                case STATUS -> r -> c.status[r] + 1;
+                case OBJETIVO -> r -> c.objetivos[r] + 1;
+                case MES_CADASTRO -> r -> c.mesesCadastro[r] == SnapshotAnalitico.SEM_DATA ? 0 : c.mesesCadastro[r] + 1;
+                case FAIXA_ETARIA -> {
+                    // Born on or before cortes[k] means at least limitesIdade[k] years old on the reference date
+                    int[] cortes = new int[limitesIdade.length];
+                    for (int k = 0; k < cortes.length; k++) {
+                        cortes[k] = (int) s.referencia.minusYears(limitesIdade[k]).toEpochDay();
+                    }
+                    yield r -> {
+                        int nascimento = c.nascimentos[r];
+                        if (nascimento == SnapshotAnalitico.SEM_DATA) {
+                            return 0;
+                        }
+                        int faixa = 0;
+                        while (faixa < cortes.length && nascimento <= cortes[faixa]) {
+                            faixa++;
+                        }
+                        return faixa + 1;
+                    };
+                }
+            };
+        }
+        return r -> {
+            long chave = 0;
+            for (IntUnaryOperator codigo : codigos) {
+                chave = (chave << 16) | codigo.applyAsInt(r);
+            }
+            return chave;
+        };
+    }
+
+    private String rotulo(SnapshotAnalitico s, Dimensao dimensao, int codigo) {
+        if (codigo == 0) {
+            return SEM_VALOR;
+        }
+        return switch (dimensao) {
+            case MODALIDADE -> s.modalidades.get(codigo - 1);
+            case GENERO -> Cliente.Genero.values()[codigo - 1].name();
+            case STATUS -> Cliente.Status.values()[codigo - 1].name();
+            case OBJETIVO -> FacetasClientes.OBJETIVOS[codigo - 1];
+            case MES_CADASTRO -> String.format(Locale.ROOT, "%04d-%02d", (codigo - 1) / 12, (codigo - 1) % 12 + 1);
+            case FAIXA_ETARIA -> faixas[codigo - 1];
+        };
+    }
+
+    private static List<Dimensao> dimensoes(List<String> nomes, List<Dimensao> padrao) {
+        if (nomes == null || nomes.isEmpty()) {
+            return padrao;
+        }
+        List<Dimensao> dimensoes = new ArrayList<>();
+        for (String nome : nomes) {
+            Dimensao dimensao = Arrays.stream(Dimensao.values()).filter(d -> d.nome.equalsIgnoreCase(nome.trim())).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Dimensão desconhecida: " + nome));
+            if (!dimensoes.contains(dimensao)) {
+                dimensoes.add(dimensao);
+            }
+        }
+        if (dimensoes.size() > MAX_DIMENSOES) {
+            throw new IllegalArgumentException("No máximo " + MAX_DIMENSOES + " dimensões");
+        }
+        return dimensoes;
+    }
+
+    private void construirCompleto() {
+        long inicioNs = System.nanoTime();
+        LocalDateTime inicio = LocalDateTime.now();
+        SnapshotAnalitico anterior = atual;
+        SnapshotAnalitico.Clientes clientes = new SnapshotAnalitico.Clientes(anterior != null ? anterior.clientes.tamanho : 1024);
+        SnapshotAnalitico.Avaliacoes avaliacoes = new SnapshotAnalitico.Avaliacoes(anterior != null ? anterior.avaliacoes.tamanho : 1024);
+        for (int i = 0; i < shards.numeroShards(); i++) {
+            shards.noShard(i, () -> leitura.execute(tx -> {
+                try (Stream<Object[]> linhas = clienteRepository.streamAnalitico()) {
+                    linhas.forEach(linha -> adicionarCliente(clientes, linha));
+                }
+                try (Stream<Object[]> linhas = avaliacaoFisicaRepository.streamAnalitico(AvaliacaoFisica.Status.REALIZADA)) {
+                    linhas.forEach(linha -> adicionarAvaliacao(avaliacoes, linha));
+                }
+                return null;
+            }));
+        }
+        marca = inicio;
+        publicar(new SnapshotAnalitico(++versao, inicio, clientes.ordenado(), avaliacoes.ordenado(), List.copyOf(rotulosModalidade)),
+                "completa", clientes.tamanho + avaliacoes.tamanho, inicioNs);
+    }
+
+    private void atualizarIncremental() {
+        long inicioNs = System.nanoTime();
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDateTime desde = marca.minusNanos(sobreposicaoMs * 1_000_000);
+        SnapshotAnalitico anterior = atual;
+        SnapshotAnalitico.Clientes clientes = new SnapshotAnalitico.Clientes(64);
+        SnapshotAnalitico.Avaliacoes avaliacoes = new SnapshotAnalitico.Avaliacoes(64);
+        Set<Long> removidos = new HashSet<>();
+        Set<Long> substituidas = new HashSet<>();
+        // Assessments read that are no longer completed: id and client
+        List<long[]> foraDoSnapshot = new ArrayList<>();
+        for (int i = 0; i < shards.numeroShards(); i++) {
+            shards.noShard(i, () -> leitura.execute(tx -> {
+                try (Stream<Object[]> linhas = clienteRepository.streamAnaliticoAlteradosApos(desde)) {
+                    linhas.forEach(linha -> adicionarCliente(clientes, linha));
+                }
+                removidos.addAll(clienteRemovidoRepository.findClienteIdsRemovidosApos(desde));
+                try (Stream<Object[]> linhas = avaliacaoFisicaRepository.streamAnaliticoAlteradasApos(desde)) {
+                    linhas.forEach(linha -> {
+                        substituidas.add((Long) linha[0]);
+                        if (linha[3] == AvaliacaoFisica.Status.REALIZADA) {
+                            adicionarAvaliacao(avaliacoes, linha);
+                        } else {
+                            foraDoSnapshot.add(new long[]{(Long) linha[0], (Long) linha[1]});
+                        }
+                    });
+                }
+                return null;
+            }));
+        }
+        marca = inicio;
+        int lidas = clientes.tamanho + removidos.size() + substituidas.size();
+
+        // The overlap re-reads recent rows every time; only a real difference makes a new version
+        if (!difere(anterior, clientes, removidos, avaliacoes, foraDoSnapshot)) {
+            if (!anterior.referencia.equals(inicio.toLocalDate())) {
+                publicar(anterior.comVersao(++versao, inicio), "nova data", lidas, inicioNs);
+            } else {
+                ultimaConstrucao = resumo("sem alterações", anterior, lidas, inicioNs);
+            }
+            return;
+        }
+        publicar(new SnapshotAnalitico(++versao, inicio,
+                        SnapshotAnalitico.Clientes.mesclar(anterior.clientes, clientes.ordenado(), removidos),
+                        SnapshotAnalitico.Avaliacoes.mesclar(anterior.avaliacoes, avaliacoes.ordenado(), substituidas),
+                        List.copyOf(rotulosModalidade)),
+                "incremental", lidas, inicioNs);
+    }
+
+    private static boolean difere(SnapshotAnalitico s, SnapshotAnalitico.Clientes clientes, Set<Long> removidos,
+                                  SnapshotAnalitico.Avaliacoes avaliacoes, List<long[]> foraDoSnapshot) {
+        SnapshotAnalitico.Clientes c = s.clientes;
+        for (long id : removidos) {
+            if (Arrays.binarySearch(c.ids, 0, c.tamanho, id) >= 0) {
+                return true;
+            }
+        }
+        for (int j = 0; j < clientes.tamanho; j++) {
+            int r = Arrays.binarySearch(c.ids, 0, c.tamanho, clientes.ids[j]);
+            if (r < 0 || c.nascimentos[r] != clientes.nascimentos[j] || c.mesesCadastro[r] != clientes.mesesCadastro[j]
+                    || c.generos[r] != clientes.generos[j] || c.status[r] != clientes.status[j]
+                    || c.objetivos[r] != clientes.objetivos[j] || c.modalidades[r] != clientes.modalidades[j]) {
+                return true;
+            }
+        }
+        SnapshotAnalitico.Avaliacoes a = s.avaliacoes;
+        for (int j = 0; j < avaliacoes.tamanho; j++) {
+            int i = posicao(s, avaliacoes.clientes[j], avaliacoes.ids[j]);
+            if (i < 0 || a.datas[i] != avaliacoes.datas[j] || !igual(a.pesos[i], avaliacoes.pesos[j])
+                    || !igual(a.gorduras[i], avaliacoes.gorduras[j]) || !igual(a.massasMagras[i], avaliacoes.massasMagras[j])
+                    || !igual(a.imcs[i], avaliacoes.imcs[j])) {
+                return true;
+            }
+        }
+        for (long[] avaliacao : foraDoSnapshot) {
+            if (posicao(s, avaliacao[1], avaliacao[0]) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Row of an assessment in the snapshot, looked up within its client's range; -1 if absent
+    private static int posicao(SnapshotAnalitico s, long clienteId, long avaliacaoId) {
+        int r = Arrays.binarySearch(s.clientes.ids, 0, s.clientes.tamanho, clienteId);
+        if (r < 0) {
+            return -1;
+        }
+        for (int i = s.inicio[r]; i < s.fim[r]; i++) {
+            if (s.avaliacoes.ids[i] == avaliacaoId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean igual(float a, float b) {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+
+    private void publicar(SnapshotAnalitico snapshot, String tipo, int lidas, long inicioNs) {
+        atual = snapshot;
+        ultimaConstrucao = resumo(tipo, snapshot, lidas, inicioNs);
+        System.out.println("✅ Analytics snapshot v" + snapshot.versao + " (" + tipo + "): " + snapshot.clientes.tamanho
+                + " clients, " + snapshot.avaliacoes.tamanho + " assessments, " + lidas + " rows read in "
+                + ultimaConstrucao.get("duracaoMs") + " ms");
+    }
+
+    private static Map<String, Object> resumo(String tipo, SnapshotAnalitico snapshot, int lidas, long inicioNs) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("tipo", tipo);
+        resumo.put("versao", snapshot.versao);
+        resumo.put("linhasLidas", lidas);
+        resumo.put("duracaoMs", (System.nanoTime() - inicioNs) / 1_000_000);
+        resumo.put("em", LocalDateTime.now());
+        return resumo;
+    }
+
+    // Row layout as in ClienteRepository.ANALITICO
+    private void adicionarCliente(SnapshotAnalitico.Clientes clientes, Object[] linha) {
+        LocalDate nascimento = (LocalDate) linha[1];
+        Cliente.Genero genero = (Cliente.Genero) linha[2];
+        Cliente.Status status = (Cliente.Status) linha[5];
+        LocalDateTime criadoEm = (LocalDateTime) linha[6];
+        clientes.adicionar((Long) linha[0],
+                nascimento != null ? (int) nascimento.toEpochDay() : SnapshotAnalitico.SEM_DATA,
+                criadoEm != null ? criadoEm.getYear() * 12 + criadoEm.getMonthValue() - 1 : SnapshotAnalitico.SEM_DATA,
+                genero != null ? (byte) genero.ordinal() : SnapshotAnalitico.SEM_VALOR,
+                status != null ? (byte) status.ordinal() : SnapshotAnalitico.SEM_VALOR,
+                (byte) SimilaridadeClientes.codigoObjetivo((String) linha[4]),
+                codigoModalidade((String) linha[3]));
+    }
+
+    // Row layout as in AvaliacaoFisicaRepository.ANALITICO
+    private static void adicionarAvaliacao(SnapshotAnalitico.Avaliacoes avaliacoes, Object[] linha) {
+        LocalDate data = (LocalDate) linha[2];
+        if (data == null) {
+            return;
+        }
+        avaliacoes.adicionar((Long) linha[0], (Long) linha[1], (int) data.toEpochDay(),
+                valor(linha[4]), valor(linha[5]), valor(linha[6]), valor(linha[7]));
+    }
+
+    private static float valor(Object valor) {
+        return valor != null ? ((Number) valor).floatValue() : Float.NaN;
+    }
+
+    private short codigoModalidade(String modalidade) {
+        String chave = SimilaridadeClientes.normalizar(modalidade);
+        if (chave.isEmpty()) {
+            return -1;
+        }
+        Short codigo = codigosModalidade.get(chave);
+        if (codigo == null) {
+            if (rotulosModalidade.size() >= Short.MAX_VALUE) {
+                return -1;
+            }
+            codigo = (short) rotulosModalidade.size();
+            rotulosModalidade.add(modalidade.trim().replaceAll("\\s+", " "));
+            codigosModalidade.put(chave, codigo);
+        }
+        return codigo;
+    }
+
+    private static final class Cache {
+
+        private final long versao;
+        private final Map<String, AnaliseCoorteDto> resultados = new ConcurrentHashMap<>();
+
+        Cache(long versao) {
+            this.versao = versao;
+        }
+    }
+
+    private static final class Acumulador {
+
+        private long n;
+        private double soma;
+        private double somaQuadrados;
+        private double minimo = Double.POSITIVE_INFINITY;
+        private double maximo = Double.NEGATIVE_INFINITY;
+
+        void somar(double valor) {
+            n++;
+            soma += valor;
+            somaQuadrados += valor * valor;
+            minimo = Math.min(minimo, valor);
+            maximo = Math.max(maximo, valor);
+        }
+
+        void somar(Acumulador outro) {
+            n += outro.n;
+            soma += outro.soma;
+            somaQuadrados += outro.somaQuadrados;
+            minimo = Math.min(minimo, outro.minimo);
+            maximo = Math.max(maximo, outro.maximo);
+        }
+    }
+
+    // Group-by over client rows [de, ate): halves are aggregated in parallel, then their maps merged
+    private static final class Agregacao extends RecursiveTask<Map<Long, Acumulador>> {
+
+        private final int de;
+        private final int ate;
+        private final IntToLongFunction chave;
+        private final IntToDoubleFunction valor;
+
+        Agregacao(int de, int ate, IntToLongFunction chave, IntToDoubleFunction valor) {
+            this.de = de;
+            this.ate = ate;
+            this.chave = chave;
+            this.valor = valor;
+        }
+
+        @Override
+        protected Map<Long, Acumulador> compute() {
+            if (ate - de <= LIMIAR_PARALELO) {
+                Map<Long, Acumulador> grupos = new HashMap<>();
+                for (int r = de; r < ate; r++) {
+                    double v = valor.applyAsDouble(r);
+                    if (!Double.isNaN(v)) {
+                        grupos.computeIfAbsent(chave.applyAsLong(r), k -> new Acumulador()).somar(v);
+                    }
+                }
+                return grupos;
+            }
+            int meio = (de + ate) >>> 1;
+            Agregacao esquerda = new Agregacao(de, meio, chave, valor);
+            esquerda.fork();
+            Map<Long, Acumulador> grupos = new Agregacao(meio, ate, chave, valor).compute();
+            esquerda.join().forEach((k, a) -> grupos.merge(k, a, (x, y) -> {
+                x.somar(y);
+                return x;
+            }));
+            return grupos;
+        }
+    }
+}
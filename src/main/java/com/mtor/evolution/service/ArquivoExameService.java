@@ -0,0 +1,231 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.ArquivoExameDto;
+import com.mtor.evolution.model.ArquivoExame;
+import com.mtor.evolution.repository.ArquivoExameRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed store for exam attachments. Blobs live under
+ * {@code blobs/ab/cd/<sha256>} and are shared by every attachment with the
+ * same content, so re-uploading a report costs one metadata row.
+ * Linking an upload to a blob and removing an unreferenced blob hold the
+ * same per-checksum lock, so a delete never collects a blob that a
+ * concurrent upload of the same content has just reused. The store is
+ * local to the instance, and so are the locks.
+ */
+@Service
+public class ArquivoExameService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TRAVAS = 64;
+
+    @Autowired
+    private ArquivoExameRepository arquivoExameRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Value("${storage.exames.path}")
+    private String storagePath;
+
+    private Path blobsDir;
+    private Path tmpDir;
+
+    private final Object[] travas = new Object[TRAVAS];
+
+    public ArquivoExameService() {
+        for (int i = 0; i < TRAVAS; i++) {
+            travas[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Path root = Paths.get(storagePath).toAbsolutePath().normalize();
+        blobsDir = Files.createDirectories(root.resolve("blobs"));
+        tmpDir = Files.createDirectories(root.resolve("tmp"));
+    }
+
+    public List<ArquivoExameDto> findByExame(String exameId) {
+        return doExame(exameId, clienteId -> Optional.of(arquivoExameRepository.findByExameIdOrderByDataUploadDesc(exameId).stream()
+                        .map(ArquivoExameDto::new)
+                        .collect(Collectors.toList())))
+                .orElse(List.of());
+    }
+
+    public Optional<ArquivoExame> findById(String exameId, Long id) {
+        return doExame(exameId, clienteId -> arquivoExameRepository.findByIdAndExameId(id, exameId));
+    }
+
+    /**
+     * Streams {@code content} to a temp file while hashing it, then moves it
+     * into place under its checksum. The whole file is never held in memory.
+     * A failure to read the upload is an {@link IllegalArgumentException};
+     * a failure to store it is an {@link UncheckedIOException}.
+     */
+    public ArquivoExameDto store(String exameId, String nome, String contentType, InputStream content) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            try (ReadableByteChannel source = Channels.newChannel(content);
+                 FileChannel target = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (ler(source, buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            long tamanho = Files.size(tmp);
+            Path upload = tmp;
+            synchronized (trava(checksum)) {
+                // The exam and its shard are checked before the blob lands, so a refused upload leaves nothing behind
+                ArquivoExame arquivo = doExame(exameId, clienteId -> {
+                    // Unsharded, the exam's owner is not looked up, so nothing has checked that it exists yet
+                    if (clienteId == null && !exameRepository.existsById(Long.valueOf(exameId))) {
+                        return Optional.empty();
+                    }
+                    shards.verificarEscrita(clienteId);
+                    Optional<ArquivoExame> existente = arquivoExameRepository.findFirstByExameIdAndChecksum(exameId, checksum);
+                    if (existente.isPresent()) {
+                        return existente;
+                    }
+                    moveIntoPlace(upload, checksum);
+                    try {
+                        return Optional.of(arquivoExameRepository.save(
+                                new ArquivoExame(exameId, nome, contentType, tamanho, checksum)));
+                    } catch (RuntimeException e) {
+                        removerSeSemReferencias(checksum);
+                        throw e;
+                    }
+                }).orElseThrow(() -> new RuntimeException("Exame não encontrado"));
+                return new ArquivoExameDto(arquivo);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao armazenar arquivo", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    // Already gone once moved into place
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Leftover temp files are harmless and get overwritten by name
+                }
+            }
+        }
+    }
+
+    public boolean delete(String exameId, Long id) {
+        return doExame(exameId, clienteId -> {
+            shards.verificarEscrita(clienteId);
+            return arquivoExameRepository.findByIdAndExameId(id, exameId).map(arquivo -> {
+                String checksum = arquivo.getChecksum();
+                // The row delete commits before the count, so an upload waiting on the lock sees the blob gone
+                synchronized (trava(checksum)) {
+                    arquivoExameRepository.delete(arquivo);
+                    removerSeSemReferencias(checksum);
+                }
+                return true;
+            });
+        }).orElse(false);
+    }
+
+    public Path blobPath(String checksum) {
+        return blobsDir.resolve(checksum.substring(0, 2))
+                .resolve(checksum.substring(2, 4))
+                .resolve(checksum);
+    }
+
+    // Attachments belong to their exam's client; with sharding on its shard is looked up first
+    private <T> Optional<T> doExame(String exameId, Function<Long, Optional<T>> acao) {
+        long id;
+        try {
+            id = Long.parseLong(exameId);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return shards.noShardDoRegistro(id, () -> exameRepository.findClienteIdById(id), acao);
+    }
+
+    // Caller holds the checksum's lock; blobs are shared by every shard's attachments with the same content
+    private void removerSeSemReferencias(String checksum) {
+        if (shards.emTodos(shard -> arquivoExameRepository.countByChecksum(checksum)).stream()
+                .mapToLong(Long::longValue).sum() == 0) {
+            try {
+                Files.deleteIfExists(blobPath(checksum));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao remover arquivo", e);
+            }
+        }
+    }
+
+    private Object trava(String checksum) {
+        return travas[Math.floorMod(checksum.hashCode(), TRAVAS)];
+    }
+
+    // Errors reading the request body are the client's (aborted or truncated upload)
+    private static int ler(ReadableByteChannel source, ByteBuffer buffer) {
+        try {
+            return source.read(buffer);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Upload interrompido", e);
+        }
+    }
+
+    private void moveIntoPlace(Path tmp, String checksum) {
+        Path blob = blobPath(checksum);
+        try {
+            if (Files.exists(blob)) {
+                Files.delete(tmp);
+                return;
+            }
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content uploaded concurrently; the other copy won
+                Files.delete(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao armazenar arquivo", e);
+        }
+    }
+}
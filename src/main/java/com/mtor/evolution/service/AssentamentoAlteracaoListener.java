@@ -0,0 +1,51 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.ClienteRemovido;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA listener on {@link Cliente} and {@link ClienteRemovido}: once the
+ * transaction commits, tells {@link AlteracoesClientes} how long after its
+ * feed timestamp the change became visible, so a commit landing behind the
+ * settle bound is reported. Injected lazily for the same reason as
+ * {@link AlteracaoClienteListener}.
+ */
+public class AssentamentoAlteracaoListener {
+
+    @Autowired
+    @Lazy
+    private AlteracoesClientes alteracoes;
+
+    @PostPersist
+    @PostUpdate
+    public void alterado(Object entidade) {
+        Long clienteId;
+        LocalDateTime alteradoEm;
+        if (entidade instanceof Cliente cliente) {
+            clienteId = cliente.getId();
+            alteradoEm = cliente.getUpdatedAt();
+        } else if (entidade instanceof ClienteRemovido removido) {
+            clienteId = removido.getClienteId();
+            alteradoEm = removido.getRemovidoEm();
+        } else {
+            return;
+        }
+        if (alteradoEm == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                alteracoes.commitVisivel(clienteId, alteradoEm);
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.mtor.evolution.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer. Producers claim a
+ * slot with a CAS on the tail and publish it by writing the claimed sequence
+ * into the slot's marker, so neither side ever takes a lock.
+ */
+public final class AuditRingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray publicados;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public AuditRingBuffer(int capacidadeMinima) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1;
+        this.slots = new Object[capacidade];
+        this.publicados = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            publicados.set(i, -1);
+        }
+        this.mask = capacidade - 1;
+    }
+
+    public boolean offer(T item) {
+        while (true) {
+            long t = tail.get();
+            if (t - head >= slots.length) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                int index = (int) (t & mask);
+                slots[index] = item;
+                publicados.lazySet(index, t);
+                return true;
+            }
+        }
+    }
+
+    public boolean offer(T item, long timeout, TimeUnit unit) {
+        long limite = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(item)) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(50_000);
+        }
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} published items into {@code destino}. Must only
+     * be called from the single consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<T> destino, int max) {
+        long h = head;
+        int drenados = 0;
+        while (drenados < max) {
+            int index = (int) (h & mask);
+            if (publicados.get(index) != h) {
+                break;
+            }
+            destino.add((T) slots[index]);
+            slots[index] = null;
+            h++;
+            drenados++;
+        }
+        head = h;
+        return drenados;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
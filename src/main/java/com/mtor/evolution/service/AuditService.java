@@ -0,0 +1,325 @@
+package com.mtor.evolution.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.dto.EventoAuditoria;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit log for access to health records. Callers only pay for a
+ * lock-free enqueue; a single writer thread drains the ring buffer in batches
+ * into JSON-lines segment files named after their first event's timestamp,
+ * which lets time-range queries skip whole segments.
+ */
+@Service
+public class AuditService {
+
+    public enum PoliticaCheio {
+        DROP, BLOCK
+    }
+
+    private static final String PREFIXO_SEGMENTO = "audit-";
+    private static final String SUFIXO_SEGMENTO = ".log";
+    // Timestamps are taken before enqueueing, so a segment may hold events slightly older than its name
+    private static final long FOLGA_MS = 60_000;
+    private static final int TENTATIVAS_GRAVACAO = 3;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${audit.path}")
+    private String auditPath;
+
+    @Value("${audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${audit.batch-size:512}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${audit.full-policy:DROP}")
+    private PoliticaCheio politicaCheio;
+
+    @Value("${audit.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${audit.segment-size:67108864}")
+    private long segmentSize;
+
+    @Value("${audit.fsync:true}")
+    private boolean fsync;
+
+    private AuditRingBuffer<EventoAuditoria> buffer;
+    private Path dir;
+    private final List<Segmento> segmentos = new CopyOnWriteArrayList<>();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong errosGravacao = new AtomicLong();
+
+    private volatile boolean ativo;
+    private Thread escritor;
+    private FileChannel segmentoAtual;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        dir = Files.createDirectories(Paths.get(auditPath).toAbsolutePath().normalize());
+        buffer = new AuditRingBuffer<>(bufferSize);
+        try (DirectoryStream<Path> existentes = Files.newDirectoryStream(dir, PREFIXO_SEGMENTO + "*" + SUFIXO_SEGMENTO)) {
+            for (Path arquivo : existentes) {
+                segmentos.add(new Segmento(arquivo, inicioDoNome(arquivo)));
+            }
+        }
+        segmentos.sort(Comparator.comparingLong(s -> s.inicio));
+
+        ativo = true;
+        escritor = new Thread(this::loopEscrita, "audit-writer");
+        escritor.start();
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        LockSupport.unpark(escritor);
+        // The writer drains whatever is still buffered and fsyncs before exiting
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public void registrar(String recurso, String recursoId, Long clienteId, EventoAuditoria.Acao acao) {
+        String usuario = null;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null) {
+            usuario = auth.getName();
+        }
+        String ip = null;
+        String userAgent = null;
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) atributos).getRequest();
+            ip = request.getRemoteAddr();
+            userAgent = request.getHeader("User-Agent");
+        }
+        registrar(new EventoAuditoria(LocalDateTime.now(), usuario, clienteId, recurso, recursoId, acao, ip, userAgent));
+    }
+
+    public boolean registrar(EventoAuditoria evento) {
+        if (!ativo) {
+            descartados.incrementAndGet();
+            return false;
+        }
+        boolean aceito = politicaCheio == PoliticaCheio.BLOCK
+                ? buffer.offer(evento, blockTimeoutMs, TimeUnit.MILLISECONDS)
+                : buffer.offer(evento);
+        if (!aceito) {
+            descartados.incrementAndGet();
+        }
+        return aceito;
+    }
+
+    public List<EventoAuditoria> consultar(Long clienteId, LocalDateTime inicio, LocalDateTime fim, int limite) {
+        long inicioMs = inicio != null ? toMillis(inicio) : Long.MIN_VALUE;
+        long fimMs = fim != null ? toMillis(fim) : Long.MAX_VALUE;
+        List<EventoAuditoria> resultado = new ArrayList<>();
+
+        List<Segmento> snapshot = new ArrayList<>(segmentos);
+        for (int i = 0; i < snapshot.size() && resultado.size() < limite; i++) {
+            Segmento segmento = snapshot.get(i);
+            // A segment covers [its start, next segment's start)
+            long fimSegmento = i + 1 < snapshot.size() ? snapshot.get(i + 1).inicio : Long.MAX_VALUE;
+            boolean depoisDoFim = segmento.inicio - FOLGA_MS > fimMs;
+            boolean antesDoInicio = fimSegmento != Long.MAX_VALUE && fimSegmento + FOLGA_MS < inicioMs;
+            if (depoisDoFim || antesDoInicio) {
+                continue;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(segmento.arquivo, StandardCharsets.UTF_8)) {
+                String linha;
+                while ((linha = reader.readLine()) != null && resultado.size() < limite) {
+                    if (linha.isEmpty()) {
+                        continue;
+                    }
+                    EventoAuditoria evento;
+                    try {
+                        evento = objectMapper.readValue(linha, EventoAuditoria.class);
+                    } catch (JsonProcessingException e) {
+                        // Tail of the segment still being appended to
+                        continue;
+                    }
+                    long quando = toMillis(evento.getDataAcao());
+                    if (quando >= inicioMs && quando <= fimMs
+                            && (clienteId == null || clienteId.equals(evento.getClienteId()))) {
+                        resultado.add(evento);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Erro ao consultar auditoria", e);
+            }
+        }
+        return resultado;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pendentes", buffer.size());
+        status.put("capacidade", buffer.capacity());
+        status.put("gravados", gravados.get());
+        status.put("descartados", descartados.get());
+        status.put("errosGravacao", errosGravacao.get());
+        status.put("segmentos", segmentos.size());
+        status.put("politica", politicaCheio.name());
+        return status;
+    }
+
+    private void loopEscrita() {
+        List<EventoAuditoria> lote = new ArrayList<>(batchSize);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try {
+            while (true) {
+                boolean encerrando = !ativo;
+                lote.clear();
+                buffer.drainTo(lote, batchSize);
+                if (!lote.isEmpty()) {
+                    gravarComRetentativas(lote, bytes);
+                } else if (encerrando) {
+                    break;
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            }
+        } finally {
+            fecharSegmento();
+        }
+    }
+
+    /*
+     * A failed write abandons the segment and retries the batch in a new one, so part of a batch may be
+     * stored twice rather than lost. A batch that still fails is counted as dropped and the writer goes
+     * on with the next one: a full or unwritable disk loses events while it lasts, not for good.
+     */
+    private void gravarComRetentativas(List<EventoAuditoria> lote, ByteArrayOutputStream bytes) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                gravar(lote, bytes);
+                return;
+            } catch (IOException | RuntimeException e) {
+                errosGravacao.incrementAndGet();
+                System.err.println("❌ Audit write failed (attempt " + tentativa + " of " + TENTATIVAS_GRAVACAO + "): "
+                        + e.getMessage());
+                abandonarSegmento();
+                if (tentativa == TENTATIVAS_GRAVACAO) {
+                    descartados.addAndGet(lote.size());
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs * tentativa));
+            }
+        }
+    }
+
+    private void gravar(List<EventoAuditoria> lote, ByteArrayOutputStream bytes) throws IOException {
+        if (segmentoAtual == null) {
+            abrirSegmento(toMillis(lote.get(0).getDataAcao()));
+        }
+        bytes.reset();
+        for (EventoAuditoria evento : lote) {
+            objectMapper.writeValue(bytes, evento);
+            bytes.write('\n');
+        }
+        ByteBuffer dados = ByteBuffer.wrap(bytes.toByteArray());
+        while (dados.hasRemaining()) {
+            segmentoAtual.write(dados);
+        }
+        // One fsync per batch, not per event
+        if (fsync) {
+            segmentoAtual.force(false);
+        }
+        gravados.addAndGet(lote.size());
+        if (segmentoAtual.size() >= segmentSize) {
+            fecharSegmento();
+        }
+    }
+
+    private void abrirSegmento(long inicio) throws IOException {
+        long ultimo = segmentos.isEmpty() ? Long.MIN_VALUE : segmentos.get(segmentos.size() - 1).inicio;
+        long marca = Math.max(inicio, ultimo + 1);
+        Path arquivo = dir.resolve(PREFIXO_SEGMENTO + marca + SUFIXO_SEGMENTO);
+        segmentoAtual = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentos.add(new Segmento(arquivo, marca));
+    }
+
+    private void fecharSegmento() {
+        if (segmentoAtual != null) {
+            try {
+                segmentoAtual.force(true);
+                segmentoAtual.close();
+            } catch (IOException e) {
+                System.err.println("❌ Error closing audit segment: " + e.getMessage());
+            }
+            segmentoAtual = null;
+        }
+    }
+
+    private void abandonarSegmento() {
+        if (segmentoAtual != null) {
+            try {
+                segmentoAtual.close();
+            } catch (IOException ignored) {
+                // Already failing; what reached the file stays readable
+            }
+            segmentoAtual = null;
+        }
+    }
+
+    private static long inicioDoNome(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length()));
+    }
+
+    private static long toMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Segmento {
+
+        private final Path arquivo;
+        private final long inicio;
+
+        Segmento(Path arquivo, long inicio) {
+            this.arquivo = arquivo;
+            this.inicio = inicio;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthService {
@@ -34,6 +35,11 @@ public class AuthService {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    // Read-write so the lookup sees an account registered a moment ago
+    @Transactional
     public AuthResponse login(AuthRequest request) {
         try {
             authenticationManager.authenticate(
@@ -53,6 +59,7 @@ public class AuthService {
         return new AuthResponse(token, refreshToken, new UserDto(user));
     }
 
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email já está em uso");
@@ -65,6 +72,8 @@ public class AuthService {
         user.setRole(request.getRole());
 
         user = userRepository.save(user);
+        // Drops the email from the account cache of every instance
+        invalidacao.publicar(BarramentoInvalidacao.USUARIO, user.getEmail());
 
         final UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
         final String token = jwtUtil.generateToken(userDetails);
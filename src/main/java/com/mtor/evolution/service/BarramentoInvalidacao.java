@@ -0,0 +1,274 @@
+package com.mtor.evolution.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells every instance which cached data changed, so in-memory copies
+ * (client indexes, catalogs, user details) do not go stale on the other
+ * replicas after a write. A write publishes a type and key after its
+ * transaction commits; subscribers of this instance are called right away,
+ * and the other instances get it in the next batch, every
+ * {@code invalidation.batch-ms}, over the configured
+ * {@link TransporteInvalidacao}.
+ *
+ * <p>Each batch carries the sender's id and a sequence number. A receiver
+ * that sees a sender's sequence skip, or whose transport lost its
+ * connection, cannot know what it missed and invalidates everything. An
+ * empty batch goes out every {@code invalidation.heartbeat-ms} so that a
+ * lost last batch is noticed too.
+ */
+@Component
+public class BarramentoInvalidacao {
+
+    public static final String CLIENTE = "cliente";
+    public static final String AVALIACOES_CLIENTE = "avaliacoes-cliente";
+    public static final String ALIMENTOS = "alimentos";
+    public static final String PROTOCOLOS = "protocolos";
+    public static final String USUARIO = "usuario";
+
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_MENSAGEM = 7000;
+
+    // Marks a type invalidated as a whole in a batch; compared by identity
+    private static final Set<String> TUDO = Collections.unmodifiableSet(new HashSet<>());
+
+    /** Drops cached entries; {@code chaves} is null when everything of the type must go. */
+    @FunctionalInterface
+    public interface Ouvinte {
+        void invalidar(Set<String> chaves);
+    }
+
+    @Autowired
+    private TransporteInvalidacao transporte;
+
+    @Value("${invalidation.batch-ms:50}")
+    private long loteMs;
+
+    @Value("${invalidation.heartbeat-ms:30000}")
+    private long pulsacaoMs;
+
+    // More keys of one type in a batch invalidate the whole type
+    @Value("${invalidation.max-keys-per-type:1000}")
+    private int maxChaves;
+
+    private final String origem = UUID.randomUUID().toString();
+    private final Map<String, List<Ouvinte>> ouvintes = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService envio = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "invalidacao-envio");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object trava = new Object();
+    private Map<String, Set<String>> pendentes = new HashMap<>();
+    // Only touched by the sending thread
+    private long sequencia;
+    private long ultimoEnvio;
+
+    // Last sequence number seen per sender
+    private final Map<String, Long> sequencias = new ConcurrentHashMap<>();
+
+    private final AtomicLong publicadas = new AtomicLong();
+    private final AtomicLong enviadas = new AtomicLong();
+    private final AtomicLong recebidas = new AtomicLong();
+    private final AtomicLong falhasEnvio = new AtomicLong();
+    private final AtomicLong invalidacoesCompletas = new AtomicLong();
+
+    @PostConstruct
+    void iniciar() {
+        transporte.iniciar(this::receber, () -> invalidarTudo("conexão do transporte restabelecida"));
+        envio.scheduleWithFixedDelay(this::enviar, loteMs, loteMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        // Last batch out before the transport goes
+        envio.execute(this::enviar);
+        envio.shutdown();
+        envio.awaitTermination(2, TimeUnit.SECONDS);
+        transporte.parar();
+    }
+
+    public void inscrever(String tipo, Ouvinte ouvinte) {
+        ouvintes.computeIfAbsent(tipo, t -> new CopyOnWriteArrayList<>()).add(ouvinte);
+    }
+
+    /** Publishes a change of {@code chave} of the given type, after the current transaction commits if there is one. */
+    public void publicar(String tipo, Object chave) {
+        String texto = chave != null ? chave.toString() : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicarAgora(tipo, texto);
+                }
+            });
+        } else {
+            publicarAgora(tipo, texto);
+        }
+    }
+
+    /** Publishes that everything of the given type changed. */
+    public void publicarTudo(String tipo) {
+        publicar(tipo, null);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("transporte", transporte.nome());
+        status.put("origem", origem);
+        status.put("publicadas", publicadas.get());
+        status.put("mensagensEnviadas", enviadas.get());
+        status.put("mensagensRecebidas", recebidas.get());
+        status.put("falhasEnvio", falhasEnvio.get());
+        status.put("invalidacoesCompletas", invalidacoesCompletas.get());
+        status.put("outrasInstancias", sequencias.size());
+        return status;
+    }
+
+    private void publicarAgora(String tipo, String chave) {
+        publicadas.incrementAndGet();
+        entregar(tipo, chave != null ? Set.of(chave) : null);
+        synchronized (trava) {
+            Set<String> chaves = pendentes.get(tipo);
+            if (chaves == TUDO) {
+                return;
+            }
+            if (chave == null) {
+                pendentes.put(tipo, TUDO);
+                return;
+            }
+            if (chaves == null) {
+                chaves = new HashSet<>();
+                pendentes.put(tipo, chaves);
+            }
+            chaves.add(chave);
+            if (chaves.size() > maxChaves) {
+                pendentes.put(tipo, TUDO);
+            }
+        }
+    }
+
+    private void enviar() {
+        long agora = System.currentTimeMillis();
+        Map<String, Set<String>> lote;
+        synchronized (trava) {
+            if (pendentes.isEmpty() && agora - ultimoEnvio < pulsacaoMs) {
+                return;
+            }
+            lote = pendentes;
+            pendentes = new HashMap<>();
+        }
+        ultimoEnvio = agora;
+        for (String corpo : codificar(lote)) {
+            // A message that fails still used its number, so the others see the gap
+            long numero = ++sequencia;
+            try {
+                transporte.enviar(origem + " " + numero + corpo);
+                enviadas.incrementAndGet();
+            } catch (RuntimeException e) {
+                falhasEnvio.incrementAndGet();
+                System.err.println("❌ Cache invalidation batch not sent: " + e.getMessage());
+            }
+        }
+    }
+
+    // " tipo=chave" per key, " tipo" for the whole type; split to fit MAX_MENSAGEM, at least one (possibly empty) body
+    private static List<String> codificar(Map<String, Set<String>> lote) {
+        List<String> corpos = new ArrayList<>();
+        StringBuilder corpo = new StringBuilder();
+        for (Map.Entry<String, Set<String>> entrada : lote.entrySet()) {
+            String tipo = URLEncoder.encode(entrada.getKey(), StandardCharsets.UTF_8);
+            List<String> termos = new ArrayList<>();
+            if (entrada.getValue() == TUDO) {
+                termos.add(" " + tipo);
+            } else {
+                for (String chave : entrada.getValue()) {
+                    termos.add(" " + tipo + "=" + URLEncoder.encode(chave, StandardCharsets.UTF_8));
+                }
+            }
+            for (String termo : termos) {
+                if (corpo.length() > 0 && corpo.length() + termo.length() > MAX_MENSAGEM) {
+                    corpos.add(corpo.toString());
+                    corpo.setLength(0);
+                }
+                corpo.append(termo);
+            }
+        }
+        corpos.add(corpo.toString());
+        return corpos;
+    }
+
+    private void receber(String mensagem) {
+        try {
+            String[] termos = mensagem.split(" ");
+            if (termos.length < 2 || origem.equals(termos[0])) {
+                return;
+            }
+            long numero = Long.parseLong(termos[1]);
+            recebidas.incrementAndGet();
+            Long anterior = sequencias.put(termos[0], numero);
+            if (anterior != null && numero != anterior + 1) {
+                invalidarTudo("mensagens " + (anterior + 1) + " a " + (numero - 1) + " de " + termos[0] + " perdidas");
+                return;
+            }
+            Map<String, Set<String>> porTipo = new HashMap<>();
+            for (int i = 2; i < termos.length; i++) {
+                int igual = termos[i].indexOf('=');
+                if (igual < 0) {
+                    porTipo.put(URLDecoder.decode(termos[i], StandardCharsets.UTF_8), TUDO);
+                } else {
+                    String tipo = URLDecoder.decode(termos[i].substring(0, igual), StandardCharsets.UTF_8);
+                    Set<String> chaves = porTipo.computeIfAbsent(tipo, t -> new HashSet<>());
+                    if (chaves != TUDO) {
+                        chaves.add(URLDecoder.decode(termos[i].substring(igual + 1), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            porTipo.forEach((tipo, chaves) -> entregar(tipo, chaves == TUDO ? null : chaves));
+        } catch (RuntimeException e) {
+            System.err.println("❌ Cache invalidation message ignored: " + e.getMessage());
+        }
+    }
+
+    private void invalidarTudo(String motivo) {
+        invalidacoesCompletas.incrementAndGet();
+        System.out.println("⚠️ Cache invalidation: " + motivo + ", invalidating everything");
+        ouvintes.keySet().forEach(tipo -> entregar(tipo, null));
+    }
+
+    private void entregar(String tipo, Set<String> chaves) {
+        for (Ouvinte ouvinte : ouvintes.getOrDefault(tipo, List.of())) {
+            try {
+                ouvinte.invalidar(chaves);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Cache invalidation of " + tipo + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.model.Alimento;
+import com.mtor.evolution.model.ItemRefeicao;
+import com.mtor.evolution.model.PlanoAlimentar;
+import com.mtor.evolution.model.Refeicao;
+import com.mtor.evolution.model.ValoresNutricionais;
+import com.mtor.evolution.repository.AlimentoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nutritional contribution of meal items, read from the in-memory food
+ * catalog. Foods created after the last catalog rebuild are read from the
+ * database instead.
+ */
+@Component
+public class CalculadoraNutricional {
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Autowired
+    private AlimentoRepository alimentoRepository;
+
+    /** Contribution of one item, i.e. nutrients per unit of the item times its quantity. */
+    public ValoresNutricionais contribuicao(ItemRefeicao item) {
+        return porUnidade(item.getAlimentoId(), item.getUnidade()).vezes(item.getQuantidade());
+    }
+
+    /** Computes the item's contribution and stores it on the item, as what its totals now include. */
+    public ValoresNutricionais contar(ItemRefeicao item) {
+        ValoresNutricionais contribuicao = contribuicao(item);
+        item.setContribuicao(contribuicao.copia());
+        return contribuicao;
+    }
+
+    /**
+     * What the item's totals include: the stored contribution, or for items
+     * counted before contributions were stored, the current one.
+     */
+    public ValoresNutricionais contado(ItemRefeicao item) {
+        return item.getContribuicao() != null ? item.getContribuicao() : contribuicao(item);
+    }
+
+    /**
+     * Nutrients for one unit of the given item unit: per gram or millilitre
+     * for "g"/"ml", per default portion of the food otherwise.
+     */
+    public Coeficientes porUnidade(Long alimentoId, String unidade) {
+        CatalogoAlimentos.Snapshot s = catalogo.snapshot();
+        int doc = s.documentoDoId(alimentoId);
+        double calorias, proteinas, carboidratos, gorduras, fibras, porcao;
+        if (doc >= 0) {
+            calorias = valor(s.nutriente(doc, CatalogoAlimentos.CALORIAS));
+            proteinas = valor(s.nutriente(doc, CatalogoAlimentos.PROTEINAS));
+            carboidratos = valor(s.nutriente(doc, CatalogoAlimentos.CARBOIDRATOS));
+            gorduras = valor(s.nutriente(doc, CatalogoAlimentos.GORDURAS));
+            fibras = valor(s.nutriente(doc, CatalogoAlimentos.FIBRAS));
+            porcao = valor(s.nutriente(doc, CatalogoAlimentos.PORCAO));
+        } else {
+            Alimento alimento = alimentoRepository.findById(alimentoId)
+                    .orElseThrow(() -> new RuntimeException("Alimento não encontrado: " + alimentoId));
+            calorias = valor(alimento.getCalorias());
+            proteinas = valor(alimento.getProteinas());
+            carboidratos = valor(alimento.getCarboidratos());
+            gorduras = valor(alimento.getGorduras());
+            fibras = valor(alimento.getFibras());
+            porcao = valor(alimento.getPorcaoPadrao());
+        }
+        // Catalog values are per 100g
+        double gramasPorUnidade = emGramas(unidade) ? 1.0 : porcao;
+        double fator = gramasPorUnidade / 100.0;
+        return new Coeficientes(calorias * fator, proteinas * fator, carboidratos * fator, gorduras * fator, fibras * fator);
+    }
+
+    /** Full recomputation; used on whole-plan saves and to correct drift from incremental updates. */
+    public void recalcular(PlanoAlimentar plano) {
+        ValoresNutricionais totalPlano = ValoresNutricionais.zero();
+        for (Refeicao refeicao : plano.getRefeicoes()) {
+            ValoresNutricionais totalRefeicao = ValoresNutricionais.zero();
+            for (ItemRefeicao item : refeicao.getItens()) {
+                totalRefeicao.somar(contar(item), 1);
+            }
+            refeicao.setTotais(totalRefeicao);
+            totalPlano.somar(totalRefeicao, 1);
+        }
+        plano.setTotais(totalPlano);
+    }
+
+    static boolean emGramas(String unidade) {
+        return unidade == null || "g".equalsIgnoreCase(unidade) || "ml".equalsIgnoreCase(unidade);
+    }
+
+    // Widen through the decimal string so 3.6f counts as 3.6, not 3.5999999046325684
+    private static double valor(float v) {
+        return Float.isNaN(v) ? 0.0 : Double.parseDouble(Float.toString(v));
+    }
+
+    private static double valor(Double v) {
+        return v != null ? v : 0.0;
+    }
+
+    public static final class Coeficientes {
+
+        final double calorias;
+        final double proteinas;
+        final double carboidratos;
+        final double gorduras;
+        final double fibras;
+
+        Coeficientes(double calorias, double proteinas, double carboidratos, double gorduras, double fibras) {
+            this.calorias = calorias;
+            this.proteinas = proteinas;
+            this.carboidratos = carboidratos;
+            this.gorduras = gorduras;
+            this.fibras = fibras;
+        }
+
+        public ValoresNutricionais vezes(double quantidade) {
+            return new ValoresNutricionais(calorias * quantidade, proteinas * quantidade,
+                    carboidratos * quantidade, gorduras * quantidade, fibras * quantidade);
+        }
+    }
+}
@@ -0,0 +1,644 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AlimentoDto;
+import com.mtor.evolution.model.Alimento;
+import com.mtor.evolution.repository.AlimentoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only, memory-compact copy of the food table for autocomplete while
+ * coaches build meals. Nutrients live in one primitive array, names are
+ * indexed by accent-folded word in a sorted term dictionary (prefix lookups
+ * are a binary search plus a contiguous scan), barcodes in an open-addressing
+ * hash table and dietary flags in bitsets. Each rebuild produces a new
+ * immutable {@link Snapshot} that is published with a single volatile write,
+ * so readers never block or see a half-built catalog.
+ *
+ * <p>Until the rebuild that follows a write is published, the foods it
+ * changed are remembered with the first snapshot version that will include
+ * them, so lookups by id or barcode can go to the database instead of
+ * serving the stale (or deleted) copy.
+ */
+@Component
+public class CatalogoAlimentos {
+
+    public static final int PORCAO = 0;
+    public static final int CALORIAS = 1;
+    public static final int PROTEINAS = 2;
+    public static final int CARBOIDRATOS = 3;
+    public static final int GORDURAS = 4;
+    public static final int FIBRAS = 5;
+    public static final int ACUCARES = 6;
+    public static final int SODIO = 7;
+    public static final int POTASSIO = 8;
+    public static final int CALCIO = 9;
+    public static final int FERRO = 10;
+    public static final int VITAMINA_C = 11;
+    public static final int VITAMINA_D = 12;
+    public static final int INDICE_GLICEMICO = 13;
+    public static final int NUTRIENTES = 14;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+
+    @Autowired
+    private AlimentoRepository alimentoRepository;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate leitura;
+
+    private final ExecutorService recarga = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalogo-alimentos");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean recargaPendente = new AtomicBoolean();
+    // Numbered when a rebuild starts, so one numbered after a commit has read it
+    private final AtomicLong versoes = new AtomicLong();
+    // Food id -> first snapshot version that includes its last change
+    private final Map<Long, Long> alterados = new ConcurrentHashMap<>();
+    // First snapshot version that includes a change to everything
+    private volatile long tudoAlteradoAte;
+
+    private volatile Snapshot atual = new Builder().construir(0);
+
+    public CatalogoAlimentos(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void inscrever() {
+        invalidacao.inscrever(BarramentoInvalidacao.ALIMENTOS, chaves -> {
+            long incluidoEm = versoes.get() + 1;
+            if (chaves == null) {
+                tudoAlteradoAte = incluidoEm;
+            } else {
+                for (String chave : chaves) {
+                    alterados.put(Long.valueOf(chave), incluidoEm);
+                }
+            }
+            solicitarRecarga();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarInicial() {
+        solicitarRecarga();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        recarga.shutdownNow();
+    }
+
+    public Snapshot snapshot() {
+        return atual;
+    }
+
+    /**
+     * Schedules a rebuild after a write. Requests arriving while one is
+     * queued are folded into it; a request during a running build queues
+     * exactly one more.
+     */
+    public void solicitarRecarga() {
+        if (recargaPendente.compareAndSet(false, true)) {
+            recarga.execute(() -> {
+                recargaPendente.set(false);
+                try {
+                    reconstruir();
+                } catch (RuntimeException e) {
+                    // The previous snapshot stays published
+                    System.err.println("❌ Food catalog rebuild failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    public Snapshot recarregar() {
+        Future<Snapshot> resultado = recarga.submit(this::reconstruir);
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Recarga do catálogo interrompida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro ao recarregar catálogo de alimentos", e.getCause());
+        }
+    }
+
+    public List<AlimentoDto> buscar(String consulta, String categoria, boolean vegetariano, boolean vegano,
+                                    boolean semGluten, boolean semLactose, int limite) {
+        Snapshot s = atual;
+        BitSet candidatos = null;
+        if (vegetariano) candidatos = intersectar(candidatos, s.vegetariano);
+        if (vegano) candidatos = intersectar(candidatos, s.vegano);
+        if (semGluten) candidatos = intersectar(candidatos, s.semGluten);
+        if (semLactose) candidatos = intersectar(candidatos, s.semLactose);
+        if (categoria != null && !categoria.isBlank()) {
+            candidatos = intersectar(candidatos, s.porCategoria.getOrDefault(dobrar(categoria).trim(), new BitSet()));
+        }
+        if (consulta != null) {
+            for (String token : tokens(consulta)) {
+                BitSet docs = s.comPrefixo(token);
+                if (docs.isEmpty()) {
+                    docs = s.aproximados(token);
+                }
+                candidatos = intersectar(candidatos, docs);
+                if (candidatos.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        }
+
+        // Documents are numbered in rank order, so the first set bits are the best matches
+        List<AlimentoDto> resultado = new ArrayList<>(Math.min(limite, 64));
+        if (candidatos == null) {
+            for (int doc = 0; doc < s.total && resultado.size() < limite; doc++) {
+                resultado.add(s.paraDto(doc));
+            }
+        } else {
+            for (int doc = candidatos.nextSetBit(0); doc >= 0 && resultado.size() < limite;
+                 doc = candidatos.nextSetBit(doc + 1)) {
+                resultado.add(s.paraDto(doc));
+            }
+        }
+        return resultado;
+    }
+
+    /** True when the food changed after the published snapshot was read, so its copy there is stale. */
+    public boolean alteradoDesdeSnapshot(long id) {
+        long versao = atual.versao;
+        Long incluidoEm = alterados.get(id);
+        return versao < tudoAlteradoAte || (incluidoEm != null && versao < incluidoEm);
+    }
+
+    public Optional<AlimentoDto> findById(long id) {
+        Snapshot s = atual;
+        int doc = s.documentoDoId(id);
+        return doc < 0 ? Optional.empty() : Optional.of(s.paraDto(doc));
+    }
+
+    public Optional<AlimentoDto> findByCodigoBarras(String codigo) {
+        Snapshot s = atual;
+        int doc = s.documentoDoCodigo(codigo);
+        return doc < 0 ? Optional.empty() : Optional.of(s.paraDto(doc));
+    }
+
+    public Map<String, Object> status() {
+        Snapshot s = atual;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("versao", s.versao);
+        status.put("alimentos", s.total);
+        status.put("termos", s.termos.length);
+        status.put("construidoEm", s.construidoEm);
+        status.put("duracaoMs", s.duracaoMs);
+        status.put("recargaPendente", recargaPendente.get());
+        status.put("alteradosDesdeSnapshot", alterados.size());
+        return status;
+    }
+
+    private Snapshot reconstruir() {
+        long inicio = System.nanoTime();
+        long versao = versoes.incrementAndGet();
+        Builder builder = new Builder();
+        leitura.executeWithoutResult(tx -> {
+            try (var alimentos = alimentoRepository.streamAll()) {
+                alimentos.forEach(alimento -> {
+                    builder.adicionar(alimento);
+                    // Keep the persistence context from accumulating the whole table
+                    entityManager.detach(alimento);
+                });
+            }
+        });
+        Snapshot novo = builder.construir(versao, inicio);
+        atual = novo;
+        alterados.values().removeIf(incluidoEm -> incluidoEm <= versao);
+        return novo;
+    }
+
+    private static BitSet intersectar(BitSet atual, BitSet filtro) {
+        if (atual == null) {
+            return (BitSet) filtro.clone();
+        }
+        atual.and(filtro);
+        return atual;
+    }
+
+    static String dobrar(String texto) {
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase();
+    }
+
+    static List<String> tokens(String texto) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NAO_ALFANUMERICO.split(dobrar(texto))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // True when some prefix of the term is at most one edit away from the token
+    static boolean prefixoAproximado(String token, String termo) {
+        int tamanho = token.length();
+        for (int k = Math.max(1, tamanho - 1); k <= Math.min(termo.length(), tamanho + 1); k++) {
+            if (umaEdicao(token, termo, k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Levenshtein distance of a and b[0, bLen) is <= 1
+    private static boolean umaEdicao(String a, String b, int bLen) {
+        int aLen = a.length();
+        if (Math.abs(aLen - bLen) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < aLen && i < bLen && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (aLen == bLen) {
+            return i == aLen || a.regionMatches(i + 1, b, i + 1, aLen - i - 1);
+        }
+        if (aLen > bLen) {
+            return a.regionMatches(i + 1, b, i, bLen - i);
+        }
+        return a.regionMatches(i, b, i + 1, aLen - i);
+    }
+
+    /**
+     * One immutable catalog version. Documents are numbered by rank (shorter,
+     * then alphabetically earlier names first), and every per-document array
+     * is indexed by that number.
+     */
+    public static final class Snapshot {
+
+        private final long versao;
+        private final String construidoEm;
+        private final long duracaoMs;
+        private final int total;
+
+        private final long[] ids;
+        private final String[] nomes;
+        private final String[] categorias;
+        private final String[] marcas;
+        private final String[] codigos;
+        private final String[] unidades;
+        private final String[] alergenos;
+        private final float[] nutrientes;
+
+        private final BitSet vegetariano;
+        private final BitSet vegano;
+        private final BitSet semGluten;
+        private final BitSet semLactose;
+        private final Map<String, BitSet> porCategoria;
+
+        // Sorted term dictionary; postings of termos[t] are postings[inicioPostings[t], inicioPostings[t + 1])
+        private final String[] termos;
+        private final int[] inicioPostings;
+        private final int[] postings;
+
+        // Open addressing, slots hold document + 1
+        private final int[] tabelaCodigos;
+
+        private final long[] idsOrdenados;
+        private final int[] documentoPorId;
+
+        private Snapshot(Builder b, long versao, long inicioNanos) {
+            this.versao = versao;
+            this.construidoEm = LocalDateTime.now().toString();
+            this.duracaoMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+            this.total = b.linhas.size();
+            this.ids = new long[total];
+            this.nomes = new String[total];
+            this.categorias = new String[total];
+            this.marcas = new String[total];
+            this.codigos = new String[total];
+            this.unidades = new String[total];
+            this.alergenos = new String[total];
+            this.nutrientes = new float[total * NUTRIENTES];
+            this.vegetariano = new BitSet(total);
+            this.vegano = new BitSet(total);
+            this.semGluten = new BitSet(total);
+            this.semLactose = new BitSet(total);
+            this.porCategoria = new HashMap<>();
+
+            Map<String, String> internados = new HashMap<>();
+            TreeMap<String, IntArray> indice = new TreeMap<>();
+            for (int doc = 0; doc < total; doc++) {
+                Linha linha = b.linhas.get(doc);
+                ids[doc] = linha.id;
+                nomes[doc] = linha.nome;
+                categorias[doc] = internados.computeIfAbsent(linha.categoria, k -> k);
+                marcas[doc] = linha.marca == null ? null : internados.computeIfAbsent(linha.marca, k -> k);
+                codigos[doc] = linha.codigoBarras;
+                unidades[doc] = internados.computeIfAbsent(linha.unidade, k -> k);
+                alergenos[doc] = linha.alergenos == null ? null : internados.computeIfAbsent(linha.alergenos, k -> k);
+                System.arraycopy(linha.nutrientes, 0, nutrientes, doc * NUTRIENTES, NUTRIENTES);
+                if (linha.vegetariano) vegetariano.set(doc);
+                if (linha.vegano) vegano.set(doc);
+                if (linha.semGluten) semGluten.set(doc);
+                if (linha.semLactose) semLactose.set(doc);
+                porCategoria.computeIfAbsent(dobrar(linha.categoria).trim(), k -> new BitSet()).set(doc);
+
+                for (String termo : linha.termos) {
+                    indice.computeIfAbsent(termo, k -> new IntArray()).adicionarSeDiferente(doc);
+                }
+            }
+
+            this.termos = new String[indice.size()];
+            this.inicioPostings = new int[indice.size() + 1];
+            int totalPostings = 0;
+            for (IntArray docs : indice.values()) {
+                totalPostings += docs.tamanho;
+            }
+            this.postings = new int[totalPostings];
+            int t = 0;
+            int pos = 0;
+            for (Map.Entry<String, IntArray> entrada : indice.entrySet()) {
+                termos[t] = entrada.getKey();
+                inicioPostings[t] = pos;
+                System.arraycopy(entrada.getValue().valores, 0, postings, pos, entrada.getValue().tamanho);
+                pos += entrada.getValue().tamanho;
+                t++;
+            }
+            inicioPostings[t] = pos;
+
+            this.tabelaCodigos = new int[Integer.highestOneBit(Math.max(total, 8) * 2) * 2];
+            int mascara = tabelaCodigos.length - 1;
+            for (int doc = 0; doc < total; doc++) {
+                if (codigos[doc] != null) {
+                    int slot = espalhar(codigos[doc].hashCode()) & mascara;
+                    while (tabelaCodigos[slot] != 0) {
+                        slot = (slot + 1) & mascara;
+                    }
+                    tabelaCodigos[slot] = doc + 1;
+                }
+            }
+
+            Integer[] porId = new Integer[total];
+            for (int doc = 0; doc < total; doc++) {
+                porId[doc] = doc;
+            }
+            Arrays.sort(porId, Comparator.comparingLong(doc -> ids[doc]));
+            this.idsOrdenados = new long[total];
+            this.documentoPorId = new int[total];
+            for (int i = 0; i < total; i++) {
+                idsOrdenados[i] = ids[porId[i]];
+                documentoPorId[i] = porId[i];
+            }
+        }
+
+        public long getVersao() { return versao; }
+
+        public int getTotal() { return total; }
+
+        public int documentoDoId(long id) {
+            int i = Arrays.binarySearch(idsOrdenados, id);
+            return i < 0 ? -1 : documentoPorId[i];
+        }
+
+        public int documentoDoCodigo(String codigo) {
+            if (codigo == null) {
+                return -1;
+            }
+            int mascara = tabelaCodigos.length - 1;
+            int slot = espalhar(codigo.hashCode()) & mascara;
+            int valor;
+            while ((valor = tabelaCodigos[slot]) != 0) {
+                if (codigo.equals(codigos[valor - 1])) {
+                    return valor - 1;
+                }
+                slot = (slot + 1) & mascara;
+            }
+            return -1;
+        }
+
+        public long id(int doc) {
+            return ids[doc];
+        }
+
+        public String nome(int doc) {
+            return nomes[doc];
+        }
+
+        public String categoria(int doc) {
+            return categorias[doc];
+        }
+
+        public boolean isVegano(int doc) { return vegano.get(doc); }
+
+        public boolean isSemGluten(int doc) { return semGluten.get(doc); }
+
+        public boolean isSemLactose(int doc) { return semLactose.get(doc); }
+
+        /** Nutrient value per 100g (or the default portion for {@link #PORCAO}); NaN when unknown. */
+        public float nutriente(int doc, int campo) {
+            return nutrientes[doc * NUTRIENTES + campo];
+        }
+
+        BitSet comPrefixo(String prefixo) {
+            BitSet docs = new BitSet(total);
+            int t = inicioDoPrefixo(prefixo);
+            while (t < termos.length && termos[t].startsWith(prefixo)) {
+                for (int p = inicioPostings[t]; p < inicioPostings[t + 1]; p++) {
+                    docs.set(postings[p]);
+                }
+                t++;
+            }
+            return docs;
+        }
+
+        // Typo fallback: one edit, restricted to terms sharing the first letter to keep the scan short
+        BitSet aproximados(String token) {
+            BitSet docs = new BitSet(total);
+            if (token.length() < 3) {
+                return docs;
+            }
+            int t = inicioDoPrefixo(token.substring(0, 1));
+            while (t < termos.length && termos[t].charAt(0) == token.charAt(0)) {
+                if (prefixoAproximado(token, termos[t])) {
+                    for (int p = inicioPostings[t]; p < inicioPostings[t + 1]; p++) {
+                        docs.set(postings[p]);
+                    }
+                }
+                t++;
+            }
+            return docs;
+        }
+
+        private int inicioDoPrefixo(String prefixo) {
+            int i = Arrays.binarySearch(termos, prefixo);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        AlimentoDto paraDto(int doc) {
+            AlimentoDto dto = new AlimentoDto();
+            dto.setId(Long.toString(ids[doc]));
+            dto.setNome(nomes[doc]);
+            dto.setCategoria(categorias[doc]);
+            dto.setMarca(marcas[doc]);
+            dto.setCodigoBarras(codigos[doc]);
+            dto.setPorcaoPadrao(valor(doc, PORCAO));
+            dto.setUnidadePadrao(unidades[doc]);
+            dto.setCalorias(valor(doc, CALORIAS));
+            dto.getMacronutrientes().setProteinas(valor(doc, PROTEINAS));
+            dto.getMacronutrientes().setCarboidratos(valor(doc, CARBOIDRATOS));
+            dto.getMacronutrientes().setGorduras(valor(doc, GORDURAS));
+            dto.getMacronutrientes().setFibras(valor(doc, FIBRAS));
+            dto.getMacronutrientes().setAcucares(valor(doc, ACUCARES));
+            dto.getMicronutrientes().setSodio(valor(doc, SODIO));
+            dto.getMicronutrientes().setPotassio(valor(doc, POTASSIO));
+            dto.getMicronutrientes().setCalcio(valor(doc, CALCIO));
+            dto.getMicronutrientes().setFerro(valor(doc, FERRO));
+            dto.getMicronutrientes().setVitaminaC(valor(doc, VITAMINA_C));
+            dto.getMicronutrientes().setVitaminaD(valor(doc, VITAMINA_D));
+            Double ig = valor(doc, INDICE_GLICEMICO);
+            dto.setIndiceGlicemico(ig == null ? null : ig.intValue());
+            dto.setAlergenos(AlimentoDto.splitAlergenos(alergenos[doc]));
+            dto.setVegetariano(vegetariano.get(doc));
+            dto.setVegano(vegano.get(doc));
+            dto.setSemGluten(semGluten.get(doc));
+            dto.setSemLactose(semLactose.get(doc));
+            return dto;
+        }
+
+        private Double valor(int doc, int campo) {
+            float v = nutrientes[doc * NUTRIENTES + campo];
+            // Widen through the decimal string so 14.2f reads back as 14.2, not 14.199999809265137
+            return Float.isNaN(v) ? null : Double.valueOf(Float.toString(v));
+        }
+
+        private static int espalhar(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static final class Builder {
+
+        private final List<Linha> linhas = new ArrayList<>();
+
+        void adicionar(Alimento a) {
+            Linha linha = new Linha();
+            linha.id = a.getId();
+            linha.nome = a.getNome();
+            linha.nomeDobrado = dobrar(a.getNome());
+            linha.categoria = a.getCategoria();
+            linha.marca = a.getMarca();
+            linha.codigoBarras = a.getCodigoBarras() == null || a.getCodigoBarras().isBlank() ? null : a.getCodigoBarras().trim();
+            linha.unidade = a.getUnidadePadrao();
+            linha.alergenos = a.getAlergenos();
+            linha.vegetariano = Boolean.TRUE.equals(a.getVegetariano());
+            linha.vegano = Boolean.TRUE.equals(a.getVegano());
+            linha.semGluten = Boolean.TRUE.equals(a.getSemGluten());
+            linha.semLactose = Boolean.TRUE.equals(a.getSemLactose());
+
+            float[] n = linha.nutrientes;
+            n[PORCAO] = paraFloat(a.getPorcaoPadrao());
+            n[CALORIAS] = paraFloat(a.getCalorias());
+            n[PROTEINAS] = paraFloat(a.getProteinas());
+            n[CARBOIDRATOS] = paraFloat(a.getCarboidratos());
+            n[GORDURAS] = paraFloat(a.getGorduras());
+            n[FIBRAS] = paraFloat(a.getFibras());
+            n[ACUCARES] = paraFloat(a.getAcucares());
+            n[SODIO] = paraFloat(a.getSodio());
+            n[POTASSIO] = paraFloat(a.getPotassio());
+            n[CALCIO] = paraFloat(a.getCalcio());
+            n[FERRO] = paraFloat(a.getFerro());
+            n[VITAMINA_C] = paraFloat(a.getVitaminaC());
+            n[VITAMINA_D] = paraFloat(a.getVitaminaD());
+            n[INDICE_GLICEMICO] = a.getIndiceGlicemico() == null ? Float.NaN : a.getIndiceGlicemico();
+
+            // Brand words are searchable too ("iogurte nestle")
+            linha.termos = tokens(a.getMarca() == null ? a.getNome() : a.getNome() + " " + a.getMarca());
+            linhas.add(linha);
+        }
+
+        Snapshot construir(long versao) {
+            return construir(versao, System.nanoTime());
+        }
+
+        Snapshot construir(long versao, long inicioNanos) {
+            linhas.sort(Comparator.comparingInt((Linha l) -> l.nomeDobrado.length())
+                    .thenComparing(l -> l.nomeDobrado)
+                    .thenComparingLong(l -> l.id));
+            return new Snapshot(this, versao, inicioNanos);
+        }
+
+        private static float paraFloat(Double valor) {
+            return valor == null ? Float.NaN : valor.floatValue();
+        }
+    }
+
+    private static final class Linha {
+        long id;
+        String nome;
+        String nomeDobrado;
+        String categoria;
+        String marca;
+        String codigoBarras;
+        String unidade;
+        String alergenos;
+        boolean vegetariano;
+        boolean vegano;
+        boolean semGluten;
+        boolean semLactose;
+        final float[] nutrientes = new float[NUTRIENTES];
+        List<String> termos;
+    }
+
+    private static final class IntArray {
+        int[] valores = new int[2];
+        int tamanho;
+
+        void adicionarSeDiferente(int valor) {
+            if (tamanho > 0 && valores[tamanho - 1] == valor) {
+                return;
+            }
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+    }
+}
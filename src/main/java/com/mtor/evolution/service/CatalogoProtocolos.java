@@ -0,0 +1,223 @@
+package com.mtor.evolution.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.dto.ProtocoloDto;
+import com.mtor.evolution.model.Protocolo;
+import com.mtor.evolution.repository.ProtocoloRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code PRE_DEFINIDO} protocol templates, held in memory. Templates
+ * are few and read on every page of the protocol screens, so each one is
+ * serialized once per catalog version and served as ready-made JSON bytes
+ * with a strong ETag over those bytes; the full list is the concatenation
+ * of the same bytes. A template edit rebuilds the whole catalog after its
+ * transaction commits and publishes it with a single volatile write, so a
+ * reader sees either the old version or the new one, never a mix.
+ */
+@Component
+public class CatalogoProtocolos {
+
+    @Autowired
+    private ProtocoloRepository protocoloRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    private final TransactionTemplate leitura;
+    private final AtomicLong versoes = new AtomicLong();
+
+    private volatile Snapshot atual;
+
+    public CatalogoProtocolos(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void inscrever() {
+        invalidacao.inscrever(BarramentoInvalidacao.PROTOCOLOS, chaves -> recarregar());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarInicial() {
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Protocol catalog load failed: " + e.getMessage());
+        }
+    }
+
+    public Snapshot snapshot() {
+        Snapshot s = atual;
+        return s != null ? s : recarregar();
+    }
+
+    /**
+     * Rebuilds from the database and publishes the result. Serialized so that
+     * a rebuild never overwrites a newer one started after it.
+     */
+    public synchronized Snapshot recarregar() {
+        long inicio = System.nanoTime();
+        Snapshot novo = leitura.execute(status -> {
+            String marca = protocoloRepository.marcaAlteracaoPreDefinidos();
+            List<Protocolo> protocolos = protocoloRepository.findByTipoOrderByNomeAsc(Protocolo.Tipo.PRE_DEFINIDO);
+            return construir(protocolos, marca);
+        });
+        novo.duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        atual = novo;
+        return novo;
+    }
+
+    /**
+     * Picks up template edits made by other instances, should their
+     * invalidation not arrive. The check is one aggregate query; the catalog
+     * is only rebuilt when it reports a change.
+     */
+    @Scheduled(initialDelayString = "${protocols.catalog.check-interval-ms:60000}",
+            fixedDelayString = "${protocols.catalog.check-interval-ms:60000}")
+    public void verificarAlteracoes() {
+        Snapshot s = atual;
+        if (s == null) {
+            return;
+        }
+        try {
+            String marca = leitura.execute(status -> protocoloRepository.marcaAlteracaoPreDefinidos());
+            if (!Objects.equals(marca, s.marca)) {
+                recarregar();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Protocol catalog check failed: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> status() {
+        Snapshot s = snapshot();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("versao", s.versao);
+        status.put("protocolos", s.entradas.size());
+        status.put("bytes", s.lista.json.length);
+        status.put("etag", s.lista.etag);
+        status.put("construidoEm", s.construidoEm);
+        status.put("duracaoMs", s.duracaoMs);
+        return status;
+    }
+
+    private Snapshot construir(List<Protocolo> protocolos, String marca) {
+        List<Entrada> entradas = new ArrayList<>(protocolos.size());
+        Map<UUID, Entrada> porId = new HashMap<>(protocolos.size() * 2);
+        ByteArrayOutputStream lista = new ByteArrayOutputStream();
+        lista.write('[');
+        for (Protocolo protocolo : protocolos) {
+            ProtocoloDto dto = new ProtocoloDto(protocolo);
+            if (dto.getExercicios() == null) dto.setExercicios(List.of());
+            if (dto.getAnexos() == null) dto.setAnexos(List.of());
+            if (dto.getLinks() == null) dto.setLinks(List.of());
+            byte[] json = serializar(dto);
+            Entrada entrada = new Entrada(dto, json);
+            entradas.add(entrada);
+            porId.put(protocolo.getId(), entrada);
+            if (lista.size() > 1) {
+                lista.write(',');
+            }
+            lista.writeBytes(json);
+        }
+        lista.write(']');
+        return new Snapshot(versoes.incrementAndGet(), marca, Collections.unmodifiableList(entradas),
+                porId, new Entrada(null, lista.toByteArray()));
+    }
+
+    private byte[] serializar(ProtocoloDto dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar protocolo " + dto.getId(), e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** One serialized template, or the serialized list of all of them. */
+    public static final class Entrada {
+
+        private final ProtocoloDto protocolo;
+        private final byte[] json;
+        private final String etag;
+
+        Entrada(ProtocoloDto protocolo, byte[] json) {
+            this.protocolo = protocolo;
+            this.json = json;
+            this.etag = etag(json);
+        }
+
+        // Shared by every reader of the snapshot: do not modify
+        public ProtocoloDto getProtocolo() { return protocolo; }
+
+        // Shared by every reader of the snapshot: do not modify
+        public byte[] getJson() { return json; }
+
+        public String getEtag() { return etag; }
+    }
+
+    public static final class Snapshot {
+
+        private final long versao;
+        private final String marca;
+        private final List<Entrada> entradas;
+        private final Map<UUID, Entrada> porId;
+        private final Entrada lista;
+        private final LocalDateTime construidoEm = LocalDateTime.now();
+        private long duracaoMs;
+
+        Snapshot(long versao, String marca, List<Entrada> entradas, Map<UUID, Entrada> porId, Entrada lista) {
+            this.versao = versao;
+            this.marca = marca;
+            this.entradas = entradas;
+            this.porId = porId;
+            this.lista = lista;
+        }
+
+        public long getVersao() { return versao; }
+
+        public List<Entrada> getEntradas() { return entradas; }
+
+        public Entrada getLista() { return lista; }
+
+        public Entrada get(UUID id) {
+            return porId.get(id);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.mtor.evolution.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for hot service reads: concurrent calls of one method with
+ * equal arguments share a single execution instead of each running its
+ * own query. Nothing is kept once the call returns, so there is no TTL and
+ * no stale result: a call only joins one already running, and only if no
+ * invalidation of the method's data (see {@link BarramentoInvalidacao})
+ * arrived since that one started, so every caller sees at least the writes
+ * committed before it was called.
+ *
+ * <p>The first caller runs the read on its own thread; the others wait up
+ * to the method's timeout and then run their own read rather than fail.
+ * A waiter that gives up only stops waiting: the running call is never
+ * cancelled, since other callers may still want it. A failure is thrown
+ * to every caller that shared it. Calls made inside a transaction always
+ * run on their own, as they must see that transaction's writes. Only for
+ * methods whose result does not depend on who calls.
+ *
+ * <p>Per method, under {@code coalescing.methods.<nome>}: {@code enabled}
+ * and {@code timeout-ms}.
+ */
+@Component
+public class ChamadasCoalescidas {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    @Value("${coalescing.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${coalescing.timeout-ms:5000}")
+    private long timeoutPadraoMs;
+
+    private final Map<String, Metodo<?>> metodos = new ConcurrentHashMap<>();
+
+    /**
+     * The coalescing handle of a read method, created on first use.
+     * {@code tiposInvalidacao} are the invalidation types its result
+     * depends on.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Metodo<T> metodo(String nome, String... tiposInvalidacao) {
+        return (Metodo<T>) metodos.computeIfAbsent(nome, n -> {
+            String prefixo = "coalescing.methods." + n + ".";
+            Metodo<T> metodo = new Metodo<>(n,
+                    habilitado && environment.getProperty(prefixo + "enabled", Boolean.class, true),
+                    environment.getProperty(prefixo + "timeout-ms", Long.class, timeoutPadraoMs),
+                    meterRegistry);
+            for (String tipo : tiposInvalidacao) {
+                invalidacao.inscrever(tipo, chaves -> metodo.epoca.incrementAndGet());
+            }
+            return metodo;
+        });
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        metodos.forEach((nome, metodo) -> status.put(nome, metodo.status()));
+        return status;
+    }
+
+    public static final class Metodo<T> {
+
+        private final String nome;
+        private final boolean ativo;
+        private final long timeoutMs;
+        private final Map<List<Object>, Voo<T>> emVoo = new ConcurrentHashMap<>();
+        // Incremented on every invalidation of the data read; a call joins only flights of its own epoch
+        private final AtomicLong epoca = new AtomicLong();
+
+        private final Counter chamadas;
+        private final Counter execucoes;
+        private final Counter economizadas;
+        private final Counter timeouts;
+        private final Counter diretas;
+
+        Metodo(String nome, boolean ativo, long timeoutMs, MeterRegistry registry) {
+            this.nome = nome;
+            this.ativo = ativo;
+            this.timeoutMs = timeoutMs;
+            this.chamadas = Counter.builder("coalescing.calls").tag("metodo", nome).register(registry);
+            this.execucoes = Counter.builder("coalescing.executions").tag("metodo", nome)
+                    .description("Reads actually run").register(registry);
+            this.economizadas = Counter.builder("coalescing.saved").tag("metodo", nome)
+                    .description("Calls answered by another call's read").register(registry);
+            this.timeouts = Counter.builder("coalescing.timeouts").tag("metodo", nome)
+                    .description("Waits given up, the caller then reading on its own").register(registry);
+            this.diretas = Counter.builder("coalescing.bypassed").tag("metodo", nome)
+                    .description("Calls inside a transaction or with coalescing off").register(registry);
+        }
+
+        /** Runs {@code leitura}, or waits for an identical one already running; {@code argumentos} identify the call. */
+        public T executar(Supplier<T> leitura, Object... argumentos) {
+            chamadas.increment();
+            if (!ativo || TransactionSynchronizationManager.isActualTransactionActive()) {
+                diretas.increment();
+                execucoes.increment();
+                return leitura.get();
+            }
+            List<Object> chave = Arrays.asList(argumentos);
+            Voo<T> proprio = new Voo<>(epoca.get());
+            while (true) {
+                Voo<T> existente = emVoo.putIfAbsent(chave, proprio);
+                if (existente == null) {
+                    break;
+                }
+                if (existente.epoca == proprio.epoca) {
+                    return aguardar(existente, leitura);
+                }
+                // Started before a write: finishes for its own callers, new ones get a fresh read
+                if (emVoo.replace(chave, existente, proprio)) {
+                    break;
+                }
+            }
+            try {
+                execucoes.increment();
+                T resultado = leitura.get();
+                proprio.futuro.complete(resultado);
+                return resultado;
+            } catch (RuntimeException | Error e) {
+                proprio.futuro.completeExceptionally(e);
+                throw e;
+            } finally {
+                emVoo.remove(chave, proprio);
+            }
+        }
+
+        private T aguardar(Voo<T> voo, Supplier<T> leitura) {
+            try {
+                T resultado = timeoutMs > 0 ? voo.futuro.get(timeoutMs, TimeUnit.MILLISECONDS) : voo.futuro.get();
+                economizadas.increment();
+                return resultado;
+            } catch (TimeoutException e) {
+                timeouts.increment();
+                execucoes.increment();
+                return leitura.get();
+            } catch (ExecutionException e) {
+                economizadas.increment();
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                if (e.getCause() instanceof Error causa) {
+                    throw causa;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido aguardando leitura em andamento de " + nome, e);
+            }
+        }
+
+        Map<String, Object> status() {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("ativo", ativo);
+            status.put("timeoutMs", timeoutMs);
+            status.put("chamadas", (long) chamadas.count());
+            status.put("execucoes", (long) execucoes.count());
+            status.put("economizadas", (long) economizadas.count());
+            status.put("timeouts", (long) timeouts.count());
+            status.put("diretas", (long) diretas.count());
+            status.put("emAndamento", emVoo.size());
+            return status;
+        }
+    }
+
+    private static final class Voo<T> {
+
+        private final long epoca;
+        private final CompletableFuture<T> futuro = new CompletableFuture<>();
+
+        Voo(long epoca) {
+            this.epoca = epoca;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.config.ConexoesReativas;
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.PaginaDto;
+import com.mtor.evolution.model.Cliente;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Client reads over R2DBC, for callers that keep many slow requests open:
+ * waiting on the database holds no thread. Same filters, order and DTOs as
+ * {@link ClienteService}; rows are mapped onto a detached {@link Cliente}
+ * so the DTO conversion is the shared one.
+ */
+@Service
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ClienteReativoService {
+
+    private static final String COLUNAS = "SELECT id, nome, email, telefone, data_nascimento, genero, modalidade, "
+            + "objetivo, status, created_at, updated_at FROM clientes";
+    // Same filter as ClienteRepository.findBySearchTerm
+    private static final String FILTRO = " WHERE LOWER(nome) LIKE :padrao OR LOWER(email) LIKE :padrao "
+            + "OR LOWER(modalidade) LIKE :padrao";
+
+    private final DatabaseClient databaseClient;
+
+    public ClienteReativoService(ConexoesReativas conexoes) {
+        this.databaseClient = conexoes.cliente();
+    }
+
+    /** Newest first, like GET /clientes. */
+    public Mono<PaginaDto<ClienteDto>> findAll(Pageable pageable, String search) {
+        boolean filtrar = search != null && !search.trim().isEmpty();
+        String padrao = filtrar ? "%" + search.trim().toLowerCase() + "%" : null;
+
+        DatabaseClient.GenericExecuteSpec pagina = databaseClient.sql(COLUNAS + (filtrar ? FILTRO : "")
+                        + " ORDER BY created_at DESC, id DESC LIMIT :limite OFFSET :inicio")
+                .bind("limite", pageable.getPageSize())
+                .bind("inicio", pageable.getOffset());
+        DatabaseClient.GenericExecuteSpec contagem = databaseClient.sql("SELECT COUNT(*) FROM clientes" + (filtrar ? FILTRO : ""));
+        if (filtrar) {
+            pagina = pagina.bind("padrao", padrao);
+            contagem = contagem.bind("padrao", padrao);
+        }
+
+        Mono<List<ClienteDto>> conteudo = pagina.map(ClienteReativoService::paraDto).all().collectList();
+        Mono<Long> total = contagem.map(linha -> linha.get(0, Long.class)).one();
+        return Mono.zip(conteudo, total)
+                .map(partes -> new PaginaDto<>(new PageImpl<>(partes.getT1(), pageable, partes.getT2())));
+    }
+
+    public Mono<ClienteDto> findById(Long id) {
+        return databaseClient.sql(COLUNAS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ClienteReativoService::paraDto)
+                .one();
+    }
+
+    /**
+     * Every client by id, as the caller consumes them: rows are pulled from
+     * the database only as fast as the response is written.
+     */
+    public Flux<ClienteDto> exportar() {
+        return databaseClient.sql(COLUNAS + " ORDER BY id")
+                .map(ClienteReativoService::paraDto)
+                .all();
+    }
+
+    private static ClienteDto paraDto(Readable linha) {
+        Cliente cliente = new Cliente();
+        cliente.setId(linha.get("id", Long.class));
+        cliente.setNome(linha.get("nome", String.class));
+        cliente.setEmail(linha.get("email", String.class));
+        cliente.setTelefone(linha.get("telefone", String.class));
+        cliente.setDataNascimento(linha.get("data_nascimento", LocalDate.class));
+        cliente.setGenero(Cliente.Genero.valueOf(linha.get("genero", String.class)));
+        cliente.setModalidade(linha.get("modalidade", String.class));
+        cliente.setObjetivo(linha.get("objetivo", String.class));
+        cliente.setStatus(Cliente.Status.valueOf(linha.get("status", String.class)));
+        cliente.setCreatedAt(linha.get("created_at", LocalDateTime.class));
+        cliente.setUpdatedAt(linha.get("updated_at", LocalDateTime.class));
+        return new ClienteDto(cliente);
+    }
+}
@@ -2,65 +2,305 @@ package com.mtor.evolution.service;
 
 import com.mtor.evolution.dto.ClienteDto;
 import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.ClienteRemovido;
+import com.mtor.evolution.repository.ClienteRemovidoRepository;
 import com.mtor.evolution.repository.ClienteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.beans.PropertyDescriptor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ClienteService {
 
+    // What fields= may ask for: ClienteDto properties, which all map to a Cliente column of the same name
+    public static final Set<String> CAMPOS = Arrays.stream(BeanUtils.getPropertyDescriptors(ClienteDto.class))
+            .map(PropertyDescriptor::getName)
+            .filter(nome -> !"class".equals(nome))
+            .collect(Collectors.toUnmodifiableSet());
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ClienteRemovidoRepository clienteRemovidoRepository;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private ChamadasCoalescidas coalescidas;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate leitura;
+
+    // Hot reads, shared by concurrent identical calls; they open their transaction inside, see ChamadasCoalescidas
+    private ChamadasCoalescidas.Metodo<Page<ClienteDto>> buscas;
+    private ChamadasCoalescidas.Metodo<Page<Map<String, Object>>> buscasCampos;
+    private ChamadasCoalescidas.Metodo<Optional<ClienteDto>> leiturasPorId;
+    private ChamadasCoalescidas.Metodo<Long> contagens;
+
+    public ClienteService(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        buscas = coalescidas.metodo("clientes-busca", BarramentoInvalidacao.CLIENTE);
+        buscasCampos = coalescidas.metodo("clientes-busca-campos", BarramentoInvalidacao.CLIENTE);
+        leiturasPorId = coalescidas.metodo("clientes-por-id", BarramentoInvalidacao.CLIENTE);
+        contagens = coalescidas.metodo("clientes-contagem", BarramentoInvalidacao.CLIENTE);
+    }
+
     public Page<ClienteDto> findAll(Pageable pageable, String search) {
-        Page<Cliente> clientes;
-        
-        if (search != null && !search.trim().isEmpty()) {
-            clientes = clienteRepository.findBySearchTerm(search.trim(), pageable);
-        } else {
-            clientes = clienteRepository.findAll(pageable);
+        return buscas.executar(() -> leitura.execute(status -> {
+            if (shards.ativo()) {
+                return mesclarShards(pageable, topo -> buscar(topo, search),
+                        (cliente, campo) -> new BeanWrapperImpl(cliente).getPropertyValue(campo), ClienteDto::new);
+            }
+            return buscar(pageable, search).map(ClienteDto::new);
+        }), pageable, search);
+    }
+
+    /**
+     * Like {@link #findAll} but selecting only the given {@link ClienteDto}
+     * properties, each row a map of just those. The query selects those
+     * columns plus id and the sort columns, which the merge of shards needs.
+     *
+     * @throws IllegalArgumentException for a property not in {@link #CAMPOS}
+     */
+    public Page<Map<String, Object>> findAllCampos(Pageable pageable, String search, List<String> campos) {
+        for (String campo : campos) {
+            if (!CAMPOS.contains(campo)) {
+                throw new IllegalArgumentException("Campo desconhecido: " + campo);
+            }
         }
-        
-        return clientes.map(ClienteDto::new);
+        Set<String> colunas = new LinkedHashSet<>(campos);
+        colunas.add("id");
+        pageable.getSort().forEach(pedido -> colunas.add(pedido.getProperty()));
+        Function<Tuple, Map<String, Object>> converter = linha -> {
+            Map<String, Object> resultado = new LinkedHashMap<>();
+            for (String campo : campos) {
+                Object valor = linha.get(campo);
+                resultado.put(campo, "id".equals(campo) ? valor.toString() : valor);
+            }
+            return resultado;
+        };
+        return buscasCampos.executar(() -> leitura.execute(status -> {
+            if (shards.ativo()) {
+                return mesclarShards(pageable, topo -> buscarColunas(topo, search, colunas), Tuple::get, converter);
+            }
+            return buscarColunas(pageable, search, colunas).map(converter);
+        }), pageable, search, campos);
     }
 
     public Optional<ClienteDto> findById(Long id) {
-        return clienteRepository.findById(id).map(ClienteDto::new);
+        return leiturasPorId.executar(() -> shards.noShardDoCliente(id, () ->
+                leitura.execute(status -> clienteRepository.findById(id).map(ClienteDto::new))), id);
+    }
+
+    /** Clients with the given status, over all shards. */
+    public long countByStatus(Cliente.Status status) {
+        return contagens.executar(() -> shards.emTodos(shard -> leitura.execute(tx -> clienteRepository.countByStatus(status)))
+                .stream().mapToLong(Long::longValue).sum(), status);
+    }
+
+    /** Clients with the given ids, in the order asked for; unknown ids are left out. */
+    @Transactional(readOnly = true)
+    public List<ClienteDto> findAllById(List<Long> ids) {
+        Map<Integer, List<Long>> grupos = shards.porShard(ids);
+        Map<Long, ClienteDto> encontrados = new HashMap<>();
+        shards.emTodos(shard -> {
+            List<Long> doShard = grupos.getOrDefault(shard, List.of());
+            return doShard.isEmpty() ? List.<Cliente>of()
+                    : leitura.execute(status -> clienteRepository.findAllById(doShard));
+        }).forEach(clientes -> clientes.forEach(cliente -> encontrados.put(cliente.getId(), new ClienteDto(cliente))));
+        return ids.stream().distinct().map(encontrados::get).filter(Objects::nonNull).toList();
     }
 
+    @Transactional
     public ClienteDto save(ClienteDto clienteDto) {
         Cliente cliente = new Cliente();
         updateClienteFromDto(cliente, clienteDto);
-        cliente = clienteRepository.save(cliente);
-        return new ClienteDto(cliente);
+        // Sharded ids are allocated up front, since they pick the shard; otherwise the database assigns them
+        if (shards.ativo()) {
+            cliente.setId(shards.novoIdCliente());
+        }
+        Cliente salvo = shards.noShardDoCliente(cliente.getId(), () -> clienteRepository.save(cliente));
+        return new ClienteDto(salvo);
     }
 
+    @Transactional
     public Optional<ClienteDto> update(Long id, ClienteDto clienteDto) {
-        return clienteRepository.findById(id).map(cliente -> {
+        shards.verificarEscrita(id);
+        return shards.noShardDoCliente(id, () -> clienteRepository.findById(id).map(cliente -> {
             updateClienteFromDto(cliente, clienteDto);
             cliente = clienteRepository.save(cliente);
             return new ClienteDto(cliente);
-        });
+        }));
     }
 
+    @Transactional
     public boolean delete(Long id) {
-        if (clienteRepository.existsById(id)) {
-            clienteRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        shards.verificarEscrita(id);
+        return shards.noShardDoCliente(id, () -> {
+            if (clienteRepository.existsById(id)) {
+                clienteRepository.deleteById(id);
+                // Tombstone for the change feed, in the same transaction as the delete
+                clienteRemovidoRepository.save(new ClienteRemovido(id, LocalDateTime.now()));
+                return true;
+            }
+            return false;
+        });
     }
 
+    @Transactional
     public Optional<ClienteDto> updateStatus(Long id, Cliente.Status status) {
-        return clienteRepository.findById(id).map(cliente -> {
+        shards.verificarEscrita(id);
+        return shards.noShardDoCliente(id, () -> clienteRepository.findById(id).map(cliente -> {
             cliente.setStatus(status);
             cliente = clienteRepository.save(cliente);
             return new ClienteDto(cliente);
-        });
+        }));
+    }
+
+    private Page<Cliente> buscar(Pageable pageable, String search) {
+        if (search != null && !search.trim().isEmpty()) {
+            return clienteRepository.findBySearchTerm(search.trim(), pageable);
+        }
+        return clienteRepository.findAll(pageable);
+    }
+
+    // Same filter as ClienteRepository.findBySearchTerm, selecting only the given columns
+    private Page<Tuple> buscarColunas(Pageable pageable, String search, Collection<String> colunas) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Cliente> cliente = consulta.from(Cliente.class);
+        consulta.multiselect(colunas.stream().<Selection<?>>map(coluna -> cliente.get(coluna).alias(coluna)).toList());
+        filtrar(cb, consulta, cliente, search);
+        consulta.orderBy(QueryUtils.toOrders(pageable.getSort(), cliente, cb));
+        List<Tuple> linhas = entityManager.createQuery(consulta)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> contagem = cb.createQuery(Long.class);
+        Root<Cliente> contados = contagem.from(Cliente.class);
+        contagem.select(cb.count(contados));
+        filtrar(cb, contagem, contados, search);
+        return PageableExecutionUtils.getPage(linhas, pageable, () -> entityManager.createQuery(contagem).getSingleResult());
+    }
+
+    private static void filtrar(CriteriaBuilder cb, CriteriaQuery<?> consulta, Root<Cliente> cliente, String search) {
+        if (search != null && !search.trim().isEmpty()) {
+            String padrao = "%" + search.trim().toLowerCase() + "%";
+            consulta.where(cb.or(
+                    cb.like(cb.lower(cliente.get("nome")), padrao),
+                    cb.like(cb.lower(cliente.get("email")), padrao),
+                    cb.like(cb.lower(cliente.get("modalidade")), padrao)));
+        }
+    }
+
+    /**
+     * Every shard returns its first offset + size rows in the requested
+     * order, in parallel; merging those sorted lists gives the page. Rows of
+     * a bucket being moved can briefly exist on two shards and are only
+     * taken from the owner, so the total may over-count during a move.
+     */
+    private <T, R> Page<R> mesclarShards(Pageable pageable, Function<Pageable, Page<T>> consulta,
+                                         BiFunction<T, String, Object> propriedade, Function<T, R> converter) {
+        Pageable topo = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+        List<Page<T>> paginas = shards.emTodos(shard -> leitura.execute(status -> consulta.apply(topo)));
+
+        PriorityQueue<Cabeca<T>> cabecas = new PriorityQueue<>(
+                Comparator.comparing(Cabeca::atual, ordem(pageable.getSort(), propriedade)));
+        long total = 0;
+        for (int shard = 0; shard < paginas.size(); shard++) {
+            total += paginas.get(shard).getTotalElements();
+            Cabeca<T> cabeca = new Cabeca<>(shard, paginas.get(shard).getContent().iterator());
+            if (cabeca.avancar()) {
+                cabecas.add(cabeca);
+            }
+        }
+        List<R> conteudo = new ArrayList<>(pageable.getPageSize());
+        long pular = pageable.getOffset();
+        while (!cabecas.isEmpty() && conteudo.size() < pageable.getPageSize()) {
+            Cabeca<T> cabeca = cabecas.poll();
+            T linha = cabeca.atual();
+            if (shards.shardDoCliente((Long) propriedade.apply(linha, "id")) == cabeca.shard) {
+                if (pular > 0) {
+                    pular--;
+                } else {
+                    conteudo.add(converter.apply(linha));
+                }
+            }
+            if (cabeca.avancar()) {
+                cabecas.add(cabeca);
+            }
+        }
+        return new PageImpl<>(conteudo, pageable, total);
+    }
+
+    // Same order as the query's ORDER BY, ties by id
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> ordem(Sort sort, BiFunction<T, String, Object> propriedade) {
+        Comparator<T> ordem = Comparator.comparing(linha -> (Long) propriedade.apply(linha, "id"));
+        List<Comparator<T>> campos = new ArrayList<>();
+        for (Sort.Order pedido : sort) {
+            Comparator<T> campo = Comparator.comparing(
+                    linha -> (Comparable) propriedade.apply(linha, pedido.getProperty()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            campos.add(pedido.isDescending() ? campo.reversed() : campo);
+        }
+        if (campos.isEmpty()) {
+            return ordem;
+        }
+        Comparator<T> resultado = campos.get(0);
+        for (int i = 1; i < campos.size(); i++) {
+            resultado = resultado.thenComparing(campos.get(i));
+        }
+        return resultado.thenComparing(ordem);
     }
 
     private void updateClienteFromDto(Cliente cliente, ClienteDto dto) {
@@ -75,4 +315,26 @@ public class ClienteService {
             cliente.setStatus(dto.getStatus());
         }
     }
-}
\ No newline at end of file
+
+    // Next unmerged row of one shard's sorted list
+    private static final class Cabeca<T> {
+
+        private final int shard;
+        private final Iterator<T> resto;
+        private T atual;
+
+        Cabeca(int shard, Iterator<T> resto) {
+            this.shard = shard;
+            this.resto = resto;
+        }
+
+        T atual() {
+            return atual;
+        }
+
+        boolean avancar() {
+            atual = resto.hasNext() ? resto.next() : null;
+            return atual != null;
+        }
+    }
+}
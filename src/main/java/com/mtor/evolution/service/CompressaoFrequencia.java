@@ -0,0 +1,81 @@
+package com.mtor.evolution.service;
+
+import java.util.Arrays;
+
+/**
+ * Byte encoding of a chunk of heart-rate samples. Per sample, the timestamp
+ * is written as the change of its interval to the previous one (0 for a
+ * strap sending at a steady rate) and the heart rate as the change from the
+ * previous sample, both as zig-zag varints. The first timestamp is not
+ * written (it is stored as the chunk's start) and the first heart rate is
+ * written as is. A steady 1 Hz stream takes about two bytes per sample.
+ */
+public final class CompressaoFrequencia {
+
+    private CompressaoFrequencia() {}
+
+    /** Encodes samples {@code [de, ate)}; timestamps in epoch milliseconds. */
+    public static byte[] codificar(long[] tempos, int[] bpm, int de, int ate) {
+        // Worst case per sample: 10 bytes of timestamp plus 5 of heart rate
+        byte[] saida = new byte[(ate - de) * 15];
+        int pos = 0;
+        long intervaloAnterior = 0;
+        for (int i = de; i < ate; i++) {
+            if (i == de) {
+                pos = escreverVarint(saida, pos, bpm[i] & 0xFFFFFFFFL);
+                continue;
+            }
+            long intervalo = tempos[i] - tempos[i - 1];
+            pos = escreverVarint(saida, pos, zigZag(intervalo - intervaloAnterior));
+            pos = escreverVarint(saida, pos, zigZag(bpm[i] - bpm[i - 1]));
+            intervaloAnterior = intervalo;
+        }
+        return Arrays.copyOf(saida, pos);
+    }
+
+    /** Decodes {@code quantidade} samples into the start of the given arrays. */
+    public static void decodificar(byte[] dados, long inicioMs, int quantidade, long[] tempos, int[] bpm) {
+        int[] pos = {0};
+        long tempo = inicioMs;
+        long intervalo = 0;
+        int atual = (int) lerVarint(dados, pos);
+        tempos[0] = tempo;
+        bpm[0] = atual;
+        for (int i = 1; i < quantidade; i++) {
+            intervalo += desfazerZigZag(lerVarint(dados, pos));
+            tempo += intervalo;
+            atual += (int) desfazerZigZag(lerVarint(dados, pos));
+            tempos[i] = tempo;
+            bpm[i] = atual;
+        }
+    }
+
+    private static long zigZag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long desfazerZigZag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static int escreverVarint(byte[] saida, int pos, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            saida[pos++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        saida[pos++] = (byte) valor;
+        return pos;
+    }
+
+    private static long lerVarint(byte[] dados, int[] pos) {
+        long valor = 0;
+        int deslocamento = 0;
+        byte b;
+        do {
+            b = dados[pos[0]++];
+            valor |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while (b < 0);
+        return valor;
+    }
+}
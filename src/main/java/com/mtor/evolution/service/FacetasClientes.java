@@ -0,0 +1,320 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.FacetasClientesDto;
+import com.mtor.evolution.dto.PaginaDto;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.repository.ClienteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Faceted filtering of the client list: status, sex, modality, goal and
+ * age band, combined with AND/OR/NOT, with the count of every facet value
+ * among the matches, answered from {@link IndiceFacetas} instead of one
+ * GROUP BY per facet. Kept current like {@link SimilaridadeClientes}:
+ * client writes mark the client dirty after commit and a background
+ * thread re-reads just those rows. Age bands move on birthdays without a
+ * write, so the clients born on the day are re-read every night.
+ *
+ * <p>Modality is free text, matched ignoring case, accents and repeated
+ * spaces and shown as first written. The goal is free text too, usually a
+ * sentence per client, so it is faceted by the goal categories the
+ * similarity index already derives from it.
+ */
+@Component
+public class FacetasClientes {
+
+    static final String STATUS = "status";
+    static final String GENERO = "genero";
+    static final String MODALIDADE = "modalidade";
+    static final String OBJETIVO = "objetivo";
+    static final String FAIXA_ETARIA = "faixaEtaria";
+
+    // Goal categories of SimilaridadeClientes.codigoObjetivo, "outro" when no keyword matches
+    static final String[] OBJETIVOS = {"Outro", "Emagrecimento", "Hipertrofia", "Definição", "Força e performance",
+            "Condicionamento", "Saúde e qualidade de vida"};
+
+    private static final String SEM_IDADE = "sem data";
+    private static final int LOTE = 500;
+    private static final int MAX_FILTRO = 2000;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    @Autowired
+    private InicializacaoAdiada inicializacao;
+
+    // Lower bound of each age band after the first
+    @Value("${facets.age-bands:18,30,40,50,60}")
+    private int[] limitesIdade;
+
+    @Value("${facets.initial-capacity:1024}")
+    private int capacidadeInicial;
+
+    private final TransactionTemplate leitura;
+
+    private final ExecutorService atualizacao = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "facetas-clientes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drenagemAgendada = new AtomicBoolean();
+    private final AtomicBoolean recargaAgendada = new AtomicBoolean();
+
+    private volatile IndiceFacetas indice;
+    private String[] faixas;
+    private volatile boolean pronto;
+    private volatile long carregamentoMs;
+
+    public FacetasClientes(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        Arrays.sort(limitesIdade);
+        faixas = faixas(limitesIdade);
+        indice = new IndiceFacetas(capacidadeInicial, STATUS, GENERO, MODALIDADE, OBJETIVO, FAIXA_ETARIA);
+        invalidacao.inscrever(BarramentoInvalidacao.CLIENTE, this::invalidar);
+        inicializacao.registrar("facetas-clientes", this::recarregar);
+    }
+
+    /**
+     * Rebuilds the index from scratch, for when changes may have been
+     * missed; queries use the old one meanwhile. Requests while one is
+     * queued are folded into it.
+     */
+    public void recarregar() {
+        if (!recargaAgendada.compareAndSet(false, true)) {
+            return;
+        }
+        atualizacao.execute(() -> {
+            recargaAgendada.set(false);
+            try {
+                carregar();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Client facet index load failed: " + e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        atualizacao.shutdownNow();
+    }
+
+    // Client ids from the invalidation bus, null when any client may have changed
+    private void invalidar(Set<String> chaves) {
+        if (chaves == null) {
+            recarregar();
+        } else {
+            chaves.forEach(chave -> marcarAlterado(Long.valueOf(chave)));
+        }
+    }
+
+    /** Called after a client changed; coalesced per client. */
+    public void marcarAlterado(Long clienteId) {
+        if (clienteId == null) {
+            return;
+        }
+        pendentes.add(clienteId);
+        if (drenagemAgendada.compareAndSet(false, true)) {
+            atualizacao.execute(() -> {
+                drenagemAgendada.set(false);
+                try {
+                    drenar();
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Client facet update failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Clients matching {@code filtro} (everyone if blank), newest first, with
+     * the facet counts among them. Empty while the index is still loading.
+     *
+     * @throws IllegalArgumentException if the filter does not parse or names an unknown facet
+     */
+    public Optional<FacetasClientesDto> consultar(String filtro, int page, int size) {
+        // The filter is resolved against this index's values, so both use the same one across a reload
+        IndiceFacetas indice = this.indice;
+        FiltroFacetas analisado = null;
+        if (filtro != null && !filtro.isBlank()) {
+            if (filtro.length() > MAX_FILTRO) {
+                throw new IllegalArgumentException("Filtro com mais de " + MAX_FILTRO + " caracteres");
+            }
+            analisado = FiltroFacetas.analisar(filtro, indice, SimilaridadeClientes::normalizar);
+        }
+        if (!pronto) {
+            return Optional.empty();
+        }
+        long inicio = System.nanoTime();
+        IndiceFacetas.Resultado resultado = indice.consultar(analisado, (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        long microssegundos = (System.nanoTime() - inicio) / 1_000;
+
+        List<ClienteDto> clientes = resultado.getIds().isEmpty() ? List.of() : clienteService.findAllById(resultado.getIds());
+        PaginaDto<ClienteDto> pagina = new PaginaDto<>(new PageImpl<>(clientes, PageRequest.of(page, size), resultado.getTotal()));
+        return Optional.of(new FacetasClientesDto(resultado.getTotal(), resultado.getContagens(), pagina, microssegundos));
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pronto", pronto);
+        status.put("clientes", indice.tamanho());
+        status.put("facetas", indice.getFacetas());
+        status.put("faixasEtarias", List.of(faixas));
+        status.put("memoriaBytes", indice.memoriaBytes());
+        status.put("carregamentoMs", carregamentoMs);
+        status.put("atualizacoesPendentes", pendentes.size());
+        return status;
+    }
+
+    // Clients who had a birthday today may have changed age band (29 February counts on 1 March in common years)
+    @Scheduled(cron = "${facets.birthday-cron:0 5 0 * * *}")
+    public void atualizarAniversariantes() {
+        LocalDate hoje = LocalDate.now();
+        List<Long> ids = new ArrayList<>();
+        shards.emTodos(shard -> leitura.execute(status -> {
+            List<Long> doShard = new ArrayList<>(clienteRepository.findIdsAniversariantes(hoje.getMonthValue(), hoje.getDayOfMonth()));
+            if (!hoje.isLeapYear() && hoje.getMonthValue() == 3 && hoje.getDayOfMonth() == 1) {
+                doShard.addAll(clienteRepository.findIdsAniversariantes(2, 29));
+            }
+            return doShard;
+        })).forEach(ids::addAll);
+        ids.forEach(this::marcarAlterado);
+    }
+
+    private void carregar() {
+        long inicio = System.nanoTime();
+        // The first load fills the empty index, a reload a new one swapped in when complete
+        IndiceFacetas alvo = pronto
+                ? new IndiceFacetas(Math.max(capacidadeInicial, indice.tamanho()), STATUS, GENERO, MODALIDADE, OBJETIVO, FAIXA_ETARIA)
+                : indice;
+        // Shards in order: ids are ranged by shard, so slot order stays id order
+        for (int i = 0; i < shards.numeroShards(); i++) {
+            shards.noShard(i, () -> leitura.execute(tx -> {
+                try (Stream<Object[]> linhas = clienteRepository.streamFacetas()) {
+                    linhas.forEach(linha -> indexar(alvo, linha));
+                }
+                return null;
+            }));
+        }
+        indice = alvo;
+        carregamentoMs = (System.nanoTime() - inicio) / 1_000_000;
+        pronto = true;
+        System.out.println("✅ Client facet index loaded: " + indice.tamanho() + " clients in " + carregamentoMs + " ms");
+    }
+
+    private void drenar() {
+        List<Long> lote = new ArrayList<>(LOTE);
+        Iterator<Long> iterator = pendentes.iterator();
+        while (iterator.hasNext()) {
+            lote.add(iterator.next());
+            iterator.remove();
+            if (lote.size() == LOTE || !iterator.hasNext()) {
+                List<Long> ids = List.copyOf(lote);
+                List<Object[]> linhas = new ArrayList<>();
+                shards.porShard(ids).forEach((shard, grupo) -> linhas.addAll(shards.noShard(shard, () ->
+                        leitura.execute(status -> clienteRepository.findFacetas(grupo)))));
+                Set<Long> encontrados = new HashSet<>();
+                for (Object[] linha : linhas) {
+                    indexar(indice, linha);
+                    encontrados.add((Long) linha[0]);
+                }
+                for (Long id : ids) {
+                    if (!encontrados.contains(id)) {
+                        indice.remover(id);
+                    }
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    // Row layout as in ClienteRepository.FACETAS
+    private void indexar(IndiceFacetas alvo, Object[] linha) {
+        Cliente.Status status = (Cliente.Status) linha[1];
+        Cliente.Genero genero = (Cliente.Genero) linha[2];
+        String modalidade = texto((String) linha[3]);
+        String objetivo = OBJETIVOS[SimilaridadeClientes.codigoObjetivo((String) linha[4])];
+        String faixa = faixa((LocalDate) linha[5], LocalDate.now());
+        String[] rotulos = {
+                status != null ? status.name() : null,
+                genero != null ? genero.name() : null,
+                modalidade,
+                objetivo,
+                faixa
+        };
+        String[] chaves = new String[rotulos.length];
+        for (int f = 0; f < rotulos.length; f++) {
+            chaves[f] = rotulos[f] != null ? SimilaridadeClientes.normalizar(rotulos[f]) : null;
+        }
+        alvo.atualizar((Long) linha[0], chaves, rotulos);
+    }
+
+    private String faixa(LocalDate nascimento, LocalDate hoje) {
+        if (nascimento == null) {
+            return SEM_IDADE;
+        }
+        int idade = Period.between(nascimento, hoje).getYears();
+        int i = 0;
+        while (i < limitesIdade.length && idade >= limitesIdade[i]) {
+            i++;
+        }
+        return faixas[i];
+    }
+
+    // 18,30,60 -> "0-17", "18-29", "30-59", "60+"
+    static String[] faixas(int[] limites) {
+        String[] faixas = new String[limites.length + 1];
+        int inferior = 0;
+        for (int i = 0; i < limites.length; i++) {
+            faixas[i] = inferior + "-" + (limites[i] - 1);
+            inferior = limites[i];
+        }
+        faixas[limites.length] = inferior + "+";
+        return faixas;
+    }
+
+    private static String texto(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim().replaceAll("\\s+", " ");
+    }
+}
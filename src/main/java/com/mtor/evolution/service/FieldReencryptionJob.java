@@ -0,0 +1,135 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.security.FieldEncryptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites encrypted columns still tagged with an older key version (or
+ * still in plaintext, or in the unmarked format) under the active key. Works on raw column values over
+ * JDBC, so entity versions are not bumped and cached reports stay valid.
+ * Every update is a compare-and-set on the old ciphertext: a concurrent
+ * application write or another instance running the same job simply wins.
+ */
+@Component
+public class FieldReencryptionJob {
+
+    private static final List<Alvo> ALVOS = List.of(
+            new Alvo("avaliacoes_fisicas", "observacoes", "id"),
+            new Alvo("exames", "observacoes", "id"),
+            new Alvo("exames", "observacoes_medicas", "id"),
+            new Alvo("resultados_exame", "valor", "exame_id", "ordem"),
+            new Alvo("resultados_exame", "observacao", "exame_id", "ordem")
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FieldEncryptor fieldEncryptor;
+
+    @Value("${crypto.reencryption.enabled:true}")
+    private boolean enabled;
+
+    @Value("${crypto.reencryption.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${crypto.reencryption.initial-delay-ms:60000}",
+            fixedDelayString = "${crypto.reencryption.interval-ms:3600000}")
+    public void executarAgendado() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<String, Integer> resultado = executar();
+            int total = resultado.values().stream().mapToInt(Integer::intValue).sum();
+            if (total > 0) {
+                System.out.println("🔐 Re-encrypted " + total + " field values with key v"
+                        + fieldEncryptor.getVersaoAtiva() + ": " + resultado);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Field re-encryption failed: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Integer> executar() {
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        for (Alvo alvo : ALVOS) {
+            resultado.put(alvo.tabela + "." + alvo.coluna, recriptografar(alvo));
+        }
+        return resultado;
+    }
+
+    private int recriptografar(Alvo alvo) {
+        String padrao = fieldEncryptor.prefixoAtivo() + "%";
+        int total = 0;
+        while (true) {
+            List<Object[]> pendentes = jdbcTemplate.query(alvo.selecao,
+                    (rs, i) -> {
+                        Object[] linha = new Object[alvo.chaves.length + 1];
+                        for (int c = 0; c < linha.length; c++) {
+                            linha[c] = rs.getObject(c + 1);
+                        }
+                        return linha;
+                    }, padrao, batchSize);
+
+            List<Object[]> atualizacoes = new ArrayList<>(pendentes.size());
+            for (Object[] linha : pendentes) {
+                String antigo = (String) linha[alvo.chaves.length];
+                String novo;
+                try {
+                    novo = fieldEncryptor.encrypt(fieldEncryptor.decrypt(antigo));
+                } catch (RuntimeException e) {
+                    // Unknown key version or corrupt value: leave it for an operator
+                    continue;
+                }
+                Object[] parametros = new Object[alvo.chaves.length + 2];
+                parametros[0] = novo;
+                System.arraycopy(linha, 0, parametros, 1, alvo.chaves.length);
+                parametros[parametros.length - 1] = antigo;
+                atualizacoes.add(parametros);
+            }
+
+            int alterados = 0;
+            if (!atualizacoes.isEmpty()) {
+                for (int n : jdbcTemplate.batchUpdate(alvo.atualizacao, atualizacoes)) {
+                    alterados += Math.max(n, 0);
+                }
+            }
+            total += alterados;
+            // Stop on a short page, or when nothing in a full page could be rewritten
+            if (pendentes.size() < batchSize || alterados == 0) {
+                return total;
+            }
+        }
+    }
+
+    private static final class Alvo {
+
+        private final String tabela;
+        private final String coluna;
+        private final String[] chaves;
+        private final String selecao;
+        private final String atualizacao;
+
+        Alvo(String tabela, String coluna, String... chaves) {
+            this.tabela = tabela;
+            this.coluna = coluna;
+            this.chaves = chaves;
+            String colunasChave = String.join(", ", chaves);
+            String filtroChave = String.join(" = ? AND ", chaves) + " = ?";
+            this.selecao = "SELECT " + colunasChave + ", " + coluna + " FROM " + tabela
+                    + " WHERE " + coluna + " IS NOT NULL AND " + coluna + " NOT LIKE ? LIMIT ?";
+            this.atualizacao = "UPDATE " + tabela + " SET " + coluna + " = ? WHERE "
+                    + filtroChave + " AND " + coluna + " = ?";
+        }
+    }
+}
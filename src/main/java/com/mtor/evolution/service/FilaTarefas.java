@@ -0,0 +1,498 @@
+package com.mtor.evolution.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.dto.TarefaDto;
+import com.mtor.evolution.model.Tarefa;
+import com.mtor.evolution.repository.TarefaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent job queue on the {@code tarefas} table. Any number of
+ * instances poll it; each claims a batch per job type with
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so workers never wait on or
+ * double-claim each other's rows (works on PostgreSQL and H2).
+ *
+ * <p>A claim holds the row for the visibility timeout and is extended while
+ * the job runs; a row whose claim lapses (worker died) is handed out again.
+ * Failures retry with exponential backoff and jitter until the job's
+ * attempts are used up, then stay as {@code FALHOU} for inspection.
+ * Concurrency limits are per job type and per instance. Enqueueing joins
+ * the caller's transaction, so a job exists exactly when the data it refers
+ * to was committed.
+ */
+@Component
+public class FilaTarefas {
+
+    public static final int PRIORIDADE_BAIXA = -10;
+    public static final int PRIORIDADE_NORMAL = 0;
+    public static final int PRIORIDADE_ALTA = 10;
+
+    private static final String RESERVA =
+            "SELECT id, payload, tentativas, max_tentativas, executar_apos FROM tarefas WHERE tipo = ? AND (" +
+            "(status = 'PENDENTE' AND executar_apos <= ?) OR " +
+            "(status = 'EM_EXECUCAO' AND bloqueado_ate < ? AND tentativas < max_tentativas)) " +
+            "ORDER BY prioridade DESC, executar_apos, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String MARCAR_RESERVADA =
+            "UPDATE tarefas SET status = 'EM_EXECUCAO', dono = ?, bloqueado_ate = ?, " +
+            "tentativas = tentativas + 1, iniciado_em = ? WHERE id = ?";
+    private static final String ESTENDER =
+            "UPDATE tarefas SET bloqueado_ate = ? WHERE dono = ? AND status = 'EM_EXECUCAO'";
+    private static final String CONCLUIR =
+            "UPDATE tarefas SET status = 'CONCLUIDA', concluido_em = ?, bloqueado_ate = NULL, ultimo_erro = NULL " +
+            "WHERE id = ? AND dono = ? AND tentativas = ? AND status = 'EM_EXECUCAO'";
+    private static final String REGISTRAR_FALHA =
+            "UPDATE tarefas SET status = ?, executar_apos = ?, concluido_em = ?, bloqueado_ate = NULL, ultimo_erro = ? " +
+            "WHERE id = ? AND dono = ? AND tentativas = ? AND status = 'EM_EXECUCAO'";
+    private static final String EXPIRAR =
+            "UPDATE tarefas SET status = 'FALHOU', concluido_em = ?, bloqueado_ate = NULL, " +
+            "ultimo_erro = 'Tempo limite de execução excedido' " +
+            "WHERE status = 'EM_EXECUCAO' AND bloqueado_ate < ? AND tentativas >= max_tentativas";
+
+    private static final List<Tarefa.Status> STATUS_FILA =
+            List.of(Tarefa.Status.PENDENTE, Tarefa.Status.EM_EXECUCAO, Tarefa.Status.FALHOU);
+    private static final int LIMITE_LISTAGEM = 50;
+
+    @Autowired
+    private TarefaRepository tarefaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private List<ProcessadorTarefa> processadoresRegistrados;
+
+    @Value("${jobs.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${jobs.poll-interval-ms:1000}")
+    private long intervaloMs;
+
+    @Value("${jobs.batch-size:10}")
+    private int lote;
+
+    @Value("${jobs.visibility-timeout-ms:300000}")
+    private long visibilidadeMs;
+
+    @Value("${jobs.max-attempts:5}")
+    private int maxTentativas;
+
+    @Value("${jobs.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+
+    @Value("${jobs.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    // Comma-separated tipo:workers pairs; other types get the default
+    @Value("${jobs.concurrency:}")
+    private String concorrencia;
+
+    @Value("${jobs.default-concurrency:2}")
+    private int concorrenciaPadrao;
+
+    @Value("${jobs.retention-days:7}")
+    private int retencaoDias;
+
+    @Value("${jobs.maintenance-interval-ms:15000}")
+    private long intervaloManutencaoMs;
+
+    private final TransactionTemplate transacao;
+    private final String instancia;
+    private final ScheduledExecutorService relogio = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "fila-tarefas");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ExecutorService trabalhadores;
+
+    private final Map<String, ProcessadorTarefa> processadores = new LinkedHashMap<>();
+    private final Map<String, Integer> limites = new HashMap<>();
+    private final Map<String, AtomicInteger> emExecucao = new HashMap<>();
+    // Last counts read from the table, keyed by tipo then status; backs the depth gauges
+    private final Map<String, Map<Tarefa.Status, AtomicLong>> profundidade = new HashMap<>();
+    private final Map<String, AtomicLong> maisAntigaSegundos = new HashMap<>();
+    private final AtomicBoolean acordado = new AtomicBoolean();
+    private volatile boolean parando;
+    private long proximaManutencaoMs;
+    private long proximaExtensaoMs;
+    private volatile LocalDateTime ultimaManutencao;
+
+    private final Map<String, Timer> latencias = new ConcurrentHashMap<>();
+    private final Map<String, Counter> enfileiradas = new ConcurrentHashMap<>();
+    private final AtomicLong concluidas = new AtomicLong();
+    private final AtomicLong novasTentativas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    public FilaTarefas(PlatformTransactionManager transactionManager) {
+        this.transacao = new TransactionTemplate(transactionManager);
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "desconhecido";
+        }
+        this.instancia = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PostConstruct
+    void configurar() {
+        Map<String, Integer> configurados = new HashMap<>();
+        for (String par : concorrencia.split(",")) {
+            if (!par.isBlank()) {
+                String[] partes = par.trim().split(":");
+                configurados.put(partes[0].trim(), Integer.parseInt(partes[1].trim()));
+            }
+        }
+        int totalTrabalhadores = 0;
+        for (ProcessadorTarefa processador : processadoresRegistrados) {
+            String tipo = processador.tipo();
+            if (processadores.put(tipo, processador) != null) {
+                throw new IllegalStateException("Duplicate job processor for type " + tipo);
+            }
+            int limite = Math.max(1, configurados.getOrDefault(tipo, concorrenciaPadrao));
+            limites.put(tipo, limite);
+            totalTrabalhadores += limite;
+            registrarMetricas(tipo);
+        }
+        AtomicInteger sequencia = new AtomicInteger();
+        trabalhadores = Executors.newFixedThreadPool(Math.max(1, totalTrabalhadores), r -> {
+            Thread thread = new Thread(r, "tarefa-" + sequencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (habilitado) {
+            relogio.scheduleWithFixedDelay(this::ciclo, 0, intervaloMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        parando = true;
+        relogio.shutdownNow();
+        trabalhadores.shutdown();
+        // Jobs still running afterwards are handed out again once their claim lapses
+        trabalhadores.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public Long enfileirar(String tipo, Object payload) {
+        return enfileirar(tipo, payload, PRIORIDADE_NORMAL, null);
+    }
+
+    /**
+     * Adds a job; runs no earlier than {@code executarApos} (now if null).
+     * Joins the caller's transaction and wakes the workers once it commits.
+     */
+    public Long enfileirar(String tipo, Object payload, int prioridade, LocalDateTime executarApos) {
+        if (!processadores.containsKey(tipo)) {
+            throw new RuntimeException("Tipo de tarefa desconhecido: " + tipo);
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Dados da tarefa inválidos: " + e.getOriginalMessage());
+        }
+        Tarefa tarefa = tarefaRepository.save(new Tarefa(tipo, json, prioridade, maxTentativas,
+                executarApos != null ? executarApos : LocalDateTime.now()));
+        enfileiradas.get(tipo).increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acordar();
+                }
+            });
+        } else {
+            acordar();
+        }
+        return tarefa.getId();
+    }
+
+    public Optional<TarefaDto> findById(Long id) {
+        return tarefaRepository.findById(id).map(TarefaDto::new);
+    }
+
+    public List<TarefaDto> findFalhas() {
+        return tarefaRepository.findByStatusOrderByIdDesc(Tarefa.Status.FALHOU, PageRequest.of(0, LIMITE_LISTAGEM))
+                .stream().map(TarefaDto::new).collect(Collectors.toList());
+    }
+
+    /** Puts a FALHOU job back in the queue with a fresh set of attempts. */
+    public Optional<TarefaDto> reprocessar(Long id) {
+        Integer alteradas = transacao.execute(status -> tarefaRepository.reprocessar(id, LocalDateTime.now(),
+                Tarefa.Status.PENDENTE, Tarefa.Status.FALHOU));
+        if (alteradas == null || alteradas == 0) {
+            return Optional.empty();
+        }
+        acordar();
+        return findById(id);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("habilitado", habilitado);
+        status.put("instancia", instancia);
+        Map<String, Object> tipos = new LinkedHashMap<>();
+        for (String tipo : processadores.keySet()) {
+            Map<String, Object> porTipo = new LinkedHashMap<>();
+            porTipo.put("limite", limites.get(tipo));
+            porTipo.put("emExecucaoLocal", emExecucao.get(tipo).get());
+            for (Tarefa.Status s : STATUS_FILA) {
+                porTipo.put(s.name().toLowerCase(), profundidade.get(tipo).get(s).get());
+            }
+            porTipo.put("maisAntigaSegundos", maisAntigaSegundos.get(tipo).get());
+            Timer latencia = latencias.get(tipo);
+            porTipo.put("latenciaMediaMs", latencia.mean(TimeUnit.MILLISECONDS));
+            porTipo.put("latenciaMaximaMs", latencia.max(TimeUnit.MILLISECONDS));
+            tipos.put(tipo, porTipo);
+        }
+        status.put("tipos", tipos);
+        status.put("ultimaAtualizacao", ultimaManutencao);
+        status.put("concluidas", concluidas.get());
+        status.put("novasTentativas", novasTentativas.get());
+        status.put("falhas", falhas.get());
+        return status;
+    }
+
+    // Polls right away instead of at the next interval; repeated calls collapse into one poll
+    private void acordar() {
+        if (habilitado && !parando && acordado.compareAndSet(false, true)) {
+            try {
+                relogio.execute(this::ciclo);
+            } catch (RejectedExecutionException e) {
+                acordado.set(false);
+            }
+        }
+    }
+
+    private void ciclo() {
+        acordado.set(false);
+        if (parando) {
+            return;
+        }
+        try {
+            long agora = System.currentTimeMillis();
+            if (agora >= proximaManutencaoMs) {
+                manutencao();
+                proximaManutencaoMs = agora + intervaloManutencaoMs;
+            }
+            if (agora >= proximaExtensaoMs) {
+                if (emExecucao.values().stream().anyMatch(n -> n.get() > 0)) {
+                    jdbcTemplate.update(ESTENDER, LocalDateTime.now().plus(Duration.ofMillis(visibilidadeMs)), instancia);
+                }
+                proximaExtensaoMs = agora + visibilidadeMs / 3;
+            }
+            for (ProcessadorTarefa processador : processadores.values()) {
+                String tipo = processador.tipo();
+                int livres = limites.get(tipo) - emExecucao.get(tipo).get();
+                if (livres <= 0) {
+                    continue;
+                }
+                for (Reservada reservada : reservar(tipo, Math.min(livres, lote))) {
+                    emExecucao.get(tipo).incrementAndGet();
+                    trabalhadores.execute(() -> executar(processador, reservada));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Job queue poll failed: " + e.getMessage());
+        }
+    }
+
+    private List<Reservada> reservar(String tipo, int quantidade) {
+        List<Reservada> reservadas = transacao.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<Reservada> linhas = jdbcTemplate.query(RESERVA, (rs, i) -> new Reservada(rs.getLong(1),
+                            rs.getString(2), rs.getInt(3) + 1, rs.getInt(4), rs.getObject(5, LocalDateTime.class)),
+                    tipo, agora, agora, quantidade);
+            if (!linhas.isEmpty()) {
+                LocalDateTime bloqueadoAte = agora.plus(Duration.ofMillis(visibilidadeMs));
+                List<Object[]> parametros = new ArrayList<>();
+                for (Reservada reservada : linhas) {
+                    parametros.add(new Object[]{instancia, bloqueadoAte, agora, reservada.id});
+                }
+                jdbcTemplate.batchUpdate(MARCAR_RESERVADA, parametros);
+            }
+            return linhas;
+        });
+        LocalDateTime agora = LocalDateTime.now();
+        for (Reservada reservada : reservadas) {
+            Duration espera = Duration.between(reservada.executarApos, agora);
+            latencias.get(tipo).record(espera.isNegative() ? Duration.ZERO : espera);
+        }
+        return reservadas;
+    }
+
+    private void executar(ProcessadorTarefa processador, Reservada reservada) {
+        String tipo = processador.tipo();
+        long inicio = System.nanoTime();
+        String resultado;
+        try {
+            processador.processar(reservada.payload);
+            jdbcTemplate.update(CONCLUIR, LocalDateTime.now(), reservada.id, instancia, reservada.tentativa);
+            concluidas.incrementAndGet();
+            resultado = "sucesso";
+        } catch (Exception e) {
+            resultado = registrarFalha(tipo, reservada, e);
+        } finally {
+            emExecucao.get(tipo).decrementAndGet();
+        }
+        meterRegistry.timer("jobs.duration", "tipo", tipo, "resultado", resultado)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        acordar();
+    }
+
+    private String registrarFalha(String tipo, Reservada reservada, Exception erro) {
+        String mensagem = erro.getMessage() != null ? erro.getMessage() : erro.getClass().getSimpleName();
+        if (mensagem.length() > 1000) {
+            mensagem = mensagem.substring(0, 1000);
+        }
+        boolean definitiva = reservada.tentativa >= reservada.maxTentativas;
+        LocalDateTime agora = LocalDateTime.now();
+        try {
+            jdbcTemplate.update(REGISTRAR_FALHA,
+                    definitiva ? Tarefa.Status.FALHOU.name() : Tarefa.Status.PENDENTE.name(),
+                    definitiva ? agora : agora.plus(Duration.ofMillis(espera(reservada.tentativa))),
+                    definitiva ? agora : null,
+                    mensagem, reservada.id, instancia, reservada.tentativa);
+        } catch (RuntimeException e) {
+            // The claim lapses and the job is retried then
+            System.err.println("❌ Job " + reservada.id + " failure could not be recorded: " + e.getMessage());
+        }
+        if (definitiva) {
+            falhas.incrementAndGet();
+            System.err.println("❌ Job " + tipo + " #" + reservada.id + " failed after "
+                    + reservada.tentativa + " attempts: " + mensagem);
+            return "falhou";
+        }
+        novasTentativas.incrementAndGet();
+        return "nova_tentativa";
+    }
+
+    // Exponential backoff with jitter: half the delay fixed, half random
+    private long espera(int tentativa) {
+        long espera = Math.min(backoffMaxMs, backoffBaseMs << Math.min(tentativa - 1, 30));
+        return espera / 2 + ThreadLocalRandom.current().nextLong(espera / 2 + 1);
+    }
+
+    private void manutencao() {
+        LocalDateTime agora = LocalDateTime.now();
+        int expiradas = jdbcTemplate.update(EXPIRAR, agora, agora);
+        if (expiradas > 0) {
+            falhas.addAndGet(expiradas);
+            System.err.println("❌ " + expiradas + " jobs timed out on their last attempt");
+        }
+        transacao.executeWithoutResult(status -> tarefaRepository.removerConcluidasAntes(
+                Tarefa.Status.CONCLUIDA, agora.minusDays(retencaoDias)));
+
+        Map<String, Map<Tarefa.Status, Long>> contagens = new HashMap<>();
+        Map<String, LocalDateTime> maisAntigas = new HashMap<>();
+        for (Object[] linha : tarefaRepository.contarPorTipoEStatus(STATUS_FILA)) {
+            String tipo = (String) linha[0];
+            Tarefa.Status s = (Tarefa.Status) linha[1];
+            contagens.computeIfAbsent(tipo, t -> new HashMap<>()).put(s, (Long) linha[2]);
+            if (s == Tarefa.Status.PENDENTE) {
+                maisAntigas.put(tipo, (LocalDateTime) linha[3]);
+            }
+        }
+        for (String tipo : processadores.keySet()) {
+            Map<Tarefa.Status, Long> porStatus = contagens.getOrDefault(tipo, Map.of());
+            for (Tarefa.Status s : STATUS_FILA) {
+                profundidade.get(tipo).get(s).set(porStatus.getOrDefault(s, 0L));
+            }
+            LocalDateTime maisAntiga = maisAntigas.get(tipo);
+            maisAntigaSegundos.get(tipo).set(maisAntiga != null && maisAntiga.isBefore(agora)
+                    ? Duration.between(maisAntiga, agora).getSeconds() : 0);
+        }
+        ultimaManutencao = agora;
+    }
+
+    private void registrarMetricas(String tipo) {
+        emExecucao.put(tipo, new AtomicInteger());
+        Gauge.builder("jobs.running", emExecucao.get(tipo), AtomicInteger::get)
+                .description("Jobs running on this instance")
+                .tag("tipo", tipo).register(meterRegistry);
+        Map<Tarefa.Status, AtomicLong> porStatus = new HashMap<>();
+        for (Tarefa.Status s : STATUS_FILA) {
+            AtomicLong valor = new AtomicLong();
+            porStatus.put(s, valor);
+            Gauge.builder("jobs.queue.depth", valor, AtomicLong::get)
+                    .description("Jobs in the queue table, all instances")
+                    .tags("tipo", tipo, "status", s.name()).register(meterRegistry);
+        }
+        profundidade.put(tipo, porStatus);
+        maisAntigaSegundos.put(tipo, new AtomicLong());
+        Gauge.builder("jobs.queue.oldest", maisAntigaSegundos.get(tipo), AtomicLong::get)
+                .description("How long the oldest runnable pending job has been waiting")
+                .baseUnit("seconds").tag("tipo", tipo).register(meterRegistry);
+        latencias.put(tipo, Timer.builder("jobs.latency")
+                .description("Time from a job becoming runnable to a worker claiming it")
+                .tag("tipo", tipo).register(meterRegistry));
+        enfileiradas.put(tipo, Counter.builder("jobs.enqueued").tag("tipo", tipo).register(meterRegistry));
+    }
+
+    private static final class Reservada {
+
+        final long id;
+        final String payload;
+        // Attempt number of this claim; fences updates against a later claim of the same row
+        final int tentativa;
+        final int maxTentativas;
+        final LocalDateTime executarApos;
+
+        Reservada(long id, String payload, int tentativa, int maxTentativas, LocalDateTime executarApos) {
+            this.id = id;
+            this.payload = payload;
+            this.tentativa = tentativa;
+            this.maxTentativas = maxTentativas;
+            this.executarApos = executarApos;
+        }
+    }
+}
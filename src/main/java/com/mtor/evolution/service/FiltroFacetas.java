@@ -0,0 +1,191 @@
+package com.mtor.evolution.service;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * Boolean filter over {@link IndiceFacetas}, parsed from text such as
+ * {@code status:ATIVO AND (modalidade:musculação OR modalidade:crossfit) AND NOT faixaEtaria:60+}.
+ *
+ * <p>A term is {@code faceta:valor}, the value in double quotes when it has
+ * spaces or parentheses. NOT binds tighter than AND, AND tighter than OR,
+ * and operators are case-insensitive. Facet names are resolved when
+ * parsing; values go through the same normalization as the indexed keys,
+ * and a value nobody has matches nothing.
+ */
+public final class FiltroFacetas {
+
+    private static final int MAX_TERMOS = 200;
+
+    private final No raiz;
+
+    private FiltroFacetas(No raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * @throws IllegalArgumentException on a syntax error or an unknown facet
+     */
+    public static FiltroFacetas analisar(String texto, IndiceFacetas indice, UnaryOperator<String> normalizador) {
+        Analisador analisador = new Analisador(texto, indice, normalizador);
+        No raiz = analisador.ou();
+        if (analisador.posicao < analisador.simbolos.size()) {
+            throw new IllegalArgumentException("Filtro inválido perto de '" + analisador.simbolos.get(analisador.posicao) + "'");
+        }
+        return new FiltroFacetas(raiz);
+    }
+
+    // Under the index read lock
+    RoaringBitmap avaliar(IndiceFacetas indice) {
+        return raiz.avaliar(indice);
+    }
+
+    private interface No {
+        RoaringBitmap avaliar(IndiceFacetas indice);
+    }
+
+    private static final class Analisador {
+
+        private final List<String> simbolos;
+        private final IndiceFacetas indice;
+        private final UnaryOperator<String> normalizador;
+        private int posicao;
+        private int termos;
+
+        Analisador(String texto, IndiceFacetas indice, UnaryOperator<String> normalizador) {
+            this.simbolos = simbolos(texto);
+            this.indice = indice;
+            this.normalizador = normalizador;
+        }
+
+        No ou() {
+            List<No> partes = new ArrayList<>();
+            partes.add(e());
+            while (operador("OR")) {
+                partes.add(e());
+            }
+            if (partes.size() == 1) {
+                return partes.get(0);
+            }
+            return indice -> FastAggregation.or(partes.stream().map(parte -> parte.avaliar(indice)).toArray(RoaringBitmap[]::new));
+        }
+
+        // Negated operands are subtracted from the others instead of being complemented first
+        No e() {
+            List<No> positivos = new ArrayList<>();
+            List<No> negados = new ArrayList<>();
+            do {
+                if (operador("NOT")) {
+                    negados.add(nao());
+                } else {
+                    positivos.add(primario());
+                }
+            } while (operador("AND"));
+            if (positivos.size() == 1 && negados.isEmpty()) {
+                return positivos.get(0);
+            }
+            return indice -> {
+                RoaringBitmap resultado;
+                if (positivos.isEmpty()) {
+                    resultado = indice.todos();
+                } else if (positivos.size() == 1) {
+                    resultado = positivos.get(0).avaliar(indice);
+                } else {
+                    resultado = FastAggregation.and(positivos.stream().map(parte -> parte.avaliar(indice)).toArray(RoaringBitmap[]::new));
+                }
+                for (No negado : negados) {
+                    resultado = RoaringBitmap.andNot(resultado, negado.avaliar(indice));
+                }
+                return resultado;
+            };
+        }
+
+        No nao() {
+            if (operador("NOT")) {
+                No negado = nao();
+                return indice -> RoaringBitmap.andNot(indice.todos(), negado.avaliar(indice));
+            }
+            return primario();
+        }
+
+        No primario() {
+            String simbolo = proximo();
+            if (simbolo.equals("(")) {
+                No interno = ou();
+                if (!proximo().equals(")")) {
+                    throw new IllegalArgumentException("Filtro inválido: ')' esperado");
+                }
+                return interno;
+            }
+            if (!proximo().equals(":")) {
+                throw new IllegalArgumentException("Filtro inválido: ':' esperado depois de '" + simbolo + "'");
+            }
+            int faceta = indice.faceta(simbolo);
+            if (faceta < 0) {
+                throw new IllegalArgumentException("Faceta desconhecida: " + simbolo + " (disponíveis: " + indice.getFacetas() + ")");
+            }
+            if (++termos > MAX_TERMOS) {
+                throw new IllegalArgumentException("Filtro com mais de " + MAX_TERMOS + " termos");
+            }
+            String chave = normalizador.apply(valor(proximo()));
+            return indice -> indice.bitmap(faceta, chave);
+        }
+
+        private boolean operador(String nome) {
+            if (posicao < simbolos.size() && simbolos.get(posicao).toUpperCase(Locale.ROOT).equals(nome)) {
+                posicao++;
+                return true;
+            }
+            return false;
+        }
+
+        private String proximo() {
+            if (posicao >= simbolos.size()) {
+                throw new IllegalArgumentException("Filtro incompleto");
+            }
+            return simbolos.get(posicao++);
+        }
+
+        private static String valor(String simbolo) {
+            if (simbolo.equals("(") || simbolo.equals(")") || simbolo.equals(":")) {
+                throw new IllegalArgumentException("Filtro inválido: valor esperado");
+            }
+            return simbolo.startsWith("\"") ? simbolo.substring(1) : simbolo;
+        }
+
+        // Words, "(", ")", ":" and quoted values (kept with the opening quote to tell them from operators)
+        private static List<String> simbolos(String texto) {
+            List<String> simbolos = new ArrayList<>();
+            int i = 0;
+            while (i < texto.length()) {
+                char c = texto.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')' || c == ':') {
+                    simbolos.add(String.valueOf(c));
+                    i++;
+                } else if (c == '"') {
+                    int fim = texto.indexOf('"', i + 1);
+                    if (fim < 0) {
+                        throw new IllegalArgumentException("Filtro inválido: aspas sem fechamento");
+                    }
+                    simbolos.add(texto.substring(i, fim));
+                    i = fim + 1;
+                } else {
+                    int inicio = i;
+                    while (i < texto.length() && !Character.isWhitespace(texto.charAt(i))
+                            && "():\"".indexOf(texto.charAt(i)) < 0) {
+                        i++;
+                    }
+                    simbolos.add(texto.substring(inicio, i));
+                }
+            }
+            return simbolos;
+        }
+    }
+}
@@ -0,0 +1,768 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AmostrasFrequenciaRequest;
+import com.mtor.evolution.dto.ResumoFrequenciaCardiacaDto;
+import com.mtor.evolution.dto.SessaoFrequenciaCardiacaDto;
+import com.mtor.evolution.model.AvaliacaoFisica;
+import com.mtor.evolution.model.BlocoFrequenciaCardiaca;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.SessaoFrequenciaCardiaca;
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
+import com.mtor.evolution.repository.BlocoFrequenciaCardiacaRepository;
+import com.mtor.evolution.repository.ClienteRepository;
+import com.mtor.evolution.repository.SessaoFrequenciaCardiacaRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Heart-rate strap sessions. Incoming samples are appended to a per-session
+ * buffer of primitive arrays; a full buffer, or one holding samples older than
+ * {@code heart-rate.max-buffer-age-ms}, is cut into a compressed
+ * {@link BlocoFrequenciaCardiaca} with its min/max/sum/duration summary.
+ *
+ * <p>Queries work from the summaries: totals never decode a chunk, and zone
+ * times only decode the chunks whose heart-rate range crosses a zone boundary
+ * or that are cut by the requested time range. Buffered samples are lost if
+ * the process dies before they are cut; a clean shutdown writes them out.
+ *
+ * <p>A chunk whose insert fails is kept in memory and retried. Until it is
+ * stored it still counts in queries and for duplicate detection, and every
+ * batch for that session is answered with {@code pendentes > 0} (HTTP 503)
+ * so the strap app keeps its copy. The next batch retries the insert first.
+ *
+ * <p>Each sample counts for the interval up to the next one; intervals longer
+ * than {@code heart-rate.max-gap-ms} are treated as the strap being off.
+ */
+@Service
+public class FrequenciaCardiacaService {
+
+    private static final int TAMANHO_MAXIMO_BLOCO = 4096;
+
+    @Autowired
+    private SessaoFrequenciaCardiacaRepository sessaoRepository;
+
+    @Autowired
+    private BlocoFrequenciaCardiacaRepository blocoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Value("${heart-rate.chunk-size:1024}")
+    private int tamanhoBloco;
+
+    @Value("${heart-rate.max-buffer-age-ms:300000}")
+    private long idadeMaximaBufferMs;
+
+    @Value("${heart-rate.max-gap-ms:5000}")
+    private long intervaloMaximoMs;
+
+    @Value("${heart-rate.bpm-min:25}")
+    private int bpmMinimoValido;
+
+    @Value("${heart-rate.bpm-max:250}")
+    private int bpmMaximoValido;
+
+    // Lower bound of each zone in percent of the maximum heart rate
+    @Value("${heart-rate.zones:50,60,70,80,90}")
+    private int[] percentuaisZonas;
+
+    private final TransactionTemplate escrita;
+
+    private final ConcurrentMap<Long, Buffer> buffers = new ConcurrentHashMap<>();
+    // Chunks whose insert failed, per session; retried by the next batch and by the flush task
+    private final ConcurrentMap<Long, ConcurrentLinkedQueue<BlocoFrequenciaCardiaca>> pendentes = new ConcurrentHashMap<>();
+
+    private final AtomicLong amostrasRecebidas = new AtomicLong();
+    private final AtomicLong amostrasDescartadas = new AtomicLong();
+    private final AtomicLong amostrasGravadas = new AtomicLong();
+    private final AtomicLong blocosGravados = new AtomicLong();
+    private final AtomicLong bytesGravados = new AtomicLong();
+
+    public FrequenciaCardiacaService(PlatformTransactionManager transactionManager) {
+        this.escrita = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public SessaoFrequenciaCardiacaDto abrir(SessaoFrequenciaCardiacaDto dto) {
+        Long clienteId = Long.parseLong(dto.getClienteId());
+        shards.verificarEscrita(clienteId);
+        return shards.noShardDoCliente(clienteId, () -> {
+            Cliente cliente = clienteRepository.findById(clienteId)
+                    .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+            SessaoFrequenciaCardiaca sessao = sessaoRepository.save(new SessaoFrequenciaCardiaca(cliente, dto.getDispositivo()));
+            return new SessaoFrequenciaCardiacaDto(sessao);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessaoFrequenciaCardiacaDto> findByCliente(Long clienteId) {
+        return shards.noShardDoCliente(clienteId, () -> {
+            List<SessaoFrequenciaCardiacaDto> sessoes = sessaoRepository.findByClienteIdOrderByCreatedAtDesc(clienteId).stream()
+                    .map(SessaoFrequenciaCardiacaDto::new)
+                    .collect(Collectors.toList());
+            preencherTotais(sessoes);
+            return sessoes;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SessaoFrequenciaCardiacaDto> findById(Long id) {
+        return daSessao(id, clienteId -> sessaoRepository.findById(id).map(sessao -> {
+            SessaoFrequenciaCardiacaDto dto = new SessaoFrequenciaCardiacaDto(sessao);
+            preencherTotais(List.of(dto));
+            return dto;
+        }));
+    }
+
+    /**
+     * Buffers a batch of samples. Samples not after the last one accepted for
+     * the session (a resent batch) and implausible heart rates are dropped.
+     * The result's {@code pendentes} counts the session's chunks that could
+     * not be stored yet. Empty if the session does not exist.
+     */
+    public Optional<Map<String, Object>> registrar(Long sessaoId, AmostrasFrequenciaRequest request) {
+        long[] tempos = request.getTempos();
+        int[] bpm = request.getBpm();
+        if (tempos.length != bpm.length) {
+            throw new RuntimeException("Tempos e frequências com tamanhos diferentes");
+        }
+        List<BlocoFrequenciaCardiaca> prontos = retirarPendentes(sessaoId);
+        int aceitas = 0;
+        int emBuffer;
+        while (true) {
+            Buffer buffer = buffer(sessaoId);
+            if (buffer == null) {
+                gravar(prontos);
+                return Optional.empty();
+            }
+            synchronized (buffer) {
+                if (buffer.descartado) {
+                    // Evicted while idle; pick up the replacement
+                    continue;
+                }
+                for (int i = 0; i < tempos.length; i++) {
+                    if (tempos[i] <= buffer.ultimoTempo || bpm[i] < bpmMinimoValido || bpm[i] > bpmMaximoValido) {
+                        continue;
+                    }
+                    if (buffer.tamanho == 0) {
+                        buffer.desde = System.nanoTime();
+                    }
+                    buffer.tempos[buffer.tamanho] = tempos[i];
+                    buffer.bpm[buffer.tamanho] = bpm[i];
+                    buffer.tamanho++;
+                    buffer.ultimoTempo = tempos[i];
+                    aceitas++;
+                    if (buffer.tamanho == buffer.tempos.length) {
+                        prontos.add(cortar(buffer));
+                    }
+                }
+                buffer.ultimoAcesso = System.nanoTime();
+                emBuffer = buffer.tamanho;
+            }
+            break;
+        }
+        amostrasRecebidas.addAndGet(tempos.length);
+        amostrasDescartadas.addAndGet(tempos.length - aceitas);
+        gravar(prontos);
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("aceitas", aceitas);
+        resultado.put("descartadas", tempos.length - aceitas);
+        resultado.put("emBuffer", emBuffer);
+        resultado.put("pendentes", pendentesDaSessao(sessaoId).size());
+        return Optional.of(resultado);
+    }
+
+    /** Closes the session and writes out whatever this instance still buffers for it. */
+    public Optional<SessaoFrequenciaCardiacaDto> encerrar(Long sessaoId) {
+        Optional<SessaoFrequenciaCardiaca> encerrada = daSessao(sessaoId, clienteId -> {
+            shards.verificarEscrita(clienteId);
+            return escrita.execute(status -> sessaoRepository.findById(sessaoId).map(sessao -> {
+                if (sessao.getStatus() == SessaoFrequenciaCardiaca.Status.ATIVA) {
+                    sessao.setStatus(SessaoFrequenciaCardiaca.Status.ENCERRADA);
+                    sessao.setEncerradaEm(LocalDateTime.now());
+                }
+                return sessao;
+            }));
+        });
+        if (encerrada.isEmpty()) {
+            return Optional.empty();
+        }
+        List<BlocoFrequenciaCardiaca> prontos = retirarPendentes(sessaoId);
+        Buffer buffer = buffers.remove(sessaoId);
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.descartado = true;
+                if (buffer.tamanho > 0) {
+                    prontos.add(cortar(buffer));
+                }
+            }
+        }
+        gravar(prontos);
+        return findById(sessaoId);
+    }
+
+    /**
+     * Totals and time per heart-rate zone over {@code [de, ate)} (epoch
+     * milliseconds, both optional). The maximum heart rate defining the zones
+     * is, in order: the one given, the latest completed assessment's, 220
+     * minus the client's age, or the highest sample of the session.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResumoFrequenciaCardiacaDto> resumo(Long sessaoId, Long de, Long ate, Integer fcMaxima) {
+        return daSessao(sessaoId, clienteId -> resumirNoShard(sessaoId, de, ate, fcMaxima));
+    }
+
+    private Optional<ResumoFrequenciaCardiacaDto> resumirNoShard(Long sessaoId, Long de, Long ate, Integer fcMaxima) {
+        Optional<SessaoFrequenciaCardiaca> encontrada = sessaoRepository.findById(sessaoId);
+        if (encontrada.isEmpty()) {
+            return Optional.empty();
+        }
+        SessaoFrequenciaCardiaca sessao = encontrada.get();
+
+        // Buffer and failed chunks first: one stored in between then shows up in the table and is skipped below
+        Trecho emBuffer = instantaneoBuffer(sessaoId);
+        List<BlocoFrequenciaCardiaca> naoGravados = new ArrayList<>(pendentesDaSessao(sessaoId));
+        List<Trecho> trechos = new ArrayList<>();
+        Set<Long> iniciosGravados = new HashSet<>();
+        long ultimoGravado = Long.MIN_VALUE;
+        for (Object[] linha : blocoRepository.findResumosBySessaoId(sessaoId)) {
+            Trecho trecho = new Trecho(linha);
+            trechos.add(trecho);
+            iniciosGravados.add(trecho.inicio);
+            ultimoGravado = Math.max(ultimoGravado, trecho.fim);
+        }
+        int blocos = trechos.size();
+        for (BlocoFrequenciaCardiaca bloco : naoGravados) {
+            if (!iniciosGravados.contains(bloco.getInicioMs())) {
+                long[] t = new long[bloco.getQuantidade()];
+                int[] b = new int[bloco.getQuantidade()];
+                CompressaoFrequencia.decodificar(bloco.getDados(), bloco.getInicioMs(), bloco.getQuantidade(), t, b);
+                trechos.add(new Trecho(t, b));
+                ultimoGravado = Math.max(ultimoGravado, bloco.getFimMs());
+            }
+        }
+        trechos.sort(Comparator.comparingLong(trecho -> trecho.inicio));
+        if (emBuffer != null) {
+            emBuffer = emBuffer.apos(ultimoGravado);
+            if (emBuffer != null) {
+                trechos.add(emBuffer);
+            }
+        }
+
+        ResumoFrequenciaCardiacaDto resumo = new ResumoFrequenciaCardiacaDto();
+        resumo.setSessaoId(sessaoId.toString());
+        resumo.setDe(de);
+        resumo.setAte(ate);
+        resumo.setBlocos(blocos);
+        definirFcMaxima(resumo, sessao.getCliente(), fcMaxima, trechos);
+        int[] limites = new int[percentuaisZonas.length];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = (int) Math.round(resumo.getFcMaxima() * percentuaisZonas[i] / 100.0);
+        }
+
+        // Only chunks that cannot be answered from their summary are fetched and decoded
+        List<UUID> decodificar = new ArrayList<>();
+        for (Trecho trecho : trechos) {
+            if (trecho.id != null && !trecho.fora(de, ate)
+                    && (!trecho.dentro(de, ate) || zona(trecho.minimo, limites) != zona(trecho.maximo, limites))) {
+                decodificar.add(trecho.id);
+            }
+        }
+        Map<UUID, byte[]> dados = new HashMap<>();
+        if (!decodificar.isEmpty()) {
+            for (Object[] linha : blocoRepository.findDadosByIdIn(decodificar)) {
+                dados.put((UUID) linha[0], (byte[]) linha[1]);
+            }
+        }
+        resumo.setBlocosDecodificados(dados.size());
+
+        long[] tempoZona = new long[limites.length + 1];
+        long amostras = 0;
+        long soma = 0;
+        int minimo = Integer.MAX_VALUE;
+        int maximo = Integer.MIN_VALUE;
+        long[] tempos = new long[TAMANHO_MAXIMO_BLOCO];
+        int[] bpm = new int[TAMANHO_MAXIMO_BLOCO];
+        for (int j = 0; j < trechos.size(); j++) {
+            Trecho trecho = trechos.get(j);
+            if (trecho.fora(de, ate)) {
+                continue;
+            }
+            if (trecho.id != null && !dados.containsKey(trecho.id)) {
+                amostras += trecho.quantidade;
+                soma += trecho.soma;
+                minimo = Math.min(minimo, trecho.minimo);
+                maximo = Math.max(maximo, trecho.maximo);
+                tempoZona[zona(trecho.minimo, limites)] += trecho.duracao;
+            } else {
+                long[] t = trecho.tempos;
+                int[] b = trecho.bpm;
+                if (t == null) {
+                    CompressaoFrequencia.decodificar(dados.get(trecho.id), trecho.inicio, trecho.quantidade, tempos, bpm);
+                    t = tempos;
+                    b = bpm;
+                }
+                for (int i = 0; i < trecho.quantidade; i++) {
+                    if (!contem(t[i], de, ate)) {
+                        continue;
+                    }
+                    amostras++;
+                    soma += b[i];
+                    minimo = Math.min(minimo, b[i]);
+                    maximo = Math.max(maximo, b[i]);
+                    if (i + 1 < trecho.quantidade) {
+                        tempoZona[zona(b[i], limites)] += intervalo(t[i], t[i + 1], ate);
+                    }
+                }
+            }
+            // The chunk's last sample lasts until the next chunk starts
+            if (j + 1 < trechos.size() && contem(trecho.fim, de, ate)) {
+                tempoZona[zona(trecho.ultimo, limites)] += intervalo(trecho.fim, trechos.get(j + 1).inicio, ate);
+            }
+        }
+
+        long duracao = 0;
+        for (long tempo : tempoZona) {
+            duracao += tempo;
+        }
+        resumo.setAmostras(amostras);
+        resumo.setDuracaoMs(duracao);
+        if (amostras > 0) {
+            resumo.setBpmMinimo(minimo);
+            resumo.setBpmMaximo(maximo);
+            resumo.setBpmMedio(Math.round(soma * 10.0 / amostras) / 10.0);
+        }
+        for (int z = 0; z < tempoZona.length; z++) {
+            double percentual = duracao > 0 ? Math.round(tempoZona[z] * 1000.0 / duracao) / 10.0 : 0;
+            resumo.getZonas().add(new ResumoFrequenciaCardiacaDto.Zona(z,
+                    z > 0 ? limites[z - 1] : null, z < limites.length ? limites[z] : null, tempoZona[z], percentual));
+        }
+        return Optional.of(resumo);
+    }
+
+    public Map<String, Object> status() {
+        long emBuffer = 0;
+        for (Buffer buffer : buffers.values()) {
+            synchronized (buffer) {
+                emBuffer += buffer.tamanho;
+            }
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("sessoesEmBuffer", buffers.size());
+        status.put("amostrasEmBuffer", emBuffer);
+        status.put("amostrasRecebidas", amostrasRecebidas.get());
+        status.put("amostrasDescartadas", amostrasDescartadas.get());
+        status.put("amostrasGravadas", amostrasGravadas.get());
+        status.put("blocosGravados", blocosGravados.get());
+        status.put("bytesGravados", bytesGravados.get());
+        status.put("bytesPorAmostra", amostrasGravadas.get() > 0
+                ? Math.round(bytesGravados.get() * 100.0 / amostrasGravadas.get()) / 100.0 : 0);
+        int blocosPendentes = 0;
+        for (ConcurrentLinkedQueue<BlocoFrequenciaCardiaca> fila : pendentes.values()) {
+            blocosPendentes += fila.size();
+        }
+        status.put("blocosPendentes", blocosPendentes);
+        return status;
+    }
+
+    // Cuts buffers holding old samples, evicts idle ones and retries failed inserts
+    @Scheduled(fixedDelayString = "${heart-rate.flush-check-ms:10000}")
+    public void descarregarAntigos() {
+        List<BlocoFrequenciaCardiaca> prontos = new ArrayList<>();
+        for (Long sessaoId : pendentes.keySet()) {
+            prontos.addAll(retirarPendentes(sessaoId));
+        }
+        long agora = System.nanoTime();
+        long idadeMaxima = idadeMaximaBufferMs * 1_000_000;
+        for (Buffer buffer : buffers.values()) {
+            synchronized (buffer) {
+                if (buffer.tamanho > 0 && agora - buffer.desde >= idadeMaxima) {
+                    prontos.add(cortar(buffer));
+                } else if (buffer.tamanho == 0 && agora - buffer.ultimoAcesso >= idadeMaxima) {
+                    buffer.descartado = true;
+                    buffers.remove(buffer.sessaoId, buffer);
+                }
+            }
+        }
+        gravar(prontos);
+    }
+
+    @PreDestroy
+    void encerrarBuffers() {
+        List<BlocoFrequenciaCardiaca> prontos = new ArrayList<>();
+        for (Long sessaoId : pendentes.keySet()) {
+            prontos.addAll(retirarPendentes(sessaoId));
+        }
+        for (Buffer buffer : buffers.values()) {
+            synchronized (buffer) {
+                buffer.descartado = true;
+                if (buffer.tamanho > 0) {
+                    prontos.add(cortar(buffer));
+                }
+            }
+        }
+        gravar(prontos);
+        if (!pendentes.isEmpty()) {
+            System.err.println("❌ Heart-rate chunks lost on shutdown: " + pendentes.values().stream().mapToInt(ConcurrentLinkedQueue::size).sum());
+        }
+    }
+
+    private Buffer buffer(Long sessaoId) {
+        Buffer buffer = buffers.get(sessaoId);
+        if (buffer != null) {
+            return buffer;
+        }
+        return daSessao(sessaoId, clienteId -> Optional.ofNullable(novoBuffer(sessaoId))).orElse(null);
+    }
+
+    private Buffer novoBuffer(Long sessaoId) {
+        SessaoFrequenciaCardiaca sessao = sessaoRepository.findById(sessaoId).orElse(null);
+        if (sessao == null) {
+            return null;
+        }
+        if (sessao.getStatus() != SessaoFrequenciaCardiaca.Status.ATIVA) {
+            throw new RuntimeException("Sessão encerrada");
+        }
+        Buffer novo = new Buffer(sessaoId, Math.min(Math.max(tamanhoBloco, 16), TAMANHO_MAXIMO_BLOCO));
+        // Resent samples stay duplicates after a restart or a move to another instance
+        List<Object[]> totais = blocoRepository.findTotaisBySessaoIdIn(List.of(sessaoId));
+        if (!totais.isEmpty()) {
+            novo.ultimoTempo = (Long) totais.get(0)[6];
+        }
+        for (BlocoFrequenciaCardiaca bloco : pendentesDaSessao(sessaoId)) {
+            novo.ultimoTempo = Math.max(novo.ultimoTempo, bloco.getFimMs());
+        }
+        Buffer existente = buffers.putIfAbsent(sessaoId, novo);
+        return existente != null ? existente : novo;
+    }
+
+    // Caller holds the buffer's lock
+    private BlocoFrequenciaCardiaca cortar(Buffer buffer) {
+        int n = buffer.tamanho;
+        long[] tempos = buffer.tempos;
+        int[] bpm = buffer.bpm;
+        int minimo = Integer.MAX_VALUE;
+        int maximo = Integer.MIN_VALUE;
+        long soma = 0;
+        long duracao = 0;
+        for (int i = 0; i < n; i++) {
+            minimo = Math.min(minimo, bpm[i]);
+            maximo = Math.max(maximo, bpm[i]);
+            soma += bpm[i];
+            if (i + 1 < n) {
+                duracao += intervalo(tempos[i], tempos[i + 1], null);
+            }
+        }
+        BlocoFrequenciaCardiaca bloco = new BlocoFrequenciaCardiaca();
+        bloco.setSessaoId(buffer.sessaoId);
+        bloco.setInicioMs(tempos[0]);
+        bloco.setFimMs(tempos[n - 1]);
+        bloco.setQuantidade(n);
+        bloco.setBpmMinimo(minimo);
+        bloco.setBpmMaximo(maximo);
+        bloco.setSomaBpm(soma);
+        bloco.setUltimoBpm(bpm[n - 1]);
+        bloco.setDuracaoMs(duracao);
+        bloco.setDados(CompressaoFrequencia.codificar(tempos, bpm, 0, n));
+        buffer.tamanho = 0;
+        return bloco;
+    }
+
+    private List<BlocoFrequenciaCardiaca> retirarPendentes(Long sessaoId) {
+        List<BlocoFrequenciaCardiaca> retirados = new ArrayList<>();
+        ConcurrentLinkedQueue<BlocoFrequenciaCardiaca> fila = pendentes.get(sessaoId);
+        if (fila != null) {
+            BlocoFrequenciaCardiaca bloco;
+            while ((bloco = fila.poll()) != null) {
+                retirados.add(bloco);
+            }
+            pendentes.computeIfPresent(sessaoId, (id, restantes) -> restantes.isEmpty() ? null : restantes);
+        }
+        return retirados;
+    }
+
+    private Collection<BlocoFrequenciaCardiaca> pendentesDaSessao(Long sessaoId) {
+        ConcurrentLinkedQueue<BlocoFrequenciaCardiaca> fila = pendentes.get(sessaoId);
+        return fila != null ? fila : List.of();
+    }
+
+    private void gravar(List<BlocoFrequenciaCardiaca> blocos) {
+        if (blocos.isEmpty()) {
+            return;
+        }
+        if (!shards.ativo()) {
+            inserir(blocos);
+            return;
+        }
+        // Each session's chunks go to its client's shard
+        blocos.stream()
+                .collect(Collectors.groupingBy(BlocoFrequenciaCardiaca::getSessaoId, LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(this::inserir);
+    }
+
+    // With sharding on, the chunks of a single session; failures queue them for a retry
+    private void inserir(List<BlocoFrequenciaCardiaca> blocos) {
+        Long sessaoId = blocos.get(0).getSessaoId();
+        try {
+            daSessao(sessaoId, clienteId -> {
+                shards.verificarEscrita(clienteId);
+                escrita.executeWithoutResult(status -> blocoRepository.saveAll(blocos));
+                return Optional.of(blocos);
+            }).orElseThrow(() -> new RuntimeException("Sessão não encontrada"));
+        } catch (RuntimeException e) {
+            System.err.println("❌ Heart-rate chunk insert failed, will retry: " + e.getMessage());
+            for (BlocoFrequenciaCardiaca bloco : blocos) {
+                bloco.setId(null);
+                // Atomic with the removal of an emptied queue in retirarPendentes
+                pendentes.compute(bloco.getSessaoId(), (id, fila) -> {
+                    ConcurrentLinkedQueue<BlocoFrequenciaCardiaca> destino = fila != null ? fila : new ConcurrentLinkedQueue<>();
+                    destino.add(bloco);
+                    return destino;
+                });
+            }
+            return;
+        }
+        for (BlocoFrequenciaCardiaca bloco : blocos) {
+            amostrasGravadas.addAndGet(bloco.getQuantidade());
+            bytesGravados.addAndGet(bloco.getDados().length);
+        }
+        blocosGravados.addAndGet(blocos.size());
+    }
+
+    // Sessions come by id alone; with sharding on their client's shard is looked up first
+    private <T> Optional<T> daSessao(Long sessaoId, Function<Long, Optional<T>> acao) {
+        return shards.noShardDoRegistro(sessaoId, () -> sessaoRepository.findClienteIdById(sessaoId), acao);
+    }
+
+    private Trecho instantaneoBuffer(Long sessaoId) {
+        Buffer buffer = buffers.get(sessaoId);
+        if (buffer == null) {
+            return null;
+        }
+        synchronized (buffer) {
+            if (buffer.tamanho == 0) {
+                return null;
+            }
+            return new Trecho(Arrays.copyOf(buffer.tempos, buffer.tamanho),
+                    Arrays.copyOf(buffer.bpm, buffer.tamanho));
+        }
+    }
+
+    private void preencherTotais(List<SessaoFrequenciaCardiacaDto> sessoes) {
+        if (sessoes.isEmpty()) {
+            return;
+        }
+        Map<String, SessaoFrequenciaCardiacaDto> porId = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (SessaoFrequenciaCardiacaDto sessao : sessoes) {
+            porId.put(sessao.getId(), sessao);
+            ids.add(Long.parseLong(sessao.getId()));
+        }
+        Map<Long, long[]> totais = new HashMap<>();
+        for (Object[] linha : blocoRepository.findTotaisBySessaoIdIn(ids)) {
+            totais.put((Long) linha[0], new long[]{((Number) linha[1]).longValue(), ((Number) linha[2]).longValue(),
+                    ((Number) linha[3]).longValue(), ((Number) linha[4]).longValue(), (Long) linha[5], (Long) linha[6]});
+        }
+        // Read after the table, so a chunk stored in between is missed for now rather than counted twice
+        for (Long id : ids) {
+            for (BlocoFrequenciaCardiaca bloco : pendentesDaSessao(id)) {
+                long[] total = totais.computeIfAbsent(id,
+                        k -> new long[]{0, Long.MAX_VALUE, Long.MIN_VALUE, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+                total[0] += bloco.getQuantidade();
+                total[1] = Math.min(total[1], bloco.getBpmMinimo());
+                total[2] = Math.max(total[2], bloco.getBpmMaximo());
+                total[3] += bloco.getSomaBpm();
+                total[4] = Math.min(total[4], bloco.getInicioMs());
+                total[5] = Math.max(total[5], bloco.getFimMs());
+            }
+        }
+        for (Map.Entry<Long, long[]> entrada : totais.entrySet()) {
+            SessaoFrequenciaCardiacaDto sessao = porId.get(entrada.getKey().toString());
+            long[] total = entrada.getValue();
+            sessao.setAmostras(total[0]);
+            sessao.setBpmMinimo((int) total[1]);
+            sessao.setBpmMaximo((int) total[2]);
+            sessao.setBpmMedio(Math.round(total[3] * 10.0 / total[0]) / 10.0);
+            sessao.setInicioMs(total[4]);
+            sessao.setFimMs(total[5]);
+        }
+    }
+
+    private void definirFcMaxima(ResumoFrequenciaCardiacaDto resumo, Cliente cliente, Integer informada, List<Trecho> trechos) {
+        if (informada != null && informada > 0) {
+            resumo.setFcMaxima(informada);
+            resumo.setOrigemFcMaxima("informada");
+            return;
+        }
+        Optional<Integer> avaliada = avaliacaoFisicaRepository.findByClienteIdOrderByDataAvaliacaoDesc(cliente.getId()).stream()
+                .filter(a -> a.getStatus() == AvaliacaoFisica.Status.REALIZADA && a.getFrequenciaCardiacaMaxima() != null)
+                .map(AvaliacaoFisica::getFrequenciaCardiacaMaxima)
+                .findFirst();
+        if (avaliada.isPresent()) {
+            resumo.setFcMaxima(avaliada.get());
+            resumo.setOrigemFcMaxima("avaliacao");
+            return;
+        }
+        if (cliente.getDataNascimento() != null) {
+            long idade = ChronoUnit.YEARS.between(cliente.getDataNascimento(), LocalDate.now());
+            resumo.setFcMaxima((int) (220 - idade));
+            resumo.setOrigemFcMaxima("idade");
+            return;
+        }
+        int maximo = 0;
+        for (Trecho trecho : trechos) {
+            maximo = Math.max(maximo, trecho.maximo);
+        }
+        resumo.setFcMaxima(maximo > 0 ? maximo : 190);
+        resumo.setOrigemFcMaxima("sessao");
+    }
+
+    private static int zona(int bpm, int[] limites) {
+        int zona = 0;
+        while (zona < limites.length && bpm >= limites[zona]) {
+            zona++;
+        }
+        return zona;
+    }
+
+    private long intervalo(long de, long ate, Long limite) {
+        long duracao = ate - de;
+        if (duracao <= 0 || duracao > intervaloMaximoMs) {
+            return 0;
+        }
+        return limite != null ? Math.max(0, Math.min(ate, limite) - de) : duracao;
+    }
+
+    private static boolean contem(long tempo, Long de, Long ate) {
+        return (de == null || tempo >= de) && (ate == null || tempo < ate);
+    }
+
+    private static final class Buffer {
+
+        final Long sessaoId;
+        final long[] tempos;
+        final int[] bpm;
+        int tamanho;
+        long ultimoTempo = Long.MIN_VALUE;
+        long desde;
+        long ultimoAcesso = System.nanoTime();
+        // Removed from the map; appends must go to the replacement
+        boolean descartado;
+
+        Buffer(Long sessaoId, int capacidade) {
+            this.sessaoId = sessaoId;
+            this.tempos = new long[capacidade];
+            this.bpm = new int[capacidade];
+        }
+    }
+
+    // A chunk summary, or the samples still buffered (id null, samples inline)
+    private static final class Trecho {
+
+        final UUID id;
+        final long inicio;
+        final long fim;
+        final int quantidade;
+        final int minimo;
+        final int maximo;
+        final long soma;
+        final int ultimo;
+        final long duracao;
+        final long[] tempos;
+        final int[] bpm;
+
+        Trecho(Object[] linha) {
+            this.id = (UUID) linha[0];
+            this.inicio = (Long) linha[1];
+            this.fim = (Long) linha[2];
+            this.quantidade = (Integer) linha[3];
+            this.minimo = (Integer) linha[4];
+            this.maximo = (Integer) linha[5];
+            this.soma = (Long) linha[6];
+            this.ultimo = (Integer) linha[7];
+            this.duracao = (Long) linha[8];
+            this.tempos = null;
+            this.bpm = null;
+        }
+
+        Trecho(long[] tempos, int[] bpm) {
+            int minimo = Integer.MAX_VALUE;
+            int maximo = Integer.MIN_VALUE;
+            long soma = 0;
+            for (int valor : bpm) {
+                minimo = Math.min(minimo, valor);
+                maximo = Math.max(maximo, valor);
+                soma += valor;
+            }
+            this.id = null;
+            this.inicio = tempos[0];
+            this.fim = tempos[tempos.length - 1];
+            this.quantidade = tempos.length;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.soma = soma;
+            this.ultimo = bpm[bpm.length - 1];
+            this.duracao = 0;
+            this.tempos = tempos;
+            this.bpm = bpm;
+        }
+
+        // The buffered samples after the given time, or null if none
+        Trecho apos(long tempo) {
+            int i = 0;
+            while (i < quantidade && tempos[i] <= tempo) {
+                i++;
+            }
+            if (i == 0) {
+                return this;
+            }
+            return i < quantidade
+                    ? new Trecho(Arrays.copyOfRange(tempos, i, quantidade), Arrays.copyOfRange(bpm, i, quantidade))
+                    : null;
+        }
+
+        boolean dentro(Long de, Long ate) {
+            return (de == null || inicio >= de) && (ate == null || fim < ate);
+        }
+
+        boolean fora(Long de, Long ate) {
+            return (de != null && fim < de) || (ate != null && inicio >= ate);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.mtor.evolution.service;
+
+import org.roaringbitmap.ArrayContainer;
+import org.roaringbitmap.Container;
+import org.roaringbitmap.ContainerPointer;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over a fixed set of categorical fields ("facets") of
+ * clients: one compressed (Roaring) bitmap per facet value, holding the
+ * slots of the clients with that value. A filter is evaluated with bitmap
+ * AND/OR/ANDNOT and every facet count is one intersection cardinality, so
+ * the cost depends on the number of facet values, not on the number of
+ * rows matched.
+ *
+ * <p>Values are passed in already normalized ({@code chave}) together with
+ * the text to show ({@code rotulo}, the first one seen wins); a null key
+ * means no value. Slots are handed out in insertion order and never
+ * reused, so loading clients by id keeps slot order close to creation
+ * order and a page of results is a rank lookup in the bitmap. Removed
+ * clients leave a hole until the next full load.
+ *
+ * <p>Queries run under a read lock and writers under the write lock; both
+ * hold it for microseconds.
+ */
+public class IndiceFacetas {
+
+    // Above this many elements an array container is cheaper to intersect as a bitmap container (1024 words)
+    private static final int ARRAY_DENSO = 256;
+
+    private final String[] facetas;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Guarded by trava
+    private final MapaSlots slots = new MapaSlots();
+    private final RoaringBitmap todos = new RoaringBitmap();
+    private final Valores[] valores;
+    private long[] ids;
+    private int usados;
+
+    public IndiceFacetas(int capacidadeInicial, String... facetas) {
+        this.facetas = facetas.clone();
+        this.valores = new Valores[facetas.length];
+        for (int f = 0; f < facetas.length; f++) {
+            valores[f] = new Valores(Math.max(capacidadeInicial, 16));
+        }
+        this.ids = new long[Math.max(capacidadeInicial, 16)];
+    }
+
+    public List<String> getFacetas() { return List.of(facetas); }
+
+    /** Position of the named facet, or -1. */
+    public int faceta(String nome) {
+        for (int f = 0; f < facetas.length; f++) {
+            if (facetas[f].equalsIgnoreCase(nome)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return todos.getCardinality();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public long memoriaBytes() {
+        trava.readLock().lock();
+        try {
+            long bytes = todos.getLongSizeInBytes() + ids.length * 8L + usados * 24L;
+            for (Valores v : valores) {
+                bytes += v.codigos.length * 4L;
+                for (RoaringBitmap bitmap : v.bitmaps) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+            }
+            return bytes;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /** Inserts or replaces the facet values of a client, one key and label per facet in declaration order. */
+    public void atualizar(long id, String[] chaves, String[] rotulos) {
+        if (chaves.length != facetas.length || rotulos.length != facetas.length) {
+            throw new IllegalArgumentException("Esperados valores para " + facetas.length + " facetas");
+        }
+        trava.writeLock().lock();
+        try {
+            int slot = slots.get(id);
+            if (slot < 0) {
+                slot = usados++;
+                if (slot == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[slot] = id;
+                slots.put(id, slot);
+                todos.add(slot);
+            }
+            for (int f = 0; f < facetas.length; f++) {
+                valores[f].definir(slot, chaves[f], rotulos[f]);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public boolean remover(long id) {
+        trava.writeLock().lock();
+        try {
+            int slot = slots.remove(id);
+            if (slot < 0) {
+                return false;
+            }
+            todos.remove(slot);
+            for (Valores v : valores) {
+                v.definir(slot, null, null);
+            }
+            ids[slot] = MapaSlots.VAZIO;
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clients matching the filter (everyone if null) with the count of each
+     * facet value among them, and the ids from position {@code inicio} in
+     * reverse slot order (newest first).
+     */
+    public Resultado consultar(FiltroFacetas filtro, int inicio, int quantidade) {
+        trava.readLock().lock();
+        try {
+            RoaringBitmap selecionados = filtro != null ? filtro.avaliar(this) : todos;
+            long total = selecionados.getLongCardinality();
+
+            long[][] porCodigo = contar(selecionados, total);
+            Map<String, Map<String, Long>> contagens = new LinkedHashMap<>();
+            for (int f = 0; f < facetas.length; f++) {
+                long[] contagem = porCodigo[f];
+                List<Integer> codigos = new ArrayList<>();
+                for (int codigo = 0; codigo < contagem.length; codigo++) {
+                    if (contagem[codigo] > 0) {
+                        codigos.add(codigo);
+                    }
+                }
+                codigos.sort((a, b) -> Long.compare(contagem[b], contagem[a]));
+                Map<String, Long> contagensFaceta = new LinkedHashMap<>();
+                for (int codigo : codigos) {
+                    contagensFaceta.put(valores[f].rotulos.get(codigo), contagem[codigo]);
+                }
+                contagens.put(facetas[f], contagensFaceta);
+            }
+
+            int fim = (int) Math.min(total, (long) inicio + quantidade);
+            List<Long> pagina = new ArrayList<>(Math.max(0, fim - inicio));
+            for (int posicao = inicio; posicao < fim; posicao++) {
+                pagina.add(ids[selecionados.select((int) (total - 1 - posicao))]);
+            }
+            return new Resultado(total, contagens, pagina);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /*
+     * Matches per facet value, indexed by value code: one intersection
+     * cardinality per value, summed container by container without building
+     * the intersection. Roaring intersects an array container with another
+     * container element by element, which for a mid-sized value costs several
+     * times the 1024 words of a bitmap container; both the selection and
+     * each value are therefore read with their larger array containers as
+     * bitmaps (a value keeps that view until it changes). When every client
+     * has a value for the facet, its largest value is what the selection
+     * leaves to the others.
+     */
+    private long[][] contar(RoaringBitmap selecionados, long total) {
+        long[][] contagens = new long[facetas.length][];
+        long clientes = todos.getLongCardinality();
+        Container[] selecao = selecionados == todos ? null : blocos(selecionados);
+        for (int f = 0; f < facetas.length; f++) {
+            Valores v = valores[f];
+            long[] contagem = new long[v.bitmaps.size()];
+            contagens[f] = contagem;
+            int maior = -1;
+            long comValor = 0;
+            for (int codigo = 0; codigo < contagem.length; codigo++) {
+                contagem[codigo] = v.bitmaps.get(codigo).getLongCardinality();
+                comValor += contagem[codigo];
+                if (maior < 0 || contagem[codigo] > contagem[maior]) {
+                    maior = codigo;
+                }
+            }
+            if (selecao == null) {
+                continue;
+            }
+            if (comValor < clientes) {
+                maior = -1;
+            }
+            long restante = total;
+            for (int codigo = 0; codigo < contagem.length; codigo++) {
+                if (codigo != maior && contagem[codigo] > 0) {
+                    contagem[codigo] = cardinalidadeE(selecao, v.blocos(codigo));
+                    restante -= contagem[codigo];
+                }
+            }
+            if (maior >= 0) {
+                contagem[maior] = restante;
+            }
+        }
+        return contagens;
+    }
+
+    // The containers of a bitmap indexed by their high 16 bits, array containers above ARRAY_DENSO as bitmaps
+    private static Container[] blocos(RoaringBitmap bitmap) {
+        Container[] blocos = new Container[bitmap.isEmpty() ? 0 : (bitmap.last() >>> 16) + 1];
+        ContainerPointer ponteiro = bitmap.getContainerPointer();
+        while (ponteiro.getContainer() != null) {
+            Container container = ponteiro.getContainer();
+            blocos[ponteiro.key()] = container instanceof ArrayContainer && container.getCardinality() > ARRAY_DENSO
+                    ? container.toBitmapContainer()
+                    : container;
+            ponteiro.advance();
+        }
+        return blocos;
+    }
+
+    private static long cardinalidadeE(Container[] a, Container[] b) {
+        long cardinalidade = 0;
+        for (int chave = Math.min(a.length, b.length) - 1; chave >= 0; chave--) {
+            if (a[chave] != null && b[chave] != null) {
+                cardinalidade += a[chave].andCardinality(b[chave]);
+            }
+        }
+        return cardinalidade;
+    }
+
+    // Called by FiltroFacetas under the read lock; the bitmaps returned must not be modified
+    RoaringBitmap todos() {
+        return todos;
+    }
+
+    RoaringBitmap bitmap(int faceta, String chave) {
+        Valores v = valores[faceta];
+        Integer codigo = v.codigosPorChave.get(chave);
+        return codigo != null ? v.bitmaps.get(codigo) : new RoaringBitmap();
+    }
+
+    // The distinct values of one facet and the value of each slot (-1 for none)
+    private static final class Valores {
+
+        private final Map<String, Integer> codigosPorChave = new HashMap<>();
+        private final List<String> rotulos = new ArrayList<>();
+        private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+        // Counting view of each bitmap, built by the first query after it changed; queries share the read lock
+        private final List<AtomicReference<Container[]>> blocos = new ArrayList<>();
+        private int[] codigos;
+
+        Valores(int capacidade) {
+            codigos = new int[capacidade];
+            Arrays.fill(codigos, -1);
+        }
+
+        void definir(int slot, String chave, String rotulo) {
+            if (slot >= codigos.length) {
+                int antigo = codigos.length;
+                codigos = Arrays.copyOf(codigos, Math.max(antigo * 2, slot + 1));
+                Arrays.fill(codigos, antigo, codigos.length, -1);
+            }
+            int novo = -1;
+            if (chave != null) {
+                novo = codigosPorChave.computeIfAbsent(chave, c -> {
+                    rotulos.add(rotulo != null ? rotulo : c);
+                    bitmaps.add(new RoaringBitmap());
+                    blocos.add(new AtomicReference<>());
+                    return bitmaps.size() - 1;
+                });
+            }
+            int atual = codigos[slot];
+            if (atual == novo) {
+                return;
+            }
+            if (atual >= 0) {
+                bitmaps.get(atual).remove(slot);
+                blocos.get(atual).set(null);
+            }
+            if (novo >= 0) {
+                bitmaps.get(novo).add(slot);
+                blocos.get(novo).set(null);
+            }
+            codigos[slot] = novo;
+        }
+
+        Container[] blocos(int codigo) {
+            AtomicReference<Container[]> referencia = blocos.get(codigo);
+            Container[] atual = referencia.get();
+            if (atual == null) {
+                atual = IndiceFacetas.blocos(bitmaps.get(codigo));
+                referencia.set(atual);
+            }
+            return atual;
+        }
+    }
+
+    public static final class Resultado {
+
+        private final long total;
+        private final Map<String, Map<String, Long>> contagens;
+        private final List<Long> ids;
+
+        Resultado(long total, Map<String, Map<String, Long>> contagens, List<Long> ids) {
+            this.total = total;
+            this.contagens = contagens;
+            this.ids = ids;
+        }
+
+        public long getTotal() { return total; }
+        public Map<String, Map<String, Long>> getContagens() { return contagens; }
+        public List<Long> getIds() { return ids; }
+    }
+}
@@ -0,0 +1,270 @@
+package com.mtor.evolution.service;
+
+import java.util.Arrays;
+
+/**
+ * Exact k-nearest-neighbour index over fixed-width client feature vectors.
+ *
+ * <p>Numeric features are stored column-wise, one {@code float[]} per
+ * dimension, and the two categorical features packed into one {@code int}
+ * per client; the distance is the squared Euclidean distance over the
+ * numeric part plus a fixed penalty per differing category. A query scans
+ * the columns in blocks that stay in L1. Every inner loop is branch-free
+ * element-wise arithmetic over primitive arrays, which C2 compiles to SIMD
+ * instructions (the category penalty included), and only distances below
+ * the current k-th best reach the heap. At 1M clients the scan is bound by
+ * memory bandwidth, not arithmetic.
+ *
+ * <p>Writers are serialized; readers never lock. A reader racing an update
+ * of the same slot may see a mix of the old and new vector for that one
+ * client, which only affects its ranking in that single query.
+ */
+public class IndiceSimilaridade {
+
+    private static final int BLOCO = 1024;
+    private static final long VAZIO = MapaSlots.VAZIO;
+    private static final int BITS_OBJETIVO = 3;
+    public static final int MAX_OBJETIVO = (1 << BITS_OBJETIVO) - 1;
+
+    private final int dimensoes;
+    private final float penalidadeModalidade;
+    private final float penalidadeObjetivo;
+
+    private final Object escrita = new Object();
+    // Written only under the lock
+    private final MapaSlots slots = new MapaSlots();
+    private int[] livres = new int[16];
+    private int totalLivres;
+
+    private volatile Colunas colunas;
+    // Slots below this are initialized; read before colunas so a reader never sees a longer range than its arrays
+    private volatile int usados;
+
+    public IndiceSimilaridade(int dimensoes, float penalidadeModalidade, float penalidadeObjetivo, int capacidadeInicial) {
+        this.dimensoes = dimensoes;
+        this.penalidadeModalidade = penalidadeModalidade;
+        this.penalidadeObjetivo = penalidadeObjetivo;
+        this.colunas = new Colunas(dimensoes, Math.max(capacidadeInicial, BLOCO));
+    }
+
+    public int getDimensoes() { return dimensoes; }
+
+    public int tamanho() {
+        synchronized (escrita) {
+            return slots.tamanho();
+        }
+    }
+
+    public long memoriaBytes() {
+        Colunas c = colunas;
+        return (long) c.capacidade * (dimensoes * 4L + 4 + 8);
+    }
+
+    /** Inserts or replaces the vector of a client. */
+    public void atualizar(long id, float[] vetor, int modalidade, int objetivo) {
+        if (vetor.length != dimensoes) {
+            throw new IllegalArgumentException("Vetor com " + vetor.length + " dimensões, esperado " + dimensoes);
+        }
+        int categoria = categoria(modalidade, objetivo);
+        synchronized (escrita) {
+            int slot = slots.get(id);
+            boolean novo = slot < 0;
+            if (novo) {
+                slot = totalLivres > 0 ? livres[--totalLivres] : usados;
+                if (slot >= colunas.capacidade) {
+                    colunas = colunas.crescer(dimensoes, colunas.capacidade * 2);
+                }
+            }
+            Colunas c = colunas;
+            for (int d = 0; d < dimensoes; d++) {
+                c.valores[d][slot] = vetor[d];
+            }
+            c.categorias[slot] = categoria;
+            if (novo) {
+                c.ids[slot] = id;
+                slots.put(id, slot);
+                if (slot == usados) {
+                    usados = slot + 1;
+                }
+            }
+        }
+    }
+
+    public boolean remover(long id) {
+        synchronized (escrita) {
+            int slot = slots.remove(id);
+            if (slot < 0) {
+                return false;
+            }
+            colunas.ids[slot] = VAZIO;
+            if (totalLivres == livres.length) {
+                livres = Arrays.copyOf(livres, livres.length * 2);
+            }
+            livres[totalLivres++] = slot;
+            return true;
+        }
+    }
+
+    /**
+     * The {@code k} clients closest to the query vector, nearest first.
+     * {@code excluir} is left out of the result (the client being compared).
+     */
+    public Resultado buscar(float[] consulta, int modalidade, int objetivo, int k, long excluir) {
+        int consultaCategoria = categoria(modalidade, objetivo);
+        int n = usados;
+        Colunas c = colunas;
+        float[] distancias = new float[BLOCO];
+        Heap heap = new Heap(k);
+        for (int inicio = 0; inicio < n; inicio += BLOCO) {
+            int tamanho = Math.min(BLOCO, n - inicio);
+            int[] categorias = c.categorias;
+            for (int i = 0; i < tamanho; i++) {
+                int x = categorias[inicio + i] ^ consultaCategoria;
+                int difereModalidade = x >>> BITS_OBJETIVO;
+                int difereObjetivo = x & MAX_OBJETIVO;
+                // (v | -v) >>> 31 is 1 for any non-zero v, without a branch
+                distancias[i] = penalidadeModalidade * ((difereModalidade | -difereModalidade) >>> 31)
+                        + penalidadeObjetivo * ((difereObjetivo | -difereObjetivo) >>> 31);
+            }
+            for (int d = 0; d < dimensoes; d++) {
+                float[] coluna = c.valores[d];
+                float q = consulta[d];
+                for (int i = 0; i < tamanho; i++) {
+                    float diferenca = coluna[inicio + i] - q;
+                    distancias[i] += diferenca * diferenca;
+                }
+            }
+            long[] ids = c.ids;
+            for (int i = 0; i < tamanho; i++) {
+                if (distancias[i] < heap.limite()) {
+                    long id = ids[inicio + i];
+                    if (id != VAZIO && id != excluir) {
+                        heap.oferecer(distancias[i], id);
+                    }
+                }
+            }
+        }
+        return heap.ordenado();
+    }
+
+    private static int categoria(int modalidade, int objetivo) {
+        if (objetivo < 0 || objetivo > MAX_OBJETIVO || modalidade < 0 || modalidade >= 1 << (31 - BITS_OBJETIVO)) {
+            throw new IllegalArgumentException("Categoria fora do intervalo: " + modalidade + "/" + objetivo);
+        }
+        return modalidade << BITS_OBJETIVO | objetivo;
+    }
+
+    public static final class Resultado {
+
+        private final long[] ids;
+        private final float[] distancias;
+
+        Resultado(long[] ids, float[] distancias) {
+            this.ids = ids;
+            this.distancias = distancias;
+        }
+
+        public int tamanho() { return ids.length; }
+
+        public long id(int i) { return ids[i]; }
+
+        public float distancia(int i) { return distancias[i]; }
+    }
+
+    private static final class Colunas {
+
+        final int capacidade;
+        final float[][] valores;
+        // modalidade << BITS_OBJETIVO | objetivo
+        final int[] categorias;
+        final long[] ids;
+
+        Colunas(int dimensoes, int capacidade) {
+            this.capacidade = capacidade;
+            this.valores = new float[dimensoes][capacidade];
+            this.categorias = new int[capacidade];
+            this.ids = new long[capacidade];
+            Arrays.fill(ids, VAZIO);
+        }
+
+        Colunas crescer(int dimensoes, int novaCapacidade) {
+            Colunas nova = new Colunas(dimensoes, novaCapacidade);
+            for (int d = 0; d < dimensoes; d++) {
+                System.arraycopy(valores[d], 0, nova.valores[d], 0, capacidade);
+            }
+            System.arraycopy(categorias, 0, nova.categorias, 0, capacidade);
+            System.arraycopy(ids, 0, nova.ids, 0, capacidade);
+            return nova;
+        }
+    }
+
+    // Bounded max-heap on distance: the root is the worst of the k best so far
+    private static final class Heap {
+
+        private final float[] distancias;
+        private final long[] ids;
+        private int tamanho;
+
+        Heap(int k) {
+            this.distancias = new float[k];
+            this.ids = new long[k];
+        }
+
+        float limite() {
+            return tamanho < distancias.length ? Float.POSITIVE_INFINITY : distancias[0];
+        }
+
+        void oferecer(float distancia, long id) {
+            if (tamanho < distancias.length) {
+                int i = tamanho++;
+                while (i > 0) {
+                    int pai = (i - 1) >>> 1;
+                    if (distancias[pai] >= distancia) {
+                        break;
+                    }
+                    distancias[i] = distancias[pai];
+                    ids[i] = ids[pai];
+                    i = pai;
+                }
+                distancias[i] = distancia;
+                ids[i] = id;
+                return;
+            }
+            int i = 0;
+            while (true) {
+                int filho = 2 * i + 1;
+                if (filho >= tamanho) {
+                    break;
+                }
+                if (filho + 1 < tamanho && distancias[filho + 1] > distancias[filho]) {
+                    filho++;
+                }
+                if (distancias[filho] <= distancia) {
+                    break;
+                }
+                distancias[i] = distancias[filho];
+                ids[i] = ids[filho];
+                i = filho;
+            }
+            distancias[i] = distancia;
+            ids[i] = id;
+        }
+
+        Resultado ordenado() {
+            Integer[] ordem = new Integer[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> a.equals(b) ? 0
+                    : distancias[a] != distancias[b] ? Float.compare(distancias[a], distancias[b])
+                    : Long.compare(ids[a], ids[b]));
+            long[] idsOrdenados = new long[tamanho];
+            float[] distanciasOrdenadas = new float[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                idsOrdenados[i] = ids[ordem[i]];
+                distanciasOrdenadas[i] = distancias[ordem[i]];
+            }
+            return new Resultado(idsOrdenados, distanciasOrdenadas);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mtor.evolution.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up work no request has to wait for: the first build of the
+ * in-memory client indexes and of the analytics snapshot. It is started
+ * {@code startup.deferred-delay-ms} after the application is ready,
+ * from a background thread, so that on a fresh instance it does not take
+ * the CPU from the first requests. Until then those features answer as
+ * they do while loading (503).
+ */
+@Component
+public class InicializacaoAdiada {
+
+    @Value("${startup.deferred-delay-ms:0}")
+    private long atrasoMs;
+
+    // Run in registration order
+    private final Map<String, Runnable> tarefas = new LinkedHashMap<>();
+    // Milliseconds after ready each task was started at
+    private final Map<String, Long> iniciadas = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "inicializacao-adiada");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long prontoEm;
+
+    /** Registers a task run once after startup; call from {@code @PostConstruct}. */
+    public synchronized void registrar(String nome, Runnable tarefa) {
+        tarefas.put(nome, tarefa);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        prontoEm = System.currentTimeMillis();
+        Map<String, Runnable> copia = new LinkedHashMap<>(tarefas);
+        executor.schedule(() -> copia.forEach(this::executar), atrasoMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("atrasoMs", atrasoMs);
+        Map<String, Object> porTarefa = new LinkedHashMap<>();
+        tarefas.keySet().forEach(nome -> porTarefa.put(nome, iniciadas.getOrDefault(nome, -1L)));
+        status.put("iniciadasMsAposPronto", porTarefa);
+        return status;
+    }
+
+    private void executar(String nome, Runnable tarefa) {
+        iniciadas.put(nome, System.currentTimeMillis() - prontoEm);
+        try {
+            tarefa.run();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Deferred startup task " + nome + " failed: " + e.getMessage());
+        }
+    }
+}
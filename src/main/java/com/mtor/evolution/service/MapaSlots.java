@@ -0,0 +1,97 @@
+package com.mtor.evolution.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from client id to a slot of a column-wise index,
+ * with backward-shift deletion. Not thread-safe: the owning index only
+ * touches it under its write lock.
+ */
+final class MapaSlots {
+
+    static final long VAZIO = -1L;
+
+    private long[] chaves = new long[1024];
+    private int[] valores = new int[1024];
+    private int tamanho;
+
+    MapaSlots() {
+        Arrays.fill(chaves, VAZIO);
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    int get(long id) {
+        int mascara = chaves.length - 1;
+        for (int i = indice(id, mascara); ; i = (i + 1) & mascara) {
+            if (chaves[i] == id) {
+                return valores[i];
+            }
+            if (chaves[i] == VAZIO) {
+                return -1;
+            }
+        }
+    }
+
+    void put(long id, int slot) {
+        if ((tamanho + 1) * 2 > chaves.length) {
+            redimensionar();
+        }
+        int mascara = chaves.length - 1;
+        int i = indice(id, mascara);
+        while (chaves[i] != VAZIO && chaves[i] != id) {
+            i = (i + 1) & mascara;
+        }
+        if (chaves[i] == VAZIO) {
+            tamanho++;
+        }
+        chaves[i] = id;
+        valores[i] = slot;
+    }
+
+    int remove(long id) {
+        int mascara = chaves.length - 1;
+        int i = indice(id, mascara);
+        while (chaves[i] != id) {
+            if (chaves[i] == VAZIO) {
+                return -1;
+            }
+            i = (i + 1) & mascara;
+        }
+        int slot = valores[i];
+        tamanho--;
+        // Shift later entries of the probe run back into the hole
+        int buraco = i;
+        for (int j = (i + 1) & mascara; chaves[j] != VAZIO; j = (j + 1) & mascara) {
+            int ideal = indice(chaves[j], mascara);
+            if (((j - ideal) & mascara) >= ((j - buraco) & mascara)) {
+                chaves[buraco] = chaves[j];
+                valores[buraco] = valores[j];
+                buraco = j;
+            }
+        }
+        chaves[buraco] = VAZIO;
+        return slot;
+    }
+
+    private void redimensionar() {
+        long[] antigasChaves = chaves;
+        int[] antigosValores = valores;
+        chaves = new long[antigasChaves.length * 2];
+        valores = new int[antigasChaves.length * 2];
+        Arrays.fill(chaves, VAZIO);
+        tamanho = 0;
+        for (int i = 0; i < antigasChaves.length; i++) {
+            if (antigasChaves[i] != VAZIO) {
+                put(antigasChaves[i], antigosValores[i]);
+            }
+        }
+    }
+
+    private static int indice(long id, int mascara) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
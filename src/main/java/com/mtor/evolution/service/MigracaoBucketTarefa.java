@@ -0,0 +1,134 @@
+package com.mtor.evolution.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves one hash bucket of clients, with all their rows, to another shard
+ * as a background job. Payload: {@code {"bucket": n, "destino": shard}}.
+ *
+ * <p>The bucket is marked first, which makes its clients read-only on every
+ * instance once they reloaded the map; then the rows are copied in batches,
+ * the owner is flipped and the source rows are deleted. Copies replace
+ * whatever an earlier failed attempt left on the target, so the job can be
+ * retried at any point.
+ */
+@Component
+public class MigracaoBucketTarefa implements ProcessadorTarefa {
+
+    public static final String TIPO = "migracao-bucket";
+
+    private static final int LOTE = 100;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String tipo() {
+        return TIPO;
+    }
+
+    @Override
+    public void processar(String payload) throws Exception {
+        JsonNode dados = objectMapper.readTree(payload);
+        int bucket = dados.get("bucket").asInt();
+        int destino = dados.get("destino").asInt();
+        if (!shards.ativo()) {
+            throw new IllegalStateException("Sharding desativado");
+        }
+        shards.fontes().shard(destino);
+
+        int origem = shards.donoAtual(bucket);
+        if (origem != destino) {
+            if (!shards.marcarMigracao(bucket, destino)) {
+                throw new IllegalStateException("Bucket " + bucket + " já está sendo migrado para outro shard");
+            }
+            List<Long> ids;
+            try {
+                shards.aguardarPropagacao();
+                ids = shards.clientesDoBucket(origem, bucket);
+                for (int i = 0; i < ids.size(); i += LOTE) {
+                    copiar(origem, destino, ids.subList(i, Math.min(ids.size(), i + LOTE)));
+                }
+            } catch (Exception e) {
+                // Unblock writes even if the cleanup fails too; a retry starts over
+                try {
+                    remover(destino, shards.clientesDoBucket(destino, bucket));
+                } catch (RuntimeException limpeza) {
+                    e.addSuppressed(limpeza);
+                } finally {
+                    shards.cancelarMigracao(bucket);
+                }
+                throw e;
+            }
+            shards.concluirMigracao(bucket, destino);
+            shards.aguardarPropagacao();
+            System.out.println("✅ Bucket " + bucket + " moved from shard " + origem + " to " + destino
+                    + " (" + ids.size() + " clients)");
+        }
+        // Also what a retry after the flip still has to do
+        for (int shard = 0; shard < shards.numeroShards(); shard++) {
+            if (shard != destino) {
+                remover(shard, shards.clientesDoBucket(shard, bucket));
+            }
+        }
+    }
+
+    private void copiar(int origem, int destino, List<Long> ids) {
+        NamedParameterJdbcTemplate de = new NamedParameterJdbcTemplate(shards.fontes().shard(origem));
+        NamedParameterJdbcTemplate para = new NamedParameterJdbcTemplate(shards.fontes().shard(destino));
+        Map<String, Object> parametros = Map.of("ids", ids);
+        transacao(shards.fontes().shard(destino)).executeWithoutResult(status -> {
+            apagar(para, parametros);
+            for (ShardsCliente.TabelaCliente tabela : ShardsCliente.TABELAS) {
+                List<Map<String, Object>> linhas = de.queryForList(
+                        "SELECT * FROM " + tabela.nome() + " WHERE " + tabela.filtro(), parametros);
+                if (linhas.isEmpty()) {
+                    continue;
+                }
+                List<String> colunas = new ArrayList<>(linhas.get(0).keySet());
+                String sql = "INSERT INTO " + tabela.nome() + " (" + String.join(", ", colunas) + ") VALUES ("
+                        + String.join(", ", colunas.stream().map(coluna -> "?").toList()) + ")";
+                List<Object[]> valores = new ArrayList<>(linhas.size());
+                for (Map<String, Object> linha : linhas) {
+                    valores.add(colunas.stream().map(linha::get).toArray());
+                }
+                para.getJdbcTemplate().batchUpdate(sql, valores);
+            }
+        });
+    }
+
+    private void remover(int shard, List<Long> ids) {
+        DataSource fonte = shards.fontes().shard(shard);
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(fonte);
+        for (int i = 0; i < ids.size(); i += LOTE) {
+            Map<String, Object> parametros = Map.of("ids", ids.subList(i, Math.min(ids.size(), i + LOTE)));
+            transacao(fonte).executeWithoutResult(status -> apagar(jdbc, parametros));
+        }
+    }
+
+    // Children first; the filters of the deeper tables still need their parents in place
+    private static void apagar(NamedParameterJdbcTemplate jdbc, Map<String, Object> parametros) {
+        List<ShardsCliente.TabelaCliente> tabelas = ShardsCliente.TABELAS;
+        for (int i = tabelas.size() - 1; i >= 0; i--) {
+            jdbc.update("DELETE FROM " + tabelas.get(i).nome() + " WHERE " + tabelas.get(i).filtro(), parametros);
+        }
+    }
+
+    private static TransactionTemplate transacao(DataSource fonte) {
+        return new TransactionTemplate(new DataSourceTransactionManager(fonte));
+    }
+}
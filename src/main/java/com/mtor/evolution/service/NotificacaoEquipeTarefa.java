@@ -0,0 +1,35 @@
+package com.mtor.evolution.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.dto.NotificacaoExameDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fans a {@link NotificacaoExameDto} out to the whole team as a background
+ * job. One transaction for all recipients, so a retry does not store a
+ * notification twice.
+ */
+@Component
+public class NotificacaoEquipeTarefa implements ProcessadorTarefa {
+
+    public static final String TIPO = "notificacao-equipe";
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String tipo() {
+        return TIPO;
+    }
+
+    @Override
+    @Transactional
+    public void processar(String payload) throws Exception {
+        notificacaoService.notificarEquipe(objectMapper.readValue(payload, NotificacaoExameDto.class));
+    }
+}
@@ -0,0 +1,313 @@
+package com.mtor.evolution.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Per-user Server-Sent Events fan-out. An idle subscriber is just an async
+ * {@link SseEmitter} and an empty queue; no request thread is held. Sends
+ * run on a small delivery pool, each subscriber has a bounded backlog and is
+ * disconnected when it falls behind, after which the browser reconnects and
+ * resumes from {@code Last-Event-ID} out of a bounded per-user replay buffer.
+ * A user's replay buffer is dropped once they have had no stream open for
+ * {@code notifications.sse.replay-idle-ms}; a later resume gets a reset.
+ */
+@Component
+public class NotificacaoHub {
+
+    public static final String EVENTO_RESET = "reset";
+
+    @Value("${notifications.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.sse.replay-size:100}")
+    private int replaySize;
+
+    @Value("${notifications.sse.max-pending:64}")
+    private int maxPending;
+
+    @Value("${notifications.sse.replay-idle-ms:900000}")
+    private long replayIdleMs;
+
+    // Seeded from the clock so ids from a previous process are recognisably older
+    private final long primeiroId = System.currentTimeMillis() * 1000;
+    private final AtomicLong sequencia = new AtomicLong(primeiroId);
+
+    private final ConcurrentMap<String, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Replay> replays = new ConcurrentHashMap<>();
+
+    private final ExecutorService entrega;
+
+    public NotificacaoHub(@Value("${notifications.sse.delivery-threads:2}") int threads) {
+        AtomicInteger contador = new AtomicInteger();
+        this.entrega = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "sse-delivery-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter assinar(String usuario, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(usuario, emitter);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(e -> remover(assinante));
+
+        // Replay and registration happen under the same lock as publish, so nothing is missed or doubled
+        comReplay(usuario, replay -> {
+            assinante.enfileirar(Evento.comentario("conectado"));
+            Long ultimo = parseId(lastEventId);
+            if (ultimo != null) {
+                List<Evento> perdidos = replay.desde(ultimo);
+                if (perdidos == null) {
+                    assinante.enfileirar(new Evento(sequencia.get(), EVENTO_RESET, Map.of()));
+                } else {
+                    perdidos.forEach(assinante::enfileirar);
+                }
+            }
+            assinantes.computeIfAbsent(usuario, k -> ConcurrentHashMap.newKeySet()).add(assinante);
+        });
+        return emitter;
+    }
+
+    public void publicar(String usuario, String nome, Object dados) {
+        Evento evento = new Evento(sequencia.incrementAndGet(), nome, dados);
+        comReplay(usuario, replay -> {
+            replay.adicionar(evento);
+            Set<Assinante> alvo = assinantes.get(usuario);
+            if (alvo != null) {
+                for (Assinante assinante : alvo) {
+                    assinante.enfileirar(evento);
+                }
+            }
+        });
+    }
+
+    public int totalAssinantes() {
+        return assinantes.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public int totalReplays() {
+        return replays.size();
+    }
+
+    // Keeps idle connections open through proxies and flushes out dead sockets
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Evento ping = Evento.comentario("ping");
+        for (Set<Assinante> conjunto : assinantes.values()) {
+            for (Assinante assinante : conjunto) {
+                if (assinante.ocioso()) {
+                    assinante.enfileirar(ping);
+                }
+            }
+        }
+        descartarReplaysOciosos();
+    }
+
+    void descartarReplaysOciosos() {
+        long limite = System.currentTimeMillis() - replayIdleMs;
+        replays.forEach((usuario, replay) -> {
+            synchronized (replay) {
+                // Subscribers register under this lock, so none can appear while we decide
+                if (!assinantes.containsKey(usuario) && replay.usadoEm < limite) {
+                    replays.remove(usuario, replay);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        assinantes.values().forEach(conjunto -> conjunto.forEach(Assinante::encerrar));
+        entrega.shutdown();
+    }
+
+    // Runs the action on the user's replay under its lock; retried if the sweep evicted it in between
+    private void comReplay(String usuario, Consumer<Replay> acao) {
+        while (true) {
+            Replay replay = replays.computeIfAbsent(usuario, k -> new Replay(replaySize, sequencia.get()));
+            synchronized (replay) {
+                if (replays.get(usuario) == replay) {
+                    replay.usadoEm = System.currentTimeMillis();
+                    acao.accept(replay);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        assinante.fechado = true;
+        assinantes.computeIfPresent(assinante.usuario, (k, conjunto) -> {
+            conjunto.remove(assinante);
+            return conjunto.isEmpty() ? null : conjunto;
+        });
+        // Idle time counts from the last disconnect
+        Replay replay = replays.get(assinante.usuario);
+        if (replay != null) {
+            replay.usadoEm = System.currentTimeMillis();
+        }
+    }
+
+    private static Long parseId(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private final class Assinante {
+
+        private final String usuario;
+        private final SseEmitter emitter;
+        private final Queue<Evento> pendentes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger tamanho = new AtomicInteger();
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private volatile boolean fechado;
+
+        Assinante(String usuario, SseEmitter emitter) {
+            this.usuario = usuario;
+            this.emitter = emitter;
+        }
+
+        boolean ocioso() {
+            return tamanho.get() == 0;
+        }
+
+        void enfileirar(Evento evento) {
+            if (fechado) {
+                return;
+            }
+            if (tamanho.incrementAndGet() > maxPending) {
+                // Slow consumer: drop the connection rather than buffer without bound
+                encerrar();
+                return;
+            }
+            pendentes.offer(evento);
+            agendar();
+        }
+
+        private void agendar() {
+            if (agendado.compareAndSet(false, true)) {
+                entrega.execute(this::drenar);
+            }
+        }
+
+        private void drenar() {
+            try {
+                Evento evento;
+                while (!fechado && (evento = pendentes.poll()) != null) {
+                    tamanho.decrementAndGet();
+                    emitter.send(evento.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                encerrar();
+            } finally {
+                agendado.set(false);
+                if (!fechado && !pendentes.isEmpty()) {
+                    agendar();
+                }
+            }
+        }
+
+        void encerrar() {
+            if (!fechado) {
+                fechado = true;
+                pendentes.clear();
+                remover(this);
+                emitter.complete();
+            }
+        }
+    }
+
+    private static final class Replay {
+
+        private final int capacidade;
+        private final ArrayDeque<Evento> eventos;
+        // Events up to here (those of a previous process, or of an evicted buffer) are unknown
+        private long ultimoDescartado;
+        private volatile long usadoEm = System.currentTimeMillis();
+
+        Replay(int capacidade, long inicio) {
+            this.capacidade = capacidade;
+            this.eventos = new ArrayDeque<>(Math.min(capacidade, 16));
+            this.ultimoDescartado = inicio;
+        }
+
+        void adicionar(Evento evento) {
+            if (eventos.size() == capacidade) {
+                ultimoDescartado = eventos.removeFirst().id;
+            }
+            eventos.addLast(evento);
+        }
+
+        // Events after the given id, or null if some of them were already evicted
+        List<Evento> desde(long id) {
+            if (id < ultimoDescartado) {
+                return null;
+            }
+            List<Evento> resultado = new ArrayList<>();
+            for (Evento evento : eventos) {
+                if (evento.id > id) {
+                    resultado.add(evento);
+                }
+            }
+            return resultado.isEmpty() ? Collections.emptyList() : resultado;
+        }
+    }
+
+    private static final class Evento {
+
+        private final long id;
+        private final String nome;
+        private final Object dados;
+
+        Evento(long id, String nome, Object dados) {
+            this.id = id;
+            this.nome = nome;
+            this.dados = dados;
+        }
+
+        static Evento comentario(String texto) {
+            return new Evento(-1, null, texto);
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (nome == null) {
+                return SseEmitter.event().comment((String) dados);
+            }
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(nome)
+                    .data(dados, MediaType.APPLICATION_JSON);
+        }
+    }
+}
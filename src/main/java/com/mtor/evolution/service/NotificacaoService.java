@@ -0,0 +1,75 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.NotificacaoExameDto;
+import com.mtor.evolution.model.NotificacaoExame;
+import com.mtor.evolution.model.User;
+import com.mtor.evolution.repository.NotificacaoExameRepository;
+import com.mtor.evolution.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificacaoService {
+
+    public static final String EVENTO_NOTIFICACAO = "notificacao";
+    public static final String EVENTO_LIDA = "notificacao-lida";
+
+    private static final int LIMITE_LISTAGEM = 50;
+
+    @Autowired
+    private NotificacaoExameRepository notificacaoExameRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificacaoHub notificacaoHub;
+
+    public List<NotificacaoExameDto> findByDestinatario(String destinatario, Long clienteId) {
+        Pageable limite = PageRequest.of(0, LIMITE_LISTAGEM);
+        List<NotificacaoExame> notificacoes = clienteId != null
+                ? notificacaoExameRepository.findByDestinatarioAndClienteIdOrderByDataEnvioDesc(destinatario, clienteId, limite)
+                : notificacaoExameRepository.findByDestinatarioOrderByDataEnvioDesc(destinatario, limite);
+        return notificacoes.stream().map(NotificacaoExameDto::new).collect(Collectors.toList());
+    }
+
+    public NotificacaoExameDto notificar(String destinatario, NotificacaoExameDto dto) {
+        NotificacaoExame notificacao = new NotificacaoExame(destinatario,
+                dto.getExameId() != null ? Long.valueOf(dto.getExameId()) : null,
+                dto.getClienteId() != null ? Long.valueOf(dto.getClienteId()) : null,
+                dto.getTipo(), dto.getTitulo(), dto.getMensagem());
+        NotificacaoExameDto salva = new NotificacaoExameDto(notificacaoExameRepository.save(notificacao));
+        notificacaoHub.publicar(destinatario, EVENTO_NOTIFICACAO, salva);
+        return salva;
+    }
+
+    // Fans a notification out to every ADMIN and COACH account
+    public List<NotificacaoExameDto> notificarEquipe(NotificacaoExameDto dto) {
+        return userRepository.findByRoleIn(List.of(User.Role.ADMIN, User.Role.COACH)).stream()
+                .map(user -> notificar(user.getEmail(), dto))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public Optional<NotificacaoExameDto> marcarLida(Long id, String destinatario) {
+        return notificacaoExameRepository.findByIdAndDestinatario(id, destinatario).map(notificacao -> {
+            notificacao.setLida(true);
+            NotificacaoExameDto dto = new NotificacaoExameDto(notificacaoExameRepository.save(notificacao));
+            // Other open tabs of the same user clear their badge too
+            notificacaoHub.publicar(destinatario, EVENTO_LIDA, dto);
+            return dto;
+        });
+    }
+
+    public SseEmitter assinar(String usuario, String lastEventId) {
+        return notificacaoHub.assinar(usuario, lastEventId);
+    }
+}
@@ -0,0 +1,416 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.OtimizacaoRequest;
+import com.mtor.evolution.dto.OtimizacaoResultado;
+import com.mtor.evolution.model.ItemRefeicao;
+import com.mtor.evolution.model.PlanoAlimentar;
+import com.mtor.evolution.model.Refeicao;
+import com.mtor.evolution.model.ValoresNutricionais;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fits item quantities to macro targets. Each candidate (the plan as is,
+ * plus one per proposed food substitution) is a small box-constrained
+ * weighted least-squares problem, solved by cyclic coordinate descent with
+ * an exact step per coordinate. Candidates run in parallel on the optimizer
+ * pool and the whole request is bounded by a latency budget: solvers stop
+ * at the deadline with their best iterate and late candidates are dropped.
+ */
+@Service
+public class OtimizadorMacros {
+
+    private static final String[] MACROS = {"calorias", "proteinas", "carboidratos", "gorduras", "fibras"};
+    private static final int MAX_VARREDURAS = 500;
+    private static final double TOLERANCIA = 1e-6;
+
+    @Autowired
+    private CalculadoraNutricional calculadora;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Autowired
+    @Qualifier("otimizadorExecutor")
+    private TaskExecutor executor;
+
+    @Value("${nutrition.optimizer.budget-ms:200}")
+    private long orcamentoPadraoMs;
+
+    @Value("${nutrition.optimizer.max-budget-ms:2000}")
+    private long orcamentoMaximoMs;
+
+    @Value("${nutrition.optimizer.max-candidates:64}")
+    private int maxCandidatos;
+
+    /** Computes the best adjustment; the caller decides whether to apply it. */
+    public Solucao otimizar(PlanoAlimentar plano, OtimizacaoRequest request) {
+        long inicio = System.nanoTime();
+        long orcamentoMs = request.getOrcamentoMs() != null
+                ? Math.min(Math.max(request.getOrcamentoMs(), 1), orcamentoMaximoMs)
+                : orcamentoPadraoMs;
+        long prazo = inicio + TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+
+        double[] metas = vetorMetas(request.getMetas() != null ? request.getMetas() : plano.getMetas());
+        boolean algumaMeta = false;
+        for (double meta : metas) {
+            algumaMeta |= !Double.isNaN(meta);
+        }
+        if (!algumaMeta) {
+            throw new RuntimeException("Plano sem metas nutricionais para otimizar");
+        }
+
+        // Items in scope are variables; everything else is a fixed offset
+        List<Posicao> variaveis = new ArrayList<>();
+        double[] fixo = new double[MACROS.length];
+        for (Refeicao refeicao : plano.getRefeicoes()) {
+            List<ItemRefeicao> itens = refeicao.getItens();
+            for (int i = 0; i < itens.size(); i++) {
+                ItemRefeicao item = itens.get(i);
+                boolean ajustavel = request.getRefeicaoId() == null
+                        || request.getRefeicaoId().equals(refeicao.getId())
+                        || temSubstituicao(request, refeicao.getId(), i);
+                if (ajustavel) {
+                    variaveis.add(new Posicao(refeicao.getId(), i, item));
+                } else {
+                    acumular(fixo, calculadora.contribuicao(item));
+                }
+            }
+        }
+        if (variaveis.isEmpty()) {
+            throw new RuntimeException("Nenhum item ajustável no plano");
+        }
+
+        List<Candidato> candidatos = new ArrayList<>();
+        candidatos.add(candidato(variaveis, -1, null, request));
+        for (OtimizacaoRequest.Substituicao sub : request.getSubstituicoes()) {
+            int v = indiceDaVariavel(variaveis, sub.getRefeicaoId(), sub.getIndice());
+            if (v < 0) {
+                throw new RuntimeException("Item não encontrado para substituição: refeição "
+                        + sub.getRefeicaoId() + ", índice " + sub.getIndice());
+            }
+            for (Long alimentoId : sub.getAlimentoIds()) {
+                if (candidatos.size() >= maxCandidatos) {
+                    break;
+                }
+                candidatos.add(candidato(variaveis, v, alimentoId, request));
+            }
+        }
+
+        List<CompletableFuture<Resultado>> futuros = new ArrayList<>(candidatos.size());
+        for (Candidato c : candidatos.subList(1, candidatos.size())) {
+            try {
+                futuros.add(CompletableFuture.supplyAsync(() -> resolver(c, fixo, metas, prazo), executor));
+            } catch (TaskRejectedException e) {
+                // Pool saturated: this candidate is simply not evaluated
+                futuros.add(null);
+            }
+        }
+
+        // The plan as is runs on the calling thread, so there is an answer even when the pool is busy
+        Resultado melhor = resolver(candidatos.get(0), fixo, metas, Long.MAX_VALUE);
+        int avaliados = 1;
+        boolean todosConvergiram = melhor.convergiu;
+        for (CompletableFuture<Resultado> futuro : futuros) {
+            if (futuro == null) {
+                todosConvergiram = false;
+                continue;
+            }
+            Resultado r;
+            try {
+                r = futuro.get(Math.max(prazo - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                futuro.cancel(false);
+                todosConvergiram = false;
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Otimização interrompida", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Erro na otimização", e.getCause());
+            }
+            if (r == null) {
+                todosConvergiram = false;
+                continue;
+            }
+            avaliados++;
+            todosConvergiram &= r.convergiu;
+            if (r.erro < melhor.erro - 1e-12) {
+                melhor = r;
+            }
+        }
+
+        OtimizacaoResultado resultado = new OtimizacaoResultado();
+        Candidato escolhido = melhor.candidato;
+        ValoresNutricionais totais = new ValoresNutricionais(fixo[0], fixo[1], fixo[2], fixo[3], fixo[4]);
+        for (int v = 0; v < variaveis.size(); v++) {
+            Posicao p = variaveis.get(v);
+            OtimizacaoResultado.ItemAjustado ajuste = new OtimizacaoResultado.ItemAjustado();
+            ajuste.setRefeicaoId(p.refeicaoId);
+            ajuste.setIndice(p.indice);
+            ajuste.setAlimentoIdOriginal(p.item.getAlimentoId());
+            ajuste.setAlimentoId(escolhido.alimentoIds[v]);
+            ajuste.setAlimentoNome(nomeDoAlimento(escolhido.alimentoIds[v]));
+            ajuste.setQuantidadeOriginal(p.item.getQuantidade());
+            ajuste.setQuantidade(melhor.x[v]);
+            ajuste.setUnidade(p.item.getUnidade());
+            resultado.getItens().add(ajuste);
+            totais.somar(new ValoresNutricionais(escolhido.a[v][0], escolhido.a[v][1], escolhido.a[v][2],
+                    escolhido.a[v][3], escolhido.a[v][4]), melhor.x[v]);
+        }
+        resultado.setMetas(request.getMetas() != null ? request.getMetas() : plano.getMetas());
+        resultado.setTotais(totais);
+        Map<String, Double> desvios = new LinkedHashMap<>();
+        double[] total = {totais.getCalorias(), totais.getProteinas(), totais.getCarboidratos(),
+                totais.getGorduras(), totais.getFibras()};
+        for (int k = 0; k < MACROS.length; k++) {
+            if (!Double.isNaN(metas[k]) && metas[k] > 0) {
+                desvios.put(MACROS[k], Math.round((total[k] - metas[k]) / metas[k] * 1000.0) / 10.0);
+            }
+        }
+        resultado.setDesvioPercentual(desvios);
+        resultado.setCandidatosTotal(candidatos.size());
+        resultado.setCandidatosAvaliados(avaliados);
+        resultado.setDentroDoOrcamento(todosConvergiram && System.nanoTime() <= prazo);
+        resultado.setTempoMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return new Solucao(resultado, variaveis, escolhido.alimentoIds, melhor.x);
+    }
+
+    private Candidato candidato(List<Posicao> variaveis, int substituida, Long novoAlimento, OtimizacaoRequest request) {
+        int n = variaveis.size();
+        Candidato c = new Candidato(n);
+        for (int v = 0; v < n; v++) {
+            ItemRefeicao item = variaveis.get(v).item;
+            CalculadoraNutricional.Coeficientes original = calculadora.porUnidade(item.getAlimentoId(), item.getUnidade());
+            double x0 = item.getQuantidade();
+            c.alimentoIds[v] = item.getAlimentoId();
+            c.a[v] = vetor(original);
+            if (v == substituida) {
+                c.alimentoIds[v] = novoAlimento;
+                c.a[v] = vetor(calculadora.porUnidade(novoAlimento, item.getUnidade()));
+                // Start the replacement at the same energy as the original portion
+                if (c.a[v][0] > 0 && original.calorias > 0) {
+                    x0 = x0 * original.calorias / c.a[v][0];
+                }
+            }
+            c.lo[v] = x0 * request.getFatorMinimo();
+            c.hi[v] = Math.max(c.lo[v], x0 * request.getFatorMaximo());
+            c.x0[v] = x0;
+            c.passo[v] = CalculadoraNutricional.emGramas(item.getUnidade()) ? request.getPassoGramas() : 0.5;
+        }
+        return c;
+    }
+
+    // Coordinate descent on sum_k w_k (sum_i a_ik x_i + b_k - t_k)^2, w_k = 1 / t_k^2
+    static Resultado resolver(Candidato c, double[] fixo, double[] metas, long prazo) {
+        if (System.nanoTime() > prazo) {
+            return null;
+        }
+        int n = c.x0.length;
+        int m = metas.length;
+        double[] w = new double[m];
+        for (int k = 0; k < m; k++) {
+            w[k] = Double.isNaN(metas[k]) || metas[k] <= 0 ? 0 : 1.0 / (metas[k] * metas[k]);
+        }
+        double[] x = new double[n];
+        double[] r = new double[m];
+        for (int k = 0; k < m; k++) {
+            r[k] = fixo[k] - (Double.isNaN(metas[k]) ? 0 : metas[k]);
+        }
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.min(Math.max(c.x0[i], c.lo[i]), c.hi[i]);
+            for (int k = 0; k < m; k++) {
+                r[k] += c.a[i][k] * x[i];
+            }
+        }
+        double[] h = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < m; k++) {
+                h[i] += w[k] * c.a[i][k] * c.a[i][k];
+            }
+        }
+
+        boolean convergiu = false;
+        for (int varredura = 0; varredura < MAX_VARREDURAS; varredura++) {
+            double maiorPasso = 0;
+            for (int i = 0; i < n; i++) {
+                if (h[i] == 0) {
+                    continue;
+                }
+                double g = 0;
+                for (int k = 0; k < m; k++) {
+                    g += w[k] * c.a[i][k] * r[k];
+                }
+                double novo = Math.min(Math.max(x[i] - g / h[i], c.lo[i]), c.hi[i]);
+                double delta = novo - x[i];
+                if (delta != 0) {
+                    x[i] = novo;
+                    for (int k = 0; k < m; k++) {
+                        r[k] += c.a[i][k] * delta;
+                    }
+                    maiorPasso = Math.max(maiorPasso, Math.abs(delta) / Math.max(c.passo[i], 1e-9));
+                }
+            }
+            if (maiorPasso < TOLERANCIA) {
+                convergiu = true;
+                break;
+            }
+            if ((varredura & 7) == 7 && System.nanoTime() > prazo) {
+                break;
+            }
+        }
+
+        // Round to practical amounts, staying inside the bounds
+        for (int i = 0; i < n; i++) {
+            double arredondado = Math.round(x[i] / c.passo[i]) * c.passo[i];
+            if (arredondado < c.lo[i]) arredondado += c.passo[i];
+            if (arredondado > c.hi[i]) arredondado -= c.passo[i];
+            if (arredondado < c.lo[i] || arredondado > c.hi[i]) arredondado = x[i];
+            double delta = arredondado - x[i];
+            x[i] = arredondado;
+            for (int k = 0; k < m; k++) {
+                r[k] += c.a[i][k] * delta;
+            }
+        }
+        double erro = 0;
+        for (int k = 0; k < m; k++) {
+            erro += w[k] * r[k] * r[k];
+        }
+        return new Resultado(c, x, erro, convergiu);
+    }
+
+    private static double[] vetorMetas(ValoresNutricionais metas) {
+        if (metas == null) {
+            return new double[]{Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+        }
+        return new double[]{valor(metas.getCalorias()), valor(metas.getProteinas()), valor(metas.getCarboidratos()),
+                valor(metas.getGorduras()), valor(metas.getFibras())};
+    }
+
+    private static double valor(Double v) {
+        return v != null ? v : Double.NaN;
+    }
+
+    private static double[] vetor(CalculadoraNutricional.Coeficientes c) {
+        return new double[]{c.calorias, c.proteinas, c.carboidratos, c.gorduras, c.fibras};
+    }
+
+    private static void acumular(double[] alvo, ValoresNutricionais valores) {
+        alvo[0] += valores.getCalorias();
+        alvo[1] += valores.getProteinas();
+        alvo[2] += valores.getCarboidratos();
+        alvo[3] += valores.getGorduras();
+        alvo[4] += valores.getFibras();
+    }
+
+    private static boolean temSubstituicao(OtimizacaoRequest request, Long refeicaoId, int indice) {
+        for (OtimizacaoRequest.Substituicao sub : request.getSubstituicoes()) {
+            if (refeicaoId.equals(sub.getRefeicaoId()) && sub.getIndice() == indice) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indiceDaVariavel(List<Posicao> variaveis, Long refeicaoId, int indice) {
+        for (int v = 0; v < variaveis.size(); v++) {
+            Posicao p = variaveis.get(v);
+            if (p.refeicaoId.equals(refeicaoId) && p.indice == indice) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private String nomeDoAlimento(Long alimentoId) {
+        CatalogoAlimentos.Snapshot s = catalogo.snapshot();
+        int doc = s.documentoDoId(alimentoId);
+        return doc >= 0 ? s.nome(doc) : null;
+    }
+
+    static final class Posicao {
+
+        final Long refeicaoId;
+        final int indice;
+        final ItemRefeicao item;
+
+        Posicao(Long refeicaoId, int indice, ItemRefeicao item) {
+            this.refeicaoId = refeicaoId;
+            this.indice = indice;
+            this.item = item;
+        }
+    }
+
+    static final class Candidato {
+
+        final Long[] alimentoIds;
+        final double[][] a;
+        final double[] lo;
+        final double[] hi;
+        final double[] x0;
+        final double[] passo;
+
+        Candidato(int n) {
+            this.alimentoIds = new Long[n];
+            this.a = new double[n][];
+            this.lo = new double[n];
+            this.hi = new double[n];
+            this.x0 = new double[n];
+            this.passo = new double[n];
+        }
+    }
+
+    static final class Resultado {
+
+        final Candidato candidato;
+        final double[] x;
+        final double erro;
+        final boolean convergiu;
+
+        Resultado(Candidato candidato, double[] x, double erro, boolean convergiu) {
+            this.candidato = candidato;
+            this.x = x;
+            this.erro = erro;
+            this.convergiu = convergiu;
+        }
+    }
+
+    public static final class Solucao {
+
+        private final OtimizacaoResultado resultado;
+        private final List<Posicao> posicoes;
+        private final Long[] alimentoIds;
+        private final double[] quantidades;
+
+        Solucao(OtimizacaoResultado resultado, List<Posicao> posicoes, Long[] alimentoIds, double[] quantidades) {
+            this.resultado = resultado;
+            this.posicoes = posicoes;
+            this.alimentoIds = alimentoIds;
+            this.quantidades = quantidades;
+        }
+
+        public OtimizacaoResultado getResultado() { return resultado; }
+
+        /** Writes the chosen foods and quantities into the plan's items. */
+        public void aplicar() {
+            for (int v = 0; v < posicoes.size(); v++) {
+                ItemRefeicao item = posicoes.get(v).item;
+                item.setAlimentoId(alimentoIds[v]);
+                item.setQuantidade(quantidades[v]);
+            }
+        }
+    }
+}
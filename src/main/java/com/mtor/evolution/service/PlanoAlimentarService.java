@@ -0,0 +1,338 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AlteracaoItemDto;
+import com.mtor.evolution.dto.ItemRefeicaoDto;
+import com.mtor.evolution.dto.OtimizacaoRequest;
+import com.mtor.evolution.dto.OtimizacaoResultado;
+import com.mtor.evolution.dto.PlanoAlimentarDto;
+import com.mtor.evolution.dto.RefeicaoDto;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.ItemRefeicao;
+import com.mtor.evolution.model.PlanoAlimentar;
+import com.mtor.evolution.model.Refeicao;
+import com.mtor.evolution.model.ValoresNutricionais;
+import com.mtor.evolution.repository.ClienteRepository;
+import com.mtor.evolution.repository.PlanoAlimentarRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Meal plans. Whole-plan saves recompute every total. Single-item edits
+ * touch the item's row and add the item's delta to the stored totals of its
+ * meal and plan in place, without loading the plan or the meal's other
+ * items, and answer with the changed totals only; editing one item of a
+ * large plan costs about the same as editing a small one. Each item stores
+ * the contribution it was counted with, and that is what a replacement or
+ * removal subtracts, so totals stay exact when the food's nutrients are
+ * edited in between. Edits run as plain statements on the transaction's
+ * connection, as each is a handful of key lookups and the repository layer's
+ * per-query work would otherwise cost more than the SQL itself.
+ */
+@Service
+public class PlanoAlimentarService {
+
+    // Serializes item edits of one meal, so positions and stored contributions are read and written in turn
+    private static final String TRAVAR_REFEICAO =
+            "SELECT id FROM refeicoes WHERE id = ? AND plano_id = ? FOR UPDATE";
+    private static final String CONTAR_ITENS = "SELECT COUNT(*) FROM itens_refeicao WHERE refeicao_id = ?";
+    private static final String ITEM =
+            "SELECT alimento_id, quantidade, unidade, observacoes, contrib_calorias, contrib_proteinas, " +
+            "contrib_carboidratos, contrib_gorduras, contrib_fibras FROM itens_refeicao WHERE refeicao_id = ? AND ordem = ?";
+    private static final String INSERIR_ITEM =
+            "INSERT INTO itens_refeicao (alimento_id, quantidade, unidade, observacoes, contrib_calorias, " +
+            "contrib_proteinas, contrib_carboidratos, contrib_gorduras, contrib_fibras, refeicao_id, ordem) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SUBSTITUIR_ITEM =
+            "UPDATE itens_refeicao SET alimento_id = ?, quantidade = ?, unidade = ?, observacoes = ?, " +
+            "contrib_calorias = ?, contrib_proteinas = ?, contrib_carboidratos = ?, contrib_gorduras = ?, " +
+            "contrib_fibras = ? WHERE refeicao_id = ? AND ordem = ?";
+    private static final String REMOVER_ITEM = "DELETE FROM itens_refeicao WHERE refeicao_id = ? AND ordem = ?";
+    // Closes the gap a removal left in two steps, through negative positions, so no step collides with the primary key
+    private static final String AFASTAR_ITENS =
+            "UPDATE itens_refeicao SET ordem = -ordem WHERE refeicao_id = ? AND ordem > ?";
+    private static final String RECUAR_ITENS =
+            "UPDATE itens_refeicao SET ordem = -ordem - 1 WHERE refeicao_id = ? AND ordem < 0";
+    private static final String SOMAR_REFEICAO =
+            "UPDATE refeicoes SET total_calorias = COALESCE(total_calorias, 0) + ?, " +
+            "total_proteinas = COALESCE(total_proteinas, 0) + ?, total_carboidratos = COALESCE(total_carboidratos, 0) + ?, " +
+            "total_gorduras = COALESCE(total_gorduras, 0) + ?, total_fibras = COALESCE(total_fibras, 0) + ? WHERE id = ?";
+    private static final String SOMAR_PLANO =
+            "UPDATE planos_alimentares SET total_calorias = COALESCE(total_calorias, 0) + ?, " +
+            "total_proteinas = COALESCE(total_proteinas, 0) + ?, total_carboidratos = COALESCE(total_carboidratos, 0) + ?, " +
+            "total_gorduras = COALESCE(total_gorduras, 0) + ?, total_fibras = COALESCE(total_fibras, 0) + ?, " +
+            "versao = versao + 1, updated_at = ? WHERE id = ?";
+    private static final String TOTAIS =
+            "SELECT r.total_calorias, r.total_proteinas, r.total_carboidratos, r.total_gorduras, r.total_fibras, " +
+            "p.total_calorias, p.total_proteinas, p.total_carboidratos, p.total_gorduras, p.total_fibras, p.versao " +
+            "FROM refeicoes r JOIN planos_alimentares p ON p.id = r.plano_id WHERE r.id = ?";
+
+    @Autowired
+    private PlanoAlimentarRepository planoAlimentarRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CalculadoraNutricional calculadora;
+
+    @Autowired
+    private OtimizadorMacros otimizador;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Transactional(readOnly = true)
+    public List<PlanoAlimentarDto> findByCliente(Long clienteId) {
+        return shards.noShardDoCliente(clienteId, () ->
+                planoAlimentarRepository.findByClienteIdOrderByDataInicioDesc(clienteId).stream()
+                        .map(this::toDto)
+                        .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PlanoAlimentarDto> findById(Long id) {
+        return doPlano(id, false, this::toDto);
+    }
+
+    @Transactional
+    public PlanoAlimentarDto save(PlanoAlimentarDto dto) {
+        Long clienteId = Long.parseLong(dto.getClienteId());
+        shards.verificarEscrita(clienteId);
+        return shards.noShardDoCliente(clienteId, () -> {
+            Cliente cliente = clienteRepository.findById(clienteId)
+                    .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
+            PlanoAlimentar plano = new PlanoAlimentar();
+            plano.setCliente(cliente);
+            updatePlanoFromDto(plano, dto);
+            return toDto(planoAlimentarRepository.save(plano));
+        });
+    }
+
+    @Transactional
+    public Optional<PlanoAlimentarDto> update(Long id, PlanoAlimentarDto dto) {
+        return doPlano(id, true, plano -> {
+            updatePlanoFromDto(plano, dto);
+            return toDto(planoAlimentarRepository.save(plano));
+        });
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        return doPlano(id, true, plano -> {
+            planoAlimentarRepository.delete(plano);
+            return true;
+        }).orElse(false);
+    }
+
+    @Transactional
+    public Optional<AlteracaoItemDto> adicionarItem(Long planoId, Long refeicaoId, ItemRefeicaoDto dto) {
+        return naRefeicao(planoId, refeicaoId, () -> {
+            ItemRefeicao item = toItem(dto);
+            ValoresNutricionais contribuicao = calculadora.contar(item);
+            int indice = jdbcTemplate.queryForObject(CONTAR_ITENS, Integer.class, refeicaoId);
+            jdbcTemplate.update(INSERIR_ITEM, colunas(item, refeicaoId, indice));
+            return alteracao(planoId, refeicaoId, indice, item, delta(contribuicao, null));
+        });
+    }
+
+    @Transactional
+    public Optional<AlteracaoItemDto> atualizarItem(Long planoId, Long refeicaoId, int indice, ItemRefeicaoDto dto) {
+        return naRefeicao(planoId, refeicaoId, () -> {
+            ItemRefeicao atual = item(refeicaoId, indice);
+            ItemRefeicao novo = toItem(dto);
+            ValoresNutricionais contribuicao = calculadora.contar(novo);
+            jdbcTemplate.update(SUBSTITUIR_ITEM, colunas(novo, refeicaoId, indice));
+            return alteracao(planoId, refeicaoId, indice, novo, delta(contribuicao, calculadora.contado(atual)));
+        });
+    }
+
+    @Transactional
+    public Optional<AlteracaoItemDto> removerItem(Long planoId, Long refeicaoId, int indice) {
+        return naRefeicao(planoId, refeicaoId, () -> {
+            ItemRefeicao atual = item(refeicaoId, indice);
+            jdbcTemplate.update(REMOVER_ITEM, refeicaoId, indice);
+            if (jdbcTemplate.update(AFASTAR_ITENS, refeicaoId, indice) > 0) {
+                jdbcTemplate.update(RECUAR_ITENS, refeicaoId);
+            }
+            return alteracao(planoId, refeicaoId, indice, null, delta(null, calculadora.contado(atual)));
+        });
+    }
+
+    // Items keep the values they were counted with; this recounts them with the foods' current values
+    @Transactional
+    public Optional<PlanoAlimentarDto> recalcular(Long planoId) {
+        return doPlano(planoId, true, plano -> {
+            calculadora.recalcular(plano);
+            return toDto(planoAlimentarRepository.saveAndFlush(plano));
+        });
+    }
+
+    @Transactional
+    public Optional<OtimizacaoResultado> otimizar(Long planoId, OtimizacaoRequest request) {
+        return doPlano(planoId, request.isAplicar(), plano -> {
+            OtimizadorMacros.Solucao solucao = otimizador.otimizar(plano, request);
+            OtimizacaoResultado resultado = solucao.getResultado();
+            if (request.isAplicar()) {
+                solucao.aplicar();
+                calculadora.recalcular(plano);
+                plano = planoAlimentarRepository.saveAndFlush(plano);
+                resultado.setAplicado(true);
+            }
+            resultado.setVersaoPlano(plano.getVersao());
+            return resultado;
+        });
+    }
+
+    // Plans come by id alone; with sharding on their client's shard is looked up first
+    private <T> Optional<T> doPlano(Long planoId, boolean escrita, Function<PlanoAlimentar, T> acao) {
+        return shards.noShardDoRegistro(planoId, () -> planoAlimentarRepository.findClienteIdById(planoId), clienteId -> {
+            if (escrita) {
+                shards.verificarEscrita(clienteId);
+            }
+            return planoAlimentarRepository.findWithRefeicoesById(planoId).map(acao);
+        });
+    }
+
+    // Single-item edits go by the meal's row, locked for the edit; the plan itself is never loaded
+    private <T> Optional<T> naRefeicao(Long planoId, Long refeicaoId, Supplier<T> acao) {
+        return shards.noShardDoRegistro(planoId, () -> planoAlimentarRepository.findClienteIdById(planoId), clienteId -> {
+            shards.verificarEscrita(clienteId);
+            if (jdbcTemplate.queryForList(TRAVAR_REFEICAO, Long.class, refeicaoId, planoId).isEmpty()) {
+                if (clienteId == null && !planoAlimentarRepository.existsById(planoId)) {
+                    return Optional.empty();
+                }
+                throw new RuntimeException("Refeição não encontrada");
+            }
+            return Optional.of(acao.get());
+        });
+    }
+
+    private ItemRefeicao item(Long refeicaoId, int indice) {
+        List<ItemRefeicao> itens = jdbcTemplate.query(ITEM, (rs, i) -> {
+            ItemRefeicao item = new ItemRefeicao(rs.getLong(1), rs.getDouble(2), rs.getString(3));
+            item.setObservacoes(rs.getString(4));
+            // Items counted before contributions were stored have none
+            if (rs.getObject(5) != null) {
+                item.setContribuicao(valores(rs, 5));
+            }
+            return item;
+        }, refeicaoId, indice);
+        if (itens.isEmpty()) {
+            throw new RuntimeException("Item não encontrado");
+        }
+        return itens.get(0);
+    }
+
+    private static Object[] colunas(ItemRefeicao item, Long refeicaoId, int indice) {
+        ValoresNutricionais c = item.getContribuicao();
+        return new Object[]{item.getAlimentoId(), item.getQuantidade(), item.getUnidade(), item.getObservacoes(),
+                c.getCalorias(), c.getProteinas(), c.getCarboidratos(), c.getGorduras(), c.getFibras(), refeicaoId, indice};
+    }
+
+    private static ValoresNutricionais valores(ResultSet rs, int coluna) throws SQLException {
+        return new ValoresNutricionais(rs.getObject(coluna, Double.class), rs.getObject(coluna + 1, Double.class),
+                rs.getObject(coluna + 2, Double.class), rs.getObject(coluna + 3, Double.class),
+                rs.getObject(coluna + 4, Double.class));
+    }
+
+    // What the new contribution adds minus what the old one had added; either may be absent
+    private static ValoresNutricionais delta(ValoresNutricionais novo, ValoresNutricionais antigo) {
+        ValoresNutricionais delta = ValoresNutricionais.zero();
+        if (novo != null) {
+            delta.somar(novo, 1);
+        }
+        if (antigo != null) {
+            delta.somar(antigo, -1);
+        }
+        return delta;
+    }
+
+    private AlteracaoItemDto alteracao(Long planoId, Long refeicaoId, int indice, ItemRefeicao item, ValoresNutricionais delta) {
+        jdbcTemplate.update(SOMAR_REFEICAO, delta.getCalorias(), delta.getProteinas(), delta.getCarboidratos(),
+                delta.getGorduras(), delta.getFibras(), refeicaoId);
+        jdbcTemplate.update(SOMAR_PLANO, delta.getCalorias(), delta.getProteinas(), delta.getCarboidratos(),
+                delta.getGorduras(), delta.getFibras(), LocalDateTime.now(), planoId);
+
+        AlteracaoItemDto dto = new AlteracaoItemDto();
+        dto.setPlanoId(planoId.toString());
+        dto.setRefeicaoId(refeicaoId.toString());
+        dto.setIndice(indice);
+        if (item != null) {
+            ItemRefeicaoDto itemDto = new ItemRefeicaoDto(item);
+            CatalogoAlimentos.Snapshot s = catalogo.snapshot();
+            int doc = s.documentoDoId(item.getAlimentoId());
+            itemDto.setAlimentoNome(doc >= 0 ? s.nome(doc) : null);
+            dto.setItem(itemDto);
+        }
+        jdbcTemplate.query(TOTAIS, rs -> {
+            dto.setTotaisRefeicao(valores(rs, 1));
+            dto.setTotaisPlano(valores(rs, 6));
+            dto.setVersaoPlano(rs.getLong(11));
+        }, refeicaoId);
+        return dto;
+    }
+
+    private void updatePlanoFromDto(PlanoAlimentar plano, PlanoAlimentarDto dto) {
+        plano.setNome(dto.getNome());
+        if (dto.getObjetivo() != null) {
+            plano.setObjetivo(dto.getObjetivo());
+        }
+        plano.setDataInicio(dto.getDataInicio());
+        plano.setDataFim(dto.getDataFim());
+        if (dto.getStatus() != null) {
+            plano.setStatus(dto.getStatus());
+        }
+        plano.setMetas(dto.getMetas() != null ? dto.getMetas() : new ValoresNutricionais());
+        plano.setObservacoes(dto.getObservacoes());
+
+        plano.getRefeicoes().clear();
+        int ordem = 0;
+        for (RefeicaoDto refeicaoDto : dto.getRefeicoes()) {
+            Refeicao refeicao = new Refeicao(refeicaoDto.getNome(), refeicaoDto.getTipo());
+            refeicao.setHorario(refeicaoDto.getHorario());
+            refeicao.setObservacoes(refeicaoDto.getObservacoes());
+            refeicao.setOrdem(ordem++);
+            for (ItemRefeicaoDto itemDto : refeicaoDto.getItens()) {
+                refeicao.getItens().add(toItem(itemDto));
+            }
+            plano.addRefeicao(refeicao);
+        }
+        calculadora.recalcular(plano);
+    }
+
+    private static ItemRefeicao toItem(ItemRefeicaoDto dto) {
+        ItemRefeicao item = new ItemRefeicao(dto.getAlimentoId(), dto.getQuantidade(),
+                dto.getUnidade() != null ? dto.getUnidade() : "g");
+        item.setObservacoes(dto.getObservacoes());
+        return item;
+    }
+
+    private PlanoAlimentarDto toDto(PlanoAlimentar plano) {
+        PlanoAlimentarDto dto = new PlanoAlimentarDto(plano);
+        CatalogoAlimentos.Snapshot s = catalogo.snapshot();
+        for (RefeicaoDto refeicao : dto.getRefeicoes()) {
+            for (ItemRefeicaoDto item : refeicao.getItens()) {
+                int doc = s.documentoDoId(item.getAlimentoId());
+                item.setAlimentoNome(doc >= 0 ? s.nome(doc) : null);
+            }
+        }
+        return dto;
+    }
+}
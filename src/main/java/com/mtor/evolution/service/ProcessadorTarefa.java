@@ -0,0 +1,14 @@
+package com.mtor.evolution.service;
+
+/**
+ * Runs the jobs of one type from {@link FilaTarefas}. A job may run more
+ * than once (retries, or a worker outliving its visibility timeout), so
+ * processing should be idempotent or tolerate repeats. Throwing schedules a
+ * retry with backoff until the job's attempts are used up.
+ */
+public interface ProcessadorTarefa {
+
+    String tipo();
+
+    void processar(String payload) throws Exception;
+}
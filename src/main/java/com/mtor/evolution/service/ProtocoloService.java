@@ -0,0 +1,253 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.ProtocoloDto;
+import com.mtor.evolution.model.Protocolo;
+import com.mtor.evolution.repository.ProtocoloRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Protocols. Templates are read from {@link CatalogoProtocolos}; writes to a
+ * template rebuild the catalog, on every instance, once the transaction
+ * commits.
+ *
+ * <p>A personalized protocol derived from a template only stores the fields
+ * that differ from it. Submitting a value equal to the template's keeps the
+ * field shared, so later template edits still reach it; submitting null
+ * reverts an overridden field to the template.
+ */
+@Service
+public class ProtocoloService {
+
+    @Autowired
+    private ProtocoloRepository protocoloRepository;
+
+    @Autowired
+    private CatalogoProtocolos catalogo;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    @Transactional(readOnly = true)
+    public Page<ProtocoloDto> findAll(Pageable pageable, String search, Protocolo.Tipo tipo) {
+        Page<Protocolo> protocolos;
+        if (search != null && !search.trim().isEmpty()) {
+            protocolos = protocoloRepository.findBySearchTerm(search.trim(), tipo, pageable);
+        } else if (tipo != null) {
+            protocolos = protocoloRepository.findByTipo(tipo, pageable);
+        } else {
+            protocolos = protocoloRepository.findAll(pageable);
+        }
+        return protocolos.map(this::resolver);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ProtocoloDto> findById(UUID id) {
+        return protocoloRepository.findById(id).map(this::resolver);
+    }
+
+    @Transactional
+    public ProtocoloDto save(ProtocoloDto dto) {
+        Protocolo protocolo = new Protocolo();
+        protocolo.setTipo(dto.getTipo());
+        ProtocoloDto modelo = null;
+        if (dto.getProtocoloBaseId() != null) {
+            if (dto.getTipo() != Protocolo.Tipo.PERSONALIZADO) {
+                throw new RuntimeException("Apenas protocolos personalizados podem derivar de um modelo");
+            }
+            modelo = modelo(UUID.fromString(dto.getProtocoloBaseId()));
+            protocolo.setProtocoloBaseId(UUID.fromString(modelo.getId()));
+            protocolo.setVersaoBase(modelo.getVersao());
+        }
+        updateProtocoloFromDto(protocolo, dto, modelo);
+        protocolo = protocoloRepository.saveAndFlush(protocolo);
+        recarregarCatalogoSeModelo(protocolo);
+        return resolver(protocolo);
+    }
+
+    @Transactional
+    public Optional<ProtocoloDto> update(UUID id, ProtocoloDto dto) {
+        return protocoloRepository.findById(id).map(protocolo -> {
+            if (dto.getTipo() != null && dto.getTipo() != protocolo.getTipo()) {
+                throw new RuntimeException("Tipo do protocolo não pode ser alterado");
+            }
+            ProtocoloDto modelo = protocolo.isDerivado() ? modelo(protocolo.getProtocoloBaseId()) : null;
+            updateProtocoloFromDto(protocolo, dto, modelo);
+            protocolo = protocoloRepository.saveAndFlush(protocolo);
+            recarregarCatalogoSeModelo(protocolo);
+            return resolver(protocolo);
+        });
+    }
+
+    @Transactional
+    public Optional<ProtocoloDto> updateStatus(UUID id, Protocolo.Status status) {
+        return protocoloRepository.findById(id).map(protocolo -> {
+            protocolo.setStatus(status);
+            protocolo = protocoloRepository.saveAndFlush(protocolo);
+            recarregarCatalogoSeModelo(protocolo);
+            return resolver(protocolo);
+        });
+    }
+
+    /** New personalized protocol sharing everything but its name with the template. */
+    @Transactional
+    public ProtocoloDto personalizar(UUID modeloId, String nome) {
+        ProtocoloDto modelo = modelo(modeloId);
+        Protocolo protocolo = new Protocolo();
+        protocolo.setNome(nome != null && !nome.isBlank() ? nome.trim() : modelo.getNome() + " (personalizado)");
+        protocolo.setTipo(Protocolo.Tipo.PERSONALIZADO);
+        protocolo.setProtocoloBaseId(modeloId);
+        protocolo.setVersaoBase(modelo.getVersao());
+        protocolo = protocoloRepository.saveAndFlush(protocolo);
+        return resolver(protocolo);
+    }
+
+    /**
+     * Deleting a template first gives every protocol derived from it a full
+     * copy of the fields it was still sharing.
+     */
+    @Transactional
+    public boolean delete(UUID id) {
+        Optional<Protocolo> existente = protocoloRepository.findById(id);
+        if (existente.isEmpty()) {
+            return false;
+        }
+        Protocolo protocolo = existente.get();
+        if (protocolo.getTipo() == Protocolo.Tipo.PRE_DEFINIDO) {
+            ProtocoloDto modelo = new ProtocoloDto(protocolo);
+            for (Protocolo derivado : protocoloRepository.findByProtocoloBaseId(id)) {
+                herdar(derivado, modelo);
+                derivado.setProtocoloBaseId(null);
+                derivado.setVersaoBase(null);
+            }
+            protocoloRepository.flush();
+        }
+        protocoloRepository.delete(protocolo);
+        recarregarCatalogoSeModelo(protocolo);
+        return true;
+    }
+
+    private ProtocoloDto resolver(Protocolo protocolo) {
+        ProtocoloDto dto = new ProtocoloDto(protocolo);
+        if (!protocolo.isDerivado()) {
+            preencherListasVazias(dto);
+            return dto;
+        }
+        ProtocoloDto modelo = buscarModelo(protocolo.getProtocoloBaseId()).orElse(null);
+        List<String> personalizados = new ArrayList<>();
+        if (modelo == null) {
+            // Template removed by another instance before it was materialized here
+            preencherListasVazias(dto);
+            dto.setCamposPersonalizados(personalizados);
+            return dto;
+        }
+        if (dto.getDescricao() != null) personalizados.add("descricao"); else dto.setDescricao(modelo.getDescricao());
+        if (dto.getNivel() != null) personalizados.add("nivel"); else dto.setNivel(modelo.getNivel());
+        if (dto.getDuracaoSemanas() != null) personalizados.add("duracaoSemanas"); else dto.setDuracaoSemanas(modelo.getDuracaoSemanas());
+        if (dto.getObjetivo() != null) personalizados.add("objetivo"); else dto.setObjetivo(modelo.getObjetivo());
+        if (dto.getObservacoes() != null) personalizados.add("observacoes"); else dto.setObservacoes(modelo.getObservacoes());
+        if (dto.getExercicios() != null) personalizados.add("exercicios"); else dto.setExercicios(modelo.getExercicios());
+        if (dto.getAnexos() != null) personalizados.add("anexos"); else dto.setAnexos(modelo.getAnexos());
+        if (dto.getLinks() != null) personalizados.add("links"); else dto.setLinks(modelo.getLinks());
+        dto.setCamposPersonalizados(personalizados);
+        return dto;
+    }
+
+    private ProtocoloDto modelo(UUID id) {
+        return buscarModelo(id).orElseThrow(() -> new RuntimeException("Protocolo modelo não encontrado: " + id));
+    }
+
+    private Optional<ProtocoloDto> buscarModelo(UUID id) {
+        CatalogoProtocolos.Entrada entrada = catalogo.snapshot().get(id);
+        if (entrada != null) {
+            return Optional.of(entrada.getProtocolo());
+        }
+        // Created on another instance since the last catalog check
+        return protocoloRepository.findById(id)
+                .filter(p -> p.getTipo() == Protocolo.Tipo.PRE_DEFINIDO)
+                .map(ProtocoloDto::new);
+    }
+
+    private void updateProtocoloFromDto(Protocolo protocolo, ProtocoloDto dto, ProtocoloDto modelo) {
+        protocolo.setNome(dto.getNome());
+        if (dto.getStatus() != null) {
+            protocolo.setStatus(dto.getStatus());
+        }
+        if (modelo != null) {
+            protocolo.setDescricao(proprio(dto.getDescricao(), modelo.getDescricao()));
+            protocolo.setNivel(proprio(dto.getNivel(), modelo.getNivel()));
+            protocolo.setDuracaoSemanas(proprio(dto.getDuracaoSemanas(), modelo.getDuracaoSemanas()));
+            protocolo.setObjetivo(proprio(dto.getObjetivo(), modelo.getObjetivo()));
+            protocolo.setObservacoes(proprio(dto.getObservacoes(), modelo.getObservacoes()));
+            protocolo.setExercicios(proprio(dto.getExercicios(), modelo.getExercicios()));
+            protocolo.setAnexos(proprio(dto.getAnexos(), modelo.getAnexos()));
+            protocolo.setLinks(proprio(dto.getLinks(), modelo.getLinks()));
+            return;
+        }
+        protocolo.setDescricao(dto.getDescricao());
+        protocolo.setNivel(dto.getNivel());
+        protocolo.setDuracaoSemanas(dto.getDuracaoSemanas());
+        protocolo.setObjetivo(dto.getObjetivo());
+        protocolo.setObservacoes(dto.getObservacoes());
+        protocolo.setExercicios(dto.getExercicios() != null ? new ArrayList<>(dto.getExercicios()) : new ArrayList<>());
+        protocolo.setAnexos(dto.getAnexos() != null ? new ArrayList<>(dto.getAnexos()) : new ArrayList<>());
+        protocolo.setLinks(dto.getLinks() != null ? new ArrayList<>(dto.getLinks()) : new ArrayList<>());
+        if (protocolo.getDescricao() == null || protocolo.getDescricao().isBlank()) {
+            throw new RuntimeException("Descrição é obrigatória");
+        }
+        if (protocolo.getNivel() == null) {
+            throw new RuntimeException("Nível é obrigatório");
+        }
+        if (protocolo.getDuracaoSemanas() == null) {
+            throw new RuntimeException("Duração em semanas é obrigatória");
+        }
+        if (protocolo.getObjetivo() == null || protocolo.getObjetivo().isBlank()) {
+            throw new RuntimeException("Objetivo é obrigatório");
+        }
+    }
+
+    // Copy down whatever the derived protocol still shares with the template
+    private static void herdar(Protocolo derivado, ProtocoloDto modelo) {
+        if (derivado.getDescricao() == null) derivado.setDescricao(modelo.getDescricao());
+        if (derivado.getNivel() == null) derivado.setNivel(modelo.getNivel());
+        if (derivado.getDuracaoSemanas() == null) derivado.setDuracaoSemanas(modelo.getDuracaoSemanas());
+        if (derivado.getObjetivo() == null) derivado.setObjetivo(modelo.getObjetivo());
+        if (derivado.getObservacoes() == null) derivado.setObservacoes(modelo.getObservacoes());
+        if (derivado.getExercicios() == null) derivado.setExercicios(copia(modelo.getExercicios()));
+        if (derivado.getAnexos() == null) derivado.setAnexos(copia(modelo.getAnexos()));
+        if (derivado.getLinks() == null) derivado.setLinks(copia(modelo.getLinks()));
+    }
+
+    private static <T> T proprio(T valor, T herdado) {
+        return valor == null || Objects.equals(valor, herdado) ? null : valor;
+    }
+
+    private static <T> List<T> proprio(List<T> valor, List<T> herdado) {
+        return valor == null || Objects.equals(valor, herdado) ? null : new ArrayList<>(valor);
+    }
+
+    private static <T> List<T> copia(List<T> lista) {
+        return lista != null ? new ArrayList<>(lista) : new ArrayList<>();
+    }
+
+    private static void preencherListasVazias(ProtocoloDto dto) {
+        if (dto.getExercicios() == null) dto.setExercicios(List.of());
+        if (dto.getAnexos() == null) dto.setAnexos(List.of());
+        if (dto.getLinks() == null) dto.setLinks(List.of());
+    }
+
+    private void recarregarCatalogoSeModelo(Protocolo protocolo) {
+        if (protocolo.getTipo() == Protocolo.Tipo.PRE_DEFINIDO) {
+            invalidacao.publicarTudo(BarramentoInvalidacao.PROTOCOLOS);
+        }
+    }
+}
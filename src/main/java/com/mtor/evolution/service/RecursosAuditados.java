@@ -0,0 +1,77 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.model.ArquivoExame;
+import com.mtor.evolution.repository.ArquivoExameRepository;
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
+import com.mtor.evolution.repository.ClienteRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The client a health record belongs to, so every audit event can be found
+ * by the per-client audit query. Also the list of records a client app may
+ * report an access to through {@code POST /auditoria}.
+ */
+@Service
+public class RecursosAuditados {
+
+    public static final String CLIENTE = "CLIENTE";
+    public static final String AVALIACAO = "AVALIACAO";
+    public static final String EXAME = "EXAME";
+    public static final String ARQUIVO_EXAME = "ARQUIVO_EXAME";
+
+    public static final Set<String> RECURSOS = Set.of(CLIENTE, AVALIACAO, EXAME, ARQUIVO_EXAME);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private ArquivoExameRepository arquivoExameRepository;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    /** Owning client of the record, empty if the record does not exist. */
+    public Optional<Long> clienteDe(String recurso, String recursoId) {
+        Long id = parseId(recursoId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        switch (recurso) {
+            case CLIENTE:
+                return shards.noShardDoCliente(id, () -> clienteRepository.existsById(id)) ? Optional.of(id) : Optional.empty();
+            // The others are found by id alone, first on the shard that allocated it
+            case AVALIACAO:
+                return shards.localizar(id, () -> avaliacaoFisicaRepository.findClienteIdById(id));
+            case EXAME:
+                return shards.localizar(id, () -> exameRepository.findClienteIdById(id));
+            case ARQUIVO_EXAME:
+                return shards.localizar(id, () -> arquivoExameRepository.findById(id).map(ArquivoExame::getExameId))
+                        .flatMap(this::clienteDoExame);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    public Optional<Long> clienteDoExame(String exameId) {
+        return clienteDe(EXAME, exameId);
+    }
+
+    private static Long parseId(String valor) {
+        try {
+            return valor != null ? Long.valueOf(valor.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
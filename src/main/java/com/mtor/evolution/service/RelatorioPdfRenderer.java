@@ -0,0 +1,168 @@
+package com.mtor.evolution.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.mtor.evolution.dto.AvaliacaoFisicaDto;
+import com.mtor.evolution.dto.ExameDto;
+import com.mtor.evolution.model.ResultadoExame;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Component
+@Lazy
+public class RelatorioPdfRenderer {
+
+    // Rows are flushed to the writer in chunks so long tables never sit whole in memory
+    private static final int ROWS_PER_FLUSH = 50;
+
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final Font TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font SUBTITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    private static final Font TEXTO = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font TEXTO_NEGRITO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+
+    public void renderAvaliacao(AvaliacaoFisicaDto avaliacao, OutputStream out) {
+        Document document = new Document(PageSize.A4, 36, 36, 48, 36);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            document.add(new Paragraph("Avaliação Física", TITULO));
+            document.add(new Paragraph(avaliacao.getClienteNome() + " — "
+                    + avaliacao.getDataAvaliacao().format(DATA) + " (" + avaliacao.getTipo() + ")", TEXTO));
+
+            secao(document, "Dados Antropométricos");
+            PdfPTable antropometria = tabela(2);
+            linha(antropometria, "Peso (kg)", avaliacao.getPeso());
+            linha(antropometria, "Altura (cm)", avaliacao.getAltura());
+            linha(antropometria, "IMC", avaliacao.getImc());
+            document.add(antropometria);
+
+            secao(document, "Composição Corporal");
+            PdfPTable composicao = tabela(2);
+            linha(composicao, "Gordura (%)", avaliacao.getPercentualGordura());
+            linha(composicao, "Massa gorda (kg)", avaliacao.getMassaGorda());
+            linha(composicao, "Massa magra (kg)", avaliacao.getMassaMagra());
+            linha(composicao, "Massa muscular (kg)", avaliacao.getMassaMuscular());
+            document.add(composicao);
+
+            secao(document, "Cardiovascular");
+            PdfPTable cardio = tabela(2);
+            linha(cardio, "FC repouso (bpm)", avaliacao.getFrequenciaCardiacaRepouso());
+            linha(cardio, "FC máxima (bpm)", avaliacao.getFrequenciaCardiacaMaxima());
+            linha(cardio, "Pressão arterial (mmHg)", avaliacao.getPressaoSistolica() != null
+                    ? avaliacao.getPressaoSistolica() + "/" + avaliacao.getPressaoDiastolica() : null);
+            document.add(cardio);
+
+            if (avaliacao.getObservacoes() != null) {
+                secao(document, "Observações");
+                document.add(new Paragraph(avaliacao.getObservacoes(), TEXTO));
+            }
+            if (avaliacao.getProximaAvaliacao() != null) {
+                document.add(new Paragraph("Próxima avaliação: " + avaliacao.getProximaAvaliacao().format(DATA), TEXTO_NEGRITO));
+            }
+        } catch (DocumentException e) {
+            throw new RuntimeException("Erro ao gerar relatório da avaliação", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    public void renderExame(ExameDto exame, OutputStream out) {
+        Document document = new Document(PageSize.A4, 36, 36, 48, 36);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            document.add(new Paragraph(exame.getTipoExame(), TITULO));
+            document.add(new Paragraph(exame.getClienteNome() + " — coleta em "
+                    + exame.getDataColeta().format(DATA_HORA), TEXTO));
+            if (exame.getLaboratorio() != null) {
+                document.add(new Paragraph("Laboratório: " + exame.getLaboratorio(), TEXTO));
+            }
+            if (exame.getMedicoSolicitante() != null) {
+                document.add(new Paragraph("Solicitante: " + exame.getMedicoSolicitante(), TEXTO));
+            }
+
+            secao(document, "Resultados");
+            PdfPTable resultados = new PdfPTable(new float[]{3, 2, 1.2f, 2.5f, 1.5f});
+            resultados.setWidthPercentage(100);
+            resultados.setHeaderRows(1);
+            resultados.setComplete(false);
+            for (String cabecalho : List.of("Parâmetro", "Valor", "Unidade", "Referência", "Status")) {
+                resultados.addCell(celula(cabecalho, TEXTO_NEGRITO));
+            }
+            int linhas = 0;
+            for (ResultadoExame resultado : exame.getResultados()) {
+                resultados.addCell(celula(resultado.getParametro(), TEXTO));
+                resultados.addCell(celula(resultado.getValor(), TEXTO));
+                resultados.addCell(celula(resultado.getUnidade(), TEXTO));
+                resultados.addCell(celula(resultado.getValorReferencia(), TEXTO));
+                resultados.addCell(celula(resultado.getStatus() != null ? resultado.getStatus().name() : null,
+                        resultado.getStatus() == ResultadoExame.Status.NORMAL ? TEXTO : TEXTO_NEGRITO));
+                if (++linhas % ROWS_PER_FLUSH == 0) {
+                    document.add(resultados);
+                }
+            }
+            resultados.setComplete(true);
+            document.add(resultados);
+
+            if (exame.getObservacoesMedicas() != null) {
+                secao(document, "Observações médicas");
+                document.add(new Paragraph(exame.getObservacoesMedicas(), TEXTO));
+            }
+            if (exame.getObservacoes() != null) {
+                secao(document, "Observações");
+                document.add(new Paragraph(exame.getObservacoes(), TEXTO));
+            }
+        } catch (DocumentException e) {
+            throw new RuntimeException("Erro ao gerar relatório do exame", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private void secao(Document document, String titulo) throws DocumentException {
+        Paragraph paragraph = new Paragraph(titulo, SUBTITULO);
+        paragraph.setSpacingBefore(12);
+        paragraph.setSpacingAfter(6);
+        document.add(paragraph);
+    }
+
+    private PdfPTable tabela(int colunas) {
+        PdfPTable table = new PdfPTable(colunas);
+        table.setWidthPercentage(100);
+        return table;
+    }
+
+    private void linha(PdfPTable table, String rotulo, Object valor) {
+        table.addCell(celula(rotulo, TEXTO_NEGRITO));
+        table.addCell(celula(valor != null ? valor.toString() : "-", TEXTO));
+    }
+
+    private PdfPCell celula(String texto, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(texto != null ? texto : "-", font));
+        cell.setPadding(4);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        return cell;
+    }
+}
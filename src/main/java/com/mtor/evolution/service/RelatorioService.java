@@ -0,0 +1,341 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AvaliacaoFisicaDto;
+import com.mtor.evolution.dto.ExameDto;
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Renders PDF reports on the report worker pool. The request that starts a
+ * render reads it through a pipe as the worker writes it, so a large report
+ * never sits whole in memory on its way out. A copy is kept on the side
+ * while it stays within {@code reports.cache.max-entry-bytes}; finished copies
+ * are cached keyed by entity id, JPA version and the client's change sequence,
+ * so an unchanged entity is served straight from the cache. Concurrent
+ * requests for the same version wait for that copy instead of rendering again.
+ * The PDFs are health data, so they are never written to disk: the cache is a
+ * least-recently-used map bounded by {@code reports.cache.max-bytes}.
+ */
+@Service
+@Lazy
+public class RelatorioService {
+
+    private static final int BUFFER_PIPE = 64 * 1024;
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private RelatorioPdfRenderer renderer;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    @Qualifier("reportExecutor")
+    private TaskExecutor reportExecutor;
+
+    @Value("${reports.cache.max-bytes:67108864}")
+    private long maxBytesCache;
+
+    @Value("${reports.cache.max-entry-bytes:8388608}")
+    private long maxBytesEntrada;
+
+    // Completes with the cached copy, or null once the report outgrew the per-entry limit
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> emAndamento = new ConcurrentHashMap<>();
+
+    // Access-ordered, so the eldest entry is the least recently served
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytesCache;
+
+    public Optional<Renderizacao> avaliacao(Long id) {
+        return shards.noShardDoRegistro(id, () -> avaliacaoFisicaRepository.findClienteIdById(id), clienteId ->
+                avaliacaoNoShard(id));
+    }
+
+    public Optional<Renderizacao> exame(Long id) {
+        return shards.noShardDoRegistro(id, () -> exameRepository.findClienteIdById(id), clienteId ->
+                exameNoShard(id));
+    }
+
+    // Both the version check and the snapshot read the shard the caller routed to
+    private Optional<Renderizacao> avaliacaoNoShard(Long id) {
+        return avaliacaoFisicaRepository.findVersoesRelatorioById(id).stream().findFirst().map(versoes ->
+                obter(chave("avaliacao", id, versoes), (Long) versoes[2], () -> {
+                    AvaliacaoFisicaDto snapshot = avaliacaoFisicaRepository.findWithClienteById(id)
+                            .map(AvaliacaoFisicaDto::new)
+                            .orElseThrow(() -> new RuntimeException("Avaliação não encontrada"));
+                    return out -> renderer.renderAvaliacao(snapshot, out);
+                }));
+    }
+
+    private Optional<Renderizacao> exameNoShard(Long id) {
+        return exameRepository.findVersoesRelatorioById(id).stream().findFirst().map(versoes ->
+                obter(chave("exame", id, versoes), (Long) versoes[2], () -> {
+                    ExameDto snapshot = exameRepository.findWithResultadosById(id)
+                            .map(ExameDto::new)
+                            .orElseThrow(() -> new RuntimeException("Exame não encontrado"));
+                    return out -> renderer.renderExame(snapshot, out);
+                }));
+    }
+
+    private Renderizacao obter(String chave, Long clienteId, SnapshotLoader loader) {
+        byte[] pdf = doCache(chave);
+        if (pdf != null) {
+            return new Renderizacao(chave, clienteId, CompletableFuture.completedFuture(pdf), null);
+        }
+
+        CompletableFuture<byte[]> novo = new CompletableFuture<>();
+        CompletableFuture<byte[]> existente = emAndamento.putIfAbsent(chave, novo);
+        if (existente != null) {
+            return new Renderizacao(chave, clienteId, existente, null);
+        }
+
+        try {
+            // The snapshot is taken on the request thread so workers never touch the persistence context
+            Consumer<OutputStream> render = loader.load();
+            PipedInputStream leitura = new PipedInputStream(BUFFER_PIPE);
+            SaidaRelatorio saida = new SaidaRelatorio(new PipedOutputStream(leitura), () -> emAndamento.remove(chave, novo));
+            reportExecutor.execute(() -> {
+                try {
+                    render.accept(saida);
+                    byte[] copia = saida.copia();
+                    if (copia != null) {
+                        guardar(chave, copia);
+                    }
+                    novo.complete(copia);
+                } catch (Throwable t) {
+                    novo.completeExceptionally(t);
+                } finally {
+                    emAndamento.remove(chave, novo);
+                    // After the result, so a reader that reaches the end can tell a failed render from a finished one
+                    saida.fechar();
+                }
+            });
+            return new Renderizacao(chave, clienteId, novo, new Fluxo(leitura, saida.inicio, novo));
+        } catch (IOException e) {
+            emAndamento.remove(chave, novo);
+            novo.completeExceptionally(e);
+            throw new UncheckedIOException("Erro ao gerar relatório", e);
+        } catch (RuntimeException e) {
+            emAndamento.remove(chave, novo);
+            novo.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private synchronized byte[] doCache(String chave) {
+        return cache.get(chave);
+    }
+
+    private synchronized void guardar(String chave, byte[] pdf) {
+        // Older versions of the same report are never asked for again
+        String prefixo = chave.substring(0, chave.indexOf("-v") + 2);
+        for (Iterator<Map.Entry<String, byte[]>> it = cache.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, byte[]> entrada = it.next();
+            if (entrada.getKey().startsWith(prefixo)) {
+                bytesCache -= entrada.getValue().length;
+                it.remove();
+            }
+        }
+        if (pdf.length > maxBytesCache) {
+            return;
+        }
+        cache.put(chave, pdf);
+        bytesCache += pdf.length;
+        for (Iterator<byte[]> it = cache.values().iterator(); bytesCache > maxBytesCache && it.hasNext(); ) {
+            bytesCache -= it.next().length;
+            it.remove();
+        }
+    }
+
+    private String chave(String tipo, Long id, Object[] versoes) {
+        Object versaoCliente = versoes[1] != null ? versoes[1] : 0;
+        return tipo + "-" + id + "-v" + versoes[0] + "-c" + versaoCliente;
+    }
+
+    @FunctionalInterface
+    private interface SnapshotLoader {
+        Consumer<OutputStream> load();
+    }
+
+    /**
+     * What the renderer writes to: the pipe to the requester and, while it
+     * fits in the per-entry limit, a copy for the cache. A requester that
+     * went away only closes the pipe, and the render goes on for the cache;
+     * with neither left to write to, the render is abandoned.
+     */
+    private final class SaidaRelatorio extends OutputStream {
+
+        private final PipedOutputStream pipe;
+        private final Runnable aoDescartarCopia;
+        private final CompletableFuture<Void> inicio = new CompletableFuture<>();
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+        private boolean leitorPresente = true;
+
+        SaidaRelatorio(PipedOutputStream pipe, Runnable aoDescartarCopia) {
+            this.pipe = pipe;
+            this.aoDescartarCopia = aoDescartarCopia;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            inicio.complete(null);
+            if (copia != null) {
+                if (copia.size() + (long) len > maxBytesEntrada) {
+                    copia = null;
+                    // Too large to cache, so later requests must not wait for this render
+                    aoDescartarCopia.run();
+                } else {
+                    copia.write(b, off, len);
+                }
+            }
+            if (leitorPresente) {
+                try {
+                    pipe.write(b, off, len);
+                } catch (IOException e) {
+                    leitorPresente = false;
+                }
+            }
+            if (!leitorPresente && copia == null) {
+                throw new IOException("Relatório abandonado: sem leitor e grande demais para o cache");
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (leitorPresente) {
+                try {
+                    pipe.flush();
+                } catch (IOException e) {
+                    leitorPresente = false;
+                }
+            }
+        }
+
+        // The renderer closes its stream when the document ends; the pipe is closed by fechar()
+        @Override
+        public void close() {
+            flush();
+        }
+
+        byte[] copia() {
+            return copia != null ? copia.toByteArray() : null;
+        }
+
+        void fechar() {
+            inicio.complete(null);
+            try {
+                pipe.close();
+            } catch (IOException ignored) {
+                // The reader is gone already
+            }
+        }
+    }
+
+    /**
+     * The requester's end of a render: the bytes as the worker writes them.
+     * Reaching the end of a render that failed is an error, not a short PDF.
+     */
+    public static final class Fluxo extends FilterInputStream {
+
+        private final CompletableFuture<Void> inicio;
+        private final CompletableFuture<byte[]> resultado;
+
+        private Fluxo(InputStream pipe, CompletableFuture<Void> inicio, CompletableFuture<byte[]> resultado) {
+            super(pipe);
+            this.inicio = inicio;
+            this.resultado = resultado;
+        }
+
+        /** Completes once the worker has written something, or has finished. */
+        public CompletableFuture<Void> getInicio() { return inicio; }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                verificar();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int lidos = super.read(b, off, len);
+            if (lidos == -1) {
+                verificar();
+            }
+            return lidos;
+        }
+
+        private void verificar() throws IOException {
+            try {
+                resultado.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Geração do relatório interrompida");
+            } catch (ExecutionException e) {
+                throw new IOException("Erro ao gerar relatório", e.getCause());
+            }
+        }
+    }
+
+    public static class Renderizacao {
+
+        private final String chave;
+        private final Long clienteId;
+        private final CompletableFuture<byte[]> pdf;
+        private final Fluxo fluxo;
+
+        public Renderizacao(String chave, Long clienteId, CompletableFuture<byte[]> pdf, Fluxo fluxo) {
+            this.chave = chave;
+            this.clienteId = clienteId;
+            this.pdf = pdf;
+            this.fluxo = fluxo;
+        }
+
+        public String getChave() { return chave; }
+
+        public Long getClienteId() { return clienteId; }
+
+        /** The whole PDF, or null when it was too large to cache. */
+        public CompletableFuture<byte[]> getPdf() { return pdf; }
+
+        /** The render this request started, to be read or closed; null when it was served from the cache or joined another. */
+        public Fluxo getFluxo() { return fluxo; }
+    }
+}
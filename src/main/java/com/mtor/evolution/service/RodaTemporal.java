@@ -0,0 +1,175 @@
+package com.mtor.evolution.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel. Four levels of 64 slots each cover 64^4 ticks;
+ * an entry sits in the lowest level whose span reaches its due tick and is
+ * moved one level down each time the clock enters its slot's range, so
+ * scheduling, cancelling and firing are O(1) per entry no matter how many
+ * are pending. Entries further out than the wheel's span wait in a separate
+ * list and are looked at again whenever the top level moves on.
+ *
+ * <p>Entries are keyed; scheduling an existing key replaces it. Not
+ * thread-safe on its own: callers synchronize.
+ */
+public class RodaTemporal<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASCARA = SLOTS - 1;
+    private static final int NIVEIS = 4;
+    private static final int DISTANTE = NIVEIS;
+
+    private final long tickMs;
+    private final No<T>[][] slots;
+    private No<T> distantes;
+    private final Map<Object, No<T>> porChave = new HashMap<>();
+    // Next tick to be processed
+    private long tickAtual;
+
+    @SuppressWarnings("unchecked")
+    public RodaTemporal(long tickMs, long agoraMs) {
+        this.tickMs = tickMs;
+        this.slots = new No[NIVEIS][SLOTS];
+        this.tickAtual = agoraMs / tickMs;
+    }
+
+    public int tamanho() {
+        return porChave.size();
+    }
+
+    public Set<Object> chaves() {
+        return new HashSet<>(porChave.keySet());
+    }
+
+    /** Schedules {@code valor} at {@code venceEmMs}; a time already past fires with the next tick. */
+    public void agendar(Object chave, long venceEmMs, T valor) {
+        cancelar(chave);
+        No<T> no = new No<>(chave, Math.max(venceEmMs / tickMs, tickAtual), valor);
+        porChave.put(chave, no);
+        inserir(no);
+    }
+
+    public boolean cancelar(Object chave) {
+        No<T> no = porChave.remove(chave);
+        if (no == null) {
+            return false;
+        }
+        desligar(no);
+        return true;
+    }
+
+    public void limpar() {
+        for (No<T>[] nivel : slots) {
+            Arrays.fill(nivel, null);
+        }
+        distantes = null;
+        porChave.clear();
+    }
+
+    /** Moves the clock to {@code agoraMs} and returns what came due, earliest first. */
+    public List<T> avancar(long agoraMs) {
+        List<T> vencidos = new ArrayList<>();
+        long alvo = agoraMs / tickMs;
+        while (tickAtual <= alvo) {
+            long tick = tickAtual;
+            // Upper levels first, so entries land in a lower slot that is still ahead
+            for (int nivel = NIVEIS - 1; nivel >= 1; nivel--) {
+                if ((tick & ((1L << (BITS * nivel)) - 1)) == 0) {
+                    if (nivel == NIVEIS - 1) {
+                        redistribuir(DISTANTE, 0);
+                    }
+                    redistribuir(nivel, (int) ((tick >>> (BITS * nivel)) & MASCARA));
+                }
+            }
+            No<T> no = slots[0][(int) (tick & MASCARA)];
+            slots[0][(int) (tick & MASCARA)] = null;
+            while (no != null) {
+                No<T> proximo = no.proximo;
+                porChave.remove(no.chave);
+                vencidos.add(no.valor);
+                no = proximo;
+            }
+            tickAtual++;
+        }
+        return vencidos;
+    }
+
+    private void redistribuir(int nivel, int slot) {
+        No<T> no = nivel == DISTANTE ? distantes : slots[nivel][slot];
+        if (nivel == DISTANTE) {
+            distantes = null;
+        } else {
+            slots[nivel][slot] = null;
+        }
+        while (no != null) {
+            No<T> proximo = no.proximo;
+            inserir(no);
+            no = proximo;
+        }
+    }
+
+    private void inserir(No<T> no) {
+        long delta = no.tick - tickAtual;
+        int nivel = 0;
+        while (nivel < NIVEIS && delta >= 1L << (BITS * (nivel + 1))) {
+            nivel++;
+        }
+        no.nivel = nivel;
+        no.anterior = null;
+        if (nivel == DISTANTE) {
+            no.proximo = distantes;
+            if (distantes != null) {
+                distantes.anterior = no;
+            }
+            distantes = no;
+            return;
+        }
+        no.slot = (int) ((no.tick >>> (BITS * nivel)) & MASCARA);
+        No<T> cabeca = slots[nivel][no.slot];
+        no.proximo = cabeca;
+        if (cabeca != null) {
+            cabeca.anterior = no;
+        }
+        slots[nivel][no.slot] = no;
+    }
+
+    private void desligar(No<T> no) {
+        if (no.anterior != null) {
+            no.anterior.proximo = no.proximo;
+        } else if (no.nivel == DISTANTE) {
+            distantes = no.proximo;
+        } else {
+            slots[no.nivel][no.slot] = no.proximo;
+        }
+        if (no.proximo != null) {
+            no.proximo.anterior = no.anterior;
+        }
+        no.anterior = null;
+        no.proximo = null;
+    }
+
+    private static final class No<T> {
+
+        final Object chave;
+        final long tick;
+        final T valor;
+        int nivel;
+        int slot;
+        No<T> anterior;
+        No<T> proximo;
+
+        No(Object chave, long tick, T valor) {
+            this.chave = chave;
+            this.tick = tick;
+            this.valor = valor;
+        }
+    }
+}
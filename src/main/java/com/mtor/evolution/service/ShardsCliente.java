@@ -0,0 +1,538 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.config.ContextoShard;
+import com.mtor.evolution.config.ShardDataSource;
+import com.mtor.evolution.model.GeradorSequenciaAlteracao;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Hash partitioning of client data when {@code sharding.enabled}. A client
+ * and everything hanging off it (see {@link #TABELAS}) live on one shard:
+ * the client id is hashed into one of {@code sharding.buckets} buckets and
+ * {@link com.mtor.evolution.model.BucketShard} says which shard owns the
+ * bucket. Resharding moves whole buckets ({@link MigracaoBucketTarefa})
+ * instead of rehashing every client. Everything else stays on shard 0.
+ *
+ * <p>Client ids are allocated here before the insert, since the shard
+ * depends on them. Child rows keep their identity columns, restarted at
+ * {@code shard << 40} on each shard so their ids stay unique when a client
+ * is moved. With sharding off every method runs its action directly.
+ */
+@Service
+public class ShardsCliente {
+
+    // 2^40 identity values per shard and table
+    static final int BITS_FAIXA = 40;
+
+    private static final String SEQUENCIA_CLIENTES = "clientes";
+
+    // Client-owned tables, parents first; each filter selects the rows of the :ids clients, and the flag
+    // marks an identity id column to restart per shard (heart-rate chunks have application-made UUIDv7 ids).
+    // Notifications are not among them: they are listed per recipient across clients, so they stay on shard 0
+    static final List<TabelaCliente> TABELAS = List.of(
+            new TabelaCliente("clientes", "id IN (:ids)", false),
+            new TabelaCliente("avaliacoes_fisicas", "cliente_id IN (:ids)", true),
+            new TabelaCliente("exames", "cliente_id IN (:ids)", true),
+            new TabelaCliente("resultados_exame",
+                    "exame_id IN (SELECT id FROM exames WHERE cliente_id IN (:ids))", false),
+            new TabelaCliente("arquivos_exame",
+                    "exame_id IN (SELECT CAST(id AS VARCHAR(255)) FROM exames WHERE cliente_id IN (:ids))", true),
+            new TabelaCliente("lembretes_avaliacao", "cliente_id IN (:ids)", true),
+            new TabelaCliente("planos_alimentares", "cliente_id IN (:ids)", true),
+            new TabelaCliente("refeicoes",
+                    "plano_id IN (SELECT id FROM planos_alimentares WHERE cliente_id IN (:ids))", true),
+            new TabelaCliente("itens_refeicao",
+                    "refeicao_id IN (SELECT r.id FROM refeicoes r JOIN planos_alimentares p ON r.plano_id = p.id " +
+                    "WHERE p.cliente_id IN (:ids))", false),
+            new TabelaCliente("sessoes_frequencia_cardiaca", "cliente_id IN (:ids)", true),
+            new TabelaCliente("blocos_frequencia_cardiaca",
+                    "sessao_id IN (SELECT id FROM sessoes_frequencia_cardiaca WHERE cliente_id IN (:ids))", false)
+    );
+
+    @Value("${sharding.enabled:false}")
+    private boolean ativo;
+
+    @Value("${sharding.buckets:64}")
+    private int numeroBuckets;
+
+    @Value("${sharding.id-block:100}")
+    private int blocoIds;
+
+    @Value("${sharding.map-refresh-ms:5000}")
+    private long intervaloMapaMs;
+
+    // Embedded H2 shards only: create the other shards' tables from shard 0's, which Hibernate created
+    @Value("${sharding.copy-schema:false}")
+    private boolean copiarEsquema;
+
+    @Autowired
+    private ObjectProvider<ShardDataSource> shardDataSource;
+
+    private ShardDataSource fontes;
+    private JdbcTemplate principal;
+    private TransactionTemplate transacaoPrincipal;
+    private ExecutorService consultas;
+    private final ScheduledExecutorService atualizacaoMapa = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mapa-shards");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Bucket -> owner shard, and -> target shard while it is being moved (null otherwise)
+    private volatile int[] donos;
+    private volatile Integer[] destinos;
+    private volatile LocalDateTime ultimaAtualizacaoMapa;
+
+    // Current block of client ids, guarded by this
+    private long proximoId;
+    private long limiteIds;
+
+    private final AtomicLong consultasRoteadas = new AtomicLong();
+    private final AtomicLong consultasDistribuidas = new AtomicLong();
+    private final AtomicLong idsAlocados = new AtomicLong();
+    private final AtomicLong escritasRecusadas = new AtomicLong();
+
+    // Before the CommandLineRunners, so DataInitializer can already place its clients
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void iniciar() {
+        if (!ativo || fontes != null) {
+            return;
+        }
+        fontes = shardDataSource.getObject();
+        principal = new JdbcTemplate(fontes.shard(0));
+        transacaoPrincipal = new TransactionTemplate(new DataSourceTransactionManager(fontes.shard(0)));
+        if (copiarEsquema) {
+            copiarEsquema();
+        }
+        reservarFaixas();
+        carregarMapa(true);
+        iniciarSequencia();
+
+        AtomicInteger sequencia = new AtomicInteger();
+        consultas = Executors.newFixedThreadPool(fontes.numeroShards() * 2, r -> {
+            Thread thread = new Thread(r, "consulta-shard-" + sequencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        atualizacaoMapa.scheduleWithFixedDelay(() -> carregarMapa(false),
+                intervaloMapaMs, intervaloMapaMs, TimeUnit.MILLISECONDS);
+        System.out.println("✅ Client sharding ready: " + fontes.numeroShards() + " shards, " + numeroBuckets + " buckets");
+    }
+
+    @PreDestroy
+    void encerrar() {
+        atualizacaoMapa.shutdownNow();
+        if (consultas != null) {
+            consultas.shutdownNow();
+        }
+    }
+
+    public boolean ativo() {
+        return ativo;
+    }
+
+    public int numeroShards() {
+        return ativo ? fontes.numeroShards() : 1;
+    }
+
+    /** Stable across restarts and shard counts; changing it would mean moving every client. */
+    public int bucket(long clienteId) {
+        long h = clienteId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) numeroBuckets);
+    }
+
+    public int shardDoCliente(long clienteId) {
+        return ativo ? donos[bucket(clienteId)] : 0;
+    }
+
+    /**
+     * Runs {@code acao} against the client's shard. It must start the
+     * transaction (or be the first statement of one), see {@link ContextoShard}.
+     */
+    public <T> T noShardDoCliente(Long clienteId, Supplier<T> acao) {
+        if (!ativo || clienteId == null) {
+            return acao.get();
+        }
+        consultasRoteadas.incrementAndGet();
+        return ContextoShard.executar(shardDoCliente(clienteId), acao);
+    }
+
+    public <T> T noShard(int shard, Supplier<T> acao) {
+        return ativo ? ContextoShard.executar(shard, acao) : acao.get();
+    }
+
+    /** Runs {@code consulta} on every shard in parallel; results indexed by shard. */
+    public <T> List<T> emTodos(IntFunction<T> consulta) {
+        if (!ativo) {
+            return List.of(consulta.apply(0));
+        }
+        consultasDistribuidas.incrementAndGet();
+        List<Future<T>> futuros = new ArrayList<>();
+        for (int i = 0; i < fontes.numeroShards(); i++) {
+            int shard = i;
+            futuros.add(consultas.submit(() -> ContextoShard.executar(shard, () -> consulta.apply(shard))));
+        }
+        return aguardar(futuros);
+    }
+
+    /**
+     * Looks up a client-owned row known only by its id (an exam, a plan, a
+     * heart-rate session...): {@code consulta} runs first on the shard that
+     * allocated the id, where the row stays unless its client was moved, and
+     * then on the others. It runs on the query pool, so the caller's
+     * transaction is not tied to a shard yet and can still be routed with
+     * {@link #noShardDoCliente} once the owning client is known.
+     */
+    public <T> Optional<T> localizar(long id, Supplier<Optional<T>> consulta) {
+        if (!ativo) {
+            return consulta.get();
+        }
+        int origem = (int) (id >>> BITS_FAIXA);
+        if (origem < fontes.numeroShards()) {
+            consultasRoteadas.incrementAndGet();
+            Optional<T> achado = aguardar(List.of(consultas.submit(() -> ContextoShard.executar(origem, consulta)))).get(0);
+            if (achado.isPresent()) {
+                return achado;
+            }
+        }
+        return emTodos(shard -> shard == origem ? Optional.<T>empty() : consulta.get()).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    /**
+     * Runs {@code acao} on the shard of the client owning row {@code id},
+     * whose client id {@code dono} looks up (see {@link #localizar}); empty
+     * when no shard has the row. {@code acao} gets the owning client, or
+     * null with sharding off, where nothing is looked up.
+     */
+    public <T> Optional<T> noShardDoRegistro(long id, Supplier<Optional<Long>> dono, Function<Long, Optional<T>> acao) {
+        if (!ativo) {
+            return acao.apply(null);
+        }
+        return localizar(id, dono).flatMap(clienteId -> noShardDoCliente(clienteId, () -> acao.apply(clienteId)));
+    }
+
+    private <T> List<T> aguardar(List<Future<T>> futuros) {
+        List<T> resultados = new ArrayList<>(futuros.size());
+        try {
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuros.forEach(futuro -> futuro.cancel(true));
+            throw new RuntimeException("Consulta aos shards interrompida");
+        } catch (ExecutionException e) {
+            futuros.forEach(futuro -> futuro.cancel(true));
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new RuntimeException("Erro ao consultar shards: " + e.getCause().getMessage(), e.getCause());
+        }
+        return resultados;
+    }
+
+    /** Client ids grouped by the shard holding them. */
+    public Map<Integer, List<Long>> porShard(Collection<Long> clienteIds) {
+        Map<Integer, List<Long>> grupos = new TreeMap<>();
+        for (Long id : clienteIds) {
+            grupos.computeIfAbsent(shardDoCliente(id), shard -> new ArrayList<>()).add(id);
+        }
+        return grupos;
+    }
+
+    // Writes to a bucket being copied would be lost when the copy flips the owner
+    public void verificarEscrita(Long clienteId) {
+        if (ativo && clienteId != null && destinos[bucket(clienteId)] != null) {
+            escritasRecusadas.incrementAndGet();
+            throw new RuntimeException("Cliente em migração entre shards, tente novamente em instantes");
+        }
+    }
+
+    public synchronized long novoIdCliente() {
+        if (!ativo) {
+            throw new IllegalStateException("Ids de cliente só são alocados com sharding.enabled");
+        }
+        if (proximoId >= limiteIds) {
+            Long fim = transacaoPrincipal.execute(status -> {
+                principal.update("UPDATE sequencias_id SET proximo = proximo + ? WHERE nome = ?",
+                        blocoIds, SEQUENCIA_CLIENTES);
+                return principal.queryForObject("SELECT proximo FROM sequencias_id WHERE nome = ?",
+                        Long.class, SEQUENCIA_CLIENTES);
+            });
+            limiteIds = fim;
+            proximoId = fim - blocoIds;
+        }
+        idsAlocados.incrementAndGet();
+        return proximoId++;
+    }
+
+    // Target owner of every bucket for the current shard count; buckets not there yet
+    public Map<Integer, Integer> planoRebalanceamento() {
+        Map<Integer, Integer> plano = new TreeMap<>();
+        if (!ativo) {
+            return plano;
+        }
+        for (int bucket = 0; bucket < numeroBuckets; bucket++) {
+            int alvo = bucket % fontes.numeroShards();
+            if (donos[bucket] != alvo) {
+                plano.put(bucket, alvo);
+            }
+        }
+        return plano;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ativo", ativo);
+        if (!ativo) {
+            return status;
+        }
+        int[] mapa = donos;
+        List<Long> clientes = emTodos(shard ->
+                new JdbcTemplate(fontes.shard(shard)).queryForObject("SELECT COUNT(*) FROM clientes", Long.class));
+        List<Map<String, Object>> shards = fontes.status();
+        for (Map<String, Object> shard : shards) {
+            int indice = (Integer) shard.get("shard");
+            shard.put("buckets", Arrays.stream(mapa).filter(dono -> dono == indice).count());
+            shard.put("clientes", clientes.get(indice));
+        }
+        Map<Integer, Integer> emMigracao = new TreeMap<>();
+        Integer[] alvos = destinos;
+        for (int bucket = 0; bucket < alvos.length; bucket++) {
+            if (alvos[bucket] != null) {
+                emMigracao.put(bucket, alvos[bucket]);
+            }
+        }
+        status.put("buckets", numeroBuckets);
+        status.put("shards", shards);
+        status.put("emMigracao", emMigracao);
+        status.put("pendentesRebalanceamento", planoRebalanceamento().size());
+        status.put("ultimaAtualizacaoMapa", ultimaAtualizacaoMapa);
+        status.put("consultasRoteadas", consultasRoteadas.get());
+        status.put("consultasDistribuidas", consultasDistribuidas.get());
+        status.put("idsAlocados", idsAlocados.get());
+        status.put("escritasRecusadas", escritasRecusadas.get());
+        return status;
+    }
+
+    // --- Resharding, used by MigracaoBucketTarefa ---
+
+    ShardDataSource fontes() {
+        return fontes;
+    }
+
+    int donoAtual(int bucket) {
+        return principal.queryForObject("SELECT shard FROM shard_buckets WHERE bucket = ?", Integer.class, bucket);
+    }
+
+    // False if the bucket is already being moved elsewhere
+    boolean marcarMigracao(int bucket, int destino) {
+        int marcados = principal.update("UPDATE shard_buckets SET destino = ?, atualizado_em = ? " +
+                "WHERE bucket = ? AND (destino IS NULL OR destino = ?)", destino, LocalDateTime.now(), bucket, destino);
+        carregarMapa(false);
+        return marcados > 0;
+    }
+
+    void concluirMigracao(int bucket, int destino) {
+        principal.update("UPDATE shard_buckets SET shard = ?, destino = NULL, atualizado_em = ? " +
+                "WHERE bucket = ? AND destino = ?", destino, LocalDateTime.now(), bucket, destino);
+        carregarMapa(false);
+    }
+
+    void cancelarMigracao(int bucket) {
+        principal.update("UPDATE shard_buckets SET destino = NULL, atualizado_em = ? WHERE bucket = ?",
+                LocalDateTime.now(), bucket);
+        carregarMapa(false);
+    }
+
+    // Long enough for every instance to have reloaded the map
+    void aguardarPropagacao() throws InterruptedException {
+        Thread.sleep(2 * intervaloMapaMs);
+    }
+
+    List<Long> clientesDoBucket(int shard, int bucket) {
+        List<Long> ids = new ArrayList<>();
+        for (Long id : new JdbcTemplate(fontes.shard(shard)).queryForList("SELECT id FROM clientes", Long.class)) {
+            if (bucket(id) == bucket) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // --- Startup ---
+
+    private void copiarEsquema() {
+        List<String> ddl = null;
+        for (int shard = 1; shard < fontes.numeroShards(); shard++) {
+            JdbcTemplate alvo = new JdbcTemplate(fontes.shard(shard));
+            Integer tabelas = alvo.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                    "WHERE LOWER(TABLE_NAME) = 'clientes'", Integer.class);
+            if (tabelas != null && tabelas > 0) {
+                continue;
+            }
+            if (ddl == null) {
+                ddl = principal.queryForList("SCRIPT NODATA", String.class);
+            }
+            for (String comando : ddl) {
+                if (!comando.startsWith("--") && !comando.startsWith("CREATE USER")) {
+                    alvo.execute(comando);
+                }
+            }
+            System.out.println("✅ Schema copied to shard " + shard);
+        }
+    }
+
+    private void reservarFaixas() {
+        for (int shard = 1; shard < fontes.numeroShards(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(fontes.shard(shard));
+            long inicio = (long) shard << BITS_FAIXA;
+            for (TabelaCliente tabela : TABELAS) {
+                if (!tabela.identity()) {
+                    continue;
+                }
+                Long maior = jdbc.queryForObject("SELECT MAX(id) FROM " + tabela.nome() + " WHERE id >= ? AND id < ?",
+                        Long.class, inicio, inicio + (1L << BITS_FAIXA));
+                if (maior == null) {
+                    jdbc.execute("ALTER TABLE " + tabela.nome() + " ALTER COLUMN id RESTART WITH " + (inicio + 1));
+                }
+            }
+            // The change feed cursor breaks timestamp ties by this sequence, so it must not repeat across shards
+            Long alteracao = jdbc.queryForObject("SELECT MAX(s) FROM (SELECT sequencia_alteracao AS s FROM clientes "
+                    + "UNION ALL SELECT sequencia FROM clientes_removidos) t WHERE s >= ? AND s < ?",
+                    Long.class, inicio, inicio + (1L << BITS_FAIXA));
+            if (alteracao == null) {
+                jdbc.execute("ALTER SEQUENCE " + GeradorSequenciaAlteracao.SEQUENCIA + " RESTART WITH " + (inicio + 1));
+            }
+        }
+    }
+
+    private void carregarMapa(boolean inicial) {
+        try {
+            List<Object[]> linhas = lerMapa();
+            if (linhas.isEmpty() && inicial) {
+                criarMapa();
+                linhas = lerMapa();
+            }
+            if (linhas.size() != numeroBuckets) {
+                throw new IllegalStateException("shard_buckets tem " + linhas.size() + " buckets, sharding.buckets é "
+                        + numeroBuckets + "; o número de buckets não pode mudar depois de criado");
+            }
+            int[] novosDonos = new int[numeroBuckets];
+            Integer[] novosDestinos = new Integer[numeroBuckets];
+            for (Object[] linha : linhas) {
+                int bucket = (Integer) linha[0];
+                novosDonos[bucket] = (Integer) linha[1];
+                novosDestinos[bucket] = (Integer) linha[2];
+                if (novosDonos[bucket] >= fontes.numeroShards()) {
+                    throw new IllegalStateException("Bucket " + bucket + " está no shard " + novosDonos[bucket]
+                            + ", mas só há " + fontes.numeroShards() + " shards configurados");
+                }
+            }
+            donos = novosDonos;
+            destinos = novosDestinos;
+            ultimaAtualizacaoMapa = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            if (inicial) {
+                throw e;
+            }
+            System.err.println("❌ Could not refresh the shard map: " + e.getMessage());
+        }
+    }
+
+    // Row layout: bucket, shard, destino
+    private List<Object[]> lerMapa() {
+        return principal.query("SELECT bucket, shard, destino FROM shard_buckets ORDER BY bucket",
+                (rs, i) -> new Object[]{rs.getInt(1), rs.getInt(2), (Integer) rs.getObject(3, Integer.class)});
+    }
+
+    // Spread over all shards on an empty database; existing clients all sit on shard 0 until rebalanced
+    private void criarMapa() {
+        Long clientes = principal.queryForObject("SELECT COUNT(*) FROM clientes", Long.class);
+        boolean vazio = clientes == null || clientes == 0;
+        try {
+            transacaoPrincipal.executeWithoutResult(status -> {
+                LocalDateTime agora = LocalDateTime.now();
+                for (int bucket = 0; bucket < numeroBuckets; bucket++) {
+                    principal.update("INSERT INTO shard_buckets (bucket, shard, atualizado_em) VALUES (?, ?, ?)",
+                            bucket, vazio ? bucket % fontes.numeroShards() : 0, agora);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            // Another instance created it first
+        }
+    }
+
+    private void iniciarSequencia() {
+        Integer existe = principal.queryForObject("SELECT COUNT(*) FROM sequencias_id WHERE nome = ?",
+                Integer.class, SEQUENCIA_CLIENTES);
+        if (existe != null && existe > 0) {
+            return;
+        }
+        long maior = 0;
+        for (int shard = 0; shard < fontes.numeroShards(); shard++) {
+            Long max = new JdbcTemplate(fontes.shard(shard)).queryForObject("SELECT MAX(id) FROM clientes", Long.class);
+            maior = Math.max(maior, max != null ? max : 0);
+        }
+        try {
+            principal.update("INSERT INTO sequencias_id (nome, proximo) VALUES (?, ?)", SEQUENCIA_CLIENTES, maior + 1);
+        } catch (DuplicateKeyException e) {
+            // Another instance created it first
+        }
+    }
+
+    static final class TabelaCliente {
+
+        private final String nome;
+        private final String filtro;
+        private final boolean identity;
+
+        TabelaCliente(String nome, String filtro, boolean identity) {
+            this.nome = nome;
+            this.filtro = filtro;
+            this.identity = identity;
+        }
+
+        String nome() { return nome; }
+        String filtro() { return filtro; }
+        boolean identity() { return identity; }
+    }
+}
@@ -0,0 +1,342 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.ClienteSimilarDto;
+import com.mtor.evolution.model.AvaliacaoFisica;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.repository.ClienteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * "Clients similar to this one", for picking protocols that worked before.
+ * Every client is a point in {@link IndiceSimilaridade}: age, sex and the
+ * body composition of the latest completed assessment, each divided by a
+ * fixed spread so that one unit means a meaningful difference, plus the
+ * modality and the goal as categories. Fixed spreads (rather than
+ * statistics of the current population) keep a single client's vector
+ * independent of everyone else's, so changes are applied one client at a
+ * time: client and assessment writes mark the client dirty after commit
+ * and a background thread re-reads just those clients.
+ */
+@Component
+public class SimilaridadeClientes {
+
+    static final int IDADE = 0;
+    static final int GENERO = 1;
+    static final int PESO = 2;
+    static final int ALTURA = 3;
+    static final int IMC = 4;
+    static final int GORDURA = 5;
+    static final int MASSA_MAGRA = 6;
+    static final int SEM_AVALIACAO = 7;
+    static final int DIMENSOES = 8;
+
+    // Difference that counts as one unit in each dimension
+    private static final float[] ESCALAS = {10f, 1f, 12f, 12f, 3f, 5f, 0.06f, 0.5f};
+
+    private static final int LOTE = 500;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    // Goal categories by keyword of the free-text objetivo, first match wins
+    private static final String[][] OBJETIVOS = {
+            {"emagrec", "perda", "perder", "queima", "gordura"},
+            {"hipertrof", "massa", "ganho", "muscul"},
+            {"defini"},
+            {"forca", "potencia", "performance", "atlet", "competi"},
+            {"condicion", "resistencia", "cardio", "aerobi"},
+            {"saude", "reabilit", "mobilidade", "postura", "qualidade"}
+    };
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    @Autowired
+    private InicializacaoAdiada inicializacao;
+
+    @Value("${similarity.penalty.modalidade:1.0}")
+    private float penalidadeModalidade;
+
+    @Value("${similarity.penalty.objetivo:2.0}")
+    private float penalidadeObjetivo;
+
+    @Value("${similarity.initial-capacity:1024}")
+    private int capacidadeInicial;
+
+    private final TransactionTemplate leitura;
+
+    private final ExecutorService atualizacao = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "similaridade-clientes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drenagemAgendada = new AtomicBoolean();
+    private final AtomicBoolean recargaAgendada = new AtomicBoolean();
+    private final Map<String, Integer> modalidades = new ConcurrentHashMap<>();
+    private final AtomicInteger proximaModalidade = new AtomicInteger(1);
+
+    private volatile IndiceSimilaridade indice;
+    private volatile boolean pronto;
+    private volatile long carregamentoMs;
+
+    public SimilaridadeClientes(PlatformTransactionManager transactionManager) {
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        indice = new IndiceSimilaridade(DIMENSOES, penalidadeModalidade, penalidadeObjetivo, capacidadeInicial);
+        invalidacao.inscrever(BarramentoInvalidacao.CLIENTE, this::invalidar);
+        invalidacao.inscrever(BarramentoInvalidacao.AVALIACOES_CLIENTE, this::invalidar);
+        inicializacao.registrar("similaridade-clientes", this::recarregar);
+    }
+
+    /**
+     * Rebuilds the index from scratch, for when changes may have been
+     * missed; queries use the old one meanwhile. Requests while one is
+     * queued are folded into it.
+     */
+    public void recarregar() {
+        if (!recargaAgendada.compareAndSet(false, true)) {
+            return;
+        }
+        atualizacao.execute(() -> {
+            recargaAgendada.set(false);
+            try {
+                carregar();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Client similarity index load failed: " + e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        atualizacao.shutdownNow();
+    }
+
+    // Client ids from the invalidation bus, null when any client may have changed
+    private void invalidar(Set<String> chaves) {
+        if (chaves == null) {
+            recarregar();
+        } else {
+            chaves.forEach(chave -> marcarAlterado(Long.valueOf(chave)));
+        }
+    }
+
+    /** Called after a client or one of its assessments changed; coalesced per client. */
+    public void marcarAlterado(Long clienteId) {
+        if (clienteId == null) {
+            return;
+        }
+        pendentes.add(clienteId);
+        if (drenagemAgendada.compareAndSet(false, true)) {
+            atualizacao.execute(() -> {
+                drenagemAgendada.set(false);
+                try {
+                    drenar();
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Client similarity update failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /** The {@code k} clients closest to the given one, nearest first; empty if it does not exist. */
+    public Optional<List<ClienteSimilarDto>> similares(Long clienteId, int k) {
+        List<Object[]> perfil = shards.noShardDoCliente(clienteId, () -> leitura.execute(status ->
+                clienteRepository.findPerfisSimilaridade(List.of(clienteId), AvaliacaoFisica.Status.REALIZADA)));
+        if (perfil == null || perfil.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] linha = perfil.get(0);
+        float[] vetor = vetor(linha);
+        IndiceSimilaridade.Resultado resultado = indice.buscar(vetor, codigoModalidade((String) linha[3]),
+                codigoObjetivo((String) linha[4]), k, clienteId);
+
+        List<Long> ids = new ArrayList<>(resultado.tamanho());
+        for (int i = 0; i < resultado.tamanho(); i++) {
+            ids.add(resultado.id(i));
+        }
+        Map<Long, Cliente> clientes = new HashMap<>();
+        shards.porShard(ids).forEach((shard, grupo) -> {
+            for (Cliente cliente : shards.noShard(shard, () -> leitura.execute(status -> clienteRepository.findAllById(grupo)))) {
+                clientes.put(cliente.getId(), cliente);
+            }
+        });
+        List<ClienteSimilarDto> similares = new ArrayList<>(ids.size());
+        for (int i = 0; i < resultado.tamanho(); i++) {
+            Cliente cliente = clientes.get(resultado.id(i));
+            if (cliente != null) {
+                similares.add(new ClienteSimilarDto(new ClienteDto(cliente), Math.sqrt(resultado.distancia(i))));
+            }
+        }
+        return Optional.of(similares);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pronto", pronto);
+        status.put("clientes", indice.tamanho());
+        status.put("dimensoes", DIMENSOES);
+        status.put("modalidades", modalidades.size());
+        status.put("memoriaBytes", indice.memoriaBytes());
+        status.put("carregamentoMs", carregamentoMs);
+        status.put("atualizacoesPendentes", pendentes.size());
+        return status;
+    }
+
+    private void carregar() {
+        long inicio = System.nanoTime();
+        // The first load fills the empty index, a reload a new one swapped in when complete
+        IndiceSimilaridade alvo = pronto
+                ? new IndiceSimilaridade(DIMENSOES, penalidadeModalidade, penalidadeObjetivo, Math.max(capacidadeInicial, indice.tamanho()))
+                : indice;
+        // One shard after the other, the index is only written from this thread
+        for (int i = 0; i < shards.numeroShards(); i++) {
+            shards.noShard(i, () -> leitura.execute(tx -> {
+                try (Stream<Object[]> perfis = clienteRepository.streamPerfisSimilaridade(AvaliacaoFisica.Status.REALIZADA)) {
+                    perfis.forEach(linha -> indexar(alvo, linha));
+                }
+                return null;
+            }));
+        }
+        indice = alvo;
+        carregamentoMs = (System.nanoTime() - inicio) / 1_000_000;
+        pronto = true;
+        System.out.println("✅ Client similarity index loaded: " + indice.tamanho() + " clients in " + carregamentoMs + " ms");
+    }
+
+    private void drenar() {
+        List<Long> lote = new ArrayList<>(LOTE);
+        Iterator<Long> iterator = pendentes.iterator();
+        while (iterator.hasNext()) {
+            lote.add(iterator.next());
+            iterator.remove();
+            if (lote.size() == LOTE || !iterator.hasNext()) {
+                List<Long> ids = List.copyOf(lote);
+                List<Object[]> perfis = new ArrayList<>();
+                shards.porShard(ids).forEach((shard, grupo) -> perfis.addAll(shards.noShard(shard, () ->
+                        leitura.execute(status -> clienteRepository.findPerfisSimilaridade(grupo, AvaliacaoFisica.Status.REALIZADA)))));
+                Set<Long> encontrados = new HashSet<>();
+                for (Object[] linha : perfis) {
+                    indexar(indice, linha);
+                    encontrados.add((Long) linha[0]);
+                }
+                for (Long id : ids) {
+                    if (!encontrados.contains(id)) {
+                        indice.remover(id);
+                    }
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    private void indexar(IndiceSimilaridade alvo, Object[] linha) {
+        alvo.atualizar((Long) linha[0], vetor(linha), codigoModalidade((String) linha[3]), codigoObjetivo((String) linha[4]));
+    }
+
+    // Row layout as in ClienteRepository.PERFIL_SIMILARIDADE
+    static float[] vetor(Object[] linha) {
+        LocalDate nascimento = (LocalDate) linha[1];
+        boolean feminino = linha[2] == Cliente.Genero.FEMININO;
+        Double peso = (Double) linha[5];
+        Double altura = (Double) linha[6];
+        Double imc = (Double) linha[7];
+        Double gordura = (Double) linha[8];
+        Double massaMagra = (Double) linha[9];
+
+        float[] v = new float[DIMENSOES];
+        v[IDADE] = nascimento != null ? ChronoUnit.DAYS.between(nascimento, LocalDate.now()) / 365.25f : 35f;
+        v[GENERO] = feminino ? 1f : 0f;
+        boolean avaliado = peso != null;
+        // Clients without an assessment get typical values for their sex and are set apart by SEM_AVALIACAO
+        v[PESO] = (float) (avaliado ? peso : feminino ? 63 : 78);
+        v[ALTURA] = (float) (altura != null ? altura : feminino ? 162 : 175);
+        if (imc != null) {
+            v[IMC] = imc.floatValue();
+        } else if (avaliado && altura != null && altura > 0) {
+            double metros = altura / 100.0;
+            v[IMC] = (float) (peso / (metros * metros));
+        } else {
+            v[IMC] = feminino ? 24f : 25.5f;
+        }
+        v[GORDURA] = (float) (gordura != null ? gordura : feminino ? 27 : 18);
+        if (avaliado && massaMagra != null && peso > 0) {
+            v[MASSA_MAGRA] = (float) (massaMagra / peso);
+        } else {
+            v[MASSA_MAGRA] = 1f - v[GORDURA] / 100f;
+        }
+        v[SEM_AVALIACAO] = avaliado ? 0f : 1f;
+        for (int d = 0; d < DIMENSOES; d++) {
+            v[d] /= ESCALAS[d];
+        }
+        return v;
+    }
+
+    private int codigoModalidade(String modalidade) {
+        String chave = normalizar(modalidade);
+        if (chave.isEmpty()) {
+            return 0;
+        }
+        return modalidades.computeIfAbsent(chave, m -> proximaModalidade.getAndIncrement());
+    }
+
+    static int codigoObjetivo(String objetivo) {
+        String texto = normalizar(objetivo);
+        for (int i = 0; i < OBJETIVOS.length; i++) {
+            for (String palavra : OBJETIVOS[i]) {
+                if (texto.contains(palavra)) {
+                    return i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Lower case, no accents, single spaces; also the key of text facets in FacetasClientes
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+}
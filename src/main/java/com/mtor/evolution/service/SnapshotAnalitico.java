@@ -0,0 +1,258 @@
+package com.mtor.evolution.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar copy of the clients and their completed assessments, for
+ * analytics. One primitive array per field: clients sorted by id,
+ * assessments sorted by client, date and id, so each client's
+ * assessments are one contiguous range ({@link #inicio}, {@link #fim}).
+ * Immutable once built; a refresh builds the next version by merging the
+ * rows changed since the previous one into a copy of its columns.
+ */
+final class SnapshotAnalitico {
+
+    static final int SEM_DATA = Integer.MIN_VALUE;
+    static final byte SEM_VALOR = -1;
+
+    final long versao;
+    final LocalDateTime geradoEm;
+    // Ages are taken on this date, so a version always gives the same answers
+    final LocalDate referencia;
+    final Clientes clientes;
+    final Avaliacoes avaliacoes;
+    final int[] inicio;
+    final int[] fim;
+    final List<String> modalidades;
+
+    SnapshotAnalitico(long versao, LocalDateTime geradoEm, Clientes clientes, Avaliacoes avaliacoes, List<String> modalidades) {
+        this.versao = versao;
+        this.geradoEm = geradoEm;
+        this.referencia = geradoEm.toLocalDate();
+        this.clientes = clientes;
+        this.avaliacoes = avaliacoes;
+        this.modalidades = modalidades;
+        this.inicio = new int[clientes.tamanho];
+        this.fim = new int[clientes.tamanho];
+        // Both sides sorted by client id; assessments of clients not in the snapshot are skipped
+        int j = 0;
+        for (int r = 0; r < clientes.tamanho; r++) {
+            long id = clientes.ids[r];
+            while (j < avaliacoes.tamanho && avaliacoes.clientes[j] < id) {
+                j++;
+            }
+            inicio[r] = j;
+            while (j < avaliacoes.tamanho && avaliacoes.clientes[j] == id) {
+                j++;
+            }
+            fim[r] = j;
+        }
+    }
+
+    /** Same rows, new version and reference date. */
+    SnapshotAnalitico comVersao(long versao, LocalDateTime geradoEm) {
+        return new SnapshotAnalitico(versao, geradoEm, clientes, avaliacoes, modalidades);
+    }
+
+    long memoriaBytes() {
+        return clientes.tamanho * 29L + avaliacoes.tamanho * 36L;
+    }
+
+    /** Clients: id, birth date (epoch day), signup month (year * 12 + month - 1) and coded categories. */
+    static final class Clientes {
+
+        long[] ids;
+        int[] nascimentos;
+        int[] mesesCadastro;
+        byte[] generos;
+        byte[] status;
+        byte[] objetivos;
+        short[] modalidades;
+        int tamanho;
+
+        Clientes(int capacidade) {
+            capacidade = Math.max(capacidade, 16);
+            ids = new long[capacidade];
+            nascimentos = new int[capacidade];
+            mesesCadastro = new int[capacidade];
+            generos = new byte[capacidade];
+            status = new byte[capacidade];
+            objetivos = new byte[capacidade];
+            modalidades = new short[capacidade];
+        }
+
+        void adicionar(long id, int nascimento, int mesCadastro, byte genero, byte situacao, byte objetivo, short modalidade) {
+            if (tamanho == ids.length) {
+                int capacidade = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacidade);
+                nascimentos = Arrays.copyOf(nascimentos, capacidade);
+                mesesCadastro = Arrays.copyOf(mesesCadastro, capacidade);
+                generos = Arrays.copyOf(generos, capacidade);
+                status = Arrays.copyOf(status, capacidade);
+                objetivos = Arrays.copyOf(objetivos, capacidade);
+                modalidades = Arrays.copyOf(modalidades, capacidade);
+            }
+            ids[tamanho] = id;
+            nascimentos[tamanho] = nascimento;
+            mesesCadastro[tamanho] = mesCadastro;
+            generos[tamanho] = genero;
+            status[tamanho] = situacao;
+            objetivos[tamanho] = objetivo;
+            modalidades[tamanho] = modalidade;
+            tamanho++;
+        }
+
+        void copiar(Clientes de, int r) {
+            adicionar(de.ids[r], de.nascimentos[r], de.mesesCadastro[r], de.generos[r], de.status[r], de.objetivos[r], de.modalidades[r]);
+        }
+
+        Clientes ordenado() {
+            int[] ordem = ordem(tamanho, Comparator.comparingLong(r -> ids[r]));
+            if (ordem == null) {
+                return this;
+            }
+            Clientes ordenados = new Clientes(tamanho);
+            for (int r : ordem) {
+                ordenados.copiar(this, r);
+            }
+            return ordenados;
+        }
+
+        /** The old rows not in {@code removidos}, with the rows of {@code novos} (sorted) added or replacing. */
+        static Clientes mesclar(Clientes antigos, Clientes novos, Set<Long> removidos) {
+            Clientes resultado = new Clientes(antigos.tamanho + novos.tamanho);
+            int i = 0;
+            int j = 0;
+            while (i < antigos.tamanho || j < novos.tamanho) {
+                if (j == novos.tamanho || (i < antigos.tamanho && antigos.ids[i] < novos.ids[j])) {
+                    if (!removidos.contains(antigos.ids[i])) {
+                        resultado.copiar(antigos, i);
+                    }
+                    i++;
+                } else {
+                    if (i < antigos.tamanho && antigos.ids[i] == novos.ids[j]) {
+                        i++;
+                    }
+                    if (!removidos.contains(novos.ids[j])) {
+                        resultado.copiar(novos, j);
+                    }
+                    j++;
+                }
+            }
+            return resultado;
+        }
+    }
+
+    /** Completed assessments: id, client, date (epoch day) and body composition, NaN when not measured. */
+    static final class Avaliacoes {
+
+        long[] ids;
+        long[] clientes;
+        int[] datas;
+        float[] pesos;
+        float[] gorduras;
+        float[] massasMagras;
+        float[] imcs;
+        int tamanho;
+
+        Avaliacoes(int capacidade) {
+            capacidade = Math.max(capacidade, 16);
+            ids = new long[capacidade];
+            clientes = new long[capacidade];
+            datas = new int[capacidade];
+            pesos = new float[capacidade];
+            gorduras = new float[capacidade];
+            massasMagras = new float[capacidade];
+            imcs = new float[capacidade];
+        }
+
+        void adicionar(long id, long cliente, int data, float peso, float gordura, float massaMagra, float imc) {
+            if (tamanho == ids.length) {
+                int capacidade = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacidade);
+                clientes = Arrays.copyOf(clientes, capacidade);
+                datas = Arrays.copyOf(datas, capacidade);
+                pesos = Arrays.copyOf(pesos, capacidade);
+                gorduras = Arrays.copyOf(gorduras, capacidade);
+                massasMagras = Arrays.copyOf(massasMagras, capacidade);
+                imcs = Arrays.copyOf(imcs, capacidade);
+            }
+            ids[tamanho] = id;
+            clientes[tamanho] = cliente;
+            datas[tamanho] = data;
+            pesos[tamanho] = peso;
+            gorduras[tamanho] = gordura;
+            massasMagras[tamanho] = massaMagra;
+            imcs[tamanho] = imc;
+            tamanho++;
+        }
+
+        void copiar(Avaliacoes de, int r) {
+            adicionar(de.ids[r], de.clientes[r], de.datas[r], de.pesos[r], de.gorduras[r], de.massasMagras[r], de.imcs[r]);
+        }
+
+        Avaliacoes ordenado() {
+            int[] ordem = ordem(tamanho, this::comparar);
+            if (ordem == null) {
+                return this;
+            }
+            Avaliacoes ordenadas = new Avaliacoes(tamanho);
+            for (int r : ordem) {
+                ordenadas.copiar(this, r);
+            }
+            return ordenadas;
+        }
+
+        /**
+         * The old rows whose id is not in {@code substituidas}, merged with
+         * the rows of {@code novas} (sorted). Every assessment read in the
+         * refresh is in {@code substituidas}: the ones still completed come
+         * back through {@code novas}, possibly at another date.
+         */
+        static Avaliacoes mesclar(Avaliacoes antigas, Avaliacoes novas, Set<Long> substituidas) {
+            Avaliacoes resultado = new Avaliacoes(antigas.tamanho + novas.tamanho);
+            int i = 0;
+            int j = 0;
+            while (i < antigas.tamanho || j < novas.tamanho) {
+                if (i < antigas.tamanho && substituidas.contains(antigas.ids[i])) {
+                    i++;
+                } else if (j == novas.tamanho || (i < antigas.tamanho && comparar(antigas, i, novas, j) < 0)) {
+                    resultado.copiar(antigas, i++);
+                } else {
+                    resultado.copiar(novas, j++);
+                }
+            }
+            return resultado;
+        }
+
+        private int comparar(int a, int b) {
+            return comparar(this, a, this, b);
+        }
+
+        private static int comparar(Avaliacoes x, int a, Avaliacoes y, int b) {
+            int c = Long.compare(x.clientes[a], y.clientes[b]);
+            if (c == 0) {
+                c = Integer.compare(x.datas[a], y.datas[b]);
+            }
+            return c != 0 ? c : Long.compare(x.ids[a], y.ids[b]);
+        }
+    }
+
+    // Row order that sorts by the comparator, or null when the rows already are (the usual case: read with ORDER BY)
+    private static int[] ordem(int tamanho, Comparator<Integer> comparador) {
+        boolean ordenado = true;
+        for (int r = 1; r < tamanho && ordenado; r++) {
+            ordenado = comparador.compare(r - 1, r) <= 0;
+        }
+        if (ordenado) {
+            return null;
+        }
+        return IntStream.range(0, tamanho).boxed().sorted(comparador).mapToInt(Integer::intValue).toArray();
+    }
+}
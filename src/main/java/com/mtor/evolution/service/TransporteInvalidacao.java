@@ -0,0 +1,22 @@
+package com.mtor.evolution.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link BarramentoInvalidacao} messages between instances. Delivery
+ * may be lossy; the bus detects lost messages by their sequence numbers,
+ * and the transport reports what it knows it lost (a dropped connection)
+ * through {@code perda}.
+ */
+public interface TransporteInvalidacao {
+
+    /** Starts handing every message published on the channel, own ones included, to {@code receptor}. */
+    void iniciar(Consumer<String> receptor, Runnable perda);
+
+    /** @throws RuntimeException if the message could not be sent */
+    void enviar(String mensagem);
+
+    void parar();
+
+    String nome();
+}
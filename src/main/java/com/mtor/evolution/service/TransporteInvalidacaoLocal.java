@@ -0,0 +1,46 @@
+package com.mtor.evolution.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation transport within one JVM: every application context started
+ * in the process shares the channel, so several contexts over one embedded
+ * database behave like replicas. The default, since a single instance only
+ * hears itself.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class TransporteInvalidacaoLocal implements TransporteInvalidacao {
+
+    private static final List<Consumer<String>> RECEPTORES = new CopyOnWriteArrayList<>();
+
+    private Consumer<String> receptor;
+
+    @Override
+    public void iniciar(Consumer<String> receptor, Runnable perda) {
+        this.receptor = receptor;
+        RECEPTORES.add(receptor);
+    }
+
+    @Override
+    public void enviar(String mensagem) {
+        for (Consumer<String> destino : RECEPTORES) {
+            destino.accept(mensagem);
+        }
+    }
+
+    @Override
+    public void parar() {
+        RECEPTORES.remove(receptor);
+    }
+
+    @Override
+    public String nome() {
+        return "local";
+    }
+}
@@ -0,0 +1,154 @@
+package com.mtor.evolution.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation transport over Postgres {@code LISTEN/NOTIFY}, for several
+ * replicas on one database. Uses two connections of its own, outside the
+ * pool: one that only listens, polled for notifications, and one for
+ * {@code pg_notify}. Both need a session, so through Supabase they must go
+ * to the direct or session-mode address, not the transaction pooler.
+ * After the listening connection drops, notifications sent meanwhile are
+ * gone, so reconnecting reports a loss.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.transport", havingValue = "postgres")
+public class TransporteInvalidacaoPostgres implements TransporteInvalidacao {
+
+    @Value("${invalidation.postgres.url:${spring.datasource.url}}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${invalidation.postgres.channel:mtor_invalidacao}")
+    private String canal;
+
+    @Value("${invalidation.postgres.poll-ms:500}")
+    private int esperaMs;
+
+    private volatile boolean ativo;
+    private Thread escuta;
+    private Connection envio;
+
+    @Override
+    public void iniciar(Consumer<String> receptor, Runnable perda) {
+        // LISTEN takes an identifier, not a parameter
+        if (!canal.matches("[a-z_][a-z0-9_]{0,62}")) {
+            throw new IllegalStateException("Canal de invalidação inválido: " + canal);
+        }
+        ativo = true;
+        escuta = new Thread(() -> escutar(receptor, perda), "invalidacao-listen");
+        escuta.setDaemon(true);
+        escuta.start();
+        System.out.println("🔗 Cache invalidation over LISTEN/NOTIFY on channel " + canal);
+    }
+
+    @Override
+    public synchronized void enviar(String mensagem) {
+        try {
+            notificar(mensagem);
+        } catch (SQLException primeira) {
+            // Stale connection: one retry on a fresh one
+            fecharEnvio();
+            try {
+                notificar(mensagem);
+            } catch (SQLException e) {
+                fecharEnvio();
+                throw new IllegalStateException("NOTIFY falhou: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void parar() {
+        ativo = false;
+        if (escuta != null) {
+            escuta.interrupt();
+        }
+        synchronized (this) {
+            fecharEnvio();
+        }
+    }
+
+    @Override
+    public String nome() {
+        return "postgres:" + canal;
+    }
+
+    private void notificar(String mensagem) throws SQLException {
+        if (envio == null || envio.isClosed()) {
+            envio = DriverManager.getConnection(url, username, password);
+            envio.setAutoCommit(true);
+        }
+        try (PreparedStatement statement = envio.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, canal);
+            statement.setString(2, mensagem);
+            statement.execute();
+        }
+    }
+
+    private void fecharEnvio() {
+        if (envio != null) {
+            try {
+                envio.close();
+            } catch (SQLException ignored) {
+                // Already broken
+            }
+            envio = null;
+        }
+    }
+
+    private void escutar(Consumer<String> receptor, Runnable perda) {
+        boolean primeira = true;
+        long esperaReconexaoMs = 1000;
+        while (ativo) {
+            try (Connection conexao = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("LISTEN " + canal);
+                }
+                if (!primeira) {
+                    System.out.println("🔗 Cache invalidation listener reconnected");
+                    perda.run();
+                }
+                primeira = false;
+                esperaReconexaoMs = 1000;
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (ativo) {
+                    PGNotification[] notificacoes = pg.getNotifications(esperaMs);
+                    if (notificacoes != null) {
+                        for (PGNotification notificacao : notificacoes) {
+                            receptor.accept(notificacao.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!ativo) {
+                    return;
+                }
+                System.err.println("❌ Cache invalidation listener failed, retrying in " + esperaReconexaoMs + " ms: " + e.getMessage());
+                primeira = false;
+                try {
+                    Thread.sleep(esperaReconexaoMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                esperaReconexaoMs = Math.min(esperaReconexaoMs * 2, 30_000);
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.mtor.evolution.service;
 
 import com.mtor.evolution.model.User;
 import com.mtor.evolution.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,15 +12,62 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Loads accounts for login and for every authenticated request. The JWT
+ * filter would otherwise read the user table on each request, so accounts
+ * are cached for {@code jwt.user-cache-ttl-ms}, and dropped on every
+ * instance when AuthService publishes a change through the
+ * {@link BarramentoInvalidacao}.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    private static final int MAX_CACHE = 10_000;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BarramentoInvalidacao invalidacao;
+
+    // 0 disables the cache
+    @Value("${jwt.user-cache-ttl-ms:60000}")
+    private long validadeCacheMs;
+
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void inscrever() {
+        invalidacao.inscrever(BarramentoInvalidacao.USUARIO, emails -> {
+            if (emails == null) {
+                cache.clear();
+            } else {
+                emails.forEach(cache::remove);
+            }
+        });
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        if (validadeCacheMs <= 0) {
+            return carregar(email);
+        }
+        Entrada entrada = cache.get(email);
+        if (entrada == null || entrada.expiraEm < System.currentTimeMillis()) {
+            entrada = new Entrada(carregar(email), System.currentTimeMillis() + validadeCacheMs);
+            if (cache.size() >= MAX_CACHE) {
+                cache.clear();
+            }
+            cache.put(email, entrada);
+        }
+        // A copy: authentication erases the password of the UserDetails it was given
+        return org.springframework.security.core.userdetails.User.withUserDetails(entrada.detalhes).build();
+    }
+
+    private UserDetails carregar(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
@@ -28,4 +77,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
         );
     }
-}
\ No newline at end of file
+
+    private static final class Entrada {
+
+        private final UserDetails detalhes;
+        private final long expiraEm;
+
+        Entrada(UserDetails detalhes, long expiraEm) {
+            this.detalhes = detalhes;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mtor.evolution.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.PaginaDto;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.repository.ClienteRepository;
+import com.mtor.evolution.service.ClienteService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Size and serialization time of one page of clients in every wire format,
+ * with the mappers the API uses: Spring's PageImpl as JSON, and the
+ * {@link PaginaDto} envelope as JSON, CBOR and Smile. The binary encodings
+ * must be smaller than JSON and not slower to write.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class FormatosBenchmarkTest {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 100);
+    private static final int REPETICOES = 2000;
+    // Timing noise allowed before a binary encoding counts as slower than JSON
+    private static final double FOLGA_TEMPO = 1.25;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cbor;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smile;
+
+    @Test
+    void formatosBinariosSaoMenoresEMaisRapidosQueJson() throws IOException {
+        List<Cliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(cliente(i));
+        }
+        clienteRepository.saveAll(clientes);
+        Page<ClienteDto> pagina = clienteService.findAll(PageRequest.of(0, CLIENTES, Sort.by("createdAt").descending()), null);
+        PaginaDto<ClienteDto> envelope = new PaginaDto<>(pagina);
+
+        Medida pageImpl = medir(objectMapper, pagina);
+        Medida json = medir(objectMapper, envelope);
+        Medida cborMedida = medir(cbor.getObjectMapper(), envelope);
+        Medida smileMedida = medir(smile.getObjectMapper(), envelope);
+        System.out.printf("⏱️ Page of %d clients: PageImpl JSON %s; envelope JSON %s; CBOR %s; Smile %s%n",
+                pagina.getNumberOfElements(), pageImpl, json, cborMedida, smileMedida);
+
+        assertTrue(json.bytes < pageImpl.bytes, "envelope " + json.bytes + " B vs PageImpl " + pageImpl.bytes + " B");
+        assertTrue(cborMedida.bytes < json.bytes, "CBOR " + cborMedida.bytes + " B vs JSON " + json.bytes + " B");
+        assertTrue(smileMedida.bytes < json.bytes, "Smile " + smileMedida.bytes + " B vs JSON " + json.bytes + " B");
+        assertTrue(cborMedida.micros < json.micros * FOLGA_TEMPO, "CBOR " + cborMedida.micros + " µs vs JSON " + json.micros + " µs");
+        assertTrue(smileMedida.micros < json.micros * FOLGA_TEMPO, "Smile " + smileMedida.micros + " µs vs JSON " + json.micros + " µs");
+    }
+
+    private static Medida medir(ObjectMapper mapper, Object valor) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(valor);
+        // Warm-up, so the JIT has compiled the serializers before timing
+        for (int i = 0; i < REPETICOES; i++) {
+            mapper.writeValueAsBytes(valor);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            mapper.writeValueAsBytes(valor);
+        }
+        double micros = (System.nanoTime() - inicio) / 1000.0 / REPETICOES;
+
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write(bytes);
+        }
+        return new Medida(bytes.length, comprimido.size(), micros);
+    }
+
+    private static Cliente cliente(int i) {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente Formato " + i);
+        cliente.setEmail("formato" + i + "@mtor.com");
+        cliente.setTelefone("(11) 9" + String.format("%04d", i) + "-0000");
+        cliente.setDataNascimento(LocalDate.of(1970 + i % 40, 1 + i % 12, 1 + i % 28));
+        cliente.setGenero(i % 2 == 0 ? Cliente.Genero.FEMININO : Cliente.Genero.MASCULINO);
+        cliente.setModalidade(i % 3 == 0 ? "Musculação" : "Corrida");
+        cliente.setObjetivo("Ganho de massa muscular e melhora do condicionamento");
+        return cliente;
+    }
+
+    private record Medida(int bytes, int bytesGzip, double micros) {
+
+        @Override
+        public String toString() {
+            return String.format("%d B (%d B gzipped), %.1f µs", bytes, bytesGzip, micros);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mtor.evolution.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing between two embedded databases that answer with their own name:
+ * read-only transactions reach the replica once it is healthy, a user's
+ * reads stay on the primary for the read-your-writes window after their
+ * write, and reads fall back to the primary when the replica is down.
+ */
+class RoteamentoDataSourceTest {
+
+    private static final long LEITURA_PROPRIA_MS = 500;
+
+    private HikariDataSource primaria;
+    private HikariDataSource replica;
+    private RoteamentoDataSource roteamento;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        primaria = banco("primaria");
+        replica = banco("replica");
+        roteamento = new RoteamentoDataSource(primaria, replica, "SELECT 0", 1000, LEITURA_PROPRIA_MS, 50);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(roteamento);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transacoes = new DataSourceTransactionManager(dataSource);
+        escrita = new TransactionTemplate(transacoes);
+        leitura = new TransactionTemplate(transacoes);
+        leitura.setReadOnly(true);
+
+        roteamento.onApplicationEvent(null);
+        long limite = System.currentTimeMillis() + 5000;
+        while (!Boolean.TRUE.equals(roteamento.status().get("saudavel")) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(true, roteamento.status().get("saudavel"));
+    }
+
+    @AfterEach
+    void encerrar() {
+        SecurityContextHolder.clearContext();
+        roteamento.fechar();
+    }
+
+    @Test
+    void leiturasVaoParaAReplicaEEscritasParaAPrimaria() {
+        entrarComo("ana");
+
+        assertEquals("replica", ler());
+        assertEquals("primaria", escrita.execute(s -> jdbc.queryForObject("SELECT nome FROM origem", String.class)));
+        // Outside any transaction nothing is read-only
+        assertEquals("primaria", jdbc.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    @Test
+    void leituraLogoAposEscritaDoMesmoUsuarioVaiParaAPrimaria() throws Exception {
+        entrarComo("ana");
+        escrita.executeWithoutResult(s -> jdbc.update("UPDATE origem SET escritas = escritas + 1"));
+
+        assertEquals("primaria", ler());
+        entrarComo("bruno");
+        assertEquals("replica", ler());
+
+        Thread.sleep(LEITURA_PROPRIA_MS + 100);
+        entrarComo("ana");
+        assertEquals("replica", ler());
+    }
+
+    @Test
+    void replicaForaDoArLeiturasVoltamParaAPrimaria() {
+        entrarComo("ana");
+        assertEquals("replica", ler());
+
+        replica.close();
+
+        assertEquals("primaria", ler());
+        assertEquals(false, roteamento.status().get("saudavel"));
+        assertTrue((Long) roteamento.status().get("quedas") >= 1);
+        assertEquals("primaria", ler());
+    }
+
+    private String ler() {
+        return leitura.execute(s -> jdbc.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private static void entrarComo(String usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    private static HikariDataSource banco(String nome) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + nome + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origem (nome VARCHAR(20), escritas INT)");
+        jdbc.update("INSERT INTO origem VALUES (?, 0)", nome);
+        return dataSource;
+    }
+}
@@ -0,0 +1,184 @@
+package com.mtor.evolution.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.repository.ExameRepository;
+import com.mtor.evolution.security.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upload and download of one attachment larger than the heap, through the
+ * real connector: a store or download that buffered the file would fail
+ * with OutOfMemoryError. Reports throughput and the heap still in use after
+ * the collections that ran meanwhile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Tag("benchmark")
+class ArquivoExameBenchmarkTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final long TAMANHO = Long.getLong("benchmark.arquivo-mb", 768) * MB;
+    // Heap retained after a collection, beyond the context's own; a buffered file would be all of it
+    private static final long HEAP_RETIDO_MAXIMO = 64 * MB;
+    private static final double MB_POR_SEGUNDO_MINIMO = 20;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void arquivoMaiorQueOHeapPassaSemSerBufferizado() throws Exception {
+        assertTrue(TAMANHO > Runtime.getRuntime().maxMemory(),
+                "the file must be larger than the heap (-Xmx) to prove streaming");
+        String token = "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("admin@mtor.com"));
+        Long exameId = exameRepository.findAll().get(0).getId();
+        String base = "http://localhost:" + porta + "/api/v1/exames/" + exameId + "/arquivos";
+        HttpClient http = HttpClient.newHttpClient();
+
+        System.gc();
+        long heapInicial = heapRetido();
+
+        ConteudoSintetico conteudo = new ConteudoSintetico(TAMANHO);
+        long inicio = System.nanoTime();
+        HttpResponse<String> upload = http.send(HttpRequest.newBuilder(URI.create(base + "?nome=grande.pdf&contentType=application/pdf"))
+                .header("Authorization", token)
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> conteudo))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        double segundosUpload = (System.nanoTime() - inicio) / 1e9;
+        assertEquals(200, upload.statusCode(), upload.body());
+        JsonNode arquivo = objectMapper.readTree(upload.body());
+        assertEquals(TAMANHO, arquivo.get("tamanho").asLong());
+        String checksum = HexFormat.of().formatHex(conteudo.digest.digest());
+        assertEquals("sha256:" + checksum, arquivo.get("checksum").asText());
+
+        inicio = System.nanoTime();
+        HttpResponse<InputStream> download = http.send(HttpRequest.newBuilder(URI.create(base + "/" + arquivo.get("id").asText() + "/conteudo"))
+                .header("Authorization", token)
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, download.statusCode());
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        long recebidos = 0;
+        try (InputStream corpo = download.body()) {
+            byte[] buffer = new byte[64 * 1024];
+            int lidos;
+            while ((lidos = corpo.read(buffer)) != -1) {
+                digest.update(buffer, 0, lidos);
+                recebidos += lidos;
+            }
+        }
+        double segundosDownload = (System.nanoTime() - inicio) / 1e9;
+        assertEquals(TAMANHO, recebidos);
+        assertEquals(checksum, HexFormat.of().formatHex(digest.digest()));
+
+        HttpResponse<byte[]> parcial = http.send(HttpRequest.newBuilder(URI.create(base + "/" + arquivo.get("id").asText() + "/conteudo"))
+                .header("Authorization", token)
+                .header("Range", "bytes=1000-1999")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(206, parcial.statusCode());
+        assertArrayEquals(ConteudoSintetico.trecho(1000, 1000), parcial.body());
+
+        long heapFinal = heapRetido();
+        double mbUpload = TAMANHO / MB / segundosUpload;
+        double mbDownload = TAMANHO / MB / segundosDownload;
+        System.out.printf("⏱️ %d MB attachment, heap max %d MB: upload %.1f s (%.0f MB/s), download %.1f s (%.0f MB/s), "
+                        + "heap retained after GC %d MB -> %d MB%n",
+                TAMANHO / MB, Runtime.getRuntime().maxMemory() / MB, segundosUpload, mbUpload,
+                segundosDownload, mbDownload, heapInicial / MB, heapFinal / MB);
+        assertTrue(heapFinal - heapInicial < HEAP_RETIDO_MAXIMO, "heap retained grew by " + (heapFinal - heapInicial) / MB + " MB");
+        assertTrue(mbUpload > MB_POR_SEGUNDO_MINIMO, "upload at " + mbUpload + " MB/s");
+        assertTrue(mbDownload > MB_POR_SEGUNDO_MINIMO, "download at " + mbDownload + " MB/s");
+    }
+
+    // Heap in use after the last collection of each pool, i.e. what survived
+    private static long heapRetido() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage uso = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && uso != null) {
+                total += uso.getUsed();
+            }
+        }
+        return total;
+    }
+
+    /** Deterministic pseudo-random bytes, generated as they are read and hashed on the way. */
+    private static class ConteudoSintetico extends InputStream {
+
+        private final long tamanho;
+        private final MessageDigest digest;
+        private long posicao;
+
+        ConteudoSintetico(long tamanho) throws Exception {
+            this.tamanho = tamanho;
+            this.digest = MessageDigest.getInstance("SHA-256");
+        }
+
+        static byte byteEm(long posicao) {
+            long x = posicao * 0x9E3779B97F4A7C15L;
+            return (byte) (x ^ (x >>> 29));
+        }
+
+        static byte[] trecho(long inicio, int tamanho) {
+            byte[] bytes = new byte[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                bytes[i] = byteEm(inicio + i);
+            }
+            return bytes;
+        }
+
+        @Override
+        public int read() {
+            byte[] um = new byte[1];
+            return read(um, 0, 1) == -1 ? -1 : um[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (posicao >= tamanho) {
+                return -1;
+            }
+            int n = (int) Math.min(len, tamanho - posicao);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = byteEm(posicao + i);
+            }
+            digest.update(b, off, n);
+            posicao += n;
+            return n;
+        }
+    }
+}
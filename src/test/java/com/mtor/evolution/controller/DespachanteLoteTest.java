@@ -0,0 +1,85 @@
+package com.mtor.evolution.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mtor.evolution.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch calls may not reach the batch, login or stream endpoints through a
+ * path the handler mapping would normalize onto them: doubled slashes,
+ * matrix parameters, dot segments or escapes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class DespachanteLoteTest {
+
+    private static final List<String> VARIANTES = List.of(
+            "/batch", "//batch", "/batch/", "/./batch", "/x/../batch", "/batch;x", "/b%61tch", "/%2Fbatch",
+            "/auth/login", "/auth;x/login", "//auth/login", "/auth/./login", "/Auth/../auth/login",
+            "/notificacoes/stream", "/notificacoes/./stream", "/notificacoes//stream", "/notificacoes/stream;x",
+            "/notificacoes/%73tream", "/clientes/%zz", "clientes");
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void recusaCaminhosForaDaFormaCanonica() {
+        for (String caminho : VARIANTES) {
+            assertFalse(DespachanteLote.permitido(caminho), caminho);
+        }
+        assertTrue(DespachanteLote.permitido("/clientes?search=a%2Fb&page=0"));
+        assertTrue(DespachanteLote.permitido("/authors"));
+        assertTrue(DespachanteLote.permitido("/notificacoes"));
+    }
+
+    @Test
+    void loteRespondeCadaVarianteComoRecusadaESoExecutaAsDemais() throws Exception {
+        List<Map<String, Object>> requisicoes = new ArrayList<>();
+        for (int i = 0; i < VARIANTES.size(); i++) {
+            requisicoes.add(Map.of("id", String.valueOf(i), "metodo", "GET", "caminho", VARIANTES.get(i)));
+        }
+        requisicoes.add(Map.of("id", "ok", "metodo", "GET", "caminho", "/clientes?size=1"));
+        String corpo = objectMapper.writeValueAsString(Map.of("requisicoes", requisicoes));
+
+        HttpResponse<String> resposta = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + porta + "/api/v1/batch"))
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("admin@mtor.com")))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, resposta.statusCode(), resposta.body());
+        JsonNode respostas = objectMapper.readTree(resposta.body()).get("respostas");
+        for (int i = 0; i < VARIANTES.size(); i++) {
+            assertEquals(400, respostas.get(i).get("status").asInt(), VARIANTES.get(i));
+        }
+        assertEquals(200, respostas.get(VARIANTES.size()).get("status").asInt());
+    }
+}
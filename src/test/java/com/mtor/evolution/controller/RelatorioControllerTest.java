@@ -0,0 +1,105 @@
+package com.mtor.evolution.controller;
+
+import com.mtor.evolution.repository.AvaliacaoFisicaRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import com.mtor.evolution.security.JwtUtil;
+import com.mtor.evolution.service.RelatorioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PDF downloads through the real connector: the first one is streamed as the
+ * worker renders it, later ones come from the cache, and a report larger
+ * than a cache entry is streamed again to every request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RelatorioControllerTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @AfterEach
+    void limite() {
+        ReflectionTestUtils.setField(relatorioService, "maxBytesEntrada", 8L * 1024 * 1024);
+    }
+
+    @Test
+    void primeiroDownloadEmFluxoDepoisDoCache() throws Exception {
+        String url = "http://localhost:" + porta + "/api/v1/relatorios/exames/" + exameRepository.findAll().get(0).getId() + "/pdf";
+
+        HttpResponse<byte[]> primeiro = baixar(url, Map.of());
+        assertEquals(200, primeiro.statusCode());
+        // Streamed: the length is not known when the headers go out
+        assertTrue(primeiro.headers().firstValue("Content-Length").isEmpty());
+        assertPdf(primeiro.body());
+
+        HttpResponse<byte[]> segundo = baixar(url, Map.of());
+        assertEquals(200, segundo.statusCode());
+        assertEquals(String.valueOf(primeiro.body().length), segundo.headers().firstValue("Content-Length").orElseThrow());
+        assertArrayEquals(primeiro.body(), segundo.body());
+
+        String etag = segundo.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, baixar(url, Map.of("If-None-Match", etag)).statusCode());
+    }
+
+    @Test
+    void relatorioMaiorQueUmaEntradaNuncaEntraNoCache() throws Exception {
+        ReflectionTestUtils.setField(relatorioService, "maxBytesEntrada", 256L);
+        String url = "http://localhost:" + porta + "/api/v1/relatorios/avaliacoes/"
+                + avaliacaoFisicaRepository.findAll().get(0).getId() + "/pdf";
+
+        for (int i = 0; i < 2; i++) {
+            HttpResponse<byte[]> resposta = baixar(url, Map.of());
+            assertEquals(200, resposta.statusCode());
+            assertTrue(resposta.headers().firstValue("Content-Length").isEmpty(), "download " + i + " not streamed");
+            assertPdf(resposta.body());
+        }
+    }
+
+    private HttpResponse<byte[]> baixar(String url, Map<String, String> cabecalhos) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername("admin@mtor.com")));
+        cabecalhos.forEach(request::header);
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static void assertPdf(byte[] pdf) {
+        assertTrue(new String(pdf, 0, 5, StandardCharsets.ISO_8859_1).startsWith("%PDF-"));
+        assertTrue(new String(pdf, StandardCharsets.ISO_8859_1).stripTrailing().endsWith("%%EOF"));
+    }
+}
@@ -0,0 +1,164 @@
+package com.mtor.evolution.model;
+
+import com.mtor.evolution.repository.BlocoFrequenciaCardiacaRepository;
+import com.mtor.evolution.repository.ProtocoloRepository;
+import com.mtor.evolution.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UUIDv7 keys on the real JPA path: a {@code saveAll} of new entities must
+ * reach the database as JDBC batches, which prepare the INSERT once and
+ * reuse it for every batch (unbatched, it is prepared for each row; every
+ * statement is captured by a {@link StatementInspector}). An id set by the
+ * caller must be the one the row is stored under.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.mtor.evolution.model.GeradorUuidV7Test$ConsultasSql")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class GeradorUuidV7Test {
+
+    private static final int LINHAS = 120;
+
+    @Autowired
+    private BlocoFrequenciaCardiacaRepository blocoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProtocoloRepository protocoloRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void limpar() {
+        ConsultasSql.limpar();
+    }
+
+    @Test
+    void saveAllInsereEmLotes() {
+        assertEquals(1, inserts(blocoRepository, GeradorUuidV7Test::bloco, "blocos_frequencia_cardiaca"));
+        assertEquals(1, inserts(userRepository, GeradorUuidV7Test::usuario, "users"));
+        assertEquals(1, inserts(protocoloRepository, GeradorUuidV7Test::protocolo, "protocolos"));
+    }
+
+    @Test
+    void idAtribuidoPeloChamadorEMantido() {
+        UUID idBloco = UuidV7.gerar();
+        UUID idUsuario = UUID.randomUUID();
+        UUID idProtocolo = UuidV7.gerar();
+        BlocoFrequenciaCardiaca bloco = bloco(0);
+        bloco.setId(idBloco);
+        User usuario = usuario(0);
+        usuario.setId(idUsuario);
+        Protocolo protocolo = protocolo(0);
+        protocolo.setId(idProtocolo);
+        // Hibernate refuses a versioned entity with an id but no version, so a preset id comes with version 0
+        protocolo.setVersao(0L);
+
+        // With an id, save merges: the row is not found and the merged copy is inserted under that id
+        assertEquals(idBloco, blocoRepository.save(bloco).getId());
+        assertEquals(idUsuario, userRepository.save(usuario).getId());
+        assertEquals(idProtocolo, protocoloRepository.save(protocolo).getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(0, blocoRepository.findById(idBloco).orElseThrow().getInicioMs());
+        assertEquals("usuario0@teste.com", userRepository.findById(idUsuario).orElseThrow().getEmail());
+        assertEquals("Protocolo 0", protocoloRepository.findById(idProtocolo).orElseThrow().getNome());
+
+        // Without one, each gets a fresh id
+        User outro = userRepository.save(usuario(1));
+        assertNotNull(outro.getId());
+        assertNotEquals(idUsuario, outro.getId());
+        assertEquals(7, outro.getId().version());
+    }
+
+    // INSERT statements prepared for the table while flushing a saveAll of LINHAS new rows
+    private <T> long inserts(JpaRepository<T, UUID> repository, IntFunction<T> nova, String tabela) {
+        List<T> entidades = new ArrayList<>();
+        for (int i = 0; i < LINHAS; i++) {
+            entidades.add(nova.apply(i));
+        }
+        ConsultasSql.limpar();
+        repository.saveAll(entidades);
+        entityManager.flush();
+        entityManager.clear();
+        List<String> capturadas = ConsultasSql.capturadas();
+        assertTrue(capturadas.stream().noneMatch(sql -> sql.toLowerCase().startsWith("select")),
+                "saveAll of new rows read the table: " + capturadas);
+        assertEquals(LINHAS, repository.count());
+        return capturadas.stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.startsWith("insert into " + tabela + " "))
+                .count();
+    }
+
+    private static BlocoFrequenciaCardiaca bloco(int i) {
+        BlocoFrequenciaCardiaca bloco = new BlocoFrequenciaCardiaca();
+        bloco.setSessaoId(1L);
+        bloco.setInicioMs(i * 1000L);
+        bloco.setFimMs(i * 1000L + 999);
+        bloco.setQuantidade(1);
+        bloco.setBpmMinimo(120);
+        bloco.setBpmMaximo(120);
+        bloco.setSomaBpm(120);
+        bloco.setUltimoBpm(120);
+        bloco.setDados(new byte[]{1});
+        return bloco;
+    }
+
+    private static User usuario(int i) {
+        return new User("Usuário " + i, "usuario" + i + "@teste.com", "senha123", User.Role.COACH);
+    }
+
+    private static Protocolo protocolo(int i) {
+        Protocolo protocolo = new Protocolo();
+        protocolo.setNome("Protocolo " + i);
+        protocolo.setTipo(Protocolo.Tipo.PERSONALIZADO);
+        return protocolo;
+    }
+
+    /** Registered by class name through the Hibernate setting, so it records into a static list. */
+    public static class ConsultasSql implements StatementInspector {
+
+        private static final List<String> SQL = Collections.synchronizedList(new ArrayList<>());
+
+        static void limpar() {
+            SQL.clear();
+        }
+
+        static List<String> capturadas() {
+            synchronized (SQL) {
+                return List.copyOf(SQL);
+            }
+        }
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mtor.evolution.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Insert throughput of the primary key kinds on scratch tables: an
+ * identity column, inserted one row at a time as Hibernate must to learn
+ * each id, against random (v4) and time-ordered (v7) UUIDs made in the
+ * application and sent in JDBC batches. UUIDv7 inserts must keep up with
+ * v4 ones everywhere. The round trips batching saves only show over a
+ * network, so against Postgres (run with {@code -Dspring.datasource.url=...})
+ * they must also beat identity inserts, and the v7 primary key index must
+ * not be larger than the v4 one, which random keys split all over.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class UuidV7BenchmarkTest {
+
+    private static final int LINHAS = Integer.getInteger("benchmark.linhas", 20_000);
+    private static final int LOTE = 50;
+    private static final int RODADAS = 5;
+    // Timing noise allowed before v7 counts as slower than v4
+    private static final double FOLGA_TEMPO = 1.25;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void uuidV7EmLoteAcompanhaUuidV4ESuperaIdentidadeNoPostgres() {
+        Medida[] medidas = jdbcTemplate.execute((ConnectionCallback<Medida[]>) conexao -> {
+            boolean postgres = conexao.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+            // Warm-up round, so the JIT and the database caches are in the same state for every kind
+            for (Modo modo : Modo.values()) {
+                inserir(conexao, modo, postgres);
+            }
+            // Kinds interleaved in every round, so a slow spell of the machine hits them alike; median per kind
+            Medida[][] rodadas = new Medida[Modo.values().length][RODADAS];
+            for (int r = 0; r < RODADAS; r++) {
+                for (Modo modo : Modo.values()) {
+                    rodadas[modo.ordinal()][r] = inserir(conexao, modo, postgres);
+                }
+            }
+            Medida[] medianas = new Medida[rodadas.length];
+            for (int m = 0; m < rodadas.length; m++) {
+                Arrays.sort(rodadas[m], Comparator.comparingLong(Medida::nanos));
+                medianas[m] = rodadas[m][RODADAS / 2];
+            }
+            return medianas;
+        });
+
+        Medida identidade = medidas[Modo.IDENTIDADE.ordinal()];
+        Medida v4 = medidas[Modo.UUID_V4.ordinal()];
+        Medida v7 = medidas[Modo.UUID_V7.ordinal()];
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        System.out.printf("⏱️ %d inserts on %s (commit every %d): identity %s; UUIDv4 batched %s; UUIDv7 batched %s%n",
+                LINHAS, banco, LOTE, identidade, v4, v7);
+        assertTrue(v7.nanos < v4.nanos * FOLGA_TEMPO, "UUIDv7 " + v7 + " vs UUIDv4 " + v4);
+        if (v7.indiceBytes >= 0) {
+            assertTrue(v7.nanos < identidade.nanos, "UUIDv7 " + v7 + " vs identity " + identidade);
+            assertTrue(v7.indiceBytes <= v4.indiceBytes, "UUIDv7 " + v7 + " vs UUIDv4 " + v4);
+        }
+    }
+
+    // Fresh table each time, dropped afterwards
+    private static Medida inserir(Connection conexao, Modo modo, boolean postgres) throws SQLException {
+        String tabela = "benchmark_ids_" + modo.name().toLowerCase();
+        boolean autoCommit = conexao.getAutoCommit();
+        conexao.setAutoCommit(true);
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + tabela);
+            statement.execute("CREATE TABLE " + tabela + " (id "
+                    + (modo == Modo.IDENTIDADE ? "bigint GENERATED BY DEFAULT AS IDENTITY" : "uuid") + " PRIMARY KEY, "
+                    + "cliente_id bigint NOT NULL, valor varchar(64) NOT NULL, criado_em bigint NOT NULL)");
+        }
+        conexao.setAutoCommit(false);
+        try {
+            Random random = new Random(42);
+            long inicio = System.nanoTime();
+            if (modo == Modo.IDENTIDADE) {
+                String sql = "INSERT INTO " + tabela + " (cliente_id, valor, criado_em) VALUES (?, ?, ?)";
+                try (PreparedStatement insert = conexao.prepareStatement(sql, new String[]{"id"})) {
+                    for (int i = 1; i <= LINHAS; i++) {
+                        preencher(insert, 1, random);
+                        insert.executeUpdate();
+                        try (ResultSet chaves = insert.getGeneratedKeys()) {
+                            chaves.next();
+                        }
+                        if (i % LOTE == 0) {
+                            conexao.commit();
+                        }
+                    }
+                }
+            } else {
+                String sql = "INSERT INTO " + tabela + " (id, cliente_id, valor, criado_em) VALUES (?, ?, ?, ?)";
+                try (PreparedStatement insert = conexao.prepareStatement(sql)) {
+                    for (int i = 1; i <= LINHAS; i++) {
+                        insert.setObject(1, modo == Modo.UUID_V7 ? UuidV7.gerar() : UUID.randomUUID());
+                        preencher(insert, 2, random);
+                        insert.addBatch();
+                        if (i % LOTE == 0) {
+                            insert.executeBatch();
+                            conexao.commit();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+            }
+            conexao.commit();
+            long nanos = System.nanoTime() - inicio;
+
+            long indiceBytes = -1;
+            if (postgres) {
+                try (PreparedStatement tamanho = conexao.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+                    tamanho.setString(1, tabela + "_pkey");
+                    try (ResultSet rs = tamanho.executeQuery()) {
+                        rs.next();
+                        indiceBytes = rs.getLong(1);
+                    }
+                }
+                conexao.commit();
+            }
+            return new Medida(nanos, indiceBytes);
+        } finally {
+            conexao.setAutoCommit(true);
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + tabela);
+            }
+            conexao.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void preencher(PreparedStatement insert, int primeiro, Random random) throws SQLException {
+        insert.setLong(primeiro, 1 + random.nextInt(100_000));
+        insert.setString(primeiro + 1, Long.toHexString(random.nextLong()));
+        insert.setLong(primeiro + 2, System.currentTimeMillis());
+    }
+
+    private enum Modo {
+        IDENTIDADE, UUID_V4, UUID_V7
+    }
+
+    // indiceBytes: size of the primary key index, -1 when not on Postgres
+    private record Medida(long nanos, long indiceBytes) {
+
+        @Override
+        public String toString() {
+            return String.format("%d ms (%d rows/s)%s", nanos / 1_000_000, Math.round(LINHAS * 1e9 / Math.max(1, nanos)),
+                    indiceBytes >= 0 ? String.format(", pk index %d kB", indiceBytes / 1024) : "");
+        }
+    }
+}
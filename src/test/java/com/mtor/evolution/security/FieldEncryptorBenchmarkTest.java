@@ -0,0 +1,147 @@
+package com.mtor.evolution.security;
+
+import com.mtor.evolution.dto.ExameDto;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.Exame;
+import com.mtor.evolution.model.ResultadoExame;
+import com.mtor.evolution.repository.ClienteRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of field encryption on an exam list: two clients with the same exams,
+ * one stored encrypted (as the app writes them) and one rewritten to
+ * plaintext over JDBC, each loaded and mapped to DTOs the way a list endpoint
+ * does. The difference is what decryption adds per value.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class FieldEncryptorBenchmarkTest {
+
+    private static final int EXAMES = Integer.getInteger("benchmark.exames", 1000);
+    private static final int RESULTADOS = 8;
+    private static final int AQUECIMENTO = 5;
+    private static final int RODADAS = 15;
+    // Budget for decrypting one column value, on top of loading it
+    private static final double MICROS_POR_VALOR_MAXIMO = 20;
+
+    private static final String OBSERVACOES = "Paciente em jejum de 12 horas, sem uso de medicação contínua. ".repeat(5);
+    private static final String OBSERVACAO_RESULTADO = "Dentro da faixa esperada para a idade e o sexo.";
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private FieldEncryptor fieldEncryptor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void listaDeExamesCriptografadosCustaPoucoAlemDaLeitura() {
+        Long criptografado = criarCliente("bench-cripto@mtor.com");
+        Long plano = criarCliente("bench-plano@mtor.com");
+        String armazenado = jdbcTemplate.queryForObject(
+                "SELECT observacoes FROM exames WHERE cliente_id = ? LIMIT 1", String.class, criptografado);
+        assertTrue(armazenado.startsWith(fieldEncryptor.prefixoAtivo()), "exams must be stored encrypted");
+
+        jdbcTemplate.update("UPDATE exames SET observacoes = ?, observacoes_medicas = ? WHERE cliente_id = ?",
+                OBSERVACOES, OBSERVACOES, plano);
+        jdbcTemplate.update("UPDATE resultados_exame SET valor = ?, observacao = ? "
+                + "WHERE exame_id IN (SELECT id FROM exames WHERE cliente_id = ?)", "14.2", OBSERVACAO_RESULTADO, plano);
+
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            listar(criptografado);
+            listar(plano);
+        }
+        long[] tempoCriptografado = new long[RODADAS];
+        long[] tempoPlano = new long[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            tempoCriptografado[i] = listar(criptografado);
+            tempoPlano[i] = listar(plano);
+        }
+
+        double msCriptografado = mediana(tempoCriptografado) / 1e6;
+        double msPlano = mediana(tempoPlano) / 1e6;
+        int valores = EXAMES * (2 + 2 * RESULTADOS);
+        double microsPorValor = (msCriptografado - msPlano) * 1000 / valores;
+        System.out.printf("⏱️ %d exams (%d encrypted values): plaintext %.1f ms, encrypted %.1f ms (+%.0f%%), %.2f µs per value%n",
+                EXAMES, valores, msPlano, msCriptografado, (msCriptografado / msPlano - 1) * 100, microsPorValor);
+        assertTrue(microsPorValor < MICROS_POR_VALOR_MAXIMO, "decryption costs " + microsPorValor + " µs per value");
+    }
+
+    private Long criarCliente(String email) {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Benchmark");
+        cliente.setEmail(email);
+        cliente.setTelefone("(11) 90000-0000");
+        cliente.setDataNascimento(LocalDate.of(1990, 1, 1));
+        cliente.setGenero(Cliente.Genero.FEMININO);
+        cliente.setModalidade("Musculação");
+        cliente.setObjetivo("Benchmark");
+        Cliente salvo = clienteRepository.save(cliente);
+
+        List<Exame> exames = new ArrayList<>(EXAMES);
+        for (int i = 0; i < EXAMES; i++) {
+            Exame exame = new Exame(salvo, "Hemograma Completo", LocalDateTime.now().minusDays(i));
+            exame.setObservacoes(OBSERVACOES);
+            exame.setObservacoesMedicas(OBSERVACOES);
+            for (int r = 0; r < RESULTADOS; r++) {
+                ResultadoExame resultado = new ResultadoExame("Parâmetro " + r, "14.2", "g/dL", "12.0 - 16.0",
+                        ResultadoExame.Status.NORMAL);
+                resultado.setObservacao(OBSERVACAO_RESULTADO);
+                exame.getResultados().add(resultado);
+            }
+            exames.add(exame);
+        }
+        exameRepository.saveAll(exames);
+        return salvo.getId();
+    }
+
+    private long listar(Long clienteId) {
+        long inicio = System.nanoTime();
+        List<ExameDto> dtos = transactionTemplate.execute(status -> entityManager.createQuery(
+                        "SELECT DISTINCT e FROM Exame e JOIN FETCH e.cliente LEFT JOIN FETCH e.resultados "
+                                + "WHERE e.cliente.id = :id", Exame.class)
+                .setParameter("id", clienteId)
+                .getResultStream()
+                .map(ExameDto::new)
+                .toList());
+        long tempo = System.nanoTime() - inicio;
+        assertEquals(EXAMES, dtos.size());
+        assertEquals(OBSERVACOES, dtos.get(0).getObservacoes());
+        return tempo;
+    }
+
+    private static long mediana(long[] tempos) {
+        long[] ordenados = tempos.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+}
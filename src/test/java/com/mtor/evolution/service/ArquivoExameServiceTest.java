@@ -0,0 +1,90 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.ArquivoExameDto;
+import com.mtor.evolution.model.ArquivoExame;
+import com.mtor.evolution.repository.ArquivoExameRepository;
+import com.mtor.evolution.repository.ExameRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * An upload that is refused, for an unknown exam or a row that fails to
+ * save, must not leave behind a blob that no attachment references: the
+ * delete-time reference count would never see it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArquivoExameServiceTest {
+
+    @Autowired
+    private ArquivoExameService arquivoExameService;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @SpyBean
+    private ArquivoExameRepository arquivoExameRepository;
+
+    @Test
+    void exameInexistenteNaoDeixaBlob() throws Exception {
+        byte[] conteudo = conteudo();
+
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> arquivoExameService.store(
+                "999999", "laudo.pdf", "application/pdf", new ByteArrayInputStream(conteudo)));
+
+        assertEquals("Exame não encontrado", erro.getMessage());
+        assertFalse(Files.exists(arquivoExameService.blobPath(sha256(conteudo))));
+    }
+
+    @Test
+    void falhaAoGravarALinhaRemoveOBlob() throws Exception {
+        byte[] conteudo = conteudo();
+        String exameId = exameRepository.findAll().get(0).getId().toString();
+        doThrow(new DataIntegrityViolationException("falha simulada")).when(arquivoExameRepository).save(any(ArquivoExame.class));
+
+        assertThrows(DataIntegrityViolationException.class, () -> arquivoExameService.store(
+                exameId, "laudo.pdf", "application/pdf", new ByteArrayInputStream(conteudo)));
+
+        assertFalse(Files.exists(arquivoExameService.blobPath(sha256(conteudo))));
+    }
+
+    @Test
+    void blobViveEnquantoHouverReferencia() throws Exception {
+        byte[] conteudo = conteudo();
+        String exameId = exameRepository.findAll().get(0).getId().toString();
+
+        ArquivoExameDto arquivo = arquivoExameService.store(
+                exameId, "laudo.pdf", "application/pdf", new ByteArrayInputStream(conteudo));
+        assertTrue(Files.exists(arquivoExameService.blobPath(sha256(conteudo))));
+
+        assertTrue(arquivoExameService.delete(exameId, Long.valueOf(arquivo.getId())));
+        assertFalse(Files.exists(arquivoExameService.blobPath(sha256(conteudo))));
+    }
+
+    // Unique per call, so no other test's blob can share the checksum
+    private static byte[] conteudo() {
+        return ("laudo " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(byte[] conteudo) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+    }
+}
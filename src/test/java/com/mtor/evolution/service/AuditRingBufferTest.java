@@ -0,0 +1,149 @@
+package com.mtor.evolution.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ring buffer behaviour across many wraps of its slots, with a full buffer,
+ * and with several producers racing one consumer.
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void capacidadeArredondadaParaPotenciaDeDois() {
+        assertEquals(4, new AuditRingBuffer<Integer>(1).capacity());
+        assertEquals(8, new AuditRingBuffer<Integer>(8).capacity());
+        assertEquals(16, new AuditRingBuffer<Integer>(9).capacity());
+        assertEquals(1024, new AuditRingBuffer<Integer>(1000).capacity());
+    }
+
+    @Test
+    void ordemMantidaAoDarVoltas() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        List<Integer> drenados = new ArrayList<>();
+        int proximo = 0;
+        // Uneven batches, so the head and tail meet every slot in every position, full or not
+        for (int volta = 0; volta < 100; volta++) {
+            for (int i = volta % 5; i > 0 && buffer.offer(proximo); i--) {
+                proximo++;
+            }
+            buffer.drainTo(drenados, 1 + volta % 3);
+        }
+        buffer.drainTo(drenados, Integer.MAX_VALUE);
+
+        assertEquals(proximo, drenados.size());
+        for (int i = 0; i < proximo; i++) {
+            assertEquals(i, drenados.get(i));
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void cheioRecusaAteODrenoLiberarEspaco() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        long inicio = System.nanoTime();
+        assertFalse(buffer.offer(4, 20, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - inicio >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drenados = new ArrayList<>();
+        assertEquals(1, buffer.drainTo(drenados, 1));
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+        buffer.drainTo(drenados, 10);
+        assertEquals(List.of(0, 1, 2, 3, 4), drenados);
+    }
+
+    @Test
+    void ofertaComEsperaEntraQuandoOConsumidorDrena() throws Exception {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(2);
+        buffer.offer(0);
+        buffer.offer(1);
+        Thread consumidor = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            buffer.drainTo(new ArrayList<>(), 1);
+        });
+        consumidor.start();
+
+        assertTrue(buffer.offer(2, 5, TimeUnit.SECONDS));
+        consumidor.join();
+        List<Integer> drenados = new ArrayList<>();
+        buffer.drainTo(drenados, 10);
+        assertEquals(List.of(1, 2), drenados);
+    }
+
+    @Test
+    void variosProdutoresUmConsumidor() throws Exception {
+        int produtores = 4;
+        int porProdutor = 50_000;
+        AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(64);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            int produtor = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < porProdutor; i++) {
+                    // The small buffer is full most of the time, so producers wait on the full path too
+                    if (!buffer.offer(new long[]{produtor, i}, 10, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("offer timed out");
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        largada.countDown();
+        int[] proximoPorProdutor = new int[produtores];
+        List<long[]> lote = new ArrayList<>();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        int recebidos = 0;
+        while (recebidos < produtores * porProdutor) {
+            assertTrue(System.nanoTime() < limite, "only " + recebidos + " items drained");
+            lote.clear();
+            int drenados = buffer.drainTo(lote, 32);
+            if (drenados == 0) {
+                LockSupport.parkNanos(50_000);
+            }
+            recebidos += drenados;
+            for (long[] item : lote) {
+                int produtor = (int) item[0];
+                // Each producer's items arrive once each, in the order it offered them
+                assertEquals(proximoPorProdutor[produtor]++, (int) item[1]);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int p = 0; p < produtores; p++) {
+            assertEquals(porProdutor, proximoPorProdutor[p]);
+        }
+        assertEquals(0, buffer.drainTo(lote, 32));
+        assertEquals(0, buffer.size());
+    }
+}
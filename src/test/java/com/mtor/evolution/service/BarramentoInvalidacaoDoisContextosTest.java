@@ -0,0 +1,120 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.MtorEvolutionApplication;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.repository.ClienteRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application contexts in one JVM over one embedded database, talking
+ * through the in-process transport the way replicas talk over Postgres. A
+ * write on one must reach the other's client indexes, and a gap in a
+ * sender's sequence numbers must make both rebuild from the database.
+ */
+class BarramentoInvalidacaoDoisContextosTest {
+
+    private static final long ESPERA_MS = 10_000;
+
+    private static ConfigurableApplicationContext primeiro;
+    private static ConfigurableApplicationContext segundo;
+
+    @BeforeAll
+    static void iniciar() {
+        String url = "jdbc:h2:mem:dois-contextos-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        primeiro = contexto(url, "create");
+        // The second one must not drop what the first created and seeded
+        segundo = contexto(url, "none");
+        aguardar("facet indexes loaded", () -> facetas(primeiro).status().get("pronto").equals(true)
+                && facetas(segundo).status().get("pronto").equals(true));
+    }
+
+    @AfterAll
+    static void encerrar() {
+        if (segundo != null) {
+            segundo.close();
+        }
+        if (primeiro != null) {
+            primeiro.close();
+        }
+    }
+
+    @Test
+    void alteracaoEmUmContextoChegaAoOutro() {
+        long inativos = inativos(segundo);
+        ClienteRepository clientes = primeiro.getBean(ClienteRepository.class);
+        Cliente cliente = clientes.findByEmail("joao.silva@email.com").orElseThrow();
+        cliente.setStatus(cliente.getStatus() == Cliente.Status.ATIVO ? Cliente.Status.INATIVO : Cliente.Status.ATIVO);
+        clientes.save(cliente);
+        long esperado = inativos + (cliente.getStatus() == Cliente.Status.INATIVO ? 1 : -1);
+
+        aguardar("status change seen by the second context", () -> inativos(segundo) == esperado);
+        aguardar("status change seen by the first context", () -> inativos(primeiro) == esperado);
+    }
+
+    @Test
+    void lacunaNaSequenciaInvalidaTudo() {
+        // Written past the entity listeners, so only a full flush can bring it into the indexes
+        long inativos = inativos(segundo);
+        int alterados = primeiro.getBean(JdbcTemplate.class)
+                .update("UPDATE clientes SET status = 'INATIVO' WHERE email = 'maria.santos@email.com' AND status = 'ATIVO'");
+        assertEquals(1, alterados);
+        long completasPrimeiro = completas(primeiro);
+        long completasSegundo = completas(segundo);
+
+        TransporteInvalidacao transporte = primeiro.getBean(TransporteInvalidacao.class);
+        String remetente = "remetente-" + UUID.randomUUID();
+        transporte.enviar(remetente + " 1");
+        transporte.enviar(remetente + " 3");
+
+        assertEquals(completasPrimeiro + 1, completas(primeiro));
+        assertEquals(completasSegundo + 1, completas(segundo));
+        aguardar("second context rebuilt from the database", () -> inativos(segundo) == inativos + 1);
+        aguardar("first context rebuilt from the database", () -> inativos(primeiro) == inativos + 1);
+    }
+
+    private static ConfigurableApplicationContext contexto(String url, String ddl) {
+        // As arguments, since default properties lose to application.yml
+        return new SpringApplicationBuilder(MtorEvolutionApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.jpa.hibernate.ddl-auto=" + ddl,
+                        "--invalidation.transport=local");
+    }
+
+    private static FacetasClientes facetas(ConfigurableApplicationContext contexto) {
+        return contexto.getBean(FacetasClientes.class);
+    }
+
+    private static long inativos(ConfigurableApplicationContext contexto) {
+        return facetas(contexto).consultar("status:INATIVO", 0, 1).orElseThrow().getTotal();
+    }
+
+    private static long completas(ConfigurableApplicationContext contexto) {
+        return (Long) contexto.getBean(BarramentoInvalidacao.class).status().get("invalidacoesCompletas");
+    }
+
+    private static void aguardar(String descricao, BooleanSupplier condicao) {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "timed out waiting for " + descricao);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
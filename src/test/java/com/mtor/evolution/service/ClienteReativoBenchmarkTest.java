@@ -0,0 +1,119 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.repository.ClienteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same burst of concurrent client lookups through the blocking and the
+ * reactive path, each wait lengthened by an injected latency standing in for
+ * a distant database. The blocking path waits on one of a fixed pool of
+ * threads, as under Tomcat; the reactive one on a timer, as a non-blocking
+ * driver waits on the network. The reactive path must serve the burst
+ * without a thread per waiting request. On embedded H2 the R2DBC driver runs
+ * each query in-process, so its wall clock is only held to the blocking
+ * path's within a margin; the gain in time needs a database over the network.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reativo-benchmark;DB_CLOSE_DELAY=-1",
+        "reactive.enabled=true",
+        "reactive.url=r2dbc:h2:mem:///reativo-benchmark"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class ClienteReativoBenchmarkTest {
+
+    private static final int CONCORRENCIA = Integer.getInteger("benchmark.concorrencia", 1000);
+    private static final long LATENCIA_MS = 200;
+    // Tomcat's default server.tomcat.threads.max
+    private static final int THREADS_BLOQUEANTES = 200;
+    private static final int AQUECIMENTO = 2;
+    private static final double FOLGA_TEMPO = 1.5;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteReativoService clienteReativoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void caminhoReativoAtendeARajadaSemThreadPorRequisicao() throws Exception {
+        Long clienteId = clienteRepository.findByEmail("joao.silva@email.com").orElseThrow().getId();
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            medirBloqueante(clienteId);
+            medirReativo(clienteId);
+        }
+        Medida bloqueante = medirBloqueante(clienteId);
+        Medida reativo = medirReativo(clienteId);
+
+        System.out.printf("⏱️ %d lookups with %d ms latency: blocking (%d threads) %s; reactive %s%n",
+                CONCORRENCIA, LATENCIA_MS, THREADS_BLOQUEANTES, bloqueante, reativo);
+        assertTrue(reativo.threadsExtras < THREADS_BLOQUEANTES / 10, "reactive " + reativo + " vs blocking " + bloqueante);
+        assertTrue(reativo.nanos < bloqueante.nanos * FOLGA_TEMPO, "reactive " + reativo + " vs blocking " + bloqueante);
+    }
+
+    private Medida medirBloqueante(Long clienteId) throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_BLOQUEANTES);
+        try {
+            mx.resetPeakThreadCount();
+            int base = mx.getThreadCount();
+            long inicio = System.nanoTime();
+            List<Future<?>> futuros = new ArrayList<>(CONCORRENCIA);
+            for (int i = 0; i < CONCORRENCIA; i++) {
+                futuros.add(executor.submit(() -> {
+                    Thread.sleep(LATENCIA_MS);
+                    return clienteService.findById(clienteId).orElseThrow();
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+            return new Medida(System.nanoTime() - inicio, mx.getPeakThreadCount() - base);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Medida medirReativo(Long clienteId) {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        mx.resetPeakThreadCount();
+        int base = mx.getThreadCount();
+        long inicio = System.nanoTime();
+        Long encontrados = Flux.range(0, CONCORRENCIA)
+                .flatMap(i -> Mono.delay(Duration.ofMillis(LATENCIA_MS)).then(clienteReativoService.findById(clienteId)),
+                        CONCORRENCIA)
+                .count()
+                .block(Duration.ofMinutes(1));
+        assertTrue(encontrados == CONCORRENCIA, "reactive lookups found " + encontrados);
+        return new Medida(System.nanoTime() - inicio, mx.getPeakThreadCount() - base);
+    }
+
+    private record Medida(long nanos, int threadsExtras) {
+
+        @Override
+        public String toString() {
+            return String.format("%d ms, %.0f req/s, %d extra threads", nanos / 1_000_000,
+                    CONCORRENCIA * 1e9 / nanos, Math.max(0, threadsExtras));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.model.Cliente;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@code GET /clientes?fields=}: the SELECT Hibernate sends must name only
+ * the requested columns plus id and the sort column, not the whole row.
+ * Every statement is captured by a {@link StatementInspector}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.mtor.evolution.service.ClienteServiceCamposTest$ConsultasSql",
+        "coalescing.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ClienteService.class, ChamadasCoalescidas.class, SimpleMeterRegistry.class})
+class ClienteServiceCamposTest {
+
+    @MockBean
+    private ShardsCliente shards;
+
+    @MockBean
+    private BarramentoInvalidacao invalidacao;
+
+    @MockBean
+    private AlteracoesClientes alteracoes;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void clientes() {
+        entityManager.persist(cliente("Ana Souza", "ana@teste.com", "Pilates"));
+        entityManager.persist(cliente("Bruno Lima", "bruno@teste.com", "Musculação"));
+        entityManager.persist(cliente("Carla Silva", "carla@teste.com", "Corrida"));
+        entityManager.flush();
+        entityManager.clear();
+        ConsultasSql.limpar();
+    }
+
+    @Test
+    void selecionaSoOsCamposPedidosMaisIdEOrdenacao() {
+        Page<Map<String, Object>> pagina = clienteService.findAllCampos(
+                PageRequest.of(0, 2, Sort.by("dataNascimento")), null, List.of("nome", "email"));
+
+        assertEquals(Set.of("id", "nome", "email", "data_nascimento"), colunasDoSelect());
+        assertEquals(3, pagina.getTotalElements());
+        assertEquals(List.of("nome", "email"), List.copyOf(pagina.getContent().get(0).keySet()));
+        assertEquals("Ana Souza", pagina.getContent().get(0).get("nome"));
+    }
+
+    @Test
+    void buscaFiltraSemAcrescentarColunas() {
+        Page<Map<String, Object>> pagina = clienteService.findAllCampos(
+                PageRequest.of(0, 10), "silva", List.of("status"));
+
+        assertEquals(Set.of("id", "status"), colunasDoSelect());
+        assertEquals(1, pagina.getContent().size());
+        assertEquals(Cliente.Status.ATIVO, pagina.getContent().get(0).get("status"));
+    }
+
+    @Test
+    void idPedidoVemComoTexto() {
+        Page<Map<String, Object>> pagina = clienteService.findAllCampos(
+                PageRequest.of(0, 10, Sort.by("nome")), null, List.of("id"));
+
+        assertEquals(Set.of("id", "nome"), colunasDoSelect());
+        assertEquals(String.class, pagina.getContent().get(0).get("id").getClass());
+    }
+
+    @Test
+    void campoDesconhecidoERecusado() {
+        assertThrows(IllegalArgumentException.class, () -> clienteService.findAllCampos(
+                PageRequest.of(0, 10), null, List.of("nome", "senha")));
+    }
+
+    // Columns of the one statement reading client rows (the count is a separate statement)
+    private static Set<String> colunasDoSelect() {
+        List<String> selects = ConsultasSql.capturadas().stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from clientes") && !sql.contains("count("))
+                .toList();
+        assertEquals(1, selects.size(), "client row selects: " + selects);
+        String sql = selects.get(0);
+        String lista = sql.substring("select".length(), sql.indexOf(" from clientes"));
+        return Arrays.stream(lista.split(","))
+                .map(String::trim)
+                .map(coluna -> coluna.substring(coluna.indexOf('.') + 1))
+                .collect(Collectors.toSet());
+    }
+
+    private static Cliente cliente(String nome, String email, String modalidade) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setEmail(email);
+        cliente.setTelefone("(11) 90000-0000");
+        cliente.setDataNascimento(LocalDate.of(1980 + nome.length(), 1, 1));
+        cliente.setGenero(Cliente.Genero.FEMININO);
+        cliente.setModalidade(modalidade);
+        cliente.setObjetivo("Condicionamento");
+        return cliente;
+    }
+
+    /** Registered by class name through the Hibernate setting, so it records into a static list. */
+    public static class ConsultasSql implements StatementInspector {
+
+        private static final List<String> SQL = Collections.synchronizedList(new ArrayList<>());
+
+        static void limpar() {
+            SQL.clear();
+        }
+
+        static List<String> capturadas() {
+            synchronized (SQL) {
+                return List.copyOf(SQL);
+            }
+        }
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mtor.evolution.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chunks must decode to exactly the samples encoded, whatever the gaps and
+ * jumps between them, and a steady stream must stay about two bytes a sample.
+ */
+class CompressaoFrequenciaTest {
+
+    private static final long INICIO_MS = 1_760_000_000_000L;
+
+    @Test
+    void fluxoConstanteOcupaCercaDeDoisBytesPorAmostra() {
+        int n = 1024;
+        long[] tempos = new long[n];
+        int[] bpm = new int[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            tempos[i] = INICIO_MS + i * 1000L;
+            bpm[i] = 120 + random.nextInt(7) - 3;
+        }
+
+        byte[] dados = idaEVolta(tempos, bpm, 0, n);
+
+        assertTrue(dados.length <= 2 * n, dados.length + " bytes for " + n + " samples");
+    }
+
+    @Test
+    void lacunasEQuedasDeFrequencia() {
+        long[] tempos = {INICIO_MS, INICIO_MS + 1000, INICIO_MS + 2000, INICIO_MS + 3_602_000, INICIO_MS + 3_602_250,
+                INICIO_MS + 3_603_250, INICIO_MS + 90_000_000L, INICIO_MS + 90_000_001L};
+        int[] bpm = {180, 60, 61, 250, 25, 25, 140, 139};
+
+        idaEVolta(tempos, bpm, 0, tempos.length);
+    }
+
+    @Test
+    void valoresExtremos() {
+        long[] tempos = {Long.MIN_VALUE / 2, -1, 0, 1, Long.MAX_VALUE / 2, Long.MAX_VALUE / 2 + 1, Long.MAX_VALUE};
+        int[] bpm = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, 1};
+
+        idaEVolta(tempos, bpm, 0, tempos.length);
+        idaEVolta(new long[]{INICIO_MS}, new int[]{-7}, 0, 1);
+    }
+
+    @Test
+    void trechoNoMeioDosArrays() {
+        Random random = new Random(7);
+        int n = 5000;
+        long[] tempos = new long[n];
+        int[] bpm = new int[n];
+        long tempo = INICIO_MS;
+        for (int i = 0; i < n; i++) {
+            // Mostly 1 Hz, with jitter, dropouts and the odd long pause
+            tempo += random.nextInt(50) == 0 ? random.nextInt(600_000) : 1000 + random.nextInt(41) - 20;
+            tempos[i] = tempo;
+            bpm[i] = random.nextInt(20) == 0 ? 25 + random.nextInt(226) : 130 + random.nextInt(11) - 5;
+        }
+
+        for (int de = 0; de < n; de += 1024) {
+            idaEVolta(tempos, bpm, de, Math.min(de + 1024, n));
+        }
+        idaEVolta(tempos, bpm, 1234, 1235);
+    }
+
+    private static byte[] idaEVolta(long[] tempos, int[] bpm, int de, int ate) {
+        byte[] dados = CompressaoFrequencia.codificar(tempos, bpm, de, ate);
+        int n = ate - de;
+        long[] temposLidos = new long[n];
+        int[] bpmLidos = new int[n];
+        CompressaoFrequencia.decodificar(dados, tempos[de], n, temposLidos, bpmLidos);
+        assertArrayEquals(Arrays.copyOfRange(tempos, de, ate), temposLidos);
+        assertArrayEquals(Arrays.copyOfRange(bpm, de, ate), bpmLidos);
+        assertEquals(dados.length, CompressaoFrequencia.codificar(tempos, bpm, de, ate).length);
+        return dados;
+    }
+}
@@ -0,0 +1,148 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AmostrasFrequenciaRequest;
+import com.mtor.evolution.dto.ResumoFrequenciaCardiacaDto;
+import com.mtor.evolution.dto.SessaoFrequenciaCardiacaDto;
+import com.mtor.evolution.repository.ClienteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Strap ingestion end to end: {@code SESSOES} sessions of one sample per
+ * second, sent as one-minute batches from a few threads the way concurrent
+ * requests arrive, then closed so every chunk is stored. The instance must
+ * take tens of thousands of samples per second, and a summary must match
+ * the samples sent while a window of a few minutes decodes no more than
+ * the chunks at its edges.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class FrequenciaCardiacaBenchmarkTest {
+
+    private static final int SESSOES = 20;
+    private static final int AMOSTRAS_POR_SESSAO = Integer.getInteger("benchmark.amostras-por-sessao", 7200);
+    private static final int LOTE = 60;
+    private static final int THREADS = 4;
+    private static final long INICIO_MS = 1_760_000_000_000L;
+    private static final int RESUMOS = 50;
+    private static final double AMOSTRAS_POR_SEGUNDO_MINIMO = 20_000;
+    private static final double RESUMO_P50_MAXIMO_MS = 50;
+
+    @Autowired
+    private FrequenciaCardiacaService frequenciaCardiacaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void ingestaoDezenasDeMilharesPorSegundoEResumoSemDecodificarTudo() throws Exception {
+        String clienteId = clienteRepository.findByEmail("joao.silva@email.com").orElseThrow().getId().toString();
+        List<Long> sessoes = new ArrayList<>();
+        int[][] bpm = new int[SESSOES][];
+        Random random = new Random(42);
+        for (int s = 0; s < SESSOES; s++) {
+            SessaoFrequenciaCardiacaDto dto = new SessaoFrequenciaCardiacaDto();
+            dto.setClienteId(clienteId);
+            dto.setDispositivo("Benchmark " + s);
+            sessoes.add(Long.parseLong(frequenciaCardiacaService.abrir(dto).getId()));
+            bpm[s] = treino(random);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> envios = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                envios.add(executor.submit(() -> {
+                    // Minute by minute across this thread's sessions, as live straps send
+                    for (int de = 0; de < AMOSTRAS_POR_SESSAO; de += LOTE) {
+                        for (int s = thread; s < SESSOES; s += THREADS) {
+                            frequenciaCardiacaService.registrar(sessoes.get(s), lote(bpm[s], de)).orElseThrow();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> envio : envios) {
+                envio.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (Long sessao : sessoes) {
+            frequenciaCardiacaService.encerrar(sessao).orElseThrow();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        double amostrasPorSegundo = (double) SESSOES * AMOSTRAS_POR_SESSAO / segundos;
+
+        Long sessao = sessoes.get(0);
+        ResumoFrequenciaCardiacaDto completo = frequenciaCardiacaService.resumo(sessao, null, null, 190).orElseThrow();
+        int[] amostras = bpm[0];
+        assertEquals(AMOSTRAS_POR_SESSAO, completo.getAmostras());
+        assertEquals(Arrays.stream(amostras).min().orElseThrow(), completo.getBpmMinimo());
+        assertEquals(Arrays.stream(amostras).max().orElseThrow(), completo.getBpmMaximo());
+        assertEquals(Arrays.stream(amostras).average().orElseThrow(), completo.getBpmMedio(), 0.05);
+        assertEquals((AMOSTRAS_POR_SESSAO - 1) * 1000L, completo.getDuracaoMs());
+
+        // Five minutes from the middle of the session
+        long de = INICIO_MS + AMOSTRAS_POR_SESSAO / 2 * 1000L;
+        long ate = de + 5 * 60_000;
+        ResumoFrequenciaCardiacaDto janela = frequenciaCardiacaService.resumo(sessao, de, ate, 190).orElseThrow();
+        assertEquals(300, janela.getAmostras());
+        assertTrue(janela.getBlocosDecodificados() <= 2,
+                janela.getBlocosDecodificados() + " of " + janela.getBlocos() + " chunks decoded for a 5-minute window");
+
+        long[] tempos = new long[RESUMOS];
+        for (int i = 0; i < RESUMOS; i++) {
+            long consulta = System.nanoTime();
+            frequenciaCardiacaService.resumo(sessao, null, null, 190).orElseThrow();
+            tempos[i] = System.nanoTime() - consulta;
+        }
+        Arrays.sort(tempos);
+        double resumoP50 = tempos[RESUMOS / 2] / 1e6;
+
+        System.out.printf("⏱️ %d sessions x %d samples from %d threads: %.0f samples/s; full-session summary p50 %.1f ms "
+                        + "(%d/%d chunks decoded), 5-minute window %d/%d chunks decoded%n",
+                SESSOES, AMOSTRAS_POR_SESSAO, THREADS, amostrasPorSegundo, resumoP50,
+                completo.getBlocosDecodificados(), completo.getBlocos(), janela.getBlocosDecodificados(), janela.getBlocos());
+        assertTrue(amostrasPorSegundo > AMOSTRAS_POR_SEGUNDO_MINIMO, "ingestion " + amostrasPorSegundo + " samples/s");
+        assertTrue(resumoP50 < RESUMO_P50_MAXIMO_MS, "summary p50 " + resumoP50 + " ms");
+    }
+
+    // Warm-up, intervals and cool-down: a slow wave between about 70 and 180 bpm with a little noise
+    private static int[] treino(Random random) {
+        int[] bpm = new int[AMOSTRAS_POR_SESSAO];
+        for (int i = 0; i < bpm.length; i++) {
+            bpm[i] = (int) Math.round(125 + 50 * Math.sin(i / 300.0) + random.nextGaussian() * 3);
+        }
+        return bpm;
+    }
+
+    private static AmostrasFrequenciaRequest lote(int[] bpm, int de) {
+        int ate = Math.min(de + LOTE, bpm.length);
+        long[] tempos = new long[ate - de];
+        for (int i = de; i < ate; i++) {
+            tempos[i - de] = INICIO_MS + i * 1000L;
+        }
+        AmostrasFrequenciaRequest request = new AmostrasFrequenciaRequest();
+        request.setTempos(tempos);
+        request.setBpm(Arrays.copyOfRange(bpm, de, ate));
+        return request;
+    }
+}
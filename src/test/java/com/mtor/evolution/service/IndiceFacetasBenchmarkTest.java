@@ -0,0 +1,92 @@
+package com.mtor.evolution.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query latency of {@link IndiceFacetas} on a synthetic population of
+ * {@code benchmark.clientes} (1M by default), built in the test JVM so the
+ * figure can be checked without that many rows. Values are skewed the way
+ * real ones are (most clients active, a few popular modalities), since bitmap
+ * containers compress by density. Every filter, with all facet counts, must
+ * answer within the per-query budget.
+ */
+@Tag("benchmark")
+class IndiceFacetasBenchmarkTest {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 1_000_000);
+    private static final int CONSULTAS = 1000;
+    // Counts are intersection cardinalities of the selection with each value bitmap, nothing materialized
+    private static final double P50_MAXIMO_MICROS = 1000;
+
+    private static final String[] MODALIDADES = {"Musculação", "Crossfit", "Funcional", "Corrida", "Pilates",
+            "Natação", "Ciclismo", "Yoga", "Boxe", "Jiu-jitsu", "Dança", "Hidroginástica"};
+    private static final String[] FAIXAS = {"0-17", "18-29", "30-39", "40-49", "50-59", "60+"};
+
+    private static final String[] FILTROS = {
+            "",
+            "status:ATIVO",
+            "status:ATIVO AND genero:FEMININO AND (modalidade:musculacao OR modalidade:crossfit)",
+            "(faixaEtaria:30-39 OR faixaEtaria:40-49) AND NOT objetivo:hipertrofia AND modalidade:corrida",
+            "NOT status:ATIVO OR (modalidade:yoga AND faixaEtaria:60+)"
+    };
+
+    @Test
+    void filtrosEContagensDentroDoOrcamento() {
+        long inicio = System.nanoTime();
+        IndiceFacetas indice = indice();
+        long construcaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        assertEquals(CLIENTES, indice.tamanho());
+        System.out.printf("⏱️ Facet index of %d clients: built in %d ms, %.1f MB%n",
+                CLIENTES, construcaoMs, indice.memoriaBytes() / 1e6);
+
+        for (String texto : FILTROS) {
+            FiltroFacetas filtro = texto.isEmpty() ? null : FiltroFacetas.analisar(texto, indice, SimilaridadeClientes::normalizar);
+            // Warm-up, so the JIT has compiled the bitmap operations before timing
+            long encontrados = 0;
+            for (int i = 0; i < CONSULTAS; i++) {
+                encontrados = indice.consultar(filtro, 0, 20).getTotal();
+            }
+            long[] tempos = new long[CONSULTAS];
+            for (int i = 0; i < CONSULTAS; i++) {
+                long consulta = System.nanoTime();
+                indice.consultar(filtro, 0, 20);
+                tempos[i] = System.nanoTime() - consulta;
+            }
+            Arrays.sort(tempos);
+            double p50 = tempos[CONSULTAS / 2] / 1_000.0;
+            double p99 = tempos[Math.min(CONSULTAS - 1, CONSULTAS * 99 / 100)] / 1_000.0;
+            System.out.printf("⏱️   %s: %d matches, p50 %.0f µs, p99 %.0f µs%n",
+                    texto.isEmpty() ? "(all)" : texto, encontrados, p50, p99);
+            assertTrue(encontrados > 0, "no matches for " + texto);
+            assertTrue(p50 < P50_MAXIMO_MICROS, texto + ": p50 " + p50 + " µs");
+        }
+    }
+
+    private static IndiceFacetas indice() {
+        Random random = new Random(42);
+        IndiceFacetas indice = new IndiceFacetas(CLIENTES, FacetasClientes.STATUS, FacetasClientes.GENERO,
+                FacetasClientes.MODALIDADE, FacetasClientes.OBJETIVO, FacetasClientes.FAIXA_ETARIA);
+        String[] rotulos = new String[5];
+        String[] chaves = new String[5];
+        for (int i = 0; i < CLIENTES; i++) {
+            rotulos[0] = random.nextInt(10) < 8 ? "ATIVO" : "INATIVO";
+            rotulos[1] = random.nextBoolean() ? "FEMININO" : "MASCULINO";
+            // Roughly Zipf: the first modalities hold most clients
+            rotulos[2] = MODALIDADES[(int) (MODALIDADES.length * Math.pow(random.nextDouble(), 2.5))];
+            rotulos[3] = FacetasClientes.OBJETIVOS[(int) (FacetasClientes.OBJETIVOS.length * Math.pow(random.nextDouble(), 1.5))];
+            rotulos[4] = FAIXAS[random.nextInt(FAIXAS.length)];
+            for (int f = 0; f < chaves.length; f++) {
+                chaves[f] = SimilaridadeClientes.normalizar(rotulos[f]);
+            }
+            indice.atualizar(i + 1L, chaves, rotulos);
+        }
+        return indice;
+    }
+}
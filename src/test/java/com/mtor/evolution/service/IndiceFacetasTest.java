@@ -0,0 +1,94 @@
+package com.mtor.evolution.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Facet counts against a count of the same clients one by one, over a
+ * population spanning several bitmap containers with dense, mid-sized and
+ * rare values, clients without a value, removals and value changes between
+ * queries (which must not be served from a stale counting view).
+ */
+class IndiceFacetasTest {
+
+    private static final int CLIENTES = 300_000;
+    private static final String[] STATUS = {"ATIVO", "INATIVO"};
+    private static final String[] MODALIDADES = {"Musculação", "Corrida", "Yoga", "Boxe", "Dança", "Remo"};
+    private static final UnaryOperator<String> NORMALIZAR = SimilaridadeClientes::normalizar;
+
+    private final Map<Long, String[]> clientes = new HashMap<>();
+
+    @Test
+    void contagensIguaisAsDeCadaCliente() {
+        Random random = new Random(7);
+        IndiceFacetas indice = new IndiceFacetas(16, "status", "modalidade");
+        for (long id = 1; id <= CLIENTES; id++) {
+            atualizar(indice, id, random);
+        }
+        List<String> filtros = List.of("status:ATIVO", "modalidade:corrida OR modalidade:remo",
+                "NOT status:ATIVO AND NOT modalidade:musculacao", "modalidade:remo");
+
+        for (int rodada = 0; rodada < 3; rodada++) {
+            for (String filtro : filtros) {
+                IndiceFacetas.Resultado resultado = indice.consultar(FiltroFacetas.analisar(filtro, indice, NORMALIZAR), 0, 5);
+                Map<String, Map<String, Long>> esperado = contar(filtro);
+                assertEquals(clientes.values().stream().filter(c -> seleciona(filtro, c)).count(), resultado.getTotal(), filtro);
+                assertEquals(esperado, resultado.getContagens(), filtro);
+            }
+            // Moves, removals and clients losing a value, so every view must be rebuilt
+            for (int i = 0; i < 20_000; i++) {
+                long id = 1 + random.nextInt(CLIENTES);
+                if (random.nextInt(4) == 0) {
+                    indice.remover(id);
+                    clientes.remove(id);
+                } else {
+                    atualizar(indice, id, random);
+                }
+            }
+        }
+    }
+
+    private void atualizar(IndiceFacetas indice, long id, Random random) {
+        String status = random.nextInt(10) < 8 ? STATUS[0] : STATUS[1];
+        // Skewed so values land on both sides of the array/bitmap container threshold; a few have none
+        double sorteio = Math.pow(random.nextDouble(), 3);
+        String modalidade = random.nextInt(50) == 0 ? null : MODALIDADES[(int) (MODALIDADES.length * sorteio)];
+        String[] rotulos = {status, modalidade};
+        clientes.put(id, rotulos);
+        indice.atualizar(id, new String[]{NORMALIZAR.apply(status), modalidade != null ? NORMALIZAR.apply(modalidade) : null},
+                rotulos);
+    }
+
+    private Map<String, Map<String, Long>> contar(String filtro) {
+        Map<String, Long> status = new HashMap<>();
+        Map<String, Long> modalidades = new HashMap<>();
+        for (String[] cliente : clientes.values()) {
+            if (seleciona(filtro, cliente)) {
+                status.merge(cliente[0], 1L, Long::sum);
+                if (cliente[1] != null) {
+                    modalidades.merge(cliente[1], 1L, Long::sum);
+                }
+            }
+        }
+        return Map.of("status", status, "modalidade", modalidades);
+    }
+
+    private static boolean seleciona(String filtro, String[] cliente) {
+        boolean ativo = "ATIVO".equals(cliente[0]);
+        String modalidade = cliente[1];
+        return switch (filtro) {
+            case "status:ATIVO" -> ativo;
+            case "modalidade:corrida OR modalidade:remo" -> "Corrida".equals(modalidade) || "Remo".equals(modalidade);
+            case "NOT status:ATIVO AND NOT modalidade:musculacao" -> !ativo && !"Musculação".equals(modalidade);
+            case "modalidade:remo" -> "Remo".equals(modalidade);
+            default -> throw new IllegalArgumentException(filtro);
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.mtor.evolution.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Top-k queries and single-client updates on {@link IndiceSimilaridade} with
+ * {@code benchmark.clientes} synthetic vectors (1M by default), built in the
+ * test JVM. Vectors are already scaled the way {@link SimilaridadeClientes}
+ * scales them, with a few popular modalities and goals. Each query is a full
+ * scan on one thread; its result must match a plain distance sort.
+ */
+@Tag("benchmark")
+class IndiceSimilaridadeBenchmarkTest {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 1_000_000);
+    private static final int DIMENSOES = SimilaridadeClientes.DIMENSOES;
+    private static final int MODALIDADES = 12;
+    private static final int K = 10;
+    private static final int AQUECIMENTO = 20;
+    private static final int CONSULTAS = 50;
+    private static final int ATUALIZACOES = 100_000;
+    private static final float PENALIDADE_MODALIDADE = 1.0f;
+    private static final float PENALIDADE_OBJETIVO = 2.0f;
+    // One pass over ~45 MB of columns on a single core
+    private static final double CONSULTA_P50_MAXIMO_MS = 50;
+    private static final double ATUALIZACAO_MEDIA_MAXIMO_MICROS = 5;
+
+    @Test
+    void buscaExataEmUmMilhaoDentroDoOrcamento() {
+        Random random = new Random(42);
+        float[][] vetores = new float[CLIENTES][];
+        int[] modalidades = new int[CLIENTES];
+        int[] objetivos = new int[CLIENTES];
+        long inicio = System.nanoTime();
+        IndiceSimilaridade indice = new IndiceSimilaridade(DIMENSOES, PENALIDADE_MODALIDADE, PENALIDADE_OBJETIVO, CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            vetores[i] = vetor(random);
+            modalidades[i] = (int) (MODALIDADES * Math.pow(random.nextDouble(), 2.5)) + 1;
+            objetivos[i] = random.nextInt(IndiceSimilaridade.MAX_OBJETIVO);
+            indice.atualizar(i + 1L, vetores[i], modalidades[i], objetivos[i]);
+        }
+        long construcaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        assertEquals(CLIENTES, indice.tamanho());
+
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            int alvo = random.nextInt(CLIENTES);
+            indice.buscar(vetores[alvo], modalidades[alvo], objetivos[alvo], K, alvo + 1L);
+        }
+        long[] tempos = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            int alvo = random.nextInt(CLIENTES);
+            long consulta = System.nanoTime();
+            IndiceSimilaridade.Resultado resultado = indice.buscar(vetores[alvo], modalidades[alvo], objetivos[alvo], K, alvo + 1L);
+            tempos[i] = System.nanoTime() - consulta;
+            if (i < 3) {
+                assertArrayEquals(maisProximos(vetores, modalidades, objetivos, alvo), ids(resultado));
+            }
+        }
+
+        long[] ids = new long[ATUALIZACOES];
+        float[][] novos = new float[ATUALIZACOES][];
+        for (int i = 0; i < ATUALIZACOES; i++) {
+            ids[i] = random.nextInt(CLIENTES) + 1L;
+            novos[i] = vetor(random);
+        }
+        inicio = System.nanoTime();
+        for (int i = 0; i < ATUALIZACOES; i++) {
+            int c = (int) ids[i] - 1;
+            indice.atualizar(ids[i], novos[i], modalidades[c], objetivos[c]);
+            vetores[c] = novos[i];
+        }
+        double atualizacaoMicros = (System.nanoTime() - inicio) / 1_000.0 / ATUALIZACOES;
+        int alvo = (int) ids[ATUALIZACOES - 1] - 1;
+        assertArrayEquals(maisProximos(vetores, modalidades, objetivos, alvo),
+                ids(indice.buscar(vetores[alvo], modalidades[alvo], objetivos[alvo], K, alvo + 1L)));
+
+        Arrays.sort(tempos);
+        double p50 = tempos[CONSULTAS / 2] / 1e6;
+        double p95 = tempos[CONSULTAS * 95 / 100] / 1e6;
+        System.out.printf("⏱️ Similarity index of %d clients (%.0f MB, built in %d ms): top-%d p50 %.1f ms, p95 %.1f ms; "
+                        + "update %.2f µs%n",
+                CLIENTES, indice.memoriaBytes() / 1e6, construcaoMs, K, p50, p95, atualizacaoMicros);
+        assertTrue(p50 < CONSULTA_P50_MAXIMO_MS, "top-" + K + " p50 " + p50 + " ms");
+        assertTrue(atualizacaoMicros < ATUALIZACAO_MEDIA_MAXIMO_MICROS, "update " + atualizacaoMicros + " µs");
+    }
+
+    // Age, sex, weight, height, BMI, body fat, lean mass share, assessed flag: in units of their spread
+    private static float[] vetor(Random random) {
+        float[] v = new float[DIMENSOES];
+        for (int d = 0; d < DIMENSOES; d++) {
+            v[d] = (float) (random.nextGaussian() * 1.5);
+        }
+        v[SimilaridadeClientes.GENERO] = random.nextBoolean() ? 1f : 0f;
+        v[SimilaridadeClientes.SEM_AVALIACAO] = random.nextInt(10) == 0 ? 2f : 0f;
+        return v;
+    }
+
+    // Reference answer: every distance computed the obvious way, then sorted
+    private static long[] maisProximos(float[][] vetores, int[] modalidades, int[] objetivos, int alvo) {
+        float[] distancias = new float[vetores.length];
+        Integer[] ordem = new Integer[vetores.length];
+        for (int i = 0; i < vetores.length; i++) {
+            // Same order of float additions as the index, so ties break the same way
+            float distancia = (modalidades[i] != modalidades[alvo] ? PENALIDADE_MODALIDADE : 0)
+                    + (objetivos[i] != objetivos[alvo] ? PENALIDADE_OBJETIVO : 0);
+            for (int d = 0; d < DIMENSOES; d++) {
+                float diferenca = vetores[i][d] - vetores[alvo][d];
+                distancia += diferenca * diferenca;
+            }
+            distancias[i] = distancia;
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (a, b) -> distancias[a] != distancias[b] ? Float.compare(distancias[a], distancias[b])
+                : Integer.compare(a, b));
+        return Arrays.stream(ordem).filter(i -> i != alvo).limit(K).mapToLong(i -> i + 1L).toArray();
+    }
+
+    private static long[] ids(IndiceSimilaridade.Resultado resultado) {
+        long[] ids = new long[resultado.tamanho()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = resultado.id(i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,195 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AlimentoDto;
+import com.mtor.evolution.dto.ItemRefeicaoDto;
+import com.mtor.evolution.dto.OtimizacaoRequest;
+import com.mtor.evolution.dto.OtimizacaoResultado;
+import com.mtor.evolution.dto.PlanoAlimentarDto;
+import com.mtor.evolution.dto.RefeicaoDto;
+import com.mtor.evolution.model.Refeicao;
+import com.mtor.evolution.model.ValoresNutricionais;
+import com.mtor.evolution.repository.ClienteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single-item edits and the macro optimizer on a large plan (8 meals of
+ * {@code benchmark.itens-por-refeicao} items). An edit must cost a small
+ * fraction of a full recompute and keep the totals exact, also across
+ * additions, removals and a change to a food's nutrients; the
+ * optimizer must answer within its per-plan budget with every substitution
+ * candidate in play.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class PlanoAlimentarBenchmarkTest {
+
+    private static final int REFEICOES = 8;
+    private static final int ITENS_POR_REFEICAO = Integer.getInteger("benchmark.itens-por-refeicao", 50);
+    private static final int AQUECIMENTO = 50;
+    private static final int EDICOES = 200;
+    private static final int AQUECIMENTO_RECALCULO = 5;
+    private static final int RECALCULOS = 20;
+    private static final int OTIMIZACOES = 30;
+    private static final int SUBSTITUICOES = 12;
+    // Loading and mapping the plan around the solver
+    private static final long FOLGA_OTIMIZACAO_MS = 150;
+    // An edit touches one item row and two totals rows; a recompute loads and rewrites the whole plan
+    private static final double FRACAO_EDICAO_MAXIMA = 0.1;
+
+    @Autowired
+    private PlanoAlimentarService planoAlimentarService;
+
+    @Autowired
+    private AlimentoService alimentoService;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Value("${nutrition.optimizer.budget-ms:200}")
+    private long orcamentoMs;
+
+    @Test
+    void planoGrandeEditaEOtimizaDentroDoOrcamento() {
+        CatalogoAlimentos.Snapshot s = catalogo.recarregar();
+        List<Long> alimentos = new ArrayList<>();
+        for (int doc = 0; doc < s.getTotal(); doc++) {
+            alimentos.add(s.id(doc));
+        }
+        PlanoAlimentarDto plano = planoAlimentarService.save(planoGrande(alimentos));
+        Long planoId = Long.parseLong(plano.getId());
+        List<Long> refeicoes = plano.getRefeicoes().stream().map(r -> Long.parseLong(r.getId())).toList();
+
+        Random random = new Random(42);
+        long[] edicoes = new long[EDICOES];
+        for (int i = -AQUECIMENTO; i < EDICOES; i++) {
+            ItemRefeicaoDto item = item(alimentos.get(random.nextInt(alimentos.size())), 20 + random.nextInt(200));
+            long inicio = System.nanoTime();
+            planoAlimentarService.atualizarItem(planoId, refeicoes.get(random.nextInt(REFEICOES)),
+                    random.nextInt(ITENS_POR_REFEICAO), item);
+            if (i >= 0) {
+                edicoes[i] = System.nanoTime() - inicio;
+            }
+        }
+        // Additions and removals anywhere in a meal, which shift the positions after them
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            Long refeicaoId = refeicoes.get(random.nextInt(REFEICOES));
+            planoAlimentarService.adicionarItem(planoId, refeicaoId, item(alimentos.get(random.nextInt(alimentos.size())), 50));
+            planoAlimentarService.removerItem(planoId, refeicaoId, random.nextInt(ITENS_POR_REFEICAO));
+        }
+        ValoresNutricionais incremental = planoAlimentarService.findById(planoId).orElseThrow().getTotais();
+        long[] recalculos = new long[RECALCULOS];
+        ValoresNutricionais recalculado = null;
+        for (int i = -AQUECIMENTO_RECALCULO; i < RECALCULOS; i++) {
+            long inicio = System.nanoTime();
+            recalculado = planoAlimentarService.recalcular(planoId).orElseThrow().getTotais();
+            if (i >= 0) {
+                recalculos[i] = System.nanoTime() - inicio;
+            }
+        }
+        assertMesmosTotais(recalculado, incremental);
+
+        // A food edited after its items were counted: removing one must take out what it added, not its new value
+        PlanoAlimentarDto atual = planoAlimentarService.findById(planoId).orElseThrow();
+        Long refeicaoId = Long.parseLong(atual.getRefeicoes().get(0).getId());
+        ItemRefeicaoDto original = atual.getRefeicoes().get(0).getItens().get(0);
+        Long alimentoId = alimentos.stream().filter(id -> !id.equals(original.getAlimentoId())).findFirst().orElseThrow();
+        planoAlimentarService.atualizarItem(planoId, refeicaoId, 0, item(alimentoId, original.getQuantidade()));
+        AlimentoDto alimento = alimentoService.findById(alimentoId).orElseThrow();
+        alimento.getMacronutrientes().setProteinas(alimento.getMacronutrientes().getProteinas() + 10);
+        alimentoService.update(alimentoId, alimento);
+        planoAlimentarService.atualizarItem(planoId, refeicaoId, 0, item(original.getAlimentoId(), original.getQuantidade()));
+        assertMesmosTotais(atual.getTotais(), planoAlimentarService.findById(planoId).orElseThrow().getTotais());
+
+        OtimizacaoRequest request = new OtimizacaoRequest();
+        // Reachable targets: 15% less protein and fat, 10% more carbohydrate than the plan has
+        ValoresNutricionais totais = atual.getTotais();
+        request.setMetas(new ValoresNutricionais(null, totais.getProteinas() * 0.85,
+                totais.getCarboidratos() * 1.1, totais.getGorduras() * 0.85, null));
+        for (int i = 0; i < SUBSTITUICOES; i++) {
+            OtimizacaoRequest.Substituicao sub = new OtimizacaoRequest.Substituicao();
+            sub.setRefeicaoId(refeicoes.get(i % REFEICOES));
+            sub.setIndice(i);
+            sub.setAlimentoIds(alimentos);
+            request.getSubstituicoes().add(sub);
+        }
+        long[] otimizacoes = new long[OTIMIZACOES];
+        OtimizacaoResultado resultado = null;
+        for (int i = 0; i < OTIMIZACOES; i++) {
+            long inicio = System.nanoTime();
+            resultado = planoAlimentarService.otimizar(planoId, request).orElseThrow();
+            otimizacoes[i] = System.nanoTime() - inicio;
+        }
+
+        double edicaoP50 = percentil(edicoes, 50) / 1e6;
+        double edicaoP95 = percentil(edicoes, 95) / 1e6;
+        double recalculoP50 = percentil(recalculos, 50) / 1e6;
+        double otimizacaoP50 = percentil(otimizacoes, 50) / 1e6;
+        double otimizacaoP95 = percentil(otimizacoes, 95) / 1e6;
+        System.out.printf("⏱️ Plan of %d items: item edit p50 %.2f ms, p95 %.2f ms (full recompute p50 %.1f ms); "
+                        + "optimizer %d/%d candidates, p50 %.0f ms, p95 %.0f ms (budget %d ms), deviation %s%n",
+                REFEICOES * ITENS_POR_REFEICAO, edicaoP50, edicaoP95, recalculoP50,
+                resultado.getCandidatosAvaliados(), resultado.getCandidatosTotal(), otimizacaoP50, otimizacaoP95,
+                orcamentoMs, resultado.getDesvioPercentual());
+        assertTrue(edicaoP50 < recalculoP50 * FRACAO_EDICAO_MAXIMA,
+                "item edit p50 " + edicaoP50 + " ms against a full recompute of " + recalculoP50 + " ms");
+        assertTrue(otimizacaoP95 < orcamentoMs + FOLGA_OTIMIZACAO_MS, "optimizer p95 " + otimizacaoP95 + " ms");
+        assertTrue(resultado.isDentroDoOrcamento(), "optimizer ran out of budget");
+    }
+
+    private PlanoAlimentarDto planoGrande(List<Long> alimentos) {
+        PlanoAlimentarDto dto = new PlanoAlimentarDto();
+        dto.setClienteId(clienteRepository.findByEmail("joao.silva@email.com").orElseThrow().getId().toString());
+        dto.setNome("Plano de benchmark");
+        dto.setDataInicio(LocalDate.now());
+        dto.setMetas(new ValoresNutricionais(2600.0, 180.0, 300.0, 80.0, null));
+        Refeicao.Tipo[] tipos = Refeicao.Tipo.values();
+        for (int r = 0; r < REFEICOES; r++) {
+            RefeicaoDto refeicao = new RefeicaoDto();
+            refeicao.setNome("Refeição " + r);
+            refeicao.setTipo(tipos[r % tipos.length]);
+            for (int i = 0; i < ITENS_POR_REFEICAO; i++) {
+                refeicao.getItens().add(item(alimentos.get((r + i) % alimentos.size()), 30 + (i * 7) % 150));
+            }
+            dto.getRefeicoes().add(refeicao);
+        }
+        return dto;
+    }
+
+    private static ItemRefeicaoDto item(Long alimentoId, double quantidade) {
+        ItemRefeicaoDto item = new ItemRefeicaoDto();
+        item.setAlimentoId(alimentoId);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private static void assertMesmosTotais(ValoresNutricionais esperado, ValoresNutricionais atual) {
+        assertEquals(esperado.getCalorias(), atual.getCalorias(), 1e-6);
+        assertEquals(esperado.getProteinas(), atual.getProteinas(), 1e-6);
+        assertEquals(esperado.getCarboidratos(), atual.getCarboidratos(), 1e-6);
+        assertEquals(esperado.getGorduras(), atual.getGorduras(), 1e-6);
+    }
+
+    private static long percentil(long[] tempos, int p) {
+        long[] ordenados = tempos.clone();
+        Arrays.sort(ordenados);
+        return ordenados[Math.min(ordenados.length - 1, ordenados.length * p / 100)];
+    }
+}
@@ -0,0 +1,111 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.AlteracaoItemDto;
+import com.mtor.evolution.dto.ItemRefeicaoDto;
+import com.mtor.evolution.dto.PlanoAlimentarDto;
+import com.mtor.evolution.dto.RefeicaoDto;
+import com.mtor.evolution.model.Refeicao;
+import com.mtor.evolution.model.ValoresNutricionais;
+import com.mtor.evolution.repository.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single-item edits write the item's row and the stored totals directly:
+ * positions must stay dense after a removal, and the totals they answer
+ * with must be what a full recompute of the plan gives.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PlanoAlimentarServiceTest {
+
+    @Autowired
+    private PlanoAlimentarService planoAlimentarService;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void edicoesMantemOrdemETotaisDeUmRecalculo() {
+        CatalogoAlimentos.Snapshot s = catalogo.recarregar();
+        Long a = s.id(0);
+        Long b = s.id(1 % s.getTotal());
+        PlanoAlimentarDto plano = planoAlimentarService.save(plano(a, b));
+        Long planoId = Long.parseLong(plano.getId());
+        Long refeicaoId = Long.parseLong(plano.getRefeicoes().get(0).getId());
+
+        AlteracaoItemDto adicionado = planoAlimentarService.adicionarItem(planoId, refeicaoId, item(b, 75)).orElseThrow();
+        assertEquals(3, adicionado.getIndice());
+        assertEquals(plano.getVersao() + 1, adicionado.getVersaoPlano());
+        planoAlimentarService.atualizarItem(planoId, refeicaoId, 0, item(b, 40)).orElseThrow();
+        AlteracaoItemDto removido = planoAlimentarService.removerItem(planoId, refeicaoId, 1).orElseThrow();
+        assertNull(removido.getItem());
+
+        RefeicaoDto refeicao = planoAlimentarService.findById(planoId).orElseThrow().getRefeicoes().get(0);
+        assertEquals(List.of(40.0, 200.0, 75.0), refeicao.getItens().stream().map(ItemRefeicaoDto::getQuantidade).toList());
+
+        PlanoAlimentarDto recalculado = planoAlimentarService.recalcular(planoId).orElseThrow();
+        assertMesmosTotais(recalculado.getRefeicoes().get(0).getTotais(), removido.getTotaisRefeicao());
+        assertMesmosTotais(recalculado.getTotais(), removido.getTotaisPlano());
+    }
+
+    @Test
+    void planoInexistenteERefeicaoDeOutroPlano() {
+        Long alimentoId = catalogo.recarregar().id(0);
+        PlanoAlimentarDto plano = planoAlimentarService.save(plano(alimentoId, alimentoId));
+        Long planoId = Long.parseLong(plano.getId());
+
+        assertTrue(planoAlimentarService.adicionarItem(999_999L, 1L, item(alimentoId, 10)).isEmpty());
+        RuntimeException erro = assertThrows(RuntimeException.class,
+                () -> planoAlimentarService.removerItem(planoId, 999_999L, 0));
+        assertEquals("Refeição não encontrada", erro.getMessage());
+        Long refeicaoId = Long.parseLong(plano.getRefeicoes().get(0).getId());
+        erro = assertThrows(RuntimeException.class,
+                () -> planoAlimentarService.atualizarItem(planoId, refeicaoId, 9, item(alimentoId, 10)));
+        assertEquals("Item não encontrado", erro.getMessage());
+    }
+
+    private PlanoAlimentarDto plano(Long a, Long b) {
+        PlanoAlimentarDto dto = new PlanoAlimentarDto();
+        dto.setClienteId(clienteRepository.findByEmail("joao.silva@email.com").orElseThrow().getId().toString());
+        dto.setNome("Plano de teste");
+        dto.setDataInicio(LocalDate.now());
+        for (int r = 0; r < 2; r++) {
+            RefeicaoDto refeicao = new RefeicaoDto();
+            refeicao.setNome("Refeição " + r);
+            refeicao.setTipo(Refeicao.Tipo.values()[r]);
+            refeicao.getItens().add(item(a, 100));
+            refeicao.getItens().add(item(b, 150));
+            refeicao.getItens().add(item(a, 200));
+            dto.getRefeicoes().add(refeicao);
+        }
+        return dto;
+    }
+
+    private static ItemRefeicaoDto item(Long alimentoId, double quantidade) {
+        ItemRefeicaoDto item = new ItemRefeicaoDto();
+        item.setAlimentoId(alimentoId);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    private static void assertMesmosTotais(ValoresNutricionais esperado, ValoresNutricionais atual) {
+        assertEquals(esperado.getCalorias(), atual.getCalorias(), 1e-6);
+        assertEquals(esperado.getProteinas(), atual.getProteinas(), 1e-6);
+        assertEquals(esperado.getCarboidratos(), atual.getCarboidratos(), 1e-6);
+        assertEquals(esperado.getGorduras(), atual.getGorduras(), 1e-6);
+    }
+}
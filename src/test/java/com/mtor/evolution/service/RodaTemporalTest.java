@@ -0,0 +1,123 @@
+package com.mtor.evolution.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Entries due on every level of the wheel and beyond its span must fire on
+ * exactly their tick, after cascading down however many levels they sat on.
+ */
+class RodaTemporalTest {
+
+    private static final long TICK_MS = 1000;
+    // Not aligned to any level, so slots of the upper levels are entered part way
+    private static final long INICIO_MS = 1_700_000_123_000L;
+    private static final long NIVEL_1 = 64;
+    private static final long NIVEL_2 = 64 * 64;
+    private static final long NIVEL_3 = 64 * 64 * 64;
+    private static final long ALCANCE = 64 * 64 * 64 * 64;
+
+    @Test
+    void cadaNivelDisparaNoSeuTick() {
+        RodaTemporal<String> roda = new RodaTemporal<>(TICK_MS, INICIO_MS);
+        Map<String, Long> vencimentos = new HashMap<>();
+        // Both sides of every level boundary, the wheel's span and the far list
+        for (long ticks : new long[]{1, NIVEL_1 - 1, NIVEL_1, NIVEL_1 + 1, NIVEL_2 - 1, NIVEL_2, NIVEL_2 + 1,
+                NIVEL_3 - 1, NIVEL_3, NIVEL_3 + 1, ALCANCE - 1, ALCANCE, ALCANCE + 1, 3 * ALCANCE + 17}) {
+            vencimentos.put("t" + ticks, INICIO_MS + ticks * TICK_MS);
+        }
+        vencimentos.forEach((chave, vence) -> roda.agendar(chave, vence, chave));
+
+        vencimentos.entrySet().stream().sorted(Map.Entry.comparingByValue()).forEach(entrada -> {
+            assertEquals(List.of(), roda.avancar(entrada.getValue() - TICK_MS), entrada.getKey() + " fired early");
+            assertEquals(List.of(entrada.getKey()), roda.avancar(entrada.getValue()), entrada.getKey() + " did not fire on its tick");
+        });
+        assertEquals(0, roda.tamanho());
+    }
+
+    @Test
+    void vencidoNoPassadoDisparaNoProximoTick() {
+        RodaTemporal<String> roda = new RodaTemporal<>(TICK_MS, INICIO_MS);
+        roda.agendar("atrasado", INICIO_MS - 3_600_000, "atrasado");
+
+        assertEquals(List.of("atrasado"), roda.avancar(INICIO_MS));
+    }
+
+    @Test
+    void cancelamentoEmQualquerNivel() {
+        RodaTemporal<String> roda = new RodaTemporal<>(TICK_MS, INICIO_MS);
+        long[] distancias = {5, NIVEL_1 * 3, NIVEL_2 * 5, NIVEL_3 * 7, ALCANCE * 2};
+        for (long ticks : distancias) {
+            roda.agendar("a" + ticks, INICIO_MS + ticks * TICK_MS, "a" + ticks);
+            roda.agendar("b" + ticks, INICIO_MS + ticks * TICK_MS, "b" + ticks);
+        }
+        // Straight from the slot or list it was first put on
+        for (long ticks : distancias) {
+            assertTrue(roda.cancelar("a" + ticks));
+            assertFalse(roda.cancelar("a" + ticks));
+        }
+        // After it has cascaded down to the last level
+        long quase = INICIO_MS + (ALCANCE * 2 - 10) * TICK_MS;
+        assertEquals(List.of("b5", "b" + NIVEL_1 * 3, "b" + NIVEL_2 * 5, "b" + NIVEL_3 * 7), roda.avancar(quase));
+        roda.agendar("c", quase + 5 * TICK_MS, "c");
+        assertTrue(roda.cancelar("b" + ALCANCE * 2));
+
+        assertEquals(List.of("c"), roda.avancar(INICIO_MS + ALCANCE * 3 * TICK_MS));
+        assertEquals(0, roda.tamanho());
+    }
+
+    @Test
+    void reagendarSubstituiAEntrada() {
+        RodaTemporal<String> roda = new RodaTemporal<>(TICK_MS, INICIO_MS);
+        roda.agendar("lembrete", INICIO_MS + NIVEL_3 * TICK_MS, "antes");
+        roda.agendar("lembrete", INICIO_MS + 10 * TICK_MS, "depois");
+
+        assertEquals(1, roda.tamanho());
+        assertEquals(List.of("depois"), roda.avancar(INICIO_MS + 10 * TICK_MS));
+        assertEquals(List.of(), roda.avancar(INICIO_MS + 2 * NIVEL_3 * TICK_MS));
+    }
+
+    @Test
+    void aleatorioContraReferencia() {
+        Random random = new Random(42);
+        RodaTemporal<Long> roda = new RodaTemporal<>(TICK_MS, INICIO_MS);
+        Map<Long, Long> pendentes = new HashMap<>();
+        long agora = INICIO_MS;
+        long chave = 0;
+        long fim = INICIO_MS + 2 * ALCANCE * TICK_MS;
+        while (agora < fim) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                // Spread over every level, up to twice the wheel's span
+                long ticks = (long) Math.pow(2 * ALCANCE, random.nextDouble());
+                long vence = agora + ticks * TICK_MS + random.nextInt((int) TICK_MS);
+                roda.agendar(chave, vence, vence);
+                pendentes.put(chave++, vence);
+            }
+            if (!pendentes.isEmpty() && random.nextInt(4) == 0) {
+                Long cancelada = pendentes.keySet().iterator().next();
+                assertTrue(roda.cancelar(cancelada));
+                pendentes.remove(cancelada);
+            }
+            agora += (long) Math.pow(NIVEL_3, random.nextDouble()) * TICK_MS;
+            long tickAgora = agora / TICK_MS;
+
+            List<Long> esperados = new ArrayList<>();
+            pendentes.values().removeIf(vence -> vence / TICK_MS <= tickAgora && esperados.add(vence));
+            List<Long> vencidos = roda.avancar(agora);
+            assertEquals(esperados.stream().sorted().toList(), vencidos.stream().sorted().toList());
+            for (int i = 1; i < vencidos.size(); i++) {
+                assertTrue(vencidos.get(i - 1) / TICK_MS <= vencidos.get(i) / TICK_MS, "not earliest first");
+            }
+            assertEquals(pendentes.size(), roda.tamanho());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.mtor.evolution.service;
+
+import com.mtor.evolution.dto.ClienteDto;
+import com.mtor.evolution.dto.ItemRefeicaoDto;
+import com.mtor.evolution.dto.PlanoAlimentarDto;
+import com.mtor.evolution.dto.RefeicaoDto;
+import com.mtor.evolution.model.Cliente;
+import com.mtor.evolution.model.Refeicao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two embedded H2 shards, the second created from the first's schema.
+ * Clients are written to the shard their bucket maps to, reads by id and
+ * listings reach every shard, and a bucket move carries a client's rows to
+ * the other shard, where its plan is still found and edited by the plan's
+ * id alone.
+ */
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.urls=jdbc:h2:mem:shard-1-${random.uuid};DB_CLOSE_DELAY=-1",
+        "sharding.copy-schema=true",
+        "sharding.buckets=8",
+        "sharding.map-refresh-ms=50",
+        "coalescing.enabled=false"
+})
+@ActiveProfiles("test")
+class ShardsClienteTest {
+
+    private static final int CLIENTES = 16;
+
+    @Autowired
+    private ShardsCliente shards;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private PlanoAlimentarService planoAlimentarService;
+
+    @Autowired
+    private MigracaoBucketTarefa migracao;
+
+    @Autowired
+    private CatalogoAlimentos catalogo;
+
+    @Test
+    void roteiaLeEmTodosEMoveUmBucket() throws Exception {
+        assertEquals(2, shards.numeroShards());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            ids.add(Long.parseLong(clienteService.save(cliente(i)).getId()));
+        }
+
+        // Each client on its bucket's shard and only there, with both shards in use
+        Set<Integer> usados = new HashSet<>();
+        for (Long id : ids) {
+            int shard = shards.shardDoCliente(id);
+            usados.add(shard);
+            assertTrue(existe(shard, id), "client " + id + " missing from shard " + shard);
+            assertFalse(existe(1 - shard, id), "client " + id + " also on shard " + (1 - shard));
+            assertEquals(id.toString(), clienteService.findById(id).orElseThrow().getId());
+        }
+        assertEquals(Set.of(0, 1), usados);
+        Set<String> listados = new HashSet<>();
+        clienteService.findAll(PageRequest.of(0, 100, Sort.by("id")), "Sharding").forEach(c -> listados.add(c.getId()));
+        assertEquals(ids.stream().map(String::valueOf).collect(Collectors.toSet()), listados);
+
+        Long movido = ids.get(0);
+        int origem = shards.shardDoCliente(movido);
+        int destino = 1 - origem;
+        int bucket = shards.bucket(movido);
+        Long planoId = Long.parseLong(planoAlimentarService.save(plano(movido)).getId());
+        List<Long> doBucket = shards.clientesDoBucket(origem, bucket);
+
+        migracao.processar("{\"bucket\": " + bucket + ", \"destino\": " + destino + "}");
+
+        assertEquals(destino, shards.shardDoCliente(movido));
+        assertEquals(doBucket, shards.clientesDoBucket(destino, bucket));
+        assertTrue(shards.clientesDoBucket(origem, bucket).isEmpty());
+        assertEquals(0, contar(origem, "SELECT COUNT(*) FROM planos_alimentares WHERE id = ?", planoId));
+        assertEquals(1, contar(destino, "SELECT COUNT(*) FROM planos_alimentares WHERE id = ?", planoId));
+        assertEquals(movido.toString(), clienteService.findById(movido).orElseThrow().getId());
+        // The plan id still points at the shard that allocated it; the lookup falls back to the others
+        PlanoAlimentarDto plano = planoAlimentarService.findById(planoId).orElseThrow();
+        assertEquals(movido.toString(), plano.getClienteId());
+        assertEquals(1, plano.getRefeicoes().size());
+        assertEquals(1, planoAlimentarService.findByCliente(movido).size());
+
+        // Item edits write through the connection of the shard the plan now lives on
+        ItemRefeicaoDto item = new ItemRefeicaoDto();
+        item.setAlimentoId(catalogo.snapshot().id(0));
+        item.setQuantidade(100.0);
+        Long refeicaoId = Long.parseLong(plano.getRefeicoes().get(0).getId());
+        planoAlimentarService.adicionarItem(planoId, refeicaoId, item).orElseThrow();
+        assertEquals(1, contar(destino, "SELECT COUNT(*) FROM itens_refeicao WHERE refeicao_id = ?", refeicaoId));
+    }
+
+    private boolean existe(int shard, Long id) {
+        return contar(shard, "SELECT COUNT(*) FROM clientes WHERE id = ?", id) > 0;
+    }
+
+    private long contar(int shard, String sql, Long id) {
+        return new JdbcTemplate(shards.fontes().shard(shard)).queryForObject(sql, Long.class, id);
+    }
+
+    private static ClienteDto cliente(int i) {
+        ClienteDto dto = new ClienteDto();
+        dto.setNome("Sharding " + i);
+        dto.setEmail("sharding" + i + "@teste.com");
+        dto.setTelefone("(11) 90000-00" + String.format("%02d", i));
+        dto.setDataNascimento(LocalDate.of(1990, 1, 1 + i));
+        dto.setGenero(Cliente.Genero.values()[i % Cliente.Genero.values().length]);
+        dto.setModalidade("Musculação");
+        dto.setObjetivo("Hipertrofia");
+        return dto;
+    }
+
+    private static PlanoAlimentarDto plano(Long clienteId) {
+        PlanoAlimentarDto dto = new PlanoAlimentarDto();
+        dto.setClienteId(clienteId.toString());
+        dto.setNome("Plano movido");
+        dto.setDataInicio(LocalDate.now());
+        RefeicaoDto refeicao = new RefeicaoDto();
+        refeicao.setNome("Almoço");
+        refeicao.setTipo(Refeicao.Tipo.values()[0]);
+        dto.getRefeicoes().add(refeicao);
+        return dto;
+    }
+}
@@ -183,7 +183,7 @@ export interface NotificacaoExame {
   id: string;
   exameId: string;
   clienteId: string;
-  tipo: 'RESULTADO_DISPONIVEL' | 'VALOR_ALTERADO' | 'EXAME_AGENDADO' | 'LEMBRETE_COLETA';
+  tipo: 'RESULTADO_DISPONIVEL' | 'VALOR_ALTERADO' | 'EXAME_AGENDADO' | 'LEMBRETE_COLETA' | 'AVALIACAO_AGENDADA' | 'REAVALIACAO_PENDENTE';
   titulo: string;
   mensagem: string;
   dataEnvio: string;
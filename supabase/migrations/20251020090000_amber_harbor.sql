@@ -0,0 +1,32 @@
+/*
+  # Create arquivos_exame table
+
+  1. New Tables
+    - `arquivos_exame`
+      - `id` (bigint, identity primary key)
+      - `exame_id` (text)
+      - `nome` (text)
+      - `tipo` (text)
+      - `content_type` (text)
+      - `tamanho` (bigint)
+      - `checksum` (char(64), hex SHA-256 of the stored blob)
+      - `data_upload` (timestamp)
+
+  2. Notes
+    - File contents are kept in the content-addressed attachment store,
+      not in the database; identical uploads share one blob.
+*/
+
+CREATE TABLE IF NOT EXISTS arquivos_exame (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  exame_id text NOT NULL,
+  nome varchar(255) NOT NULL,
+  tipo varchar(255) NOT NULL CHECK (tipo IN ('PDF', 'IMAGEM', 'DICOM', 'DOCUMENTO')),
+  content_type varchar(100),
+  tamanho bigint NOT NULL,
+  checksum varchar(64) NOT NULL,
+  data_upload timestamp NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_arquivos_exame_exame_id ON arquivos_exame(exame_id);
+CREATE INDEX IF NOT EXISTS idx_arquivos_exame_checksum ON arquivos_exame(checksum);
@@ -0,0 +1,77 @@
+/*
+  # Create avaliacoes_fisicas, exames and resultados_exame tables
+
+  1. New Tables
+    - `avaliacoes_fisicas`
+      - physical assessment of a client; anthropometry, body composition,
+        cardiovascular data and scheduling status
+    - `exames`
+      - lab exam requested for a client
+    - `resultados_exame`
+      - ordered result rows of an exam
+
+  2. Notes
+    - `versao` is the optimistic-lock version; rendered PDF reports are
+      cached by entity id + versao.
+*/
+
+CREATE TABLE IF NOT EXISTS avaliacoes_fisicas (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  cliente_id uuid NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+  data_avaliacao date NOT NULL,
+  tipo varchar(255) NOT NULL CHECK (tipo IN ('INICIAL', 'REAVALIACAO', 'CONTROLE')),
+  status varchar(255) NOT NULL DEFAULT 'AGENDADA' CHECK (status IN ('AGENDADA', 'REALIZADA', 'CANCELADA')),
+  peso double precision,
+  altura double precision,
+  imc double precision,
+  percentual_gordura double precision,
+  massa_gorda double precision,
+  massa_magra double precision,
+  massa_muscular double precision,
+  frequencia_cardiaca_repouso integer,
+  frequencia_cardiaca_maxima integer,
+  pressao_sistolica integer,
+  pressao_diastolica integer,
+  observacoes varchar(2000),
+  proxima_avaliacao date,
+  versao bigint NOT NULL DEFAULT 0,
+  created_at timestamp NOT NULL DEFAULT now(),
+  updated_at timestamp
+);
+
+CREATE INDEX IF NOT EXISTS idx_avaliacoes_fisicas_cliente_id ON avaliacoes_fisicas(cliente_id);
+CREATE INDEX IF NOT EXISTS idx_avaliacoes_fisicas_status ON avaliacoes_fisicas(status);
+
+CREATE TABLE IF NOT EXISTS exames (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  cliente_id uuid NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+  tipo_exame varchar(100) NOT NULL,
+  categoria varchar(100),
+  laboratorio varchar(100),
+  medico_solicitante varchar(150),
+  data_coleta timestamp NOT NULL,
+  data_resultado timestamp,
+  status varchar(255) NOT NULL DEFAULT 'SOLICITADO'
+    CHECK (status IN ('SOLICITADO', 'AGENDADO', 'COLETADO', 'PROCESSANDO', 'CONCLUIDO', 'CANCELADO', 'REAGENDADO')),
+  prioridade varchar(255) NOT NULL DEFAULT 'NORMAL' CHECK (prioridade IN ('BAIXA', 'NORMAL', 'ALTA', 'URGENTE')),
+  observacoes varchar(2000),
+  observacoes_medicas varchar(2000),
+  versao bigint NOT NULL DEFAULT 0,
+  created_at timestamp NOT NULL DEFAULT now(),
+  updated_at timestamp
+);
+
+CREATE INDEX IF NOT EXISTS idx_exames_cliente_id ON exames(cliente_id);
+CREATE INDEX IF NOT EXISTS idx_exames_status ON exames(status);
+
+CREATE TABLE IF NOT EXISTS resultados_exame (
+  exame_id bigint NOT NULL REFERENCES exames(id) ON DELETE CASCADE,
+  ordem integer NOT NULL,
+  parametro varchar(255) NOT NULL,
+  valor varchar(255) NOT NULL,
+  unidade varchar(255),
+  valor_referencia varchar(255),
+  status varchar(255) CHECK (status IN ('NORMAL', 'ALTERADO', 'CRITICO')),
+  observacao varchar(255),
+  PRIMARY KEY (exame_id, ordem)
+);
@@ -0,0 +1,34 @@
+/*
+  # Create notificacoes_exame table
+
+  1. New Tables
+    - `notificacoes_exame`
+      - `id` (bigint, identity primary key)
+      - `exame_id` (bigint)
+      - `cliente_id` (uuid)
+      - `destinatario` (text, email of the recipient user)
+      - `tipo` (text)
+      - `titulo` (text)
+      - `mensagem` (text)
+      - `lida` (boolean)
+      - `data_envio` (timestamp)
+
+  2. Notes
+    - New notifications are pushed to connected users over
+      GET /notificacoes/stream (Server-Sent Events).
+*/
+
+CREATE TABLE IF NOT EXISTS notificacoes_exame (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  exame_id bigint,
+  cliente_id uuid,
+  destinatario varchar(100) NOT NULL,
+  tipo varchar(255) NOT NULL
+    CHECK (tipo IN ('RESULTADO_DISPONIVEL', 'VALOR_ALTERADO', 'EXAME_AGENDADO', 'LEMBRETE_COLETA')),
+  titulo varchar(150) NOT NULL,
+  mensagem varchar(1000) NOT NULL,
+  lida boolean NOT NULL DEFAULT false,
+  data_envio timestamp NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_notificacoes_exame_destinatario ON notificacoes_exame(destinatario, data_envio);
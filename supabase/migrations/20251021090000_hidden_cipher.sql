@@ -0,0 +1,20 @@
+/*
+  # Widen encrypted health-data columns
+
+  1. Changed Columns
+    - `avaliacoes_fisicas.observacoes`, `exames.observacoes`,
+      `exames.observacoes_medicas` -> varchar(8192)
+    - `resultados_exame.valor`, `resultados_exame.observacao` -> varchar(1200)
+
+  2. Notes
+    - These columns now hold AES-GCM ciphertext written by the application,
+      formatted as `v<key version>:<base64 iv|ciphertext|tag>`.
+    - Existing plaintext rows stay readable and are rewritten in the
+      background by the re-encryption job.
+*/
+
+ALTER TABLE avaliacoes_fisicas ALTER COLUMN observacoes TYPE varchar(8192);
+ALTER TABLE exames ALTER COLUMN observacoes TYPE varchar(8192);
+ALTER TABLE exames ALTER COLUMN observacoes_medicas TYPE varchar(8192);
+ALTER TABLE resultados_exame ALTER COLUMN valor TYPE varchar(1200);
+ALTER TABLE resultados_exame ALTER COLUMN observacao TYPE varchar(1200);
@@ -0,0 +1,47 @@
+/*
+  # Create alimentos table
+
+  1. New Tables
+    - `alimentos`
+      - food catalog used when building meal plans; nutrient values are
+        per 100g, `porcao_padrao`/`unidade_padrao` give the default portion
+      - `codigo_barras` is unique when present
+      - `alergenos` is a comma-separated list
+
+  2. Notes
+    - The application serves searches from an in-memory copy of this table
+      that is rebuilt after writes; rows inserted directly (bulk imports)
+      show up after POST /alimentos/catalogo/recarregar.
+*/
+
+CREATE TABLE IF NOT EXISTS alimentos (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  nome varchar(200) NOT NULL,
+  categoria varchar(100) NOT NULL,
+  marca varchar(100),
+  codigo_barras varchar(50),
+  porcao_padrao double precision NOT NULL DEFAULT 100,
+  unidade_padrao varchar(20) NOT NULL DEFAULT 'g',
+  calorias double precision NOT NULL DEFAULT 0,
+  proteinas double precision NOT NULL DEFAULT 0,
+  carboidratos double precision NOT NULL DEFAULT 0,
+  gorduras double precision NOT NULL DEFAULT 0,
+  fibras double precision,
+  acucares double precision,
+  sodio double precision,
+  potassio double precision,
+  calcio double precision,
+  ferro double precision,
+  vitamina_c double precision,
+  vitamina_d double precision,
+  indice_glicemico integer,
+  alergenos varchar(500),
+  vegetariano boolean NOT NULL DEFAULT false,
+  vegano boolean NOT NULL DEFAULT false,
+  sem_gluten boolean NOT NULL DEFAULT false,
+  sem_lactose boolean NOT NULL DEFAULT false,
+  created_at timestamp NOT NULL DEFAULT now(),
+  updated_at timestamp
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_alimentos_codigo_barras ON alimentos(codigo_barras);
@@ -0,0 +1,71 @@
+/*
+  # Create planos_alimentares, refeicoes and itens_refeicao tables
+
+  1. New Tables
+    - `planos_alimentares`
+      - meal plan of a client with macro targets (`meta_*`) and running
+        totals (`total_*`)
+    - `refeicoes`
+      - meals of a plan, with their own running totals
+    - `itens_refeicao`
+      - ordered food items of a meal; `alimento_id` references `alimentos`
+
+  2. Notes
+    - Totals are maintained by the application: single-item edits apply a
+      delta, whole-plan saves recompute them.
+*/
+
+CREATE TABLE IF NOT EXISTS planos_alimentares (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  cliente_id uuid NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+  nome varchar(150) NOT NULL,
+  objetivo varchar(255) NOT NULL DEFAULT 'MANUTENCAO'
+    CHECK (objetivo IN ('PERDA_PESO', 'GANHO_PESO', 'MANUTENCAO', 'GANHO_MASSA', 'DEFINICAO', 'PERFORMANCE')),
+  data_inicio date NOT NULL,
+  data_fim date,
+  status varchar(255) NOT NULL DEFAULT 'ATIVO' CHECK (status IN ('ATIVO', 'INATIVO', 'PAUSADO', 'CONCLUIDO')),
+  meta_calorias double precision,
+  meta_proteinas double precision,
+  meta_carboidratos double precision,
+  meta_gorduras double precision,
+  meta_fibras double precision,
+  total_calorias double precision,
+  total_proteinas double precision,
+  total_carboidratos double precision,
+  total_gorduras double precision,
+  total_fibras double precision,
+  observacoes varchar(2000),
+  versao bigint NOT NULL DEFAULT 0,
+  created_at timestamp NOT NULL DEFAULT now(),
+  updated_at timestamp
+);
+
+CREATE INDEX IF NOT EXISTS idx_planos_alimentares_cliente_id ON planos_alimentares(cliente_id);
+
+CREATE TABLE IF NOT EXISTS refeicoes (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  plano_id bigint NOT NULL REFERENCES planos_alimentares(id) ON DELETE CASCADE,
+  nome varchar(100) NOT NULL,
+  tipo varchar(255) NOT NULL
+    CHECK (tipo IN ('CAFE_MANHA', 'LANCHE_MANHA', 'ALMOCO', 'LANCHE_TARDE', 'JANTAR', 'CEIA', 'PRE_TREINO', 'POS_TREINO')),
+  horario time,
+  ordem integer NOT NULL DEFAULT 0,
+  total_calorias double precision,
+  total_proteinas double precision,
+  total_carboidratos double precision,
+  total_gorduras double precision,
+  total_fibras double precision,
+  observacoes varchar(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_refeicoes_plano_id ON refeicoes(plano_id);
+
+CREATE TABLE IF NOT EXISTS itens_refeicao (
+  refeicao_id bigint NOT NULL REFERENCES refeicoes(id) ON DELETE CASCADE,
+  ordem integer NOT NULL,
+  alimento_id bigint NOT NULL REFERENCES alimentos(id),
+  quantidade double precision NOT NULL,
+  unidade varchar(20) NOT NULL DEFAULT 'g',
+  observacoes varchar(255),
+  PRIMARY KEY (refeicao_id, ordem)
+);
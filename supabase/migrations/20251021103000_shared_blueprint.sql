@@ -0,0 +1,43 @@
+/*
+  # Personalized protocols derived from templates
+
+  1. Changes to `protocolos`
+    - `protocolo_base_id` (uuid, references `protocolos`): template a
+      `PERSONALIZADO` protocol was derived from
+    - `versao_base` (bigint): template version at derivation time
+    - `versao` (bigint): optimistic locking version
+    - `descricao`, `nivel`, `duracao_semanas` and `objetivo` become nullable;
+      they may only be null on derived rows
+
+  2. Notes
+    - Derived rows are copy-on-write: a null content column (including
+      `exercicios`, `anexos` and `links`) means the value is read from the
+      template. The application copies shared values down before a template
+      is deleted, so the foreign key has no ON DELETE action.
+    - `PRE_DEFINIDO` rows are served from an in-memory catalog that is
+      rebuilt on template edits and when `count`/`max(updated_at)` of the
+      templates changes.
+*/
+
+ALTER TABLE protocolos ADD COLUMN IF NOT EXISTS protocolo_base_id uuid REFERENCES protocolos(id);
+ALTER TABLE protocolos ADD COLUMN IF NOT EXISTS versao_base bigint;
+ALTER TABLE protocolos ADD COLUMN IF NOT EXISTS versao bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE protocolos ALTER COLUMN descricao DROP NOT NULL;
+ALTER TABLE protocolos ALTER COLUMN nivel DROP NOT NULL;
+ALTER TABLE protocolos ALTER COLUMN duracao_semanas DROP NOT NULL;
+ALTER TABLE protocolos ALTER COLUMN objetivo DROP NOT NULL;
+ALTER TABLE protocolos ALTER COLUMN exercicios DROP DEFAULT;
+ALTER TABLE protocolos ALTER COLUMN anexos DROP DEFAULT;
+ALTER TABLE protocolos ALTER COLUMN links DROP DEFAULT;
+
+ALTER TABLE protocolos ADD CONSTRAINT protocolos_derivado_personalizado
+  CHECK (protocolo_base_id IS NULL OR tipo = 'PERSONALIZADO');
+
+ALTER TABLE protocolos ADD CONSTRAINT protocolos_conteudo_completo
+  CHECK (protocolo_base_id IS NOT NULL OR (
+    descricao IS NOT NULL AND nivel IS NOT NULL AND duracao_semanas IS NOT NULL AND objetivo IS NOT NULL
+  ));
+
+CREATE INDEX IF NOT EXISTS idx_protocolos_tipo ON protocolos(tipo);
+CREATE INDEX IF NOT EXISTS idx_protocolos_protocolo_base_id ON protocolos(protocolo_base_id);
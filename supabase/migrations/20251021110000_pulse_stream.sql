@@ -0,0 +1,46 @@
+/*
+  # Create sessoes_frequencia_cardiaca and blocos_frequencia_cardiaca tables
+
+  1. New Tables
+    - `sessoes_frequencia_cardiaca`
+      - one heart-rate strap recording of a client, `ATIVA` while samples
+        are still arriving
+    - `blocos_frequencia_cardiaca`
+      - runs of consecutive samples of a session; `dados` holds them
+        delta/varint-encoded, the other columns summarize them
+        (`inicio_ms`/`fim_ms` are epoch milliseconds of the first and last
+        sample, `duracao_ms` the time covered between them)
+
+  2. Notes
+    - There is no row per sample. Session totals and most zone-time
+      queries are answered from the summary columns alone.
+*/
+
+CREATE TABLE IF NOT EXISTS sessoes_frequencia_cardiaca (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  cliente_id uuid NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+  dispositivo varchar(100),
+  status varchar(255) NOT NULL DEFAULT 'ATIVA' CHECK (status IN ('ATIVA', 'ENCERRADA')),
+  encerrada_em timestamp,
+  created_at timestamp NOT NULL DEFAULT now(),
+  updated_at timestamp
+);
+
+CREATE INDEX IF NOT EXISTS idx_sessoes_frequencia_cardiaca_cliente_id ON sessoes_frequencia_cardiaca(cliente_id);
+
+CREATE TABLE IF NOT EXISTS blocos_frequencia_cardiaca (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  sessao_id bigint NOT NULL REFERENCES sessoes_frequencia_cardiaca(id) ON DELETE CASCADE,
+  inicio_ms bigint NOT NULL,
+  fim_ms bigint NOT NULL,
+  quantidade integer NOT NULL CHECK (quantidade > 0),
+  bpm_minimo integer NOT NULL,
+  bpm_maximo integer NOT NULL,
+  soma_bpm bigint NOT NULL,
+  ultimo_bpm integer NOT NULL,
+  duracao_ms bigint NOT NULL,
+  dados bytea NOT NULL,
+  created_at timestamp NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_blocos_frequencia_cardiaca_sessao ON blocos_frequencia_cardiaca(sessao_id, inicio_ms);
@@ -0,0 +1,50 @@
+/*
+  # Reassessment reminders
+
+  1. New Tables
+    - `lembretes_avaliacao`
+      - one row per reminder that has fired: `AVALIACAO_AGENDADA` ahead of
+        an `AGENDADA` assessment, `REAVALIACAO` on the `proxima_avaliacao`
+        date of a client's latest `REALIZADA` assessment
+      - unique on (`avaliacao_id`, `tipo`, `vence_em`), so a reminder fires
+        once even if two instances run the schedule at the same time
+    - `leases_agendador`
+      - time-limited ownership of background jobs; the instance holding
+        `agenda-reavaliacoes` runs the reminder schedule
+
+  2. Changes
+    - `notificacoes_exame.tipo` accepts `AVALIACAO_AGENDADA` and
+      `REAVALIACAO_PENDENTE`
+    - indexes on `avaliacoes_fisicas` for the scheduler's range queries
+
+  3. Notes
+    - The scheduler only reads reminders due within its near-term window,
+      so these queries stay cheap however many clients there are.
+*/
+
+CREATE TABLE IF NOT EXISTS lembretes_avaliacao (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  avaliacao_id bigint NOT NULL REFERENCES avaliacoes_fisicas(id) ON DELETE CASCADE,
+  cliente_id uuid NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+  tipo varchar(255) NOT NULL CHECK (tipo IN ('AVALIACAO_AGENDADA', 'REAVALIACAO')),
+  vence_em timestamp NOT NULL,
+  instancia varchar(100),
+  disparado_em timestamp NOT NULL DEFAULT now(),
+  CONSTRAINT uk_lembretes_avaliacao UNIQUE (avaliacao_id, tipo, vence_em)
+);
+
+CREATE INDEX IF NOT EXISTS idx_lembretes_avaliacao_vence_em ON lembretes_avaliacao(vence_em);
+
+CREATE TABLE IF NOT EXISTS leases_agendador (
+  nome varchar(100) PRIMARY KEY,
+  dono varchar(100) NOT NULL,
+  expira_em timestamp NOT NULL
+);
+
+ALTER TABLE notificacoes_exame DROP CONSTRAINT IF EXISTS notificacoes_exame_tipo_check;
+ALTER TABLE notificacoes_exame ADD CONSTRAINT notificacoes_exame_tipo_check
+  CHECK (tipo IN ('RESULTADO_DISPONIVEL', 'VALOR_ALTERADO', 'EXAME_AGENDADO', 'LEMBRETE_COLETA',
+                  'AVALIACAO_AGENDADA', 'REAVALIACAO_PENDENTE'));
+
+CREATE INDEX IF NOT EXISTS idx_avaliacoes_fisicas_status_data ON avaliacoes_fisicas(status, data_avaliacao);
+CREATE INDEX IF NOT EXISTS idx_avaliacoes_fisicas_proxima ON avaliacoes_fisicas(proxima_avaliacao);
@@ -0,0 +1,41 @@
+/*
+  # Create tarefas table (background job queue)
+
+  1. New Tables
+    - `tarefas`
+      - one row per background job; `payload` is JSON for the job type's
+        processor
+      - `status` moves PENDENTE -> EM_EXECUCAO -> CONCLUIDA, or back to
+        PENDENTE with a later `executar_apos` on a retry, or to FALHOU once
+        `max_tentativas` is used up
+      - `bloqueado_ate` and `dono` describe the current claim (visibility
+        timeout and claiming instance)
+
+  2. Notes
+    - Workers claim with `SELECT ... FOR UPDATE SKIP LOCKED`, ordered by
+      `prioridade DESC, executar_apos`; the partial index covers exactly
+      the rows that can be claimed.
+    - CONCLUIDA rows are deleted after `jobs.retention-days`.
+*/
+
+CREATE TABLE IF NOT EXISTS tarefas (
+  id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  tipo varchar(100) NOT NULL,
+  payload varchar(10000) NOT NULL,
+  status varchar(255) NOT NULL DEFAULT 'PENDENTE' CHECK (status IN ('PENDENTE', 'EM_EXECUCAO', 'CONCLUIDA', 'FALHOU')),
+  prioridade integer NOT NULL DEFAULT 0,
+  tentativas integer NOT NULL DEFAULT 0,
+  max_tentativas integer NOT NULL,
+  executar_apos timestamp NOT NULL DEFAULT now(),
+  bloqueado_ate timestamp,
+  dono varchar(100),
+  ultimo_erro varchar(1000),
+  created_at timestamp NOT NULL DEFAULT now(),
+  iniciado_em timestamp,
+  concluido_em timestamp
+);
+
+CREATE INDEX IF NOT EXISTS idx_tarefas_fila ON tarefas(tipo, status, prioridade, executar_apos);
+CREATE INDEX IF NOT EXISTS idx_tarefas_reservaveis ON tarefas(tipo, prioridade DESC, executar_apos, id)
+  WHERE status IN ('PENDENTE', 'EM_EXECUCAO');
+CREATE INDEX IF NOT EXISTS idx_tarefas_concluido_em ON tarefas(concluido_em);
@@ -0,0 +1,29 @@
+/*
+  # Create shard map and shared id sequence (client sharding)
+
+  1. New Tables
+    - `shard_buckets`
+      - owner shard of each of the fixed hash buckets client ids fall into
+      - `destino` is set while the bucket is being copied to another shard;
+        its clients are read-only until the copy flips `shard`
+    - `sequencias_id`
+      - next free value of a sequence shared by all shards; client ids are
+        taken from it in blocks, before the insert, since they pick the shard
+
+  2. Notes
+    - Only read on shard 0, but harmless elsewhere: apply every migration to
+      every shard, which all need the full schema.
+    - Both tables are filled on first start with `sharding.enabled`.
+*/
+
+CREATE TABLE IF NOT EXISTS shard_buckets (
+  bucket integer PRIMARY KEY,
+  shard integer NOT NULL,
+  destino integer,
+  atualizado_em timestamp NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS sequencias_id (
+  nome varchar(100) PRIMARY KEY,
+  proximo bigint NOT NULL
+);
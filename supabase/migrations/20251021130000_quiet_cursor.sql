@@ -0,0 +1,34 @@
+/*
+  # Client change feed (delta sync)
+
+  1. Changes
+    - `clientes.sequencia_alteracao`
+      - taken from `clientes_alteracao_seq` on every insert and update; breaks
+        ties between changes with the same `updated_at` so the feed cursor
+        never skips or repeats a change
+      - existing rows are numbered once here
+
+  2. New Tables
+    - `clientes_removidos`
+      - tombstone per deleted client, numbered from the same sequence
+      - purged after `feed.tombstone-retention-days`
+
+  3. Notes
+    - Both feed queries read (timestamp, sequence) ranges, hence the indexes.
+*/
+
+CREATE SEQUENCE IF NOT EXISTS clientes_alteracao_seq START WITH 1 INCREMENT BY 1;
+
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS sequencia_alteracao bigint;
+
+UPDATE clientes SET sequencia_alteracao = nextval('clientes_alteracao_seq') WHERE sequencia_alteracao IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_clientes_alteracoes ON clientes (updated_at, sequencia_alteracao);
+
+CREATE TABLE IF NOT EXISTS clientes_removidos (
+  sequencia bigint PRIMARY KEY,
+  cliente_id bigint NOT NULL,
+  removido_em timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_clientes_removidos_alteracoes ON clientes_removidos (removido_em, sequencia);
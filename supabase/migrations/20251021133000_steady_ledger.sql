@@ -0,0 +1,15 @@
+/*
+  # Analytics snapshot refresh
+
+  1. Changes
+    - index on `avaliacoes_fisicas.updated_at`
+
+  2. Notes
+    - The cohort analytics snapshot is refreshed incrementally: every few
+      minutes it re-reads the clients and assessments changed since the
+      previous refresh. Clients already have `idx_clientes_alteracoes`
+      (leading `updated_at`); assessments get the same here, so the
+      refresh does not scan the whole table.
+*/
+
+CREATE INDEX IF NOT EXISTS idx_avaliacoes_fisicas_updated_at ON avaliacoes_fisicas (updated_at);
@@ -0,0 +1,66 @@
+/*
+  # Time-ordered UUID keys
+
+  1. New Functions
+    - `uuid_v7()`: a version 7 UUID (RFC 9562) for the current time, for
+      rows inserted outside the application
+    - `uuid_v7_legado(ms, id)`: the version 7 UUID standing for an existing
+      numeric id, with `ms` the row's epoch milliseconds; the same input
+      always gives the same UUID, and the UUIDs sort by (`ms`, `id`)
+
+  2. Changes
+    - `users.id` and `protocolos.id` default to `uuid_v7()` instead of
+      `gen_random_uuid()`; existing ids are kept
+    - `blocos_frequencia_cardiaca.id` becomes a uuid, existing rows mapped
+      with `uuid_v7_legado(inicio_ms, id)`
+
+  3. Notes
+    - The application now makes these ids itself (UUIDv7, see
+      `GeradorUuidV7`) before the insert, so Hibernate batches the inserts
+      of a flush; an identity column needs one round trip per row to learn
+      the id. New keys sort after older ones and go to the right edge of
+      the primary key index rather than random pages.
+    - Heart-rate chunk ids are never exposed, so nothing outside the table
+      refers to the old numeric ones. A table whose numeric ids are
+      referenced converts the foreign key columns with the same
+      `uuid_v7_legado` expression, joined to the referenced row for `ms`.
+    - Client ids stay numeric: they choose the client's shard and key the
+      in-memory indexes.
+*/
+
+CREATE OR REPLACE FUNCTION uuid_v7() RETURNS uuid AS $$
+DECLARE
+  bytes bytea := uuid_send(gen_random_uuid());
+BEGIN
+  bytes := overlay(bytes PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3) FROM 1 FOR 6);
+  -- Version 7; the variant bits are already those of gen_random_uuid
+  bytes := set_byte(bytes, 6, (get_byte(bytes, 6) & 15) | 112);
+  RETURN encode(bytes, 'hex')::uuid;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+CREATE OR REPLACE FUNCTION uuid_v7_legado(ms bigint, id bigint) RETURNS uuid AS $$
+  SELECT encode(
+    substring(int8send(ms) FROM 3)
+      || '\x7000'::bytea
+      || set_byte(int8send(id), 0, (get_byte(int8send(id), 0) & 63) | 128),
+    'hex')::uuid
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_v7();
+ALTER TABLE protocolos ALTER COLUMN id SET DEFAULT uuid_v7();
+
+DO $$
+BEGIN
+  IF (SELECT data_type FROM information_schema.columns
+      WHERE table_name = 'blocos_frequencia_cardiaca' AND column_name = 'id') = 'bigint' THEN
+    ALTER TABLE blocos_frequencia_cardiaca ADD COLUMN id_uuid uuid;
+    UPDATE blocos_frequencia_cardiaca SET id_uuid = uuid_v7_legado(inicio_ms, id);
+    ALTER TABLE blocos_frequencia_cardiaca DROP CONSTRAINT blocos_frequencia_cardiaca_pkey;
+    ALTER TABLE blocos_frequencia_cardiaca DROP COLUMN id;
+    ALTER TABLE blocos_frequencia_cardiaca RENAME COLUMN id_uuid TO id;
+    ALTER TABLE blocos_frequencia_cardiaca ALTER COLUMN id SET DEFAULT uuid_v7();
+    ALTER TABLE blocos_frequencia_cardiaca ADD PRIMARY KEY (id);
+  END IF;
+END
+$$;
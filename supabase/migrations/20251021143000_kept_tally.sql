@@ -0,0 +1,21 @@
+/*
+  # Stored meal item contributions
+
+  1. Changes
+    - `itens_refeicao` gets `contrib_calorias`, `contrib_proteinas`,
+      `contrib_carboidratos`, `contrib_gorduras` and `contrib_fibras`: what
+      the item added to its meal's totals when it was last counted
+
+  2. Notes
+    - Editing or removing a single item subtracts the stored contribution
+      rather than one recomputed from the food's current nutrients, which
+      left the totals off whenever the food had been edited since.
+    - Existing rows stay null and fall back to the recomputed value until
+      their plan is saved or recalculated.
+*/
+
+ALTER TABLE itens_refeicao ADD COLUMN IF NOT EXISTS contrib_calorias double precision;
+ALTER TABLE itens_refeicao ADD COLUMN IF NOT EXISTS contrib_proteinas double precision;
+ALTER TABLE itens_refeicao ADD COLUMN IF NOT EXISTS contrib_carboidratos double precision;
+ALTER TABLE itens_refeicao ADD COLUMN IF NOT EXISTS contrib_gorduras double precision;
+ALTER TABLE itens_refeicao ADD COLUMN IF NOT EXISTS contrib_fibras double precision;